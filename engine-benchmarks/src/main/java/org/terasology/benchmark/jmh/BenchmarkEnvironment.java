@@ -0,0 +1,136 @@
+/*
+ * Copyright 2015 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.benchmark.jmh;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.terasology.HeadlessEnvironment;
+import org.terasology.assets.management.AssetManager;
+import org.terasology.engine.SimpleUri;
+import org.terasology.engine.TerasologyConstants;
+import org.terasology.engine.bootstrap.EntitySystemSetupUtil;
+import org.terasology.engine.module.ModuleManager;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.module.DependencyResolver;
+import org.terasology.module.ModuleEnvironment;
+import org.terasology.module.ModuleLoader;
+import org.terasology.module.ModulePathScanner;
+import org.terasology.module.ResolutionResult;
+import org.terasology.naming.Name;
+import org.terasology.persistence.typeHandling.TypeSerializationLibrary;
+import org.terasology.persistence.typeHandling.extensionTypes.BlockFamilyTypeHandler;
+import org.terasology.persistence.typeHandling.extensionTypes.BlockTypeHandler;
+import org.terasology.testUtil.ModuleManagerFactory;
+import org.terasology.world.biomes.BiomeManager;
+import org.terasology.world.biomes.BiomeRegistry;
+import org.terasology.world.block.Block;
+import org.terasology.world.block.BlockManager;
+import org.terasology.world.block.family.BlockFamily;
+import org.terasology.world.block.internal.BlockManagerImpl;
+import org.terasology.world.block.tiles.WorldAtlas;
+import org.terasology.world.chunks.Chunk;
+import org.terasology.world.chunks.internal.ChunkImpl;
+import org.terasology.world.generation.impl.EntityBufferImpl;
+import org.terasology.world.generator.UnresolvedWorldGeneratorException;
+import org.terasology.world.generator.WorldGenerator;
+import org.terasology.world.generator.internal.WorldGeneratorManager;
+import org.terasology.world.generator.plugin.DefaultWorldGeneratorPluginLibrary;
+import org.terasology.world.generator.plugin.WorldGeneratorPluginLibrary;
+import org.terasology.world.propagation.light.InternalLightProcessor;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * A headless environment for benchmarks. Unlike the plain {@link HeadlessEnvironment} it can load modules
+ * from the modules directory of the source tree (the system property {@value #MODULE_PATH_PROPERTY}),
+ * so content such as the world generators and blocks of the Core module is available. Blocks get their
+ * texture coordinates from a {@link BenchmarkWorldAtlas}, so they tessellate like in the game.
+ */
+public class BenchmarkEnvironment extends HeadlessEnvironment {
+
+    public static final String MODULE_PATH_PROPERTY = "terasology.benchmark.modulePath";
+
+    public static final SimpleUri PERLIN_GENERATOR = new SimpleUri("Core:facetedperlin");
+
+    private static final Logger logger = LoggerFactory.getLogger(BenchmarkEnvironment.class);
+
+    public BenchmarkEnvironment(Name... modules) {
+        super(modules);
+    }
+
+    @Override
+    protected void setupModuleManager(Set<Name> moduleNames) throws Exception {
+        ModuleManager moduleManager = ModuleManagerFactory.create();
+
+        Path modulePath = Paths.get(System.getProperty(MODULE_PATH_PROPERTY, "modules"));
+        ModulePathScanner scanner = new ModulePathScanner(new ModuleLoader(moduleManager.getModuleMetadataReader()));
+        scanner.getModuleLoader().setModuleInfoPath(TerasologyConstants.MODULE_INFO_FILENAME);
+        scanner.scan(moduleManager.getRegistry(), Collections.singletonList(modulePath));
+
+        ResolutionResult result = new DependencyResolver(moduleManager.getRegistry()).resolve(moduleNames);
+        if (!result.isSuccess()) {
+            throw new IllegalStateException("Could not resolve module dependencies for " + moduleNames + " in " + modulePath.toAbsolutePath());
+        }
+        ModuleEnvironment environment = moduleManager.loadEnvironment(result.getModules(), true);
+        logger.debug("Loaded modules: {}", environment.getModuleIdsOrderedByDependencies());
+
+        context.put(ModuleManager.class, moduleManager);
+
+        EntitySystemSetupUtil.addReflectionBasedLibraries(context);
+    }
+
+    @Override
+    protected void setupBlockManager(AssetManager assetManager) {
+        WorldAtlas worldAtlas = new BenchmarkWorldAtlas();
+        context.put(WorldAtlas.class, worldAtlas);
+        BlockManagerImpl blockManager = new BlockManagerImpl(worldAtlas, assetManager);
+        context.put(BlockManager.class, blockManager);
+        TypeSerializationLibrary typeSerializationLibrary = context.get(TypeSerializationLibrary.class);
+        typeSerializationLibrary.add(BlockFamily.class, new BlockFamilyTypeHandler(blockManager));
+        typeSerializationLibrary.add(Block.class, new BlockTypeHandler(blockManager));
+
+        // World generation needs biomes, which the game registers while loading a world
+        BiomeManager biomeManager = new BiomeManager(context.get(ModuleManager.class).getEnvironment());
+        context.put(BiomeManager.class, biomeManager);
+        context.put(BiomeRegistry.class, biomeManager);
+    }
+
+    /**
+     * Creates and initialises a world generator, the same way the game does when a world gets loaded.
+     */
+    public WorldGenerator createWorldGenerator(SimpleUri uri, String seed) throws UnresolvedWorldGeneratorException {
+        ModuleEnvironment environment = context.get(ModuleManager.class).getEnvironment();
+        context.put(WorldGeneratorPluginLibrary.class, new DefaultWorldGeneratorPluginLibrary(environment, context));
+
+        WorldGenerator generator = new WorldGeneratorManager(context).createWorldGenerator(uri, context, environment);
+        generator.setWorldSeed(seed);
+        generator.initialize();
+        return generator;
+    }
+
+    /**
+     * Generates a chunk and calculates its internal lighting, like the local chunk provider does for new chunks.
+     */
+    public Chunk generateChunk(WorldGenerator generator, Vector3i chunkPos) {
+        Chunk chunk = new ChunkImpl(chunkPos, context.get(BlockManager.class), context.get(BiomeManager.class));
+        generator.createChunk(chunk, new EntityBufferImpl());
+        InternalLightProcessor.generateInternalLighting(chunk);
+        return chunk;
+    }
+}
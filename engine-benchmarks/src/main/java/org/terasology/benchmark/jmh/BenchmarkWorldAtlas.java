@@ -0,0 +1,81 @@
+/*
+ * Copyright 2015 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.benchmark.jmh;
+
+import com.google.common.collect.Maps;
+import org.terasology.assets.ResourceUrn;
+import org.terasology.math.geom.Vector2f;
+import org.terasology.world.block.tiles.BlockTile;
+import org.terasology.world.block.tiles.WorldAtlas;
+
+import java.util.Map;
+
+/**
+ * A world atlas without any texture data, which still gives every tile its own place in the atlas. Unlike the
+ * {@link org.terasology.world.block.tiles.NullWorldAtlas}, this results in the same texture coordinates and face
+ * merging during tessellation as with the atlas of the game.
+ */
+class BenchmarkWorldAtlas implements WorldAtlas {
+
+    private static final int TILE_SIZE = 16;
+    private static final int TILES_PER_DIM = 32;
+
+    private final Map<ResourceUrn, Vector2f> tileCoords = Maps.newHashMap();
+
+    @Override
+    public void update() {
+    }
+
+    @Override
+    public void dispose() {
+    }
+
+    @Override
+    public int getTileSize() {
+        return TILE_SIZE;
+    }
+
+    @Override
+    public int getAtlasSize() {
+        return TILE_SIZE * TILES_PER_DIM;
+    }
+
+    @Override
+    public float getRelativeTileSize() {
+        return 1.0f / TILES_PER_DIM;
+    }
+
+    @Override
+    public int getNumMipmaps() {
+        return 1;
+    }
+
+    @Override
+    public Vector2f getTexCoords(BlockTile tile, boolean warnOnError) {
+        return getTexCoords(tile.getUrn(), warnOnError);
+    }
+
+    @Override
+    public synchronized Vector2f getTexCoords(ResourceUrn uri, boolean warnOnError) {
+        Vector2f coords = tileCoords.get(uri);
+        if (coords == null) {
+            int id = tileCoords.size();
+            coords = new Vector2f((id % TILES_PER_DIM) * getRelativeTileSize(), (id / TILES_PER_DIM) * getRelativeTileSize());
+            tileCoords.put(uri, coords);
+        }
+        return new Vector2f(coords);
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2015 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.benchmark.jmh;
+
+import com.google.common.collect.Lists;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.naming.Name;
+import org.terasology.persistence.internal.ChunkCodec;
+import org.terasology.persistence.internal.ChunkDictionaryTrainer;
+import org.terasology.persistence.internal.DeflateChunkCodec;
+import org.terasology.persistence.internal.GzipChunkCodec;
+import org.terasology.world.chunks.Chunk;
+import org.terasology.world.generator.WorldGenerator;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compresses and decompresses a generated surface chunk like it gets done when storing chunks. The dictionary
+ * codec gets trained on other chunks of the same world. The compression ratio gets logged during the setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class ChunkCodecBenchmark {
+    private static final Logger logger = LoggerFactory.getLogger(ChunkCodecBenchmark.class);
+    private static final int TRAINING_CHUNKS_PER_AXIS = 6;
+
+    @Param({"gzip", "dictionary"})
+    private String codecName;
+
+    private BenchmarkEnvironment environment;
+    private ChunkCodec codec;
+    private byte[] encodedChunk;
+    private byte[] compressedChunk;
+
+    @Setup
+    public void setup() throws Exception {
+        environment = new BenchmarkEnvironment(new Name("engine"), new Name("Core"));
+        WorldGenerator generator = environment.createWorldGenerator(BenchmarkEnvironment.PERLIN_GENERATOR, "benchmark");
+
+        encodedChunk = encode(environment.generateChunk(generator, Vector3i.zero()));
+        if ("dictionary".equals(codecName)) {
+            List<byte[]> samples = Lists.newArrayList();
+            for (int x = 1; x <= TRAINING_CHUNKS_PER_AXIS; x++) {
+                for (int z = 1; z <= TRAINING_CHUNKS_PER_AXIS; z++) {
+                    samples.add(encode(environment.generateChunk(generator, new Vector3i(x, 0, z))));
+                }
+            }
+            codec = new DeflateChunkCodec(ChunkDictionaryTrainer.train(samples));
+        } else {
+            codec = new GzipChunkCodec();
+        }
+        compressedChunk = codec.compress(encodedChunk);
+        logger.info("{}: {} bytes compressed to {}, ratio {}", codecName, encodedChunk.length, compressedChunk.length,
+                (float) encodedChunk.length / compressedChunk.length);
+    }
+
+    private static byte[] encode(Chunk chunk) {
+        chunk.deflate();
+        return chunk.encode().build().toByteArray();
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        environment.close();
+    }
+
+    @Benchmark
+    public byte[] compress() {
+        return codec.compress(encodedChunk);
+    }
+
+    @Benchmark
+    public byte[] decompress() throws IOException {
+        return codec.decompress(compressedChunk);
+    }
+}
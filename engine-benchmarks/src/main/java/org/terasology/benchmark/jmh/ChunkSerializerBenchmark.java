@@ -0,0 +1,83 @@
+/*
+ * Copyright 2015 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.benchmark.jmh;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.naming.Name;
+import org.terasology.protobuf.EntityData;
+import org.terasology.world.biomes.BiomeManager;
+import org.terasology.world.block.BlockManager;
+import org.terasology.world.chunks.Chunk;
+import org.terasology.world.chunks.internal.ChunkSerializer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encodes and decodes a generated surface chunk with the {@link ChunkSerializer}, as done when storing
+ * chunks and sending them to clients.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class ChunkSerializerBenchmark {
+
+    private BenchmarkEnvironment environment;
+    private BlockManager blockManager;
+    private BiomeManager biomeManager;
+    private Chunk chunk;
+    private EntityData.ChunkStore encodedChunk;
+
+    @Setup
+    public void setup() throws Exception {
+        environment = new BenchmarkEnvironment(new Name("engine"), new Name("Core"));
+        blockManager = environment.getContext().get(BlockManager.class);
+        biomeManager = environment.getContext().get(BiomeManager.class);
+
+        chunk = environment.generateChunk(environment.createWorldGenerator(BenchmarkEnvironment.PERLIN_GENERATOR, "benchmark"),
+                Vector3i.zero());
+        chunk.deflate();
+        encodedChunk = chunk.encode().build();
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        environment.close();
+    }
+
+    @Benchmark
+    public EntityData.ChunkStore encode() {
+        return chunk.encode().build();
+    }
+
+    @Benchmark
+    public Chunk decode() {
+        return ChunkSerializer.decode(encodedChunk, blockManager, biomeManager);
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2015 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.benchmark.jmh;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.terasology.engine.subsystem.lwjgl.GLBufferPool;
+import org.terasology.math.Region3i;
+import org.terasology.math.TeraMath;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.naming.Name;
+import org.terasology.rendering.primitives.ChunkMesh;
+import org.terasology.rendering.primitives.ChunkTessellator;
+import org.terasology.world.ChunkView;
+import org.terasology.world.block.BlockManager;
+import org.terasology.world.block.tiles.WorldAtlas;
+import org.terasology.world.chunks.Chunk;
+import org.terasology.world.chunks.ChunkConstants;
+import org.terasology.world.generator.WorldGenerator;
+import org.terasology.world.internal.ChunkViewCoreImpl;
+import org.terasology.world.internal.PaddedChunkSnapshot;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tessellates a generated surface chunk, including taking the snapshot of it and its neighbours, the way the
+ * chunk mesh update manager does. Only the vertex data gets built; nothing is uploaded, so no display is needed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class ChunkTessellationBenchmark {
+
+    @Param({"false", "true"})
+    public boolean greedyMeshing;
+
+    private BenchmarkEnvironment environment;
+    private ChunkView chunkView;
+    private ChunkTessellator tessellator;
+
+    @Setup
+    public void setup() throws Exception {
+        environment = new BenchmarkEnvironment(new Name("engine"), new Name("Core"));
+        WorldGenerator generator = environment.createWorldGenerator(BenchmarkEnvironment.PERLIN_GENERATOR, "benchmark");
+
+        Region3i region = Region3i.createFromCenterExtents(Vector3i.zero(), ChunkConstants.LOCAL_REGION_EXTENTS);
+        Chunk[] chunks = new Chunk[region.sizeX() * region.sizeY() * region.sizeZ()];
+        for (Vector3i chunkPos : region) {
+            Chunk chunk = environment.generateChunk(generator, chunkPos);
+            chunkPos.sub(region.minX(), region.minY(), region.minZ());
+            chunks[TeraMath.calculate3DArrayIndex(chunkPos, region.size())] = chunk;
+        }
+        BlockManager blockManager = environment.getContext().get(BlockManager.class);
+        chunkView = new ChunkViewCoreImpl(chunks, region, Vector3i.one(), blockManager.getBlock(BlockManager.AIR_ID));
+
+        GLBufferPool bufferPool = new GLBufferPool(false);
+        tessellator = greedyMeshing
+                ? new ChunkTessellator(bufferPool, environment.getContext().get(WorldAtlas.class).getRelativeTileSize())
+                : new ChunkTessellator(bufferPool);
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        environment.close();
+    }
+
+    @Benchmark
+    public ChunkMesh tessellate() {
+        PaddedChunkSnapshot snapshot;
+        chunkView.readLock();
+        try {
+            snapshot = PaddedChunkSnapshot.of(chunkView);
+        } finally {
+            chunkView.readUnlock();
+        }
+        return tessellator.generateMesh(snapshot, ChunkConstants.SIZE_Y, 0);
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright 2015 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.benchmark.jmh;
+
+import com.google.common.collect.Lists;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.terasology.HeadlessEnvironment;
+import org.terasology.config.Config;
+import org.terasology.engine.bootstrap.EntitySystemSetupUtil;
+import org.terasology.entitySystem.entity.EntityManager;
+import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.entitySystem.stubs.IntegerComponent;
+import org.terasology.entitySystem.stubs.StringComponent;
+import org.terasology.logic.location.LocationComponent;
+import org.terasology.math.geom.Vector3f;
+import org.terasology.naming.Name;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Queries entities by their components, with both the map based and the archetype based component storage.
+ * All entities have a location, every fourth a {@link StringComponent} and every sixteenth both that and an
+ * {@link IntegerComponent}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class EntityQueryBenchmark {
+
+    @Param({"false", "true"})
+    public boolean archetypeStorage;
+
+    @Param({"10000"})
+    public int entityCount;
+
+    private HeadlessEnvironment environment;
+    private EntityManager entityManager;
+    private List<EntityRef> entities = Lists.newArrayList();
+
+    @Setup
+    public void setup() throws Exception {
+        environment = new HeadlessEnvironment(new Name("engine"));
+        environment.getContext().get(Config.class).getSystem().setArchetypeEntityStorageEnabled(archetypeStorage);
+        // Recreate the entity system, so it picks up the storage setting
+        EntitySystemSetupUtil.addEntityManagementRelatedClasses(environment.getContext());
+        entityManager = environment.getContext().get(EntityManager.class);
+
+        for (int i = 0; i < entityCount; i++) {
+            EntityRef entity = entityManager.create(new LocationComponent(new Vector3f(i, 0, -i)));
+            if (i % 4 == 0) {
+                entity.addComponent(new StringComponent("entity" + i));
+            }
+            if (i % 16 == 0) {
+                entity.addComponent(new IntegerComponent(i));
+            }
+            entities.add(entity);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        environment.close();
+    }
+
+    @Benchmark
+    public float iterateCommonComponent() {
+        float sum = 0;
+        for (EntityRef entity : entityManager.getEntitiesWith(LocationComponent.class)) {
+            sum += entity.getComponent(LocationComponent.class).getLocalPosition().x;
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int iterateRareComponents() {
+        int sum = 0;
+        for (EntityRef entity : entityManager.getEntitiesWith(StringComponent.class, IntegerComponent.class)) {
+            sum += entity.getComponent(IntegerComponent.class).value;
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int countRareComponents() {
+        return entityManager.getCountOfEntitiesWith(StringComponent.class, IntegerComponent.class);
+    }
+
+    @Benchmark
+    public int lookupComponents() {
+        int found = 0;
+        for (EntityRef entity : entities) {
+            if (entity.hasComponent(StringComponent.class)) {
+                found++;
+            }
+        }
+        return found;
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2015 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.benchmark.jmh;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.terasology.HeadlessEnvironment;
+import org.terasology.engine.SimpleUri;
+import org.terasology.entitySystem.entity.EntityManager;
+import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.entitySystem.event.Event;
+import org.terasology.entitySystem.event.EventPriority;
+import org.terasology.entitySystem.event.ReceiveEvent;
+import org.terasology.entitySystem.event.internal.EventSystem;
+import org.terasology.entitySystem.stubs.IntegerComponent;
+import org.terasology.entitySystem.stubs.StringComponent;
+import org.terasology.entitySystem.systems.BaseComponentSystem;
+import org.terasology.logic.location.LocationComponent;
+import org.terasology.math.geom.Vector3f;
+import org.terasology.naming.Name;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sends events to entities through the event system. One entity has components matching several handlers
+ * at different priorities, the other one matches none of them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class EventDispatchBenchmark {
+
+    private HeadlessEnvironment environment;
+    private CountingSystem system = new CountingSystem();
+    private EntityRef handledEntity;
+    private EntityRef unhandledEntity;
+
+    @Setup
+    public void setup() throws Exception {
+        environment = new HeadlessEnvironment(new Name("engine"));
+        EventSystem eventSystem = environment.getContext().get(EventSystem.class);
+        eventSystem.registerEvent(new SimpleUri("unittest:benchmarkEvent"), BenchmarkEvent.class);
+        eventSystem.registerEventHandler(system);
+
+        EntityManager entityManager = environment.getContext().get(EntityManager.class);
+        handledEntity = entityManager.create(new LocationComponent(new Vector3f()), new StringComponent("handled"), new IntegerComponent(1));
+        unhandledEntity = entityManager.create(new IntegerComponent(2));
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        environment.close();
+    }
+
+    @Benchmark
+    public int sendToHandledEntity() {
+        handledEntity.send(new BenchmarkEvent());
+        return system.count;
+    }
+
+    @Benchmark
+    public int sendToUnhandledEntity() {
+        unhandledEntity.send(new BenchmarkEvent());
+        return system.count;
+    }
+
+    public static class BenchmarkEvent implements Event {
+    }
+
+    public static class CountingSystem extends BaseComponentSystem {
+        private int count;
+
+        @ReceiveEvent(components = LocationComponent.class, priority = EventPriority.PRIORITY_HIGH)
+        public void onEventAtLocation(BenchmarkEvent event, EntityRef entity) {
+            count++;
+        }
+
+        @ReceiveEvent
+        public void onEventWithString(BenchmarkEvent event, EntityRef entity, StringComponent component) {
+            count += component.value.length();
+        }
+
+        @ReceiveEvent(components = {LocationComponent.class, StringComponent.class})
+        public void onEventWithLocationAndString(BenchmarkEvent event, EntityRef entity) {
+            count--;
+        }
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2015 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.benchmark.jmh;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.terasology.assets.ResourceUrn;
+import org.terasology.assets.management.AssetManager;
+import org.terasology.math.Region3i;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.naming.Name;
+import org.terasology.protobuf.EntityData;
+import org.terasology.world.biomes.BiomeManager;
+import org.terasology.world.block.Block;
+import org.terasology.world.block.BlockManager;
+import org.terasology.world.block.BlockUri;
+import org.terasology.world.block.family.SymmetricBlockFamilyFactory;
+import org.terasology.world.block.loader.BlockFamilyDefinition;
+import org.terasology.world.block.loader.BlockFamilyDefinitionData;
+import org.terasology.world.block.shapes.BlockShape;
+import org.terasology.world.chunks.Chunk;
+import org.terasology.world.chunks.ChunkConstants;
+import org.terasology.world.chunks.internal.ChunkSerializer;
+import org.terasology.world.propagation.BlockChange;
+import org.terasology.world.propagation.StandardBatchPropagator;
+import org.terasology.world.propagation.StubPropagatorWorldView;
+import org.terasology.world.propagation.light.InternalLightProcessor;
+import org.terasology.world.propagation.light.LightPropagationRules;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the internal lighting of a freshly generated chunk, and the propagation of a light source placed
+ * into an empty region.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class LightPropagationBenchmark {
+
+    private static final Region3i PROPAGATION_REGION = Region3i.createFromMinMax(
+            new Vector3i(-ChunkConstants.SIZE_X, -ChunkConstants.SIZE_Y, -ChunkConstants.SIZE_Z),
+            new Vector3i(2 * ChunkConstants.SIZE_X, 2 * ChunkConstants.SIZE_Y, 2 * ChunkConstants.SIZE_Z));
+
+    private BenchmarkEnvironment environment;
+    private BlockManager blockManager;
+    private BiomeManager biomeManager;
+    private EntityData.ChunkStore unlitChunk;
+    private Block air;
+    private Block light;
+    private LightPropagationRules lightRules = new LightPropagationRules();
+
+    private Chunk chunk;
+    private StubPropagatorWorldView worldView;
+
+    @Setup
+    public void setup() throws Exception {
+        environment = new BenchmarkEnvironment(new Name("engine"), new Name("Core"));
+        blockManager = environment.getContext().get(BlockManager.class);
+        biomeManager = environment.getContext().get(BiomeManager.class);
+
+        // The encoded form does not contain light, so every decoded copy still has to be lit
+        Chunk generated = environment.generateChunk(environment.createWorldGenerator(BenchmarkEnvironment.PERLIN_GENERATOR, "benchmark"),
+                Vector3i.zero());
+        unlitChunk = generated.encode().build();
+
+        AssetManager assetManager = environment.getContext().get(AssetManager.class);
+        BlockFamilyDefinitionData lightData = new BlockFamilyDefinitionData();
+        lightData.getBaseSection().setDisplayName("BenchmarkLight");
+        lightData.getBaseSection().setShape(assetManager.getAsset("engine:cube", BlockShape.class).get());
+        lightData.getBaseSection().setLuminance(ChunkConstants.MAX_LIGHT);
+        lightData.getBaseSection().setTranslucent(true);
+        lightData.setFamilyFactory(new SymmetricBlockFamilyFactory());
+        assetManager.loadAsset(new ResourceUrn("engine:benchmarkLight"), lightData, BlockFamilyDefinition.class);
+        light = blockManager.getBlock(new BlockUri(new ResourceUrn("engine:benchmarkLight")));
+        air = blockManager.getBlock(BlockManager.AIR_ID);
+    }
+
+    @Setup(Level.Invocation)
+    public void prepareInvocation() {
+        chunk = ChunkSerializer.decode(unlitChunk, blockManager, biomeManager);
+        worldView = new StubPropagatorWorldView(PROPAGATION_REGION, air);
+        worldView.setBlockAt(Vector3i.zero(), light);
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        environment.close();
+    }
+
+    @Benchmark
+    public Chunk internalLighting() {
+        InternalLightProcessor.generateInternalLighting(chunk);
+        return chunk;
+    }
+
+    @Benchmark
+    public StubPropagatorWorldView placeLight() {
+        new StandardBatchPropagator(lightRules, worldView).process(new BlockChange(Vector3i.zero(), air, light));
+        return worldView;
+    }
+}
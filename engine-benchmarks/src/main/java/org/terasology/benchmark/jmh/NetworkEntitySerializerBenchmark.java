@@ -0,0 +1,105 @@
+/*
+ * Copyright 2015 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.benchmark.jmh;
+
+import com.google.common.collect.Maps;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.terasology.HeadlessEnvironment;
+import org.terasology.entitySystem.Component;
+import org.terasology.entitySystem.entity.EntityBuilder;
+import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.entitySystem.entity.internal.EngineEntityManager;
+import org.terasology.entitySystem.metadata.ComponentMetadata;
+import org.terasology.entitySystem.stubs.IntegerComponent;
+import org.terasology.entitySystem.stubs.StringComponent;
+import org.terasology.logic.common.DisplayNameComponent;
+import org.terasology.logic.location.LocationComponent;
+import org.terasology.math.geom.Vector3f;
+import org.terasology.naming.Name;
+import org.terasology.persistence.serializers.FieldSerializeCheck;
+import org.terasology.persistence.serializers.NetworkEntitySerializer;
+import org.terasology.persistence.typeHandling.TypeSerializationLibrary;
+import org.terasology.protobuf.EntityData;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Packs and unpacks an entity with the {@link NetworkEntitySerializer}, as done when replicating entities to clients.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class NetworkEntitySerializerBenchmark {
+
+    private HeadlessEnvironment environment;
+    private EngineEntityManager entityManager;
+    private NetworkEntitySerializer serializer;
+    private FieldSerializeCheck<Component> fieldCheck = FieldSerializeCheck.NullCheck.newInstance();
+    private EntityRef entity;
+    private EntityData.PackedEntity packedEntity;
+
+    @Setup
+    public void setup() throws Exception {
+        environment = new HeadlessEnvironment(new Name("engine"));
+        entityManager = environment.getContext().get(EngineEntityManager.class);
+        serializer = new NetworkEntitySerializer(entityManager, entityManager.getComponentLibrary(),
+                environment.getContext().get(TypeSerializationLibrary.class));
+
+        Map<Class<? extends Component>, Integer> idMapping = Maps.newHashMap();
+        for (ComponentMetadata<?> metadata : entityManager.getComponentLibrary().iterateComponentMetadata()) {
+            idMapping.put(metadata.getType(), idMapping.size());
+        }
+        serializer.setIdMapping(idMapping);
+
+        DisplayNameComponent displayName = new DisplayNameComponent();
+        displayName.name = "Benchmark entity";
+        displayName.description = "An entity with a few components of different field types";
+        entity = entityManager.create(new LocationComponent(new Vector3f(1, 2, 3)), displayName,
+                new StringComponent("value"), new IntegerComponent(42));
+        packedEntity = serializer.serialize(entity, false, fieldCheck).build();
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        environment.close();
+    }
+
+    @Benchmark
+    public EntityData.PackedEntity serialize() {
+        return serializer.serialize(entity, false, fieldCheck).build();
+    }
+
+    @Benchmark
+    public EntityBuilder deserialize() {
+        EntityBuilder builder = entityManager.newBuilder();
+        serializer.deserializeOnto(builder, packedEntity, fieldCheck);
+        return builder;
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2015 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.benchmark.jmh;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.naming.Name;
+import org.terasology.world.biomes.BiomeManager;
+import org.terasology.world.block.BlockManager;
+import org.terasology.world.chunks.Chunk;
+import org.terasology.world.chunks.internal.ChunkImpl;
+import org.terasology.world.generation.impl.EntityBufferImpl;
+import org.terasology.world.generator.WorldGenerator;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Generates chunks with the Perlin world generator of the Core module. Every invocation generates a chunk
+ * at a new position, so the column facet cache only helps as much as it does while exploring a world.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class WorldGenerationBenchmark {
+
+    private BenchmarkEnvironment environment;
+    private WorldGenerator generator;
+    private BlockManager blockManager;
+    private BiomeManager biomeManager;
+    private int nextChunk;
+
+    @Setup
+    public void setup() throws Exception {
+        environment = new BenchmarkEnvironment(new Name("engine"), new Name("Core"));
+        generator = environment.createWorldGenerator(BenchmarkEnvironment.PERLIN_GENERATOR, "benchmark");
+        blockManager = environment.getContext().get(BlockManager.class);
+        biomeManager = environment.getContext().get(BiomeManager.class);
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        environment.close();
+    }
+
+    @Benchmark
+    public Chunk generateChunk() {
+        // Walk the surface in rows of 64 chunks, two chunks high
+        int index = nextChunk++;
+        Chunk chunk = new ChunkImpl(new Vector3i(index % 64, (index / 64) % 2, index / 128), blockManager, biomeManager);
+        generator.createChunk(chunk, new EntityBufferImpl());
+        return chunk;
+    }
+}
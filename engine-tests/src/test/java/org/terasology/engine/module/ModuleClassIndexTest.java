@@ -0,0 +1,96 @@
+/*
+ * Copyright 2015 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.engine.module;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.reflections.Reflections;
+import org.reflections.scanners.SubTypesScanner;
+import org.reflections.util.ConfigurationBuilder;
+import org.terasology.module.Module;
+import org.terasology.naming.Name;
+import org.terasology.naming.Version;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ModuleClassIndexTest {
+
+    private static final Version ENGINE_VERSION = new Version("0.54.0");
+    private static final String SUB_TYPES = SubTypesScanner.class.getSimpleName();
+    private static final String BASE_TYPE = "org.example.Base";
+    private static final String SUB_TYPE = "org.example.Sub";
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private Path indexPath;
+    private Module module;
+
+    @Before
+    public void setup() throws IOException {
+        indexPath = temporaryFolder.newFolder("index").toPath();
+        Path archive = temporaryFolder.newFile("module.jar").toPath();
+        Files.write(archive, new byte[]{1, 2, 3});
+
+        module = mock(Module.class);
+        when(module.getId()).thenReturn(new Name("test"));
+        when(module.getVersion()).thenReturn(new Version("1.0.0"));
+        when(module.getLocations()).thenReturn(ImmutableList.of(archive));
+        when(module.getReflectionsFragment()).thenAnswer(invocation -> scannedTypes());
+    }
+
+    @Test
+    public void storedIndexIsReadBack() {
+        new ModuleClassIndex(indexPath, ENGINE_VERSION).getIndex(module);
+        Reflections index = new ModuleClassIndex(indexPath, ENGINE_VERSION).getIndex(module);
+
+        verify(module, times(1)).getReflectionsFragment();
+        assertTrue(index.getStore().get(SUB_TYPES).get(BASE_TYPE).contains(SUB_TYPE));
+    }
+
+    @Test
+    public void indexOfAnotherEngineVersionIsNotReused() {
+        new ModuleClassIndex(indexPath, ENGINE_VERSION).getIndex(module);
+        new ModuleClassIndex(indexPath, new Version("0.55.0")).getIndex(module);
+
+        verify(module, times(2)).getReflectionsFragment();
+    }
+
+    @Test
+    public void indexOfAnotherFormatVersionIsNotReused() {
+        new ModuleClassIndex(indexPath, ENGINE_VERSION, ModuleClassIndex.FORMAT_VERSION).getIndex(module);
+        new ModuleClassIndex(indexPath, ENGINE_VERSION, ModuleClassIndex.FORMAT_VERSION + 1).getIndex(module);
+
+        verify(module, times(2)).getReflectionsFragment();
+    }
+
+    private static Reflections scannedTypes() {
+        Reflections reflections = new Reflections(new ConfigurationBuilder());
+        reflections.getStore().getOrCreate(SUB_TYPES).put(BASE_TYPE, SUB_TYPE);
+        return reflections;
+    }
+}
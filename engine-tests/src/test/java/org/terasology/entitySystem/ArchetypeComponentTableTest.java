@@ -0,0 +1,75 @@
+/*
+ * Copyright 2015 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.entitySystem;
+
+import com.google.common.collect.Lists;
+import org.junit.Before;
+import org.junit.Test;
+import org.terasology.entitySystem.entity.internal.ArchetypeComponentTable;
+import org.terasology.entitySystem.stubs.IntegerComponent;
+import org.terasology.entitySystem.stubs.StringComponent;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class ArchetypeComponentTableTest {
+
+    private ArchetypeComponentTable table;
+
+    @Before
+    public void setup() {
+        table = new ArchetypeComponentTable();
+    }
+
+    @Test
+    public void initialComponentsGetStoredAtOnce() {
+        IntegerComponent integer = new IntegerComponent(1);
+        StringComponent string = new StringComponent("a");
+        table.putAll(1, Lists.<Component>newArrayList(new IntegerComponent(0), string, integer));
+
+        assertSame(integer, table.get(1, IntegerComponent.class));
+        assertSame(string, table.get(1, StringComponent.class));
+        assertEquals(1, table.getEntityIdsWith(new Class[]{IntegerComponent.class, StringComponent.class}).size());
+    }
+
+    @Test
+    public void emptyArchetypeGetsReleased() {
+        table.putAll(1, Lists.<Component>newArrayList(new IntegerComponent(1), new StringComponent("a")));
+        table.remove(1, StringComponent.class);
+        table.remove(1, IntegerComponent.class);
+
+        assertEquals(0, table.getComponentCount(IntegerComponent.class));
+        assertFalse(table.componentIterator(IntegerComponent.class).hasNext());
+        assertEquals(0, table.numEntities());
+    }
+
+    @Test
+    public void releasedArchetypeGetsRecreated() {
+        table.putAll(1, Lists.<Component>newArrayList(new IntegerComponent(1)));
+        table.put(1, new StringComponent("a"));
+        table.remove(1, StringComponent.class);
+        table.remove(1, IntegerComponent.class);
+
+        table.put(2, new IntegerComponent(2));
+        table.put(2, new StringComponent("b"));
+
+        assertEquals(1, table.getComponentCount(StringComponent.class));
+        assertEquals(2, table.get(2, IntegerComponent.class).value);
+        assertNull(table.get(1, StringComponent.class));
+    }
+}
@@ -19,6 +19,9 @@
 import org.junit.Before;
 import org.junit.BeforeClass;
 import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
 import org.terasology.asset.Assets;
 import org.terasology.context.Context;
 import org.terasology.context.internal.ContextImpl;
@@ -27,6 +30,7 @@
 import org.terasology.assets.ResourceUrn;
 import org.terasology.assets.management.AssetManager;
 import org.terasology.assets.module.ModuleAwareAssetTypeManager;
+import org.terasology.config.Config;
 import org.terasology.engine.module.ModuleManager;
 import org.terasology.entitySystem.entity.EntityManager;
 import org.terasology.entitySystem.entity.EntityRef;
@@ -47,6 +51,8 @@
 import org.terasology.registry.CoreRegistry;
 import org.terasology.testUtil.ModuleManagerFactory;
 
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
@@ -61,13 +67,30 @@
 import static org.mockito.Mockito.verify;
 
 /**
+ * Runs once with the map based and once with the archetype based component storage.
+ *
  * @author Immortius
  */
+@RunWith(Parameterized.class)
 public class PojoEntityManagerTest {
 
+    private static Context context;
+
     private PojoEntityManager entityManager;
     private Prefab prefab;
-    private static Context context;
+    private boolean archetypeStorage;
+
+    public PojoEntityManagerTest(String name, boolean archetypeStorage) {
+        this.archetypeStorage = archetypeStorage;
+    }
+
+    @Parameters(name = "{0}")
+    public static Collection<Object[]> data() {
+        return Arrays.asList(new Object[][]{
+                {"map storage", false},
+                {"archetype storage", true}
+        });
+    }
 
     @BeforeClass
     public static void setupClass() throws Exception {
@@ -85,6 +108,10 @@ public static void setupClass() throws Exception {
     @Before
     public void setup() {
         context.put(NetworkSystem.class, mock(NetworkSystem.class));
+        Config config = new Config();
+        config.loadDefaults();
+        config.getSystem().setArchetypeEntityStorageEnabled(archetypeStorage);
+        context.put(Config.class, config);
         EntitySystemSetupUtil.addReflectionBasedLibraries(context);
         EntitySystemSetupUtil.addEntityManagementRelatedClasses(context);
         entityManager = (PojoEntityManager) context.get(EntityManager.class);
@@ -273,6 +300,27 @@ public void iterateEntitiesFindsEntityWithTwoComponents() {
         assertEquals(Lists.newArrayList(entity1), results);
     }
 
+    @Test
+    public void iterateEntitiesAfterAddingAndRemovingComponents() {
+        EntityRef entity1 = entityManager.create(new StringComponent("one"));
+        EntityRef entity2 = entityManager.create(new IntegerComponent(), new StringComponent("two"));
+        EntityRef entity3 = entityManager.create(new StringComponent("three"), new IntegerComponent());
+        entity1.addComponent(new IntegerComponent());
+        entity2.removeComponent(IntegerComponent.class);
+        entity3.removeComponent(StringComponent.class);
+        entity3.addComponent(new StringComponent("three again"));
+
+        List<EntityRef> results = Lists.newArrayList(entityManager.getEntitiesWith(StringComponent.class, IntegerComponent.class));
+        assertEquals(2, results.size());
+        assertTrue(results.contains(entity1));
+        assertTrue(results.contains(entity3));
+        assertEquals(3, entityManager.getCountOfEntitiesWith(StringComponent.class));
+        assertEquals("one", entity1.getComponent(StringComponent.class).value);
+        assertEquals("two", entity2.getComponent(StringComponent.class).value);
+        assertEquals("three again", entity3.getComponent(StringComponent.class).value);
+        assertNull(entity2.getComponent(IntegerComponent.class));
+    }
+
     @Test
     public void iterateWithNoComponents() {
         List<EntityRef> results = Lists.newArrayList(entityManager.getEntitiesWith(StringComponent.class));
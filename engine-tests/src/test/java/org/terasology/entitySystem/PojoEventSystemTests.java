@@ -198,6 +198,43 @@ public void testChildEventReceivedByUnfilteredHandler() {
         assertEquals(1, handler.unfilteredEvents.size());
     }
 
+    @Test
+    public void testHandlerRegisteredAfterSendReceivesEvent() {
+        entity.addComponent(new StringComponent());
+        TestEventHandler handler = new TestEventHandler();
+        eventSystem.registerEventHandler(handler);
+        eventSystem.send(entity, new TestEvent());
+
+        TestHighPriorityEventHandler handlerHigh = new TestHighPriorityEventHandler();
+        eventSystem.registerEventHandler(handlerHigh);
+        eventSystem.send(entity, new TestEvent());
+        assertEquals(2, handler.receivedList.size());
+        assertEquals(1, handlerHigh.receivedList.size());
+
+        eventSystem.unregisterEventHandler(handlerHigh);
+        eventSystem.send(entity, new TestEvent());
+        assertEquals(3, handler.receivedList.size());
+        assertEquals(1, handlerHigh.receivedList.size());
+    }
+
+    @Test
+    public void testEventReceivedAfterComponentAddedAndRemoved() {
+        entity.addComponent(new StringComponent());
+        TestCompoundComponentEventHandler handler = new TestCompoundComponentEventHandler();
+        eventSystem.registerEventHandler(handler);
+
+        eventSystem.send(entity, new TestEvent());
+        assertEquals(0, handler.receivedList.size());
+
+        entity.addComponent(new IntegerComponent());
+        eventSystem.send(entity, new TestEvent());
+        assertEquals(1, handler.receivedList.size());
+
+        entity.removeComponent(StringComponent.class);
+        eventSystem.send(entity, new TestEvent());
+        assertEquals(1, handler.receivedList.size());
+    }
+
     private static class TestEvent extends AbstractConsumableEvent {
 
     }
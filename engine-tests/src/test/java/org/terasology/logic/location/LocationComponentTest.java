@@ -15,16 +15,21 @@
  */
 package org.terasology.logic.location;
 
+import com.google.common.collect.Lists;
 import org.junit.Before;
 import org.junit.Test;
 import org.terasology.TerasologyTestingEnvironment;
 import org.terasology.entitySystem.entity.EntityRef;
 import org.terasology.entitySystem.entity.lifecycleEvents.BeforeRemoveComponent;
+import org.terasology.math.QuaternionUtil;
 import org.terasology.math.TeraMath;
 import org.terasology.math.geom.Quat4f;
 import org.terasology.math.geom.Vector3f;
 import org.terasology.testUtil.TeraAssert;
 
+import java.util.List;
+import java.util.Random;
+
 import static org.junit.Assert.assertEquals;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -281,6 +286,94 @@ public void positionMaintainedWhenParentDestroyed() {
     }
 
 
+    @Test
+    public void cachedWorldTransformMatchesUncachedCalculation() {
+        Random random = new Random(7);
+        List<LocationComponent> locations = Lists.newArrayList();
+        List<EntityRef> entities = Lists.newArrayList();
+        for (int i = 0; i < 6; i++) {
+            LocationComponent location = new LocationComponent();
+            EntityRef locationEntity = createFakeEntityWith(location);
+            locations.add(location);
+            entities.add(locationEntity);
+            if (i > 0) {
+                Location.attachChild(entities.get(random.nextInt(i)), locationEntity, randomVector(random), randomRotation(random));
+            }
+        }
+
+        for (int step = 0; step < 200; step++) {
+            LocationComponent location = locations.get(random.nextInt(locations.size()));
+            switch (random.nextInt(6)) {
+                case 0:
+                    location.setLocalPosition(randomVector(random));
+                    break;
+                case 1:
+                    location.setLocalRotation(randomRotation(random));
+                    break;
+                case 2:
+                    location.setLocalScale(0.5f + random.nextFloat());
+                    break;
+                case 3:
+                    location.getLocalPosition().set(randomVector(random));
+                    break;
+                case 4:
+                    location.setWorldPosition(randomVector(random));
+                    break;
+                default:
+                    int child = 1 + random.nextInt(locations.size() - 1);
+                    int newParent = random.nextInt(child);
+                    Location.attachChild(entities.get(newParent), entities.get(child));
+                    break;
+            }
+
+            for (LocationComponent checked : locations) {
+                TeraAssert.assertEquals(uncachedWorldPosition(checked), checked.getWorldPosition(), 0.001f);
+                TeraAssert.assertEquals(uncachedWorldRotation(checked), checked.getWorldRotation(), 0.0001f);
+                assertEquals(uncachedWorldScale(checked), checked.getWorldScale(), 0.0001f);
+            }
+        }
+    }
+
+    private Vector3f randomVector(Random random) {
+        return new Vector3f(random.nextFloat() * 10 - 5, random.nextFloat() * 10 - 5, random.nextFloat() * 10 - 5);
+    }
+
+    private Quat4f randomRotation(Random random) {
+        return new Quat4f(random.nextFloat() * TeraMath.PI * 2, random.nextFloat() * TeraMath.PI * 2, random.nextFloat() * TeraMath.PI * 2);
+    }
+
+    private Vector3f uncachedWorldPosition(LocationComponent location) {
+        Vector3f result = new Vector3f(location.getLocalPosition());
+        LocationComponent parentLoc = location.getParent().getComponent(LocationComponent.class);
+        while (parentLoc != null) {
+            result.scale(parentLoc.getLocalScale());
+            QuaternionUtil.quatRotate(parentLoc.getLocalRotation(), result, result);
+            result.add(parentLoc.getLocalPosition());
+            parentLoc = parentLoc.getParent().getComponent(LocationComponent.class);
+        }
+        return result;
+    }
+
+    private Quat4f uncachedWorldRotation(LocationComponent location) {
+        Quat4f result = new Quat4f(location.getLocalRotation());
+        LocationComponent parentLoc = location.getParent().getComponent(LocationComponent.class);
+        while (parentLoc != null) {
+            result.mul(parentLoc.getLocalRotation(), result);
+            parentLoc = parentLoc.getParent().getComponent(LocationComponent.class);
+        }
+        return result;
+    }
+
+    private float uncachedWorldScale(LocationComponent location) {
+        float result = location.getLocalScale();
+        LocationComponent parentLoc = location.getParent().getComponent(LocationComponent.class);
+        while (parentLoc != null) {
+            result *= parentLoc.getLocalScale();
+            parentLoc = parentLoc.getParent().getComponent(LocationComponent.class);
+        }
+        return result;
+    }
+
     private LocationComponent giveParent() {
         LocationComponent parent = new LocationComponent();
         EntityRef parentEntity = createFakeEntityWith(parent);
@@ -0,0 +1,151 @@
+/*
+ * Copyright 2015 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.logic.location.internal;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.terasology.TerasologyTestingEnvironment;
+import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.entitySystem.entity.internal.EngineEntityManager;
+import org.terasology.logic.location.Location;
+import org.terasology.logic.location.LocationComponent;
+import org.terasology.math.AABB;
+import org.terasology.math.geom.Quat4f;
+import org.terasology.math.geom.Vector3f;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.world.chunks.ChunkConstants;
+
+import java.util.Collection;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class LocatedEntityIndexTest extends TerasologyTestingEnvironment {
+
+    private EngineEntityManager entityManager;
+    private LocatedEntityIndex index;
+
+    @Before
+    public void setup() throws Exception {
+        super.setup();
+        entityManager = getEntityManager();
+        index = new LocatedEntityIndex(entityManager);
+    }
+
+    @Test
+    public void entityIsFoundInItsChunk() {
+        EntityRef entity = entityManager.create(new LocationComponent(new Vector3f(1, 2, 3)));
+
+        assertTrue(index.getEntitiesInChunk(new Vector3i(0, 0, 0)).contains(entity));
+        assertTrue(index.getEntitiesWithin(chunkAABB(new Vector3i(0, 0, 0))).contains(entity));
+        assertFalse(index.getEntitiesWithin(chunkAABB(new Vector3i(1, 0, 0))).contains(entity));
+    }
+
+    @Test
+    public void entitiesExistingBeforeIndexCreationAreIndexed() {
+        EntityRef entity = entityManager.create(new LocationComponent(new Vector3f(-1, 2, 3)));
+        LocatedEntityIndex newIndex = new LocatedEntityIndex(entityManager);
+
+        assertTrue(newIndex.getEntitiesInChunk(new Vector3i(-1, 0, 0)).contains(entity));
+    }
+
+    @Test
+    public void savedMovementUpdatesIndex() {
+        EntityRef entity = entityManager.create(new LocationComponent(new Vector3f(1, 2, 3)));
+        LocationComponent loc = entity.getComponent(LocationComponent.class);
+        loc.setWorldPosition(new Vector3f(ChunkConstants.SIZE_X + 1, 2, 3));
+        entity.saveComponent(loc);
+
+        assertFalse(index.getEntitiesInChunk(new Vector3i(0, 0, 0)).contains(entity));
+        assertTrue(index.getEntitiesInChunk(new Vector3i(1, 0, 0)).contains(entity));
+    }
+
+    @Test
+    public void removedAndDestroyedEntitiesAreNotFound() {
+        EntityRef removed = entityManager.create(new LocationComponent(new Vector3f(1, 2, 3)));
+        EntityRef destroyed = entityManager.create(new LocationComponent(new Vector3f(1, 2, 3)));
+        removed.removeComponent(LocationComponent.class);
+        destroyed.destroy();
+
+        assertTrue(index.getEntitiesInChunk(new Vector3i(0, 0, 0)).isEmpty());
+    }
+
+    @Test
+    public void deactivatedEntitiesAreNotFound() {
+        EntityRef entity = entityManager.create(new LocationComponent(new Vector3f(1, 2, 3)));
+        entityManager.deactivateForStorage(entity);
+
+        assertTrue(index.getEntitiesInChunk(new Vector3i(0, 0, 0)).isEmpty());
+    }
+
+    @Test
+    public void childFollowsParentWithoutBeingSaved() {
+        EntityRef parent = entityManager.create(new LocationComponent(new Vector3f(1, 2, 3)));
+        EntityRef child = entityManager.create(new LocationComponent(new Vector3f(1, 2, 3)));
+        Location.attachChild(parent, child);
+
+        LocationComponent parentLoc = parent.getComponent(LocationComponent.class);
+        parentLoc.setWorldPosition(new Vector3f(ChunkConstants.SIZE_X + 1, 2, 3));
+        parent.saveComponent(parentLoc);
+
+        Collection<EntityRef> entities = index.getEntitiesWithin(chunkAABB(new Vector3i(1, 0, 0)));
+        assertEquals(2, entities.size());
+        assertTrue(entities.contains(child));
+        assertTrue(index.getEntitiesInChunk(new Vector3i(1, 0, 0)).contains(child));
+    }
+
+    @Test
+    public void descendantsAreFoundWhereTheirRootIs() {
+        EntityRef root = entityManager.create(new LocationComponent(new Vector3f(1, 2, 3)));
+        EntityRef child = entityManager.create(new LocationComponent());
+        EntityRef grandChild = entityManager.create(new LocationComponent());
+        Location.attachChild(root, child, new Vector3f(ChunkConstants.SIZE_X, 0, 0), new Quat4f(0, 0, 0, 1));
+        Location.attachChild(child, grandChild, new Vector3f(ChunkConstants.SIZE_X, 0, 0), new Quat4f(0, 0, 0, 1));
+
+        Collection<EntityRef> entities = index.getEntitiesInChunk(new Vector3i(0, 0, 0));
+        assertEquals(3, entities.size());
+        assertTrue(entities.contains(grandChild));
+        assertTrue(index.getEntitiesInChunk(new Vector3i(2, 0, 0)).isEmpty());
+        assertTrue(index.getEntitiesWithin(chunkAABB(new Vector3i(0, 0, 0))).contains(grandChild));
+    }
+
+    @Test
+    public void childBecomesRootWhenItsParentGetsDestroyed() {
+        EntityRef parent = entityManager.create(new LocationComponent(new Vector3f(1, 2, 3)));
+        EntityRef child = entityManager.create(new LocationComponent());
+        Location.attachChild(parent, child, new Vector3f(ChunkConstants.SIZE_X, 0, 0), new Quat4f(0, 0, 0, 1));
+        parent.destroy();
+
+        assertTrue(index.getEntitiesInChunk(new Vector3i(1, 0, 0)).contains(child));
+    }
+
+    @Test
+    public void chunkPositionGetsRoundedDown() {
+        EntityRef entity = entityManager.create(new LocationComponent(new Vector3f(-0.5f, 2, 3)));
+
+        assertTrue(index.getEntitiesInChunk(new Vector3i(-1, 0, 0)).contains(entity));
+        assertFalse(index.getEntitiesInChunk(new Vector3i(0, 0, 0)).contains(entity));
+    }
+
+    private AABB chunkAABB(Vector3i chunkPos) {
+        Vector3f min = new Vector3f(chunkPos.x * ChunkConstants.SIZE_X, chunkPos.y * ChunkConstants.SIZE_Y,
+                chunkPos.z * ChunkConstants.SIZE_Z);
+        Vector3f max = new Vector3f(min);
+        max.add(ChunkConstants.CHUNK_SIZE.toVector3f());
+        return AABB.createMinMax(min, max);
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright 2015 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.monitoring.impl;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.terasology.monitoring.ActivityStatistics;
+import org.terasology.monitoring.ThreadStatistics;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class PerformanceMonitorImplTest {
+
+    private PerformanceMonitorImpl monitor;
+
+    @Before
+    public void setup() {
+        monitor = new PerformanceMonitorImpl();
+    }
+
+    @After
+    public void teardown() {
+        monitor.dispose();
+    }
+
+    @Test
+    public void nestedActivitiesAreExcludedFromOwnTime() throws InterruptedException {
+        monitor.startActivity("outer");
+        Thread.sleep(5);
+        monitor.startActivity("inner");
+        Thread.sleep(20);
+        monitor.endActivity();
+        monitor.endActivity();
+        monitor.merge();
+
+        ThreadStatistics statistics = findThread(monitor.getThreadStatistics(), Thread.currentThread());
+        ActivityStatistics outer = findActivity(statistics, "outer");
+        ActivityStatistics inner = findActivity(statistics, "inner");
+        assertEquals(1, outer.getCount());
+        assertEquals(1, inner.getCount());
+        assertTrue(inner.getTotalNanos() >= 20000000);
+        assertTrue(outer.getTotalNanos() >= 5000000);
+        assertTrue(outer.getTotalNanos() < inner.getTotalNanos());
+    }
+
+    @Test
+    public void recordsActivitiesOfAllThreads() throws InterruptedException {
+        Thread worker = new Thread(() -> {
+            for (int i = 0; i < 10; i++) {
+                monitor.startActivity("work");
+                monitor.endActivity();
+            }
+        }, "PerformanceMonitorImplTest-Worker");
+        worker.start();
+        worker.join();
+        monitor.startActivity("main");
+        monitor.endActivity();
+        monitor.merge();
+
+        ThreadStatistics workerStatistics = findThread(monitor.getThreadStatistics(), worker);
+        assertEquals(10, findActivity(workerStatistics, "work").getCount());
+        assertNull(findActivity(workerStatistics, "main"));
+        ThreadStatistics mainStatistics = findThread(monitor.getThreadStatistics(), Thread.currentThread());
+        assertNull(findActivity(mainStatistics, "work"));
+    }
+
+    @Test
+    public void terminatedThreadsAreDroppedAfterTheirLastRecordsArePublished() throws InterruptedException {
+        Thread worker = new Thread(() -> {
+            monitor.startActivity("work");
+            monitor.endActivity();
+        }, "PerformanceMonitorImplTest-Worker");
+        worker.start();
+        worker.join();
+        monitor.merge();
+
+        ThreadStatistics workerStatistics = findThread(monitor.getThreadStatistics(), worker);
+        assertFalse(workerStatistics.isAlive());
+        assertEquals(1, findActivity(workerStatistics, "work").getCount());
+
+        monitor.merge();
+        for (ThreadStatistics statistics : monitor.getThreadStatistics()) {
+            assertTrue(statistics.getThreadId() != worker.getId());
+        }
+    }
+
+    @Test
+    public void histogramCountsEveryExecution() {
+        for (int i = 0; i < 100; i++) {
+            monitor.startActivity("activity");
+            monitor.endActivity();
+        }
+        monitor.merge();
+
+        ActivityStatistics activity = findActivity(findThread(monitor.getThreadStatistics(), Thread.currentThread()), "activity");
+        long total = 0;
+        for (long bucketCount : activity.getHistogram()) {
+            total += bucketCount;
+        }
+        assertEquals(100, total);
+        assertTrue(activity.getPercentileNanos(0.5) <= activity.getPercentileNanos(0.99));
+        assertTrue(activity.getPercentileNanos(0.99) <= activity.getMaxNanos());
+    }
+
+    @Test
+    public void runningMeanCoversCompletedCycles() throws InterruptedException {
+        monitor.startActivity("frame");
+        Thread.sleep(2);
+        monitor.endActivity();
+        monitor.rollCycle();
+        monitor.merge();
+
+        assertTrue(monitor.getRunningMean().get("frame") >= 2.0);
+        assertTrue(monitor.getDecayingSpikes().get("frame") >= 2.0);
+    }
+
+    private static ThreadStatistics findThread(List<ThreadStatistics> statistics, Thread thread) {
+        for (ThreadStatistics threadStatistics : statistics) {
+            if (threadStatistics.getThreadId() == thread.getId()) {
+                return threadStatistics;
+            }
+        }
+        throw new AssertionError("No statistics for thread " + thread.getName());
+    }
+
+    private static ActivityStatistics findActivity(ThreadStatistics statistics, String name) {
+        assertNotNull(statistics);
+        for (ActivityStatistics activity : statistics.getActivities()) {
+            if (activity.getName().equals(name)) {
+                return activity;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2015 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.network.internal;
+
+import com.google.common.collect.Lists;
+import org.junit.Before;
+import org.junit.Test;
+import org.terasology.math.ChunkMath;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.protobuf.NetData;
+import org.terasology.world.block.Block;
+import org.terasology.world.propagation.BlockChange;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class BlockChangeQueueTest {
+
+    private final BlockChangeQueue queue = new BlockChangeQueue();
+    private Block air;
+    private Block stone;
+
+    @Before
+    public void setup() {
+        air = new Block();
+        air.setId((short) 0);
+        stone = new Block();
+        stone.setId((short) 1);
+    }
+
+    @Test
+    public void bulkChangesAreSentAsOneMessagePerRelevantChunk() {
+        Vector3i irrelevantChunk = new Vector3i(-1, 0, 0);
+        queue.addAll(Arrays.asList(
+                new BlockChange(new Vector3i(0, 0, 0), air, stone),
+                new BlockChange(new Vector3i(40, 1, 2), air, stone),
+                new BlockChange(new Vector3i(-1, 0, 0), air, stone),
+                new BlockChange(new Vector3i(1, 2, 3), stone, air)), pos -> !pos.equals(irrelevantChunk));
+
+        NetData.NetMessage message = drain();
+        assertEquals(0, message.getBlockChangeCount());
+        assertEquals(2, message.getChunkBlockChangesCount());
+
+        NetData.ChunkBlockChangesMessage first = message.getChunkBlockChanges(0);
+        assertEquals(new Vector3i(0, 0, 0), NetMessageUtil.convert(first.getChunkPos()));
+        assertEquals(Lists.newArrayList(new Vector3i(0, 0, 0), new Vector3i(1, 2, 3)), worldPositions(first));
+        assertEquals(Lists.newArrayList(1, 0), first.getNewBlockList());
+
+        NetData.ChunkBlockChangesMessage second = message.getChunkBlockChanges(1);
+        assertEquals(new Vector3i(1, 0, 0), NetMessageUtil.convert(second.getChunkPos()));
+        assertEquals(Lists.newArrayList(new Vector3i(40, 1, 2)), worldPositions(second));
+        assertEquals(Lists.newArrayList(1), second.getNewBlockList());
+
+        assertEquals(0, drain().getChunkBlockChangesCount());
+    }
+
+    @Test
+    public void singleChangesAreAddedToPendingChangesOfTheirChunk() {
+        queue.add(new Vector3i(5, 5, 5), stone);
+        queue.addAll(Arrays.asList(new BlockChange(new Vector3i(5, 5, 5), stone, air)), pos -> true);
+        queue.add(new Vector3i(5, 5, 5), stone);
+        queue.add(new Vector3i(100, 5, 5), air);
+
+        NetData.NetMessage message = drain();
+        assertEquals(2, message.getBlockChangeCount());
+        assertEquals(new Vector3i(5, 5, 5), NetMessageUtil.convert(message.getBlockChange(0).getPos()));
+        assertEquals(new Vector3i(100, 5, 5), NetMessageUtil.convert(message.getBlockChange(1).getPos()));
+        assertEquals(1, message.getChunkBlockChangesCount());
+        assertEquals(Lists.newArrayList(0, 1), message.getChunkBlockChanges(0).getNewBlockList());
+    }
+
+    @Test
+    public void blockIndicesMapBackToTheirWorldPosition() {
+        for (Vector3i pos : Arrays.asList(new Vector3i(0, 0, 0), new Vector3i(31, 63, 31), new Vector3i(-1, -1, -1), new Vector3i(-33, 70, 65))) {
+            assertEquals(pos, BlockChangeQueue.worldPos(ChunkMath.calcChunkPos(pos), BlockChangeQueue.blockIndex(pos)));
+        }
+    }
+
+    private NetData.NetMessage drain() {
+        NetData.NetMessage.Builder message = NetData.NetMessage.newBuilder();
+        queue.drainTo(message);
+        return message.build();
+    }
+
+    private static List<Vector3i> worldPositions(NetData.ChunkBlockChangesMessage chunkChanges) {
+        Vector3i chunkPos = NetMessageUtil.convert(chunkChanges.getChunkPos());
+        List<Vector3i> positions = Lists.newArrayList();
+        for (int blockIndex : chunkChanges.getBlockIndexList()) {
+            positions.add(BlockChangeQueue.worldPos(chunkPos, blockIndex));
+        }
+        return positions;
+    }
+}
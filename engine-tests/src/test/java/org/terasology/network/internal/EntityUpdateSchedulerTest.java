@@ -0,0 +1,268 @@
+/*
+ * Copyright 2015 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.network.internal;
+
+import com.google.common.collect.Lists;
+import gnu.trove.map.TIntIntMap;
+import gnu.trove.map.hash.TIntIntHashMap;
+import gnu.trove.set.TIntSet;
+import gnu.trove.set.hash.TIntHashSet;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class EntityUpdateSchedulerTest {
+
+    private static final int UPDATE_SIZE = 40;
+    private static final int TICKS_PER_SECOND = 20;
+    private static final float UNLIMITED = Float.MAX_VALUE;
+
+    private final EntityUpdateScheduler scheduler = new EntityUpdateScheduler();
+    private final SimulatedClient client = new SimulatedClient();
+
+    @Test
+    public void nearAndOwnedEntitiesAreSentEveryTick() {
+        client.place(1, 10);
+        client.place(2, 500);
+        client.owned.add(2);
+        for (int i = 0; i < 3; i++) {
+            scheduler.markDirty(1);
+            scheduler.markDirty(2);
+            scheduler.sendDueUpdates(UNLIMITED, client);
+        }
+
+        assertEquals(Lists.newArrayList(2, 1, 2, 1, 2, 1), client.sent);
+        assertEquals(0, scheduler.getDirtyCount());
+    }
+
+    @Test
+    public void changesOfFarEntitiesGetCoalesced() {
+        client.place(1, 50);
+        client.place(2, 500);
+        for (int i = 0; i < 20; i++) {
+            scheduler.markDirty(1);
+            scheduler.markDirty(2);
+            scheduler.sendDueUpdates(UNLIMITED, client);
+        }
+
+        assertEquals(5, client.countSent(1));
+        assertEquals(1, client.countSent(2));
+        assertEquals(0, scheduler.getDirtyCount());
+    }
+
+    @Test
+    public void entitiesWithoutPositionAreSentEveryTick() {
+        scheduler.markDirty(1);
+        scheduler.sendDueUpdates(UNLIMITED, client);
+
+        assertEquals(Lists.newArrayList(1), client.sent);
+    }
+
+    @Test
+    public void budgetGetsFilledWithNearestEntitiesFirst() {
+        client.place(1, 30);
+        client.place(2, 5);
+        client.place(3, 20);
+        client.place(4, 10);
+        for (int netId = 1; netId <= 4; netId++) {
+            scheduler.markDirty(netId);
+        }
+        scheduler.sendDueUpdates(2 * UPDATE_SIZE, client);
+
+        assertEquals(Lists.newArrayList(2, 4), client.sent);
+        assertTrue(scheduler.isDirty(1));
+        assertTrue(scheduler.isDirty(3));
+    }
+
+    @Test
+    public void removedEntitiesAreNotSent() {
+        client.place(1, 10);
+        scheduler.markDirty(1);
+        scheduler.remove(1);
+        scheduler.sendDueUpdates(UNLIMITED, client);
+
+        assertTrue(client.sent.isEmpty());
+    }
+
+    @Test
+    public void entitiesThatAreNotDueAreNotLookedAt() {
+        client.place(1, 500);
+        scheduler.markDirty(1);
+        for (int i = 0; i < EntityUpdateScheduler.TIER_INTERVALS[2]; i++) {
+            scheduler.sendDueUpdates(UNLIMITED, client);
+        }
+
+        assertEquals(Lists.newArrayList(1), client.sent);
+        assertEquals(2, client.lookups);
+    }
+
+    @Test
+    public void entitiesCanBeSentBeforeTheyAreDue() {
+        client.place(1, 500);
+        scheduler.markDirty(1);
+        scheduler.sendNow(1, client);
+        scheduler.sendNow(1, client);
+        for (int i = 0; i < EntityUpdateScheduler.TIER_INTERVALS[2]; i++) {
+            scheduler.sendDueUpdates(UNLIMITED, client);
+        }
+
+        assertEquals(Lists.newArrayList(1), client.sent);
+        assertFalse(scheduler.isDirty(1));
+    }
+
+    @Test
+    public void deferredChangesAreSentEventually() {
+        Random random = new Random(1);
+        int entityCount = 100;
+        float allowance = 10 * UPDATE_SIZE;
+        for (int netId = 0; netId < entityCount; netId++) {
+            client.place(netId, random.nextFloat() * 200);
+        }
+        TIntIntMap lastChange = new TIntIntHashMap();
+        int maxWait = 0;
+        for (int tick = 0; tick < 400; tick++) {
+            // nothing changes anymore after the first half
+            if (tick < 200) {
+                for (int netId = 0; netId < entityCount; netId++) {
+                    scheduler.markDirty(netId);
+                    if (!lastChange.containsKey(netId)) {
+                        lastChange.put(netId, tick);
+                    }
+                }
+            }
+            client.sent.clear();
+            scheduler.sendDueUpdates(allowance, client);
+            for (int netId : client.sent) {
+                maxWait = Math.max(maxWait, tick - lastChange.remove(netId));
+            }
+        }
+
+        assertEquals(0, scheduler.getDirtyCount());
+        assertTrue(lastChange.isEmpty());
+        // overdue updates get sent first, the 10 updates per tick keep up with them
+        assertTrue("waited " + maxWait + " ticks", maxWait <= EntityUpdateScheduler.MAX_DEFERRED_TICKS + entityCount / 10);
+    }
+
+    @Test
+    public void bytesPerSecondGrowSlowerThanPlayerDensity() {
+        for (int playerCount : new int[]{10, 50, 200}) {
+            float untieredBytesPerSecond = playerCount * UPDATE_SIZE * TICKS_PER_SECOND;
+            float tieredBytesPerSecond = simulateMovingPlayers(playerCount, UNLIMITED);
+
+            assertTrue(playerCount + " players: " + tieredBytesPerSecond + " B/s tiered vs " + untieredBytesPerSecond + " B/s",
+                    tieredBytesPerSecond * 3 < untieredBytesPerSecond);
+        }
+    }
+
+    @Test
+    public void bytesPerSecondStayWithinBandwidth() {
+        float allowance = 20 * UPDATE_SIZE;
+        for (int playerCount : new int[]{10, 50, 200}) {
+            float bytesPerSecond = simulateMovingPlayers(playerCount, allowance);
+
+            assertTrue(playerCount + " players: " + bytesPerSecond + " B/s", bytesPerSecond <= allowance * TICKS_PER_SECOND);
+        }
+    }
+
+    /**
+     * Lets the players move randomly through an area around the client for 10 seconds, every move makes them dirty.
+     *
+     * @return the average bytes per second that got sent to the client
+     */
+    private float simulateMovingPlayers(int playerCount, float allowance) {
+        EntityUpdateScheduler playerScheduler = new EntityUpdateScheduler();
+        SimulatedClient playerClient = new SimulatedClient();
+        Random random = new Random(playerCount);
+        float halfSize = 128;
+        for (int netId = 0; netId < playerCount; netId++) {
+            playerClient.place(netId, (random.nextFloat() * 2 - 1) * halfSize, (random.nextFloat() * 2 - 1) * halfSize);
+        }
+        int ticks = 10 * TICKS_PER_SECOND;
+        for (int tick = 0; tick < ticks; tick++) {
+            for (int netId = 0; netId < playerCount; netId++) {
+                float x = clamp(playerClient.x.get(netId) + random.nextFloat() * 2 - 1, halfSize);
+                float z = clamp(playerClient.z.get(netId) + random.nextFloat() * 2 - 1, halfSize);
+                playerClient.place(netId, x, z);
+                playerScheduler.markDirty(netId);
+            }
+            playerScheduler.sendDueUpdates(allowance, playerClient);
+        }
+        return (float) playerClient.sent.size() * UPDATE_SIZE * TICKS_PER_SECOND / ticks;
+    }
+
+    private static float clamp(float value, float limit) {
+        return Math.max(-limit, Math.min(limit, value));
+    }
+
+    /**
+     * A client at the origin, to which each update costs the same number of bytes.
+     */
+    private static final class SimulatedClient implements EntityUpdateScheduler.UpdateTarget {
+        private final List<Float> x = Lists.newArrayList();
+        private final List<Float> z = Lists.newArrayList();
+        private final TIntSet owned = new TIntHashSet();
+        private final List<Integer> sent = Lists.newArrayList();
+        private int lookups;
+
+        void place(int netId, float distance) {
+            place(netId, distance, 0);
+        }
+
+        void place(int netId, float posX, float posZ) {
+            while (x.size() <= netId) {
+                x.add(null);
+                z.add(null);
+            }
+            x.set(netId, posX);
+            z.set(netId, posZ);
+        }
+
+        int countSent(int netId) {
+            int count = 0;
+            for (int sentId : sent) {
+                if (sentId == netId) {
+                    count++;
+                }
+            }
+            return count;
+        }
+
+        @Override
+        public boolean isOwnedByClient(int netId) {
+            return owned.contains(netId);
+        }
+
+        @Override
+        public float getDistanceSquared(int netId) {
+            lookups++;
+            if (netId >= x.size() || x.get(netId) == null) {
+                return -1;
+            }
+            return x.get(netId) * x.get(netId) + z.get(netId) * z.get(netId);
+        }
+
+        @Override
+        public int sendUpdate(int netId) {
+            sent.add(netId);
+            return UPDATE_SIZE;
+        }
+    }
+}
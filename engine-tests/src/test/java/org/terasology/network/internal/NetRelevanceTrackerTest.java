@@ -0,0 +1,117 @@
+/*
+ * Copyright 2015 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.network.internal;
+
+import com.google.common.collect.Lists;
+import org.junit.Test;
+import org.terasology.math.geom.Vector3i;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class NetRelevanceTrackerTest {
+
+    private static final Vector3i EXTENTS = new Vector3i(2, 2, 2);
+
+    private final List<String> changes = Lists.newArrayList();
+    private final NetRelevanceTracker<String> tracker = new NetRelevanceTracker<>(new NetRelevanceTracker.RelevanceListener<String>() {
+        @Override
+        public void onEntityRelevant(String client, int netId) {
+            changes.add("+" + client + netId);
+        }
+
+        @Override
+        public void onEntityIrrelevant(String client, int netId) {
+            changes.add("-" + client + netId);
+        }
+    });
+
+    @Test
+    public void entitiesInsideTheAreaBecomeRelevant() {
+        tracker.addEntity(1, new Vector3i(1, 0, 0));
+        tracker.addEntity(2, new Vector3i(10, 0, 0));
+        tracker.updateClient("a", new Vector3i(0, 0, 0), EXTENTS);
+        tracker.addEntity(3, new Vector3i(0, 2, 0));
+
+        assertEquals(Lists.newArrayList("+a1", "+a3"), changes);
+        assertTrue(tracker.isRelevant("a", 1));
+        assertFalse(tracker.isRelevant("a", 2));
+    }
+
+    @Test
+    public void movingEntityEntersAndLeavesWithMargin() {
+        tracker.updateClient("a", new Vector3i(0, 0, 0), EXTENTS);
+        tracker.addEntity(1, new Vector3i(5, 0, 0));
+        tracker.moveEntity(1, new Vector3i(2, 0, 0));
+        // still within the leave margin
+        tracker.moveEntity(1, new Vector3i(3, 0, 0));
+        tracker.moveEntity(1, new Vector3i(4, 0, 0));
+
+        assertEquals(Lists.newArrayList("+a1", "-a1"), changes);
+    }
+
+    @Test
+    public void movingClientUpdatesItsEntities() {
+        tracker.addEntity(1, new Vector3i(0, 0, 0));
+        tracker.addEntity(2, new Vector3i(20, 0, 0));
+        tracker.updateClient("a", new Vector3i(0, 0, 0), EXTENTS);
+        tracker.updateClient("b", new Vector3i(20, 0, 0), EXTENTS);
+        tracker.updateClient("a", new Vector3i(19, 0, 0), EXTENTS);
+
+        assertEquals(Lists.newArrayList("+a1", "+b2", "-a1", "+a2"), changes);
+    }
+
+    @Test
+    public void removedEntitiesAreForgottenSilently() {
+        tracker.addEntity(1, new Vector3i(0, 0, 0));
+        tracker.updateClient("a", new Vector3i(0, 0, 0), EXTENTS);
+        tracker.removeEntity(1);
+        tracker.updateClient("a", new Vector3i(10, 0, 0), EXTENTS);
+
+        assertEquals(Lists.newArrayList("+a1"), changes);
+        assertFalse(tracker.isTracked(1));
+    }
+
+    @Test
+    public void untrackedEntityBecomesRelevantToAllClients() {
+        tracker.addClient("c");
+        tracker.addEntity(1, new Vector3i(0, 0, 0));
+        tracker.updateClient("a", new Vector3i(0, 0, 0), EXTENTS);
+        tracker.updateClient("b", new Vector3i(20, 0, 0), EXTENTS);
+        // e.g. picked up by a character
+        tracker.untrackEntity(1);
+
+        assertEquals(Lists.newArrayList("+a1", "+c1", "+b1"), changes);
+        assertFalse(tracker.isTracked(1));
+    }
+
+    @Test
+    public void trackedEntityStaysRelevantToNearClientsOnly() {
+        tracker.addClient("c");
+        tracker.updateClient("a", new Vector3i(0, 0, 0), EXTENTS);
+        tracker.updateClient("b", new Vector3i(20, 0, 0), EXTENTS);
+        // e.g. dropped by a character
+        tracker.trackEntity(1, new Vector3i(20, 0, 0));
+        tracker.updateClient("c", new Vector3i(20, 0, 0), EXTENTS);
+
+        assertEquals(Lists.newArrayList("-c1", "-a1", "+c1"), changes);
+        assertTrue(tracker.isRelevant("b", 1));
+        assertTrue(tracker.isTracked(1));
+    }
+}
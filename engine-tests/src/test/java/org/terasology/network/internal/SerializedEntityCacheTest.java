@@ -0,0 +1,86 @@
+/*
+ * Copyright 2015 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.network.internal;
+
+import com.google.common.collect.Sets;
+import org.junit.Test;
+import org.terasology.entitySystem.Component;
+import org.terasology.entitySystem.stubs.IntegerComponent;
+import org.terasology.entitySystem.stubs.StringComponent;
+import org.terasology.protobuf.EntityData;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class SerializedEntityCacheTest {
+
+    private SerializedEntityCache cache = new SerializedEntityCache();
+    private AtomicInteger serializations = new AtomicInteger();
+
+    @Test
+    public void initialPayloadIsSharedPerOwnershipRole() {
+        EntityData.PackedEntity first = cache.getInitial(1, false, serializer());
+        assertSame(first, cache.getInitial(1, false, serializer()));
+        cache.getInitial(1, true, serializer());
+        cache.getInitial(2, false, serializer());
+        assertEquals(3, serializations.get());
+    }
+
+    @Test
+    public void updatesAreKeyedByComponentDelta() {
+        Set<Class<? extends Component>> changed = Sets.newHashSet(StringComponent.class);
+        Set<Class<? extends Component>> none = Collections.emptySet();
+        EntityData.PackedEntity first = cache.getUpdate(1, false, none, changed, none, serializer());
+        // the key must not be affected by later modifications of the passed sets
+        changed.add(IntegerComponent.class);
+        cache.getUpdate(1, false, none, changed, none, serializer());
+        assertSame(first, cache.getUpdate(1, false, none, Collections.singleton(StringComponent.class), none, serializer()));
+        assertEquals(2, serializations.get());
+    }
+
+    @Test
+    public void emptyUpdatesAreCached() {
+        Set<Class<? extends Component>> none = Collections.emptySet();
+        assertNull(cache.getUpdate(1, false, none, none, none, () -> {
+            serializations.incrementAndGet();
+            return null;
+        }));
+        assertNull(cache.getUpdate(1, false, none, none, none, serializer()));
+        assertEquals(1, serializations.get());
+    }
+
+    @Test
+    public void clearDropsPayloads() {
+        cache.getInitial(1, false, serializer());
+        cache.clear();
+        assertEquals(0, cache.size());
+        cache.getInitial(1, false, serializer());
+        assertEquals(2, serializations.get());
+    }
+
+    private Supplier<EntityData.PackedEntity> serializer() {
+        return () -> {
+            serializations.incrementAndGet();
+            return EntityData.PackedEntity.newBuilder().setId(serializations.get()).build();
+        };
+    }
+}
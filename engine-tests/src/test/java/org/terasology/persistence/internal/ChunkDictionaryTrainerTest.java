@@ -0,0 +1,63 @@
+/*
+ * Copyright 2015 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.persistence.internal;
+
+import com.google.common.collect.Lists;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ChunkDictionaryTrainerTest {
+
+    @Test
+    public void overlappingSegmentsAreOnlyUsedOnce() {
+        byte[] sample = new byte[1000];
+        new Random(42).nextBytes(sample);
+        List<byte[]> samples = Lists.newArrayList(sample, sample.clone(), sample.clone());
+
+        byte[] dictionary = ChunkDictionaryTrainer.train(samples);
+
+        assertTrue(dictionary.length > 0);
+        assertTrue(dictionary.length <= sample.length);
+    }
+
+    @Test
+    public void dictionaryOfLargeSamplesIsLimited() {
+        Random random = new Random(42);
+        byte[] sample = new byte[1 << 20];
+        random.nextBytes(sample);
+        List<byte[]> samples = Lists.newArrayList(sample, sample.clone());
+
+        assertEquals(ChunkDictionaryTrainer.MAX_DICTIONARY_SIZE, ChunkDictionaryTrainer.train(samples).length);
+    }
+
+    @Test
+    public void samplesWithoutCommonDataResultInEmptyDictionary() {
+        Random random = new Random(42);
+        List<byte[]> samples = Lists.newArrayList();
+        for (int i = 0; i < 4; i++) {
+            byte[] sample = new byte[1000];
+            random.nextBytes(sample);
+            samples.add(sample);
+        }
+
+        assertEquals(0, ChunkDictionaryTrainer.train(samples).length);
+    }
+}
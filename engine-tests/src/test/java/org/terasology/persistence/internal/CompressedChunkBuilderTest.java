@@ -0,0 +1,69 @@
+/*
+ * Copyright 2015 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.persistence.internal;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.terasology.protobuf.EntityData;
+import org.terasology.world.chunks.internal.ChunkImpl;
+
+import java.io.IOException;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class CompressedChunkBuilderTest {
+
+    private ChunkImpl chunk;
+    private CompressedChunkBuilder builder;
+
+    @Before
+    public void setup() {
+        chunk = Mockito.mock(ChunkImpl.class);
+        when(chunk.encodeAndReleaseSnapshot()).thenReturn(EntityData.ChunkStore.newBuilder().setX(1).setY(2).setZ(3));
+        builder = new CompressedChunkBuilder(EntityData.EntityStore.getDefaultInstance(), chunk, true, new GzipChunkCodec());
+    }
+
+    @Test
+    public void snapshotGetsEncodedOnlyOnce() {
+        byte[] uncompressed = builder.buildUncompressedChunk();
+        assertArrayEquals(uncompressed, builder.buildUncompressedChunk());
+        builder.buildEncodedChunk();
+
+        verify(chunk, times(1)).encodeAndReleaseSnapshot();
+        verify(chunk, never()).encode();
+    }
+
+    @Test
+    public void chunkGetsCompressedWithTheReplacedCodec() throws IOException {
+        byte[] uncompressed = builder.buildUncompressedChunk();
+        DeflateChunkCodec codec = new DeflateChunkCodec(uncompressed);
+        builder.setCodec(codec);
+
+        assertArrayEquals(codec.compress(uncompressed), builder.buildEncodedChunk());
+        assertArrayEquals(uncompressed, codec.decompress(builder.buildEncodedChunk()));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void codecCanNotBeReplacedAfterCompression() {
+        builder.buildEncodedChunk();
+        builder.setCodec(new GzipChunkCodec());
+    }
+}
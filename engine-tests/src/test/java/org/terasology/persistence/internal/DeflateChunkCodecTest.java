@@ -0,0 +1,98 @@
+/*
+ * Copyright 2015 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.persistence.internal;
+
+import com.google.common.collect.Lists;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertTrue;
+
+public class DeflateChunkCodecTest {
+
+    private Random random;
+    private DeflateChunkCodec codec;
+
+    @Before
+    public void setup() {
+        random = new Random(42);
+        List<byte[]> samples = Lists.newArrayList();
+        for (int i = 0; i < 32; i++) {
+            samples.add(createChunkLikeData());
+        }
+        codec = new DeflateChunkCodec(ChunkDictionaryTrainer.train(samples));
+    }
+
+    /**
+     * @return data that shares structure with other results, like encoded chunks of one world do.
+     */
+    private byte[] createChunkLikeData() {
+        ByteArrayOutputStream data = new ByteArrayOutputStream();
+        for (int i = 0; i < 300; i++) {
+            data.write(0x12);
+            data.write(1 + random.nextInt(3));
+            data.write(0x08);
+            data.write(i % 11);
+        }
+        for (int i = 0; i < 64; i++) {
+            data.write(random.nextInt(256));
+        }
+        return data.toByteArray();
+    }
+
+    @Test
+    public void compressedDataGetsRestored() throws IOException {
+        byte[] data = createChunkLikeData();
+        assertArrayEquals(data, codec.decompress(codec.compress(data)));
+    }
+
+    @Test
+    public void gzipCompressedDataGetsRestored() throws IOException {
+        byte[] data = createChunkLikeData();
+        assertArrayEquals(data, codec.decompress(new GzipChunkCodec().compress(data)));
+    }
+
+    @Test
+    public void dictionaryImprovesCompressionOfSimilarData() {
+        GzipChunkCodec gzipCodec = new GzipChunkCodec();
+        for (int i = 0; i < 10; i++) {
+            byte[] data = createChunkLikeData();
+            codec.compress(data);
+            gzipCodec.compress(data);
+        }
+        assertTrue(codec.getStatistics().getCompressionRatio() > gzipCodec.getStatistics().getCompressionRatio());
+    }
+
+    @Test(expected = IOException.class)
+    public void dataOfOtherDictionaryIsRejected() throws IOException {
+        DeflateChunkCodec otherCodec = new DeflateChunkCodec(new byte[]{1, 2, 3, 4});
+        otherCodec.decompress(codec.compress(createChunkLikeData()));
+    }
+
+    @Test(expected = IOException.class)
+    public void truncatedDataIsRejected() throws IOException {
+        byte[] compressed = codec.compress(createChunkLikeData());
+        byte[] truncated = new byte[compressed.length / 2];
+        System.arraycopy(compressed, 0, truncated, 0, truncated.length);
+        codec.decompress(truncated);
+    }
+}
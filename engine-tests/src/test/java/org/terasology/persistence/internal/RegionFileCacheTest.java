@@ -0,0 +1,69 @@
+/*
+ * Copyright 2013 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.persistence.internal;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.file.Path;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class RegionFileCacheTest {
+
+    private static final byte[] OLD_DATA = {1, 2, 3};
+    private static final byte[] NEW_DATA = {4, 5, 6, 7};
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void readerKeepsRegionFileWhileItGetsOpenedForWriting() throws Exception {
+        Path path = temporaryFolder.getRoot().toPath().resolve("region.dat");
+        RegionFileCache cache = new RegionFileCache(16);
+        try (RegionFile regionFile = cache.getForWriting(path)) {
+            regionFile.write(0, OLD_DATA);
+        }
+        cache.closeAll();
+
+        try (RegionFile reader = cache.getForReading(path)) {
+            try (RegionFile writer = cache.getForWriting(path)) {
+                writer.write(1, NEW_DATA);
+            }
+            assertArrayEquals(OLD_DATA, reader.read(0));
+        }
+        try (RegionFile reader = cache.getForReading(path)) {
+            assertTrue(reader.isWritable());
+            assertArrayEquals(NEW_DATA, reader.read(1));
+        }
+        cache.closeAll();
+    }
+
+    @Test
+    public void regionFileClosedByAllHoldersCantBeRetained() throws Exception {
+        Path path = temporaryFolder.getRoot().toPath().resolve("region.dat");
+        RegionFile regionFile = new RegionFile(path, 16, true);
+        assertTrue(regionFile.retain());
+        regionFile.close();
+        regionFile.write(0, OLD_DATA);
+        regionFile.close();
+
+        assertFalse(regionFile.retain());
+    }
+}
@@ -16,6 +16,7 @@
 package org.terasology.persistence.internal;
 
 import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
 import org.jboss.shrinkwrap.api.ShrinkWrap;
 import org.jboss.shrinkwrap.api.nio.file.ShrinkWrapFileSystems;
 import org.jboss.shrinkwrap.api.spec.JavaArchive;
@@ -63,9 +64,11 @@
 import java.nio.file.FileSystem;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Set;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
@@ -298,6 +301,78 @@ public void chunkSurvivesStorageSaveAndRestore() throws Exception {
         assertEquals(testBlock2, restored.getChunk().getBlock(0, 4, 2));
     }
 
+    @Test
+    public void chunkSurvivesStorageSaveAndRestoreInRegionFiles() throws Exception {
+        Chunk chunk = new ChunkImpl(CHUNK_POS, blockManager, biomeManager);
+        chunk.setBlock(0, 0, 0, testBlock);
+        chunk.setBlock(0, 4, 2, testBlock2);
+        chunk.markReady();
+        ChunkProvider chunkProvider = mock(ChunkProvider.class);
+        when(chunkProvider.getAllChunks()).thenReturn(Arrays.asList(chunk));
+        when(chunkProvider.getChunk(Matchers.any(Vector3i.class))).thenReturn(chunk);
+        CoreRegistry.put(ChunkProvider.class, chunkProvider);
+
+        esm.setStoreChunksInRegionFiles(true);
+        esm.waitForCompletionOfPreviousSaveAndStartSaving();
+        esm.finishSavingAndShutdown();
+
+        // Modify the chunk and save it a second time, so that the entry in the region file gets rewritten:
+        chunk.setBlock(1, 1, 1, testBlock2);
+        ReadWriteStorageManager secondSM = new ReadWriteStorageManager(savePath, moduleEnvironment, entityManager,
+                blockManager, biomeManager, false, true);
+        secondSM.waitForCompletionOfPreviousSaveAndStartSaving();
+        secondSM.finishSavingAndShutdown();
+
+        EntitySystemSetupUtil.addReflectionBasedLibraries(context);
+        EntitySystemSetupUtil.addEntityManagementRelatedClasses(context);
+        EngineEntityManager newEntityManager = context.get(EngineEntityManager.class);
+        StorageManager newSM = new ReadWriteStorageManager(savePath, moduleEnvironment, newEntityManager, blockManager,
+                biomeManager, false, true);
+        newSM.loadGlobalStore();
+
+        ChunkStore restored = newSM.loadChunkStore(CHUNK_POS);
+        assertNotNull(restored);
+        assertEquals(CHUNK_POS, restored.getChunkPosition());
+        assertEquals(testBlock, restored.getChunk().getBlock(0, 0, 0));
+        assertEquals(testBlock2, restored.getChunk().getBlock(0, 4, 2));
+        assertEquals(testBlock2, restored.getChunk().getBlock(1, 1, 1));
+        newSM.finishSavingAndShutdown();
+    }
+
+    @Test
+    public void chunkZipsGetConvertedToRegionFiles() throws Exception {
+        Chunk chunk = new ChunkImpl(CHUNK_POS, blockManager, biomeManager);
+        chunk.setBlock(0, 0, 0, testBlock);
+        chunk.markReady();
+        ChunkProvider chunkProvider = mock(ChunkProvider.class);
+        when(chunkProvider.getAllChunks()).thenReturn(Arrays.asList(chunk));
+        CoreRegistry.put(ChunkProvider.class, chunkProvider);
+
+        esm.setStoreChunksInZips(true);
+        esm.waitForCompletionOfPreviousSaveAndStartSaving();
+        esm.finishSavingAndShutdown();
+
+        StoragePathProvider storagePathProvider = new StoragePathProvider(savePath);
+        Path chunkZipPath = storagePathProvider.getChunkZipPath(storagePathProvider.getChunkZipPosition(CHUNK_POS));
+        assertTrue(Files.isRegularFile(chunkZipPath));
+
+        EntitySystemSetupUtil.addReflectionBasedLibraries(context);
+        EntitySystemSetupUtil.addEntityManagementRelatedClasses(context);
+        EngineEntityManager newEntityManager = context.get(EngineEntityManager.class);
+        StorageManager newSM = new ReadWriteStorageManager(savePath, moduleEnvironment, newEntityManager, blockManager,
+                biomeManager, true, true);
+        newSM.checkAndRepairSaveIfNecessary();
+
+        assertFalse(Files.exists(chunkZipPath));
+        Path regionPath = storagePathProvider.getChunkRegionPath(storagePathProvider.getChunkRegionPosition(CHUNK_POS));
+        assertTrue(Files.isRegularFile(regionPath));
+
+        ChunkStore restored = newSM.loadChunkStore(CHUNK_POS);
+        assertNotNull(restored);
+        assertEquals(testBlock, restored.getChunk().getBlock(0, 0, 0));
+        newSM.finishSavingAndShutdown();
+    }
+
     @Test
     public void entitySurvivesStorageInChunkStore() throws Exception {
         Chunk chunk = new ChunkImpl(CHUNK_POS, blockManager, biomeManager);
@@ -340,4 +415,106 @@ public void canSavePlayerWithoutUnloading() throws Exception {
 
         assertTrue(character.isActive());
     }
+
+    @Test
+    public void globalEntityChangesStoredInJournalAndRestored() throws Exception {
+        saveGlobalEntityChangesIntoJournal();
+
+        Path journalPath = new StoragePathProvider(savePath).getEntityJournalPath();
+        assertEquals(1, EntityJournal.read(journalPath).size());
+        assertEquals(Sets.newHashSet("After", "Added"), getStringComponentValues(loadGlobalStoreIntoNewEntityManager()));
+    }
+
+    @Test
+    public void incompleteJournalBatchGetsIgnored() throws Exception {
+        saveGlobalEntityChangesIntoJournal();
+
+        // Simulate a crash while the journal got appended, by appending only the start of the batch a second time:
+        Path journalPath = new StoragePathProvider(savePath).getEntityJournalPath();
+        byte[] batch = Files.readAllBytes(journalPath);
+        Files.write(journalPath, Arrays.copyOf(batch, batch.length / 2), StandardOpenOption.APPEND);
+
+        assertEquals(1, EntityJournal.read(journalPath).size());
+        assertEquals(Sets.newHashSet("After", "Added"), getStringComponentValues(loadGlobalStoreIntoNewEntityManager()));
+    }
+
+    @Test
+    public void interruptedJournalMergeCanBeRepeated() throws Exception {
+        saveGlobalEntityChangesIntoJournal();
+
+        // Simulate a crash after the delta got appended but before it got deleted, with a partial second append:
+        StoragePathProvider storagePathProvider = new StoragePathProvider(savePath);
+        Path journalPath = storagePathProvider.getEntityJournalPath();
+        byte[] batch = Files.readAllBytes(journalPath);
+        Files.createDirectories(storagePathProvider.getUnmergedChangesPath());
+        Files.write(storagePathProvider.getUnmergedChangesPath().resolve(journalPath.getFileName() + ".delta"), batch);
+        Files.write(journalPath, Arrays.copyOf(batch, batch.length - 1), StandardOpenOption.APPEND);
+
+        EngineEntityManager newEntityManager = loadGlobalStoreIntoNewEntityManager();
+
+        assertFalse(Files.exists(storagePathProvider.getUnmergedChangesPath()));
+        assertEquals(batch.length, Files.size(journalPath));
+        assertEquals(Sets.newHashSet("After", "Added"), getStringComponentValues(newEntityManager));
+    }
+
+    @Test
+    public void journalGetsCompactedIntoGlobalStore() throws Exception {
+        saveGlobalEntityChangesIntoJournal();
+
+        EntitySystemSetupUtil.addReflectionBasedLibraries(context);
+        EntitySystemSetupUtil.addEntityManagementRelatedClasses(context);
+        EngineEntityManager newEntityManager = context.get(EngineEntityManager.class);
+        NetworkSystem networkSystem = mock(NetworkSystem.class);
+        when(networkSystem.getMode()).thenReturn(NetworkMode.NONE);
+        when(networkSystem.getPlayers()).thenReturn(Collections.<Client>emptyList());
+        context.put(NetworkSystem.class, networkSystem);
+        ReadWriteStorageManager newSM = new ReadWriteStorageManager(savePath, moduleEnvironment, newEntityManager,
+                blockManager, biomeManager, false, false, true);
+        newSM.loadGlobalStore();
+        // The first save of a storage manager writes the complete global store:
+        newSM.waitForCompletionOfPreviousSaveAndStartSaving();
+        newSM.finishSavingAndShutdown();
+
+        assertEquals(0, Files.size(new StoragePathProvider(savePath).getEntityJournalPath()));
+        assertEquals(Sets.newHashSet("After", "Added"), getStringComponentValues(loadGlobalStoreIntoNewEntityManager()));
+    }
+
+    /**
+     * Saves the global store completely and then a batch of changes to it into the journal. Afterwards the
+     * global entities with a {@link StringComponent} have the values "After" and "Added".
+     */
+    private void saveGlobalEntityChangesIntoJournal() throws Exception {
+        ReadWriteStorageManager journalingSM = new ReadWriteStorageManager(savePath, moduleEnvironment, entityManager,
+                blockManager, biomeManager, false, false, true);
+        EntityRef changedEntity = entityManager.create(new StringComponent("Before"));
+        EntityRef destroyedEntity = entityManager.create(new StringComponent("Destroyed"));
+        journalingSM.waitForCompletionOfPreviousSaveAndStartSaving();
+
+        StringComponent component = changedEntity.getComponent(StringComponent.class);
+        component.value = "After";
+        changedEntity.saveComponent(component);
+        destroyedEntity.destroy();
+        entityManager.create(new StringComponent("Added"));
+        journalingSM.waitForCompletionOfPreviousSaveAndStartSaving();
+        journalingSM.finishSavingAndShutdown();
+    }
+
+    private EngineEntityManager loadGlobalStoreIntoNewEntityManager() throws Exception {
+        EntitySystemSetupUtil.addReflectionBasedLibraries(context);
+        EntitySystemSetupUtil.addEntityManagementRelatedClasses(context);
+        EngineEntityManager newEntityManager = context.get(EngineEntityManager.class);
+        StorageManager newSM = new ReadWriteStorageManager(savePath, moduleEnvironment, newEntityManager, blockManager,
+                biomeManager, false);
+        newSM.checkAndRepairSaveIfNecessary();
+        newSM.loadGlobalStore();
+        return newEntityManager;
+    }
+
+    private static Set<String> getStringComponentValues(EngineEntityManager manager) {
+        Set<String> values = Sets.newHashSet();
+        for (EntityRef entity : manager.getEntitiesWith(StringComponent.class)) {
+            values.add(entity.getComponent(StringComponent.class).value);
+        }
+        return values;
+    }
 }
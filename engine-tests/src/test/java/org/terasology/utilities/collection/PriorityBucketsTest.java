@@ -0,0 +1,75 @@
+/*
+ * Copyright 2015 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.utilities.collection;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import org.junit.Test;
+
+import java.util.Iterator;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+
+public class PriorityBucketsTest {
+
+    @Test
+    public void iteratesByPriorityThenInsertionOrder() {
+        PriorityBuckets<Integer> buckets = new PriorityBuckets<>(value -> value / 10, 4);
+        buckets.add(25);
+        buckets.add(3);
+        buckets.add(-7);
+        buckets.add(21);
+        buckets.add(90);
+        buckets.add(31);
+
+        // -7 shares the first bucket, 90 and 31 the last one
+        assertEquals(Lists.newArrayList(3, -7, 25, 21, 90, 31), Lists.newArrayList(buckets));
+        assertEquals(6, buckets.size());
+    }
+
+    @Test
+    public void iteratorRemovesElements() {
+        PriorityBuckets<Integer> buckets = new PriorityBuckets<>(value -> value, 8);
+        for (int i = 0; i < 8; i++) {
+            buckets.add(i);
+        }
+        Iterator<Integer> iterator = buckets.iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next() % 2 == 0) {
+                iterator.remove();
+            }
+        }
+        assertEquals(Lists.newArrayList(1, 3, 5, 7), Lists.newArrayList(buckets));
+        assertEquals(4, buckets.size());
+    }
+
+    @Test
+    public void reprioritizeUsesNewPriorities() {
+        Map<String, Integer> priorities = Maps.newHashMap();
+        priorities.put("a", 0);
+        priorities.put("b", 1);
+        PriorityBuckets<String> buckets = new PriorityBuckets<>(priorities::get, 2);
+        buckets.add("a");
+        buckets.add("b");
+
+        priorities.put("a", 1);
+        priorities.put("b", 0);
+        buckets.reprioritize();
+
+        assertEquals(Lists.newArrayList("b", "a"), Lists.newArrayList(buckets));
+    }
+}
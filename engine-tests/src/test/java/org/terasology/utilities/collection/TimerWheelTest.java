@@ -0,0 +1,100 @@
+/*
+ * Copyright 2015 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.utilities.collection;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import org.junit.Test;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TimerWheelTest {
+
+    @Test
+    public void elementsExpireAtTheirDeadline() {
+        TimerWheel<String> wheel = new TimerWheel<>();
+        wheel.schedule("a", 100);
+        wheel.schedule("b", 300);
+        wheel.schedule("c", 100000);
+        List<String> expired = Lists.newArrayList();
+
+        wheel.advanceTo(50, expired);
+        assertTrue(expired.isEmpty());
+        wheel.advanceTo(100, expired);
+        assertEquals(Lists.newArrayList("a"), expired);
+        wheel.advanceTo(299, expired);
+        assertEquals(1, expired.size());
+        wheel.advanceTo(316, expired);
+        assertEquals(Lists.newArrayList("a", "b"), expired);
+        assertEquals(1, wheel.size());
+        wheel.advanceTo(100000, expired);
+        assertEquals(Lists.newArrayList("a", "b", "c"), expired);
+        assertTrue(wheel.isEmpty());
+    }
+
+    @Test
+    public void passedDeadlinesExpireWithTheNextAdvance() {
+        TimerWheel<String> wheel = new TimerWheel<>();
+        List<String> expired = Lists.newArrayList();
+        wheel.advanceTo(1000, expired);
+        wheel.schedule("a", 10);
+        wheel.advanceTo(1000, expired);
+        assertTrue(expired.isEmpty());
+        wheel.advanceTo(1001, expired);
+        assertEquals(Lists.newArrayList("a"), expired);
+    }
+
+    @Test
+    public void matchesSortedDeadlines() {
+        Random random = new Random(42);
+        long[] deadlineRanges = {10, 300, 70000, 20000000L, 1L << 34};
+        long[] steps = {1, 16, 300, 100000, 30000000L};
+        TimerWheel<Integer> wheel = new TimerWheel<>();
+        Map<Integer, Long> deadlines = Maps.newHashMap();
+        long time = 1000;
+        for (int i = 0; i < 2000; i++) {
+            for (int j = random.nextInt(10); j > 0; j--) {
+                long deadline = time + (long) (random.nextDouble() * deadlineRanges[random.nextInt(deadlineRanges.length)]) - 5;
+                wheel.schedule(i * 10 + j, deadline);
+                deadlines.put(i * 10 + j, deadline);
+            }
+            time += steps[random.nextInt(steps.length)];
+            List<Integer> expired = Lists.newArrayList();
+            wheel.advanceTo(time, expired);
+
+            Set<Integer> expected = Sets.newHashSet();
+            Iterator<Map.Entry<Integer, Long>> iterator = deadlines.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<Integer, Long> entry = iterator.next();
+                if (entry.getValue() <= time) {
+                    expected.add(entry.getKey());
+                    iterator.remove();
+                }
+            }
+            assertEquals(expected.size(), expired.size());
+            assertEquals(expected, Sets.newHashSet(expired));
+            assertEquals(deadlines.size(), wheel.size());
+        }
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2015 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.utilities.concurrency;
+
+import com.google.common.collect.Lists;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class BucketedPriorityBlockingQueueTest {
+
+    @Test
+    public void takesLowestPriorityFirst() throws InterruptedException {
+        BucketedPriorityBlockingQueue<Integer> queue = new BucketedPriorityBlockingQueue<>(value -> value, 1, 8);
+        queue.offer(5);
+        queue.offer(2);
+        queue.offer(20);
+        queue.offer(-3);
+        queue.offer(2);
+        queue.offer(10);
+
+        assertEquals(6, queue.size());
+        assertEquals(-3, (int) queue.take());
+        assertEquals(2, (int) queue.take());
+        assertEquals(2, (int) queue.take());
+        assertEquals(5, (int) queue.take());
+        // Priorities beyond the last bucket share it, in the order they were added
+        assertEquals(20, (int) queue.take());
+        assertEquals(10, (int) queue.take());
+        assertNull(queue.poll());
+    }
+
+    @Test
+    public void reprioritizeUsesNewPriorities() {
+        Map<String, Integer> priorities = new ConcurrentHashMap<>();
+        priorities.put("near", 1);
+        priorities.put("far", 6);
+        BucketedPriorityBlockingQueue<String> queue = new BucketedPriorityBlockingQueue<>(priorities::get, 4, 8);
+        queue.offer("near");
+        queue.offer("far");
+
+        priorities.put("near", 7);
+        priorities.put("far", 0);
+        queue.reprioritize();
+
+        List<String> drained = Lists.newArrayList();
+        queue.drainTo(drained);
+        assertEquals(Lists.newArrayList("far", "near"), drained);
+        assertEquals(0, queue.size());
+    }
+
+    @Test
+    public void iteratesInPriorityOrder() {
+        BucketedPriorityBlockingQueue<Integer> queue = new BucketedPriorityBlockingQueue<>(value -> value, 2, 8);
+        queue.offer(5);
+        queue.offer(2);
+        queue.offer(7);
+        queue.offer(1);
+
+        assertEquals(Lists.newArrayList(1, 2, 5, 7), Lists.newArrayList(queue));
+        assertTrue(queue.contains(5));
+        assertFalse(queue.contains(3));
+        assertEquals("[1, 2, 5, 7]", queue.toString());
+    }
+
+    @Test
+    public void removesArbitraryElements() throws InterruptedException {
+        BucketedPriorityBlockingQueue<Integer> queue = new BucketedPriorityBlockingQueue<>(value -> value, 2, 8);
+        queue.offer(5);
+        queue.offer(2);
+        queue.offer(7);
+
+        assertTrue(queue.remove(Integer.valueOf(2)));
+        assertFalse(queue.remove(Integer.valueOf(2)));
+        queue.removeIf(value -> value == 7);
+
+        assertEquals(1, queue.size());
+        assertEquals(5, (int) queue.take());
+        assertNull(queue.poll());
+    }
+}
@@ -40,6 +40,7 @@
 import org.terasology.world.chunks.internal.ChunkImpl;
 import org.terasology.world.internal.ChunkViewCore;
 import org.terasology.world.internal.ChunkViewCoreImpl;
+import org.terasology.world.internal.PaddedChunkSnapshot;
 
 import java.io.IOException;
 
@@ -152,6 +153,34 @@ public void localToWorld() {
         assertEquals(new Vector3i(ChunkConstants.SIZE_X, ChunkConstants.SIZE_Y, ChunkConstants.SIZE_Z), chunkView.toWorldPos(Vector3i.zero()));
     }
 
+    @Test
+    public void paddedSnapshotCopiesChunkAndBorder() {
+        Chunk chunk = createChunk(0, 0, 0);
+        chunk.setBlock(new Vector3i(0, 0, 0), solidBlock);
+        chunk.setSunlight(new Vector3i(1, 2, 3), (byte) 7);
+        Chunk leftChunk = createChunk(-1, 0, 0);
+        leftChunk.setBlock(new Vector3i(ChunkConstants.SIZE_X - 1, 5, 3), solidBlock);
+        leftChunk.setBlock(new Vector3i(ChunkConstants.SIZE_X - 2, 5, 3), solidBlock);
+        leftChunk.setLight(new Vector3i(ChunkConstants.SIZE_X - 1, 6, 3), (byte) 4);
+
+        Chunk[] chunks = new Chunk[]{createChunk(-1, 0, -1), createChunk(0, 0, -1), createChunk(1, 0, -1),
+                leftChunk, chunk, createChunk(1, 0, 0),
+                createChunk(-1, 0, 1), createChunk(0, 0, 1), createChunk(1, 0, 1)};
+
+        ChunkViewCore chunkView = new ChunkViewCoreImpl(chunks,
+                Region3i.createFromCenterExtents(new Vector3i(0, 0, 0), new Vector3i(1, 0, 1)), new Vector3i(1, 0, 1), airBlock);
+        PaddedChunkSnapshot snapshot = PaddedChunkSnapshot.of(chunkView);
+        chunk.setBlock(new Vector3i(0, 0, 0), airBlock);
+
+        assertEquals(solidBlock, snapshot.getBlock(0, 0, 0));
+        assertEquals(solidBlock, snapshot.getBlockAt(PaddedChunkSnapshot.index(-1, 5, 3)));
+        assertEquals(airBlock, snapshot.getBlock(-2, 5, 3));
+        assertEquals(airBlock, snapshot.getBlock(0, ChunkConstants.SIZE_Y + 1, 0));
+        assertEquals(7, snapshot.getSunlight(1, 2, 3));
+        assertEquals(4, snapshot.getLight(-1, 6, 3));
+        assertEquals(chunkView.toWorldPos(new Vector3i(3, 4, 5)), snapshot.toWorldPos(new Vector3i(3, 4, 5)));
+    }
+
     private Chunk createChunk(int x, int y, int z) {
         return new ChunkImpl(new Vector3i(x, y, z), blockManager, biomeManager);
     }
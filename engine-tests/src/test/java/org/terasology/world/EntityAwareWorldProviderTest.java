@@ -17,7 +17,9 @@
 package org.terasology.world;
 
 import com.google.common.base.Objects;
+import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 import org.junit.Before;
 import org.junit.Test;
 import org.terasology.TerasologyTestingEnvironment;
@@ -58,6 +60,7 @@
 
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
@@ -206,6 +209,36 @@ public void testComponentsAddedAndActivatedWhenBlockChanged() {
                 checker.receivedEvents);
     }
 
+    @Test
+    public void testComponentsAddedWhenBlocksChangedInBulk() {
+        Map<Vector3i, Block> blocks = Maps.newHashMap();
+        blocks.put(new Vector3i(0, 0, 0), blockWithString);
+        blocks.put(new Vector3i(40, 0, 0), blockWithString);
+
+        Map<Vector3i, Block> oldBlocks = worldProvider.setBlocks(blocks);
+        assertEquals(airBlock, oldBlocks.get(new Vector3i(0, 0, 0)));
+        assertEquals(airBlock, oldBlocks.get(new Vector3i(40, 0, 0)));
+        assertTrue(worldProvider.getBlockEntityAt(new Vector3i(0, 0, 0)).hasComponent(StringComponent.class));
+        assertTrue(worldProvider.getBlockEntityAt(new Vector3i(40, 0, 0)).hasComponent(StringComponent.class));
+    }
+
+    @Test
+    public void testNoEntitiesCreatedWhenBlocksChangedInBulkWithinFamily() {
+        worldProvider.setBlock(Vector3i.zero(), blockInFamilyOne);
+        worldProvider.update(1.0f);
+        int entityCount = Iterables.size(entityManager.getAllEntities());
+
+        Map<Vector3i, Block> blocks = Maps.newHashMap();
+        blocks.put(new Vector3i(0, 0, 0), blockInFamilyTwo);
+        for (int x = 1; x < 100; x++) {
+            blocks.put(new Vector3i(x, 0, 0), airBlock);
+        }
+        worldProvider.setBlocks(blocks);
+
+        assertEquals(entityCount, Iterables.size(entityManager.getAllEntities()));
+        assertEquals(blockInFamilyTwo, worldProvider.getBlock(0, 0, 0));
+    }
+
     @Test
     public void testComponentsDeactivatedAndRemovedWhenBlockChanged() {
         worldProvider.setBlock(Vector3i.zero(), blockWithString);
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2015 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.world.chunks.blockdata;
+
+import org.junit.Test;
+import org.terasology.world.chunks.deflate.TeraPaletteDeflator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TeraPaletteArray16BitTest {
+
+    private static final int SIZE_X = 16;
+    private static final int SIZE_Y = 32;
+    private static final int SIZE_Z = 16;
+
+    @Test
+    public void indicesGetRepackedWhenThePaletteGrows() {
+        TeraPaletteArray16Bit array = new TeraPaletteArray16Bit(SIZE_X, SIZE_Y, SIZE_Z);
+        assertEquals(1, array.getBitsPerEntry());
+        int[] expectedBits = {1, 2, 2, 4, 4};
+        for (int value = 0; value < expectedBits.length; value++) {
+            array.set(value, value, value, value + 100);
+            assertEquals(expectedBits[value], array.getBitsPerEntry());
+        }
+        for (int value = expectedBits.length; value < 300; value++) {
+            array.set(value % SIZE_X, value / SIZE_X, 0, -value);
+        }
+        assertEquals(16, array.getBitsPerEntry());
+        for (int value = 0; value < expectedBits.length; value++) {
+            assertEquals(value + 100, array.get(value, value, value));
+        }
+        for (int value = expectedBits.length; value < 300; value++) {
+            assertEquals(-value, array.get(value % SIZE_X, value / SIZE_X, 0));
+        }
+        assertEquals(0, array.get(SIZE_X - 1, SIZE_Y - 1, SIZE_Z - 1));
+    }
+
+    @Test
+    public void deflatingPicksThePaletteWhenItIsSmaller() {
+        TeraDenseArray16Bit dense = new TeraDenseArray16Bit(SIZE_X, SIZE_Y, SIZE_Z);
+        fillWithFewValues(dense);
+        TeraArray deflated = new TeraPaletteDeflator().deflate(dense);
+
+        assertTrue(deflated instanceof TeraPaletteArray16Bit);
+        assertTrue(deflated.getEstimatedMemoryConsumptionInBytes() * 4 < dense.getEstimatedMemoryConsumptionInBytes());
+        assertSameContent(dense, deflated);
+        assertSameContent(dense, deflated.copy());
+    }
+
+    @Test
+    public void deflatingDropsUnusedPaletteEntries() {
+        TeraDenseArray16Bit dense = new TeraDenseArray16Bit(SIZE_X, SIZE_Y, SIZE_Z);
+        fillWithFewValues(dense);
+        TeraArray array = new TeraPaletteDeflator().deflate(dense);
+        for (int i = 0; i < 20; i++) {
+            array.set(1, 1, 1, 1000 + i);
+        }
+        array.set(1, 1, 1, dense.get(1, 1, 1));
+        assertEquals(24, ((TeraPaletteArray16Bit) array).getPaletteSize());
+
+        TeraArray compacted = new TeraPaletteDeflator().deflate(array);
+        assertEquals(4, ((TeraPaletteArray16Bit) compacted).getPaletteSize());
+        assertEquals(2, ((TeraPaletteArray16Bit) compacted).getBitsPerEntry());
+        assertSameContent(dense, compacted);
+    }
+
+    private void fillWithFewValues(TeraArray array) {
+        for (int y = 0; y < SIZE_Y; y++) {
+            for (int z = 0; z < SIZE_Z; z++) {
+                for (int x = 0; x < SIZE_X; x++) {
+                    array.set(x, y, z, (x * 7 + y * 3 + z) % 4);
+                }
+            }
+        }
+    }
+
+    private void assertSameContent(TeraArray expected, TeraArray actual) {
+        for (int y = 0; y < SIZE_Y; y++) {
+            for (int z = 0; z < SIZE_Z; z++) {
+                for (int x = 0; x < SIZE_X; x++) {
+                    assertEquals(expected.get(x, y, z), actual.get(x, y, z));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright 2015 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.world.generation;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.terasology.context.Context;
+import org.terasology.context.internal.ContextImpl;
+import org.terasology.math.Region3i;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.world.chunks.CoreChunk;
+import org.terasology.world.generation.facets.base.BaseFacet2D;
+import org.terasology.world.generation.facets.base.BaseFacet3D;
+import org.terasology.world.generator.plugin.WorldGeneratorPluginLibrary;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ColumnFacetCacheTest {
+
+    private Context context = new ContextImpl();
+    private HeightProvider heightProvider;
+    private DensityProvider densityProvider;
+    private FacetRecorder recorder;
+    private World world;
+
+    @Before
+    public void setup() {
+        heightProvider = new HeightProvider();
+        densityProvider = new DensityProvider();
+        recorder = new FacetRecorder();
+        WorldBuilder worldBuilder = new WorldBuilder(context.get(WorldGeneratorPluginLibrary.class));
+        worldBuilder.setSeed(12);
+        worldBuilder.addProvider(heightProvider);
+        worldBuilder.addProvider(densityProvider);
+        worldBuilder.addRasterizer(recorder);
+        world = worldBuilder.build();
+    }
+
+    @Test
+    public void stackedChunksShareColumnFacets() {
+        world.rasterizeChunk(chunkAt(0, 0, 0), null);
+        world.rasterizeChunk(chunkAt(0, 1, 0), null);
+
+        assertEquals(1, heightProvider.calls);
+        assertEquals(2, densityProvider.calls);
+        assertSame(recorder.heightFacets.get(0), recorder.heightFacets.get(1));
+        assertSame(recorder.heightFacets.get(0), recorder.densityFacets.get(1).height);
+    }
+
+    @Test
+    public void columnsAreSeparatedByArea() {
+        world.rasterizeChunk(chunkAt(0, 0, 0), null);
+        world.rasterizeChunk(chunkAt(1, 0, 0), null);
+
+        assertEquals(2, heightProvider.calls);
+    }
+
+    @Test
+    public void irrelevantColumnsAreReleased() {
+        world.rasterizeChunk(chunkAt(0, 0, 0), null);
+        world.rasterizeChunk(chunkAt(2, 0, 0), null);
+        world.retainCachedColumns(Collections.singletonList(region(0, 0, 0)));
+
+        world.rasterizeChunk(chunkAt(0, 1, 0), null);
+        assertEquals(2, heightProvider.calls);
+        world.rasterizeChunk(chunkAt(2, 1, 0), null);
+        assertEquals(3, heightProvider.calls);
+    }
+
+    @Test
+    public void leastRecentlyUsedColumnsAreDroppedWhenTheLimitShrinks() {
+        world.rasterizeChunk(chunkAt(0, 0, 0), null);
+        world.rasterizeChunk(chunkAt(1, 0, 0), null);
+        world.rasterizeChunk(chunkAt(0, 1, 0), null);
+        world.setMaxCachedColumns(1);
+
+        world.rasterizeChunk(chunkAt(0, 2, 0), null);
+        assertEquals(2, heightProvider.calls);
+        world.rasterizeChunk(chunkAt(1, 1, 0), null);
+        assertEquals(3, heightProvider.calls);
+    }
+
+    @Test
+    public void uncachedWorldDataStillWorks() {
+        Region region = world.getWorldData(region(0, 0, 0));
+        assertSame(region.getFacet(HeightFacet.class), region.getFacet(DensityFacet.class).height);
+        assertEquals(1, heightProvider.calls);
+    }
+
+    private static Region3i region(int x, int y, int z) {
+        return Region3i.createFromMinAndSize(new Vector3i(x * 4, y * 4, z * 4), new Vector3i(4, 4, 4));
+    }
+
+    private static CoreChunk chunkAt(int x, int y, int z) {
+        CoreChunk chunk = mock(CoreChunk.class);
+        when(chunk.getRegion()).thenReturn(region(x, y, z));
+        return chunk;
+    }
+
+    public static class HeightFacet extends BaseFacet2D {
+        public HeightFacet(Region3i targetRegion, Border3D border) {
+            super(targetRegion, border);
+        }
+    }
+
+    public static class DensityFacet extends BaseFacet3D {
+        private HeightFacet height;
+
+        public DensityFacet(Region3i targetRegion, Border3D border, HeightFacet height) {
+            super(targetRegion, border);
+            this.height = height;
+        }
+    }
+
+    @Produces(HeightFacet.class)
+    public static class HeightProvider implements FacetProvider {
+        private int calls;
+
+        @Override
+        public void process(GeneratingRegion region) {
+            calls++;
+            region.setRegionFacet(HeightFacet.class, new HeightFacet(region.getRegion(), region.getBorderForFacet(HeightFacet.class)));
+        }
+    }
+
+    @Produces(DensityFacet.class)
+    @Requires(@Facet(HeightFacet.class))
+    public static class DensityProvider implements FacetProvider {
+        private int calls;
+
+        @Override
+        public void process(GeneratingRegion region) {
+            calls++;
+            HeightFacet height = region.getRegionFacet(HeightFacet.class);
+            region.setRegionFacet(DensityFacet.class, new DensityFacet(region.getRegion(), region.getBorderForFacet(DensityFacet.class), height));
+        }
+    }
+
+    public static class FacetRecorder implements WorldRasterizer {
+        private List<HeightFacet> heightFacets = new ArrayList<>();
+        private List<DensityFacet> densityFacets = new ArrayList<>();
+
+        @Override
+        public void initialize() {
+        }
+
+        @Override
+        public void generateChunk(CoreChunk chunk, Region chunkRegion) {
+            densityFacets.add(chunkRegion.getFacet(DensityFacet.class));
+            heightFacets.add(chunkRegion.getFacet(HeightFacet.class));
+        }
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2015 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.world.internal;
+
+import com.google.common.collect.Maps;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.terasology.TerasologyTestingEnvironment;
+import org.terasology.assets.ResourceUrn;
+import org.terasology.assets.management.AssetManager;
+import org.terasology.context.Context;
+import org.terasology.context.internal.ContextImpl;
+import org.terasology.engine.SimpleUri;
+import org.terasology.entitySystem.entity.EntityManager;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.registry.CoreRegistry;
+import org.terasology.world.biomes.BiomeManager;
+import org.terasology.world.block.Block;
+import org.terasology.world.block.BlockManager;
+import org.terasology.world.block.BlockUri;
+import org.terasology.world.block.family.SymmetricBlockFamilyFactory;
+import org.terasology.world.block.internal.BlockManagerImpl;
+import org.terasology.world.block.loader.BlockFamilyDefinition;
+import org.terasology.world.block.loader.BlockFamilyDefinitionData;
+import org.terasology.world.block.shapes.BlockShape;
+import org.terasology.world.block.tiles.NullWorldAtlas;
+import org.terasology.world.chunks.Chunk;
+import org.terasology.world.chunks.internal.ChunkImpl;
+import org.terasology.world.chunks.internal.GeneratingChunkProvider;
+
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.when;
+
+public class WorldProviderCoreImplTest extends TerasologyTestingEnvironment {
+
+    private Block air;
+    private Block stone;
+    private Chunk chunk;
+    private WorldProviderCoreImpl worldProvider;
+
+    @Before
+    @Override
+    public void setup() throws Exception {
+        super.setup();
+        AssetManager assetManager = CoreRegistry.get(AssetManager.class);
+        BlockManagerImpl blockManager = new BlockManagerImpl(new NullWorldAtlas(), assetManager, true);
+        CoreRegistry.put(BlockManager.class, blockManager);
+
+        BlockFamilyDefinitionData solidData = new BlockFamilyDefinitionData();
+        solidData.getBaseSection().setDisplayName("Stone");
+        solidData.getBaseSection().setShape(assetManager.getAsset("engine:cube", BlockShape.class).get());
+        solidData.getBaseSection().setTranslucent(false);
+        solidData.setFamilyFactory(new SymmetricBlockFamilyFactory());
+        assetManager.loadAsset(new ResourceUrn("engine:stone"), solidData, BlockFamilyDefinition.class);
+        stone = blockManager.getBlock(new BlockUri(new ResourceUrn("engine:stone")));
+        air = blockManager.getBlock(BlockManager.AIR_ID);
+
+        chunk = new ChunkImpl(new Vector3i(0, 0, 0), blockManager, Mockito.mock(BiomeManager.class));
+        GeneratingChunkProvider chunkProvider = Mockito.mock(GeneratingChunkProvider.class);
+        when(chunkProvider.getChunk(any(Vector3i.class))).thenReturn(null);
+        when(chunkProvider.getChunk(new Vector3i(0, 0, 0))).thenReturn(chunk);
+
+        Context worldContext = new ContextImpl();
+        worldContext.put(EntityManager.class, Mockito.mock(EntityManager.class));
+        worldProvider = new WorldProviderCoreImpl("test", "seed", 0, new SimpleUri("engine:test"), chunkProvider,
+                blockManager.getBlock(BlockManager.UNLOADED_ID), worldContext);
+    }
+
+    @Test
+    public void setBlocksReturnsOldBlocksOfAllPositionsInLoadedChunks() {
+        chunk.setBlock(new Vector3i(1, 1, 1), stone);
+
+        Map<Vector3i, Block> blocks = Maps.newHashMap();
+        blocks.put(new Vector3i(0, 0, 0), stone);
+        blocks.put(new Vector3i(1, 1, 1), stone);
+        blocks.put(new Vector3i(-1, 0, 0), stone);
+        Map<Vector3i, Block> oldBlocks = worldProvider.setBlocks(blocks);
+
+        assertEquals(2, oldBlocks.size());
+        assertEquals(air, oldBlocks.get(new Vector3i(0, 0, 0)));
+        assertEquals(stone, oldBlocks.get(new Vector3i(1, 1, 1)));
+        assertFalse(oldBlocks.containsKey(new Vector3i(-1, 0, 0)));
+        assertEquals(stone, chunk.getBlock(0, 0, 0));
+        assertEquals(stone, chunk.getBlock(1, 1, 1));
+    }
+}
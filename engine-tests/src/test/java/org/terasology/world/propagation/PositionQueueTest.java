@@ -0,0 +1,49 @@
+/*
+ * Copyright 2015 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.world.propagation;
+
+import org.junit.Test;
+import org.terasology.math.geom.Vector3i;
+
+import static org.junit.Assert.assertEquals;
+
+public class PositionQueueTest {
+
+    @Test
+    public void packedPositionsGetRestored() {
+        Vector3i result = new Vector3i();
+        for (Vector3i pos : new Vector3i[]{new Vector3i(0, 0, 0), new Vector3i(-1, 5, -7),
+                new Vector3i(-(1 << 20), (1 << 20) - 1, 12345)}) {
+            PositionQueue.unpack(PositionQueue.pack(pos), result);
+            assertEquals(pos, result);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void tooLargeCoordinateIsRejected() {
+        PositionQueue.pack(0, 1 << 20, 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void tooSmallCoordinateIsRejected() {
+        PositionQueue.pack(0, 0, -(1 << 20) - 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void overflowingCoordinateIsRejected() {
+        PositionQueue.pack(Integer.MAX_VALUE, 0, 0);
+    }
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright 2015 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.benchmark.concurrency;
+
+import com.google.common.collect.Lists;
+import org.terasology.benchmark.Benchmark;
+import org.terasology.benchmark.Benchmarks;
+import org.terasology.benchmark.PrintToConsoleCallback;
+
+import java.util.List;
+
+/**
+ * Compares the task queues of the chunk generator and the chunk mesh updater under contention.
+ */
+public final class TaskQueueBenchmark {
+
+    private TaskQueueBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        final List<Benchmark> benchmarks = Lists.newArrayList();
+
+        for (int tasks : new int[]{1000, 10000}) {
+            for (TaskQueueContentionBenchmark.QueueType queueType : TaskQueueContentionBenchmark.QueueType.values()) {
+                benchmarks.add(new TaskQueueContentionBenchmark(queueType, tasks));
+            }
+        }
+        Benchmarks.execute(benchmarks, new PrintToConsoleCallback());
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright 2015 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.benchmark.concurrency;
+
+import org.terasology.benchmark.AbstractBenchmark;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.utilities.concurrency.BucketedPriorityBlockingQueue;
+import org.terasology.utilities.concurrency.DynamicPriorityBlockingQueue;
+
+import java.util.Random;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Queues a batch of chunk positions from one producer and takes them from eight consumer threads, with the priority
+ * calculated like the chunk generator does: the distance to the nearest of a number of relevance regions, under a read
+ * lock. Each repetition moves the regions once, as a player would.
+ */
+public class TaskQueueContentionBenchmark extends AbstractBenchmark {
+
+    public enum QueueType {
+        DYNAMIC("dynamic priority queue"),
+        BUCKETED("bucketed priority queue");
+
+        private final String title;
+
+        QueueType(String title) {
+            this.title = title;
+        }
+    }
+
+    private static final int CONSUMERS = 8;
+    private static final int REGIONS = 4;
+
+    private final QueueType queueType;
+    private final int tasks;
+
+    private final ReadWriteLock regionLock = new ReentrantReadWriteLock();
+    private final Vector3i[] regionCenters = new Vector3i[REGIONS];
+
+    private BlockingQueue<Vector3i> queue;
+    private Thread[] consumers;
+    private volatile CountDownLatch remaining;
+    private Vector3i[] positions;
+    private Random random;
+
+    public TaskQueueContentionBenchmark(QueueType queueType, int tasks) {
+        super("Queue " + tasks + " chunk tasks for " + CONSUMERS + " threads with a " + queueType.title, 2, new int[]{10});
+        this.queueType = queueType;
+        this.tasks = tasks;
+    }
+
+    @Override
+    public void setup() {
+        random = new Random(3);
+        for (int i = 0; i < REGIONS; i++) {
+            regionCenters[i] = new Vector3i(random.nextInt(20), random.nextInt(4), random.nextInt(20));
+        }
+        positions = new Vector3i[tasks];
+        for (int i = 0; i < tasks; i++) {
+            positions[i] = new Vector3i(random.nextInt(40) - 10, random.nextInt(8) - 2, random.nextInt(40) - 10);
+        }
+        if (queueType == QueueType.DYNAMIC) {
+            queue = new DynamicPriorityBlockingQueue<>((a, b) -> score(a) - score(b));
+        } else {
+            queue = new BucketedPriorityBlockingQueue<>(this::score, CONSUMERS);
+        }
+
+        consumers = new Thread[CONSUMERS];
+        for (int i = 0; i < CONSUMERS; i++) {
+            consumers[i] = new Thread(() -> {
+                try {
+                    while (!Thread.currentThread().isInterrupted()) {
+                        queue.take();
+                        remaining.countDown();
+                    }
+                } catch (InterruptedException e) {
+                    // Finished
+                }
+            }, "Benchmark-Consumer-" + i);
+            consumers[i].setDaemon(true);
+            consumers[i].start();
+        }
+    }
+
+    private int score(Vector3i pos) {
+        int score = Integer.MAX_VALUE;
+        regionLock.readLock().lock();
+        try {
+            for (Vector3i center : regionCenters) {
+                score = Math.min(score, pos.gridDistance(center));
+            }
+            return score;
+        } finally {
+            regionLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void run() {
+        remaining = new CountDownLatch(tasks);
+        for (Vector3i pos : positions) {
+            queue.offer(pos);
+        }
+
+        regionLock.writeLock().lock();
+        try {
+            for (Vector3i center : regionCenters) {
+                center.add(random.nextInt(3) - 1, 0, random.nextInt(3) - 1);
+            }
+        } finally {
+            regionLock.writeLock().unlock();
+        }
+        if (queue instanceof BucketedPriorityBlockingQueue) {
+            ((BucketedPriorityBlockingQueue<Vector3i>) queue).reprioritize();
+        }
+
+        try {
+            if (!remaining.await(5, TimeUnit.MINUTES)) {
+                throw new IllegalStateException("Consumers did not finish in time");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void finish(boolean aborted) {
+        for (Thread consumer : consumers) {
+            consumer.interrupt();
+        }
+        consumers = null;
+        queue = null;
+        positions = null;
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2015 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.benchmark.propagation;
+
+import org.terasology.math.Region3i;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.world.block.Block;
+import org.terasology.world.propagation.PropagatorWorldView;
+
+import java.util.Arrays;
+
+/**
+ * A propagator world view backed by flat arrays, so that the benchmarks measure the propagator rather than the view.
+ */
+public class ArrayPropagatorWorldView implements PropagatorWorldView {
+    private final Region3i region;
+    private final Block defaultBlock;
+    private final byte[] values;
+    private final Block[] blocks;
+
+    public ArrayPropagatorWorldView(Region3i region, Block defaultBlock) {
+        this.region = region;
+        this.defaultBlock = defaultBlock;
+        this.values = new byte[region.size().x * region.size().y * region.size().z];
+        this.blocks = new Block[values.length];
+        clear();
+    }
+
+    public void clear() {
+        Arrays.fill(values, (byte) 0);
+        Arrays.fill(blocks, defaultBlock);
+    }
+
+    @Override
+    public byte getValueAt(Vector3i pos) {
+        if (!region.encompasses(pos)) {
+            return UNAVAILABLE;
+        }
+        return values[indexOf(pos)];
+    }
+
+    @Override
+    public void setValueAt(Vector3i pos, byte value) {
+        values[indexOf(pos)] = value;
+    }
+
+    @Override
+    public Block getBlockAt(Vector3i pos) {
+        if (!region.encompasses(pos)) {
+            return null;
+        }
+        return blocks[indexOf(pos)];
+    }
+
+    public void setBlockAt(Vector3i pos, Block block) {
+        blocks[indexOf(pos)] = block;
+    }
+
+    private int indexOf(Vector3i pos) {
+        Vector3i size = region.size();
+        return (pos.x - region.minX()) + size.x * ((pos.y - region.minY()) + size.y * (pos.z - region.minZ()));
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright 2015 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.benchmark.propagation;
+
+import com.google.common.collect.Lists;
+import org.terasology.benchmark.AbstractBenchmark;
+import org.terasology.math.Region3i;
+import org.terasology.math.Side;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.world.block.Block;
+import org.terasology.world.chunks.ChunkConstants;
+import org.terasology.world.propagation.BatchPropagator;
+import org.terasology.world.propagation.BlockChange;
+import org.terasology.world.propagation.StandardBatchPropagator;
+import org.terasology.world.propagation.light.LightPropagationRules;
+
+import java.util.List;
+
+/**
+ * Runs the scenarios of BulkLightPropagationTest, plus the light update after blowing a hole into stone, with the
+ * {@link StandardBatchPropagator}.
+ */
+public class BulkLightPropagationBenchmark extends AbstractBenchmark {
+
+    public enum Scenario {
+        ADD_AND_REMOVE_LIGHT_IN_VACUUM("Add and remove light in vacuum"),
+        OVERLAPPING_LIGHTS("Add and remove overlapping lights"),
+        SOLID_BLOCKS_LIGHT("Add and remove solid next to light"),
+        EXPLOSION("Blow a 9x9x9 hole into stone next to lights and fill it again");
+
+        private final String title;
+
+        Scenario(String title) {
+            this.title = title;
+        }
+    }
+
+    private static final int EXPLOSION_RADIUS = 4;
+
+    private final Scenario scenario;
+    private final Region3i region = Region3i.createFromMinMax(
+            new Vector3i(-ChunkConstants.SIZE_X, -ChunkConstants.SIZE_Y, -ChunkConstants.SIZE_Z),
+            new Vector3i(2 * ChunkConstants.SIZE_X - 1, 2 * ChunkConstants.SIZE_Y - 1, 2 * ChunkConstants.SIZE_Z - 1));
+
+    private Block air;
+    private Block fullLight;
+    private Block solid;
+    private ArrayPropagatorWorldView worldView;
+    private BatchPropagator propagator;
+
+    public BulkLightPropagationBenchmark(Scenario scenario) {
+        super("Bulk light propagation: " + scenario.title, 100, new int[]{1000});
+        this.scenario = scenario;
+    }
+
+    @Override
+    public void setup() {
+        air = new Block();
+        air.setTranslucent(true);
+        fullLight = new Block();
+        fullLight.setTranslucent(true);
+        fullLight.setLuminance(ChunkConstants.MAX_LIGHT);
+        solid = new Block();
+        for (Side side : Side.values()) {
+            solid.setFullSide(side, true);
+        }
+        worldView = new ArrayPropagatorWorldView(region, air);
+        propagator = new StandardBatchPropagator(new LightPropagationRules(), worldView);
+    }
+
+    @Override
+    public void run() {
+        switch (scenario) {
+            case ADD_AND_REMOVE_LIGHT_IN_VACUUM:
+                change(Vector3i.zero(), air, fullLight);
+                change(Vector3i.zero(), fullLight, air);
+                break;
+            case OVERLAPPING_LIGHTS:
+                Vector3i lightPos = new Vector3i(5, 0, 0);
+                change(Vector3i.zero(), air, fullLight);
+                change(lightPos, air, fullLight);
+                change(lightPos, fullLight, air);
+                change(Vector3i.zero(), fullLight, air);
+                break;
+            case SOLID_BLOCKS_LIGHT:
+                Vector3i solidPos = new Vector3i(1, 0, 0);
+                change(Vector3i.zero(), air, fullLight);
+                change(solidPos, air, solid);
+                change(solidPos, solid, air);
+                change(Vector3i.zero(), fullLight, air);
+                break;
+            case EXPLOSION:
+                explode();
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void explode() {
+        Region3i stone = Region3i.createFromCenterExtents(Vector3i.zero(), 2 * EXPLOSION_RADIUS);
+        Region3i hole = Region3i.createFromCenterExtents(Vector3i.zero(), EXPLOSION_RADIUS);
+        worldView.clear();
+        for (Vector3i pos : stone) {
+            worldView.setBlockAt(pos, solid);
+        }
+        // A ring of lights just outside the stone
+        List<BlockChange> lights = Lists.newArrayList();
+        for (Side side : Side.horizontalSides()) {
+            Vector3i pos = new Vector3i(side.getVector3i());
+            pos.mul(2 * EXPLOSION_RADIUS + 1);
+            worldView.setBlockAt(pos, fullLight);
+            lights.add(new BlockChange(pos, air, fullLight));
+        }
+        propagator.process(lights);
+
+        List<BlockChange> removed = Lists.newArrayList();
+        for (Vector3i pos : hole) {
+            worldView.setBlockAt(pos, air);
+            removed.add(new BlockChange(pos, solid, air));
+        }
+        propagator.process(removed);
+
+        List<BlockChange> filled = Lists.newArrayList();
+        for (Vector3i pos : hole) {
+            worldView.setBlockAt(pos, solid);
+            filled.add(new BlockChange(pos, air, solid));
+        }
+        propagator.process(filled);
+    }
+
+    private void change(Vector3i pos, Block from, Block to) {
+        worldView.setBlockAt(pos, to);
+        propagator.process(new BlockChange(pos, from, to));
+    }
+
+    @Override
+    public void finish(boolean aborted) {
+        worldView = null;
+        propagator = null;
+    }
+}
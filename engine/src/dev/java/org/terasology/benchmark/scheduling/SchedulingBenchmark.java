@@ -0,0 +1,41 @@
+/*
+ * Copyright 2015 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.benchmark.scheduling;
+
+import com.google.common.collect.Lists;
+import org.terasology.benchmark.Benchmark;
+import org.terasology.benchmark.Benchmarks;
+import org.terasology.benchmark.PrintToConsoleCallback;
+
+import java.util.List;
+
+/**
+ * Compares the schedulers for delayed actions, periodic actions and lifespans with 100k pending timers.
+ */
+public final class SchedulingBenchmark {
+
+    private SchedulingBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        final List<Benchmark> benchmarks = Lists.newArrayList();
+
+        for (TimerSchedulingBenchmark.Scheduler scheduler : TimerSchedulingBenchmark.Scheduler.values()) {
+            benchmarks.add(new TimerSchedulingBenchmark(scheduler, 100000));
+        }
+        Benchmarks.execute(benchmarks, new PrintToConsoleCallback());
+    }
+}
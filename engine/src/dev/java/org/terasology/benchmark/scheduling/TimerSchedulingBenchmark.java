@@ -0,0 +1,130 @@
+/*
+ * Copyright 2015 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.benchmark.scheduling;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Ordering;
+import com.google.common.collect.SortedSetMultimap;
+import com.google.common.collect.TreeMultimap;
+import org.terasology.benchmark.AbstractBenchmark;
+import org.terasology.utilities.collection.TimerWheel;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Keeps a fixed number of timers pending and advances the time in steps of a frame, scheduling every expired timer
+ * again. Compares the sorted multimap the delayed action system used to keep its timers in with the timer wheel.
+ */
+public class TimerSchedulingBenchmark extends AbstractBenchmark {
+
+    public enum Scheduler {
+        SORTED_MULTIMAP("sorted multimap"),
+        TIMER_WHEEL("timer wheel");
+
+        private final String title;
+
+        Scheduler(String title) {
+            this.title = title;
+        }
+    }
+
+    private static final long FRAME_TIME = 16;
+    private static final int MAX_DELAY = 60000;
+
+    private final Scheduler scheduler;
+    private final int timerCount;
+
+    private SortedSetMultimap<Long, Integer> sortedTimers;
+    private TimerWheel<Integer> timerWheel;
+    private List<Integer> expired;
+    private Random random;
+    private long time;
+    private long fired;
+    private long frames;
+
+    public TimerSchedulingBenchmark(Scheduler scheduler, int timerCount) {
+        super("Advance " + timerCount + " pending timers by one frame with a " + scheduler.title, 500, new int[]{10000});
+        this.scheduler = scheduler;
+        this.timerCount = timerCount;
+    }
+
+    @Override
+    public void setup() {
+        random = new Random(7);
+        expired = Lists.newArrayList();
+        time = 0;
+        if (scheduler == Scheduler.SORTED_MULTIMAP) {
+            sortedTimers = TreeMultimap.create(Ordering.natural(), Ordering.arbitrary());
+        } else {
+            timerWheel = new TimerWheel<>();
+            timerWheel.advanceTo(time, expired);
+        }
+        for (int i = 0; i < timerCount; i++) {
+            schedule(i, time + 1 + random.nextInt(MAX_DELAY));
+        }
+    }
+
+    @Override
+    public void prerun() {
+        // Leave out the warmup
+        fired = 0;
+        frames = 0;
+    }
+
+    @Override
+    public void run() {
+        time += FRAME_TIME;
+        expired.clear();
+        if (scheduler == Scheduler.SORTED_MULTIMAP) {
+            Iterator<Long> iterator = sortedTimers.keySet().iterator();
+            while (iterator.hasNext()) {
+                long deadline = iterator.next();
+                if (deadline > time) {
+                    break;
+                }
+                expired.addAll(sortedTimers.get(deadline));
+                iterator.remove();
+            }
+        } else {
+            timerWheel.advanceTo(time, expired);
+        }
+        for (Integer timer : expired) {
+            schedule(timer, time + 1 + random.nextInt(MAX_DELAY));
+        }
+        fired += expired.size();
+        frames++;
+    }
+
+    private void schedule(Integer timer, long deadline) {
+        if (scheduler == Scheduler.SORTED_MULTIMAP) {
+            sortedTimers.put(deadline, timer);
+        } else {
+            timerWheel.schedule(timer, deadline);
+        }
+    }
+
+    @Override
+    public void finish(boolean aborted) {
+        if (frames > 0) {
+            System.out.println(getTitle() + ": " + fired / frames + " timers fired per frame");
+        }
+        sortedTimers = null;
+        timerWheel = null;
+        expired = null;
+    }
+}
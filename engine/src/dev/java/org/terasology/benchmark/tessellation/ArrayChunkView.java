@@ -0,0 +1,213 @@
+/*
+ * Copyright 2015 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.benchmark.tessellation;
+
+import org.terasology.math.Region3i;
+import org.terasology.math.TeraMath;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.world.ChunkView;
+import org.terasology.world.biomes.Biome;
+import org.terasology.world.block.Block;
+import org.terasology.world.chunks.ChunkConstants;
+import org.terasology.world.liquid.LiquidData;
+
+import java.util.Arrays;
+
+/**
+ * A read only chunk view that keeps a single chunk and a border of one block in arrays, so chunks can be tessellated
+ * without a block manager or chunk provider.
+ */
+class ArrayChunkView implements ChunkView {
+
+    private final Region3i region = Region3i.createFromMinMax(new Vector3i(-1, -1, -1),
+            new Vector3i(ChunkConstants.SIZE_X, ChunkConstants.SIZE_Y, ChunkConstants.SIZE_Z));
+    private final Block air;
+    private final Biome biome;
+    private final Block[] blocks;
+    private final byte[] sunlight;
+    private final byte[] light;
+
+    ArrayChunkView(Block air, Biome biome) {
+        this.air = air;
+        this.biome = biome;
+        int volume = region.sizeX() * region.sizeY() * region.sizeZ();
+        blocks = new Block[volume];
+        sunlight = new byte[volume];
+        light = new byte[volume];
+        Arrays.fill(blocks, air);
+    }
+
+    void setBlockAt(int x, int y, int z, Block block) {
+        blocks[index(x, y, z)] = block;
+    }
+
+    void setSunlightAt(int x, int y, int z, byte value) {
+        sunlight[index(x, y, z)] = value;
+    }
+
+    private int index(int x, int y, int z) {
+        return (x - region.minX()) + region.sizeX() * ((z - region.minZ()) + region.sizeZ() * (y - region.minY()));
+    }
+
+    @Override
+    public Block getBlock(float x, float y, float z) {
+        return getBlock(TeraMath.floorToInt(x + 0.5f), TeraMath.floorToInt(y + 0.5f), TeraMath.floorToInt(z + 0.5f));
+    }
+
+    @Override
+    public Block getBlock(Vector3i pos) {
+        return getBlock(pos.x, pos.y, pos.z);
+    }
+
+    @Override
+    public Block getBlock(int x, int y, int z) {
+        return region.encompasses(x, y, z) ? blocks[index(x, y, z)] : air;
+    }
+
+    @Override
+    public Biome getBiome(float x, float y, float z) {
+        return biome;
+    }
+
+    @Override
+    public Biome getBiome(Vector3i pos) {
+        return biome;
+    }
+
+    @Override
+    public Biome getBiome(int x, int y, int z) {
+        return biome;
+    }
+
+    @Override
+    public byte getSunlight(float x, float y, float z) {
+        return getSunlight(TeraMath.floorToInt(x + 0.5f), TeraMath.floorToInt(y + 0.5f), TeraMath.floorToInt(z + 0.5f));
+    }
+
+    @Override
+    public byte getSunlight(Vector3i pos) {
+        return getSunlight(pos.x, pos.y, pos.z);
+    }
+
+    @Override
+    public byte getSunlight(int x, int y, int z) {
+        return region.encompasses(x, y, z) ? sunlight[index(x, y, z)] : 0;
+    }
+
+    @Override
+    public byte getLight(float x, float y, float z) {
+        return getLight(TeraMath.floorToInt(x + 0.5f), TeraMath.floorToInt(y + 0.5f), TeraMath.floorToInt(z + 0.5f));
+    }
+
+    @Override
+    public byte getLight(Vector3i pos) {
+        return getLight(pos.x, pos.y, pos.z);
+    }
+
+    @Override
+    public byte getLight(int x, int y, int z) {
+        return region.encompasses(x, y, z) ? light[index(x, y, z)] : 0;
+    }
+
+    @Override
+    public void setBlock(Vector3i pos, Block type) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setBlock(int x, int y, int z, Block type) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setBiome(Vector3i pos, Biome newBiome) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setBiome(int x, int y, int z, Biome newBiome) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public LiquidData getLiquid(Vector3i pos) {
+        return new LiquidData();
+    }
+
+    @Override
+    public LiquidData getLiquid(int x, int y, int z) {
+        return new LiquidData();
+    }
+
+    @Override
+    public void setLiquid(Vector3i pos, LiquidData newState) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setLiquid(int x, int y, int z, LiquidData newState) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Vector3i toWorldPos(Vector3i localPos) {
+        return new Vector3i(localPos);
+    }
+
+    @Override
+    public Region3i getWorldRegion() {
+        return region;
+    }
+
+    @Override
+    public Region3i getChunkRegion() {
+        return Region3i.createFromMinMax(Vector3i.zero(), Vector3i.zero());
+    }
+
+    @Override
+    public void setDirtyAround(Vector3i blockPos) {
+    }
+
+    @Override
+    public void setDirtyAround(Region3i blockRegion) {
+    }
+
+    @Override
+    public void writeLock() {
+    }
+
+    @Override
+    public void writeUnlock() {
+    }
+
+    @Override
+    public void readLock() {
+    }
+
+    @Override
+    public void readUnlock() {
+    }
+
+    @Override
+    public boolean isLocked() {
+        return false;
+    }
+
+    @Override
+    public boolean isValidView() {
+        return true;
+    }
+}
@@ -0,0 +1,232 @@
+/*
+ * Copyright 2015 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.benchmark.tessellation;
+
+import com.google.common.collect.Maps;
+import org.terasology.benchmark.AbstractBenchmark;
+import org.terasology.engine.subsystem.lwjgl.GLBufferPool;
+import org.terasology.math.Side;
+import org.terasology.math.geom.Vector2f;
+import org.terasology.math.geom.Vector3f;
+import org.terasology.rendering.primitives.BlockMeshGeneratorSingleShape;
+import org.terasology.rendering.primitives.ChunkMesh;
+import org.terasology.rendering.primitives.ChunkTessellator;
+import org.terasology.world.biomes.Biome;
+import org.terasology.world.block.Block;
+import org.terasology.world.block.BlockAppearance;
+import org.terasology.world.block.BlockPart;
+import org.terasology.world.block.shapes.BlockMeshPart;
+import org.terasology.world.chunks.ChunkConstants;
+import org.terasology.world.internal.PaddedChunkSnapshot;
+
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Tessellates a single chunk of generated terrain with the standard or the greedy tessellator, without OpenGL.
+ * Reports the vertices per chunk and the average time per chunk when finished.
+ */
+public class ChunkTessellationBenchmark extends AbstractBenchmark {
+
+    public enum Terrain {
+        FLAT("flat terrain"),
+        HILLS("hills"),
+        CAVES("hills with caves");
+
+        private final String title;
+
+        Terrain(String title) {
+            this.title = title;
+        }
+    }
+
+    private static final int TILES_PER_DIM = 16;
+    private static final float TILE_SIZE = 1f / TILES_PER_DIM;
+    private static final byte MAX_SUNLIGHT = 15;
+
+    // The sides of engine:cube
+    private static final Map<Side, float[][]> CUBE_VERTICES = Maps.newEnumMap(Side.class);
+    private static final Map<Side, float[][]> CUBE_TEX_COORDS = Maps.newEnumMap(Side.class);
+
+    static {
+        CUBE_VERTICES.put(Side.TOP, new float[][]{{-0.5f, 0.5f, 0.5f}, {0.5f, 0.5f, 0.5f}, {0.5f, 0.5f, -0.5f}, {-0.5f, 0.5f, -0.5f}});
+        CUBE_TEX_COORDS.put(Side.TOP, new float[][]{{0, 1}, {1, 1}, {1, 0}, {0, 0}});
+        CUBE_VERTICES.put(Side.BOTTOM, new float[][]{{-0.5f, -0.5f, 0.5f}, {-0.5f, -0.5f, -0.5f}, {0.5f, -0.5f, -0.5f}, {0.5f, -0.5f, 0.5f}});
+        CUBE_TEX_COORDS.put(Side.BOTTOM, new float[][]{{1, 1}, {1, 0}, {0, 0}, {0, 1}});
+        CUBE_VERTICES.put(Side.FRONT, new float[][]{{-0.5f, -0.5f, -0.5f}, {-0.5f, 0.5f, -0.5f}, {0.5f, 0.5f, -0.5f}, {0.5f, -0.5f, -0.5f}});
+        CUBE_TEX_COORDS.put(Side.FRONT, new float[][]{{1, 1}, {1, 0}, {0, 0}, {0, 1}});
+        CUBE_VERTICES.put(Side.BACK, new float[][]{{-0.5f, 0.5f, 0.5f}, {-0.5f, -0.5f, 0.5f}, {0.5f, -0.5f, 0.5f}, {0.5f, 0.5f, 0.5f}});
+        CUBE_TEX_COORDS.put(Side.BACK, new float[][]{{0, 0}, {0, 1}, {1, 1}, {1, 0}});
+        CUBE_VERTICES.put(Side.LEFT, new float[][]{{-0.5f, -0.5f, 0.5f}, {-0.5f, 0.5f, 0.5f}, {-0.5f, 0.5f, -0.5f}, {-0.5f, -0.5f, -0.5f}});
+        CUBE_TEX_COORDS.put(Side.LEFT, new float[][]{{1, 1}, {1, 0}, {0, 0}, {0, 1}});
+        CUBE_VERTICES.put(Side.RIGHT, new float[][]{{0.5f, -0.5f, -0.5f}, {0.5f, 0.5f, -0.5f}, {0.5f, 0.5f, 0.5f}, {0.5f, -0.5f, 0.5f}});
+        CUBE_TEX_COORDS.put(Side.RIGHT, new float[][]{{1, 1}, {1, 0}, {0, 0}, {0, 1}});
+    }
+
+    private final Terrain terrain;
+    private final boolean greedy;
+
+    private PaddedChunkSnapshot snapshot;
+    private ChunkTessellator tessellator;
+    private long chunks;
+    private long vertices;
+    private long nanos;
+
+    public ChunkTessellationBenchmark(Terrain terrain, boolean greedy) {
+        super("Tessellate " + terrain.title + (greedy ? " with greedy meshing" : ""), 50, new int[]{200});
+        this.terrain = terrain;
+        this.greedy = greedy;
+    }
+
+    @Override
+    public void setup() {
+        Block air = new Block();
+        air.setTranslucent(true);
+        air.setShadowCasting(false);
+        Block stone = createCube(0, 0, 0);
+        Block dirt = createCube(1, 1, 1);
+        Block grass = createCube(2, 3, 1);
+        grass.setGrass(true);
+
+        ArrayChunkView chunkView = new ArrayChunkView(air, new BenchmarkBiome());
+        Random random = new Random(4);
+        for (int x = -1; x <= ChunkConstants.SIZE_X; x++) {
+            for (int z = -1; z <= ChunkConstants.SIZE_Z; z++) {
+                int height = getHeight(x, z);
+                byte sunlight = MAX_SUNLIGHT;
+                for (int y = ChunkConstants.SIZE_Y; y >= -1; y--) {
+                    Block block = air;
+                    if (y < height - 3) {
+                        block = stone;
+                    } else if (y < height) {
+                        block = dirt;
+                    } else if (y == height) {
+                        block = grass;
+                    }
+                    if (terrain == Terrain.CAVES && y < height - 4 && random.nextInt(8) == 0) {
+                        block = air;
+                    }
+                    if (block != air) {
+                        sunlight = 0;
+                    }
+                    chunkView.setBlockAt(x, y, z, block);
+                    chunkView.setSunlightAt(x, y, z, sunlight);
+                }
+            }
+        }
+
+        snapshot = PaddedChunkSnapshot.of(chunkView);
+        tessellator = greedy ? new ChunkTessellator(new GLBufferPool(false), TILE_SIZE) : new ChunkTessellator(new GLBufferPool(false));
+    }
+
+    private int getHeight(int x, int z) {
+        if (terrain == Terrain.FLAT) {
+            return ChunkConstants.SIZE_Y / 2;
+        }
+        return ChunkConstants.SIZE_Y / 2 + (int) (6 * Math.sin(x * 0.3) + 4 * Math.cos(z * 0.2));
+    }
+
+    @Override
+    public void prerun() {
+        // Leave out the warmup
+        chunks = 0;
+        vertices = 0;
+        nanos = 0;
+    }
+
+    @Override
+    public void run() {
+        long start = System.nanoTime();
+        ChunkMesh mesh = tessellator.generateMesh(snapshot, ChunkConstants.SIZE_Y, 0);
+        nanos += System.nanoTime() - start;
+        chunks++;
+        for (ChunkMesh.RenderType type : ChunkMesh.RenderType.values()) {
+            vertices += mesh.getVertexElements(type).vertexCount;
+        }
+    }
+
+    @Override
+    public void finish(boolean aborted) {
+        if (chunks > 0) {
+            System.out.println(getTitle() + ": " + vertices / chunks + " vertices and "
+                    + String.format("%.3f", nanos / 1000000.0 / chunks) + " ms per chunk");
+        }
+        snapshot = null;
+        tessellator = null;
+    }
+
+    /**
+     * Creates a full cube with the given atlas tiles, the same as a block with the engine:cube shape.
+     */
+    private static Block createCube(int topTile, int sideTile, int bottomTile) {
+        Block block = new Block();
+        Map<BlockPart, BlockMeshPart> parts = Maps.newEnumMap(BlockPart.class);
+        Map<BlockPart, Vector2f> atlasPositions = Maps.newEnumMap(BlockPart.class);
+        for (Side side : Side.values()) {
+            BlockPart part = BlockPart.fromSide(side);
+            int tile = (side == Side.TOP) ? topTile : (side == Side.BOTTOM) ? bottomTile : sideTile;
+            Vector2f atlasPos = new Vector2f(tile * TILE_SIZE, 0);
+            parts.put(part, createCubeSide(side).mapTexCoords(atlasPos, TILE_SIZE));
+            atlasPositions.put(part, atlasPos);
+            block.setFullSide(side, true);
+        }
+        atlasPositions.put(BlockPart.CENTER, new Vector2f());
+        block.setPrimaryAppearance(new BlockAppearance(parts, atlasPositions));
+        block.setMeshGenerator(new BlockMeshGeneratorSingleShape(block));
+        return block;
+    }
+
+    private static BlockMeshPart createCubeSide(Side side) {
+        float[][] sideVertices = CUBE_VERTICES.get(side);
+        float[][] sideTexCoords = CUBE_TEX_COORDS.get(side);
+        Vector3f[] vertices = new Vector3f[4];
+        Vector3f[] normals = new Vector3f[4];
+        Vector2f[] texCoords = new Vector2f[4];
+        for (int i = 0; i < 4; i++) {
+            vertices[i] = new Vector3f(sideVertices[i][0], sideVertices[i][1], sideVertices[i][2]);
+            normals[i] = new Vector3f(side.getVector3i().x, side.getVector3i().y, side.getVector3i().z);
+            texCoords[i] = new Vector2f(sideTexCoords[i][0], sideTexCoords[i][1]);
+        }
+        return new BlockMeshPart(vertices, normals, texCoords, new int[]{0, 1, 2, 0, 2, 3});
+    }
+
+    private static final class BenchmarkBiome implements Biome {
+        @Override
+        public String getId() {
+            return "benchmark:plains";
+        }
+
+        @Override
+        public String getName() {
+            return "Plains";
+        }
+
+        @Override
+        public float getFog() {
+            return 0;
+        }
+
+        @Override
+        public float getHumidity() {
+            return 0.5f;
+        }
+
+        @Override
+        public float getTemperature() {
+            return 0.5f;
+        }
+    }
+}
@@ -73,6 +73,7 @@ public class RenderingConfig {
     private boolean clampLighting;
     private int fboScale;
     private boolean dumpShaders;
+    private boolean greedyMeshing;
     private ScreenshotSize screenshotSize;
     private String screenshotFormat;
     private PerspectiveCameraSettings cameraSettings;
@@ -456,6 +457,17 @@ public void setDumpShaders(boolean dumpShaders) {
         this.dumpShaders = dumpShaders;
     }
 
+    /**
+     * @return true if coplanar faces of full cube blocks get merged into larger quads when chunks are tessellated.
+     */
+    public boolean isGreedyMeshing() {
+        return greedyMeshing;
+    }
+
+    public void setGreedyMeshing(boolean greedyMeshing) {
+        this.greedyMeshing = greedyMeshing;
+    }
+
     /**
      * Subscribe a listener that gets nofified when a property cahnges..
      */
@@ -32,6 +32,13 @@ public class SystemConfig {
     private boolean debugEnabled;
     private boolean monitoringEnabled;
     private boolean writeSaveGamesEnabled;
+    private boolean chunkRegionFilesEnabled;
+    private boolean entityJournalEnabled;
+    private boolean chunkCompressionDictionaryEnabled;
+    private boolean archetypeEntityStorageEnabled;
+    private int lightMergerThreads;
+    private int chunkPublishingBudgetInMicros;
+    private int saveEncodingThreads;
     private String locale;
 
     public long getDayNightLengthInMs() {
@@ -94,6 +101,80 @@ public void setWriteSaveGamesEnabled(boolean writeSaveGamesEnabled) {
         this.writeSaveGamesEnabled = writeSaveGamesEnabled;
     }
 
+    /**
+     * @return true if chunks should be saved in region files instead of zips. Existing zips get converted once.
+     */
+    public boolean isChunkRegionFilesEnabled() {
+        return chunkRegionFilesEnabled;
+    }
+
+    public void setChunkRegionFilesEnabled(boolean chunkRegionFilesEnabled) {
+        this.chunkRegionFilesEnabled = chunkRegionFilesEnabled;
+    }
+
+    /**
+     * @return true if saves should only append the changed global entities to a journal, which gets compacted into
+     * the global store now and then.
+     */
+    public boolean isEntityJournalEnabled() {
+        return entityJournalEnabled;
+    }
+
+    public void setEntityJournalEnabled(boolean entityJournalEnabled) {
+        this.entityJournalEnabled = entityJournalEnabled;
+    }
+
+    /**
+     * @return true if saved chunks should be compressed with a preset dictionary that gets trained from the chunks
+     * of the world.
+     */
+    public boolean isChunkCompressionDictionaryEnabled() {
+        return chunkCompressionDictionaryEnabled;
+    }
+
+    public void setChunkCompressionDictionaryEnabled(boolean chunkCompressionDictionaryEnabled) {
+        this.chunkCompressionDictionaryEnabled = chunkCompressionDictionaryEnabled;
+    }
+
+    public boolean isArchetypeEntityStorageEnabled() {
+        return archetypeEntityStorageEnabled;
+    }
+
+    public void setArchetypeEntityStorageEnabled(boolean archetypeEntityStorageEnabled) {
+        this.archetypeEntityStorageEnabled = archetypeEntityStorageEnabled;
+    }
+
+    public int getLightMergerThreads() {
+        return lightMergerThreads;
+    }
+
+    public void setLightMergerThreads(int lightMergerThreads) {
+        this.lightMergerThreads = lightMergerThreads;
+    }
+
+    /**
+     * @return the time in microseconds that may be spent each frame on making ready chunks available to the world
+     */
+    public int getChunkPublishingBudgetInMicros() {
+        return chunkPublishingBudgetInMicros;
+    }
+
+    public void setChunkPublishingBudgetInMicros(int chunkPublishingBudgetInMicros) {
+        this.chunkPublishingBudgetInMicros = chunkPublishingBudgetInMicros;
+    }
+
+    /**
+     * @return the number of threads that encode and compress chunks in parallel while saving, 1 or less encodes
+     * them on the saving thread
+     */
+    public int getSaveEncodingThreads() {
+        return saveEncodingThreads;
+    }
+
+    public void setSaveEncodingThreads(int saveEncodingThreads) {
+        this.saveEncodingThreads = saveEncodingThreads;
+    }
+
     public Locale getLocale() {
         if (locale == null) {
             setLocale(Locale.getDefault(Category.DISPLAY));
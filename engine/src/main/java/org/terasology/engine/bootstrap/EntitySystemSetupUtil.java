@@ -16,13 +16,17 @@
 
 package org.terasology.engine.bootstrap;
 
+import org.terasology.config.Config;
 import org.terasology.context.Context;
 import org.terasology.engine.SimpleUri;
 import org.terasology.engine.module.ModuleManager;
 import org.terasology.entitySystem.Component;
 import org.terasology.entitySystem.entity.EntityManager;
 import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.entitySystem.entity.internal.ArchetypeComponentTable;
+import org.terasology.entitySystem.entity.internal.ComponentTable;
 import org.terasology.entitySystem.entity.internal.EngineEntityManager;
+import org.terasology.entitySystem.entity.internal.MapComponentTable;
 import org.terasology.entitySystem.entity.internal.PojoEntityManager;
 import org.terasology.entitySystem.event.Event;
 import org.terasology.entitySystem.event.internal.EventSystem;
@@ -77,6 +81,7 @@ public static void addReflectionBasedLibraries(Context context) {
      * <li>{@link CopyStrategyLibrary}</li>
      * <li>{@link org.terasology.persistence.typeHandling.TypeSerializationLibrary}</li>
      * </ul>
+     * If a {@link Config} is available, its system config decides how the entity manager stores components.
      * <p>
      * The method will make objects for the following classes available in the context:
      * <ul>
@@ -93,7 +98,7 @@ public static void addEntityManagementRelatedClasses(Context context) {
         NetworkSystem networkSystem = context.get(NetworkSystem.class);
 
         // Entity Manager
-        PojoEntityManager entityManager = new PojoEntityManager();
+        PojoEntityManager entityManager = new PojoEntityManager(createComponentTable(context));
         context.put(EntityManager.class, entityManager);
         context.put(EngineEntityManager.class, entityManager);
 
@@ -127,6 +132,14 @@ public static void addEntityManagementRelatedClasses(Context context) {
         registerEvents(entityManager.getEventSystem(), environment);
     }
 
+    private static ComponentTable createComponentTable(Context context) {
+        Config config = context.get(Config.class);
+        if (config != null && config.getSystem().isArchetypeEntityStorageEnabled()) {
+            return new ArchetypeComponentTable();
+        }
+        return new MapComponentTable();
+    }
+
     private static void registerComponents(ComponentLibrary library, ModuleEnvironment environment) {
         for (Class<? extends Component> componentType : environment.getSubtypesOf(Component.class)) {
             if (componentType.getAnnotation(DoNotAutoRegister.class) == null) {
@@ -17,6 +17,7 @@
 package org.terasology.engine.modes;
 
 import com.google.common.base.Preconditions;
+import com.google.common.collect.Maps;
 import com.google.common.collect.Queues;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -65,7 +66,10 @@
 import org.terasology.rendering.nui.internal.NUIManagerInternal;
 import org.terasology.rendering.nui.layers.mainMenu.loadingScreen.LoadingScreen;
 
+import java.util.Collections;
+import java.util.Map;
 import java.util.Queue;
+import java.util.concurrent.TimeUnit;
 
 /**
  * @author Immortius
@@ -79,6 +83,9 @@ public class StateLoading implements GameState {
     private NetworkMode netMode;
     private Queue<LoadProcess> loadProcesses = Queues.newArrayDeque();
     private LoadProcess current;
+    private long currentStartTime;
+    private long currentTime;
+    private Map<String, Long> loadProcessTimes = Maps.newLinkedHashMap();
     private JoinStatus joinStatus;
 
     private NUIManager nuiManager;
@@ -215,13 +222,44 @@ private void initHost() {
     private void popStep() {
         if (current != null) {
             progress += current.getExpectedCost();
+            recordTime(current);
         }
         current = null;
         if (!loadProcesses.isEmpty()) {
             current = loadProcesses.remove();
             logger.debug(current.getMessage());
+            currentStartTime = System.nanoTime();
+            currentTime = 0;
             current.begin();
+            currentTime += System.nanoTime() - currentStartTime;
+        } else {
+            logTimes();
+        }
+    }
+
+    private void recordTime(LoadProcess process) {
+        String name = process.getClass().getSimpleName();
+        long timeInMs = TimeUnit.NANOSECONDS.toMillis(currentTime);
+        loadProcessTimes.put(name, timeInMs);
+        logger.debug("{} took {}ms, {}ms including the frames in between", name, timeInMs,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - currentStartTime));
+    }
+
+    private void logTimes() {
+        long total = 0;
+        StringBuilder builder = new StringBuilder();
+        for (Map.Entry<String, Long> entry : loadProcessTimes.entrySet()) {
+            builder.append(String.format("%n  %-35s %6dms", entry.getKey(), entry.getValue()));
+            total += entry.getValue();
         }
+        logger.info("Loading took {}ms:{}", total, builder);
+    }
+
+    /**
+     * @return the time spent in each load process so far in milliseconds, in the order the processes ran
+     */
+    public Map<String, Long> getLoadProcessTimes() {
+        return Collections.unmodifiableMap(loadProcessTimes);
     }
 
     @Override
@@ -240,7 +278,10 @@ public void update(float delta) {
         EngineTime time = (EngineTime) context.get(Time.class);
         long startTime = time.getRealTimeInMs();
         while (current != null && time.getRealTimeInMs() - startTime < 20 && !gameEngine.hasPendingState()) {
-            if (current.step()) {
+            long stepStartTime = System.nanoTime();
+            boolean finished = current.step();
+            currentTime += System.nanoTime() - stepStartTime;
+            if (finished) {
                 popStep();
             }
         }
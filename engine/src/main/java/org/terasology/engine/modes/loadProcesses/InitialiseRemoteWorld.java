@@ -16,6 +16,8 @@
 
 package org.terasology.engine.modes.loadProcesses;
 
+import org.terasology.config.Config;
+import org.terasology.config.SystemConfig;
 import org.terasology.context.Context;
 import org.terasology.engine.ComponentSystemManager;
 import org.terasology.engine.TerasologyConstants;
@@ -65,7 +67,9 @@ public boolean step() {
         context.put(LocalPlayer.class, localPlayer);
         BlockManager blockManager = context.get(BlockManager.class);
 
-        RemoteChunkProvider chunkProvider = new RemoteChunkProvider(blockManager, localPlayer);
+        SystemConfig systemConfig = context.get(Config.class).getSystem();
+        RemoteChunkProvider chunkProvider = new RemoteChunkProvider(blockManager, localPlayer,
+                systemConfig.getLightMergerThreads(), systemConfig.getChunkPublishingBudgetInMicros());
 
         WorldProviderCoreImpl worldProviderCore = new WorldProviderCoreImpl(gameManifest.getWorldInfo(TerasologyConstants.MAIN_WORLD), chunkProvider,
                 blockManager.getBlock(BlockManager.UNLOADED_ID), context);
@@ -19,6 +19,7 @@
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.terasology.config.Config;
+import org.terasology.config.SystemConfig;
 import org.terasology.context.Context;
 import org.terasology.engine.ComponentSystemManager;
 import org.terasology.engine.GameEngine;
@@ -117,20 +118,25 @@ public boolean step() {
         // Init. a new world
         EngineEntityManager entityManager = (EngineEntityManager) context.get(EntityManager.class);
         boolean writeSaveGamesEnabled = context.get(Config.class).getSystem().isWriteSaveGamesEnabled();
+        boolean chunkRegionFilesEnabled = context.get(Config.class).getSystem().isChunkRegionFilesEnabled();
+        boolean entityJournalEnabled = context.get(Config.class).getSystem().isEntityJournalEnabled();
         Path savePath = PathManager.getInstance().getSavePath(gameManifest.getTitle());
         StorageManager storageManager;
         try {
             storageManager = writeSaveGamesEnabled
-                    ? new ReadWriteStorageManager(savePath, environment, entityManager, blockManager, biomeManager)
-                    : new ReadOnlyStorageManager(savePath, environment, entityManager, blockManager, biomeManager);
+                    ? new ReadWriteStorageManager(savePath, environment, entityManager, blockManager, biomeManager,
+                            true, chunkRegionFilesEnabled, entityJournalEnabled)
+                    : new ReadOnlyStorageManager(savePath, environment, entityManager, blockManager, biomeManager,
+                            true, chunkRegionFilesEnabled);
         } catch (IOException e) {
             logger.error("Unable to create storage manager!", e);
             context.get(GameEngine.class).changeState(new StateMainMenu("Unable to create storage manager!"));
             return true; // We need to return true, otherwise the loading state will just call us again immediately
         }
         context.put(StorageManager.class, storageManager);
+        SystemConfig systemConfig = context.get(Config.class).getSystem();
         LocalChunkProvider chunkProvider = new LocalChunkProvider(storageManager, entityManager, worldGenerator,
-                blockManager, biomeManager);
+                blockManager, biomeManager, systemConfig.getLightMergerThreads(), systemConfig.getChunkPublishingBudgetInMicros());
         context.get(ComponentSystemManager.class).register(new RelevanceSystem(chunkProvider), "engine:relevanceSystem");
         EntityAwareWorldProvider entityWorldProvider = new EntityAwareWorldProvider(
                 new WorldProviderCoreImpl(worldInfo, chunkProvider, blockManager.getBlock(BlockManager.UNLOADED_ID),
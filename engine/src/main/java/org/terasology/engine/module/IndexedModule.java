@@ -0,0 +1,62 @@
+/*
+ * Copyright 2015 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.engine.module;
+
+import com.google.common.collect.ImmutableList;
+import org.reflections.Reflections;
+import org.terasology.module.BaseModule;
+import org.terasology.module.Module;
+
+import java.net.URL;
+
+/**
+ * A module archive whose types and annotations are taken from the {@link ModuleClassIndex} instead of being scanned.
+ */
+class IndexedModule extends BaseModule {
+
+    private final Module archiveModule;
+    private final ModuleClassIndex classIndex;
+    private Reflections reflectionsFragment;
+
+    IndexedModule(Module archiveModule, ModuleClassIndex classIndex) {
+        super(archiveModule.getLocations(), archiveModule.getMetadata());
+        this.archiveModule = archiveModule;
+        this.classIndex = classIndex;
+    }
+
+    @Override
+    public ImmutableList<URL> getClasspaths() {
+        return archiveModule.getClasspaths();
+    }
+
+    @Override
+    public boolean isOnClasspath() {
+        return archiveModule.isOnClasspath();
+    }
+
+    @Override
+    public boolean isCodeModule() {
+        return archiveModule.isCodeModule();
+    }
+
+    @Override
+    public Reflections getReflectionsFragment() {
+        if (reflectionsFragment == null) {
+            reflectionsFragment = classIndex.getIndex(archiveModule);
+        }
+        return reflectionsFragment;
+    }
+}
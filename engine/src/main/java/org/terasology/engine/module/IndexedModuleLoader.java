@@ -0,0 +1,45 @@
+/*
+ * Copyright 2015 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.engine.module;
+
+import org.terasology.module.Module;
+import org.terasology.module.ModuleLoader;
+import org.terasology.module.ModuleMetadataReader;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Loads modules like the standard loader, but takes the types of module archives from the {@link ModuleClassIndex}.
+ */
+class IndexedModuleLoader extends ModuleLoader {
+
+    private final ModuleClassIndex classIndex;
+
+    IndexedModuleLoader(ModuleMetadataReader metadataReader, ModuleClassIndex classIndex) {
+        super(metadataReader);
+        this.classIndex = classIndex;
+    }
+
+    @Override
+    public Module load(Path modulePath) throws IOException {
+        Module module = super.load(modulePath);
+        if (module != null && ModuleClassIndex.isIndexable(module)) {
+            return new IndexedModule(module, classIndex);
+        }
+        return module;
+    }
+}
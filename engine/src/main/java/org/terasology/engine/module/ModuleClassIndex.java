@@ -0,0 +1,135 @@
+/*
+ * Copyright 2015 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.engine.module;
+
+import com.google.common.hash.Hashing;
+import org.reflections.Reflections;
+import org.reflections.serializers.JsonSerializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.terasology.engine.TerasologyConstants;
+import org.terasology.module.Module;
+import org.terasology.naming.Version;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * An on-disk cache of the types and annotations found when scanning module archives.
+ * <br><br>
+ * Scanning the classes of a module for the module environment is a large part of the engine startup. The result of the
+ * scan depends on the content of the archive and on how the engine scans it, so it is stored per module id and version
+ * and reused for as long as the checksum of the archive, the engine version and the index format version stay the same.
+ * Modules that are not a single archive, like the modules in development that live in a directory, are always scanned.
+ */
+public class ModuleClassIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(ModuleClassIndex.class);
+
+    /**
+     * The version of the stored indices. Increase it when the scanning of modules or the stored format changes, so that
+     * indices of earlier builds with the same engine version are not reused.
+     */
+    static final int FORMAT_VERSION = 1;
+
+    private static final String INDEX_EXTENSION = ".json";
+
+    private final Path indexPath;
+    private final String indexKeySuffix;
+    private final JsonSerializer serializer = new JsonSerializer();
+
+    /**
+     * @param indexPath     the directory to keep the index of each module in
+     * @param engineVersion the version of the running engine
+     */
+    public ModuleClassIndex(Path indexPath, Version engineVersion) {
+        this(indexPath, engineVersion, FORMAT_VERSION);
+    }
+
+    ModuleClassIndex(Path indexPath, Version engineVersion, int formatVersion) {
+        this.indexPath = indexPath;
+        this.indexKeySuffix = "-engine" + engineVersion + "-format" + formatVersion;
+    }
+
+    /**
+     * @return whether the types of the given module can be indexed
+     */
+    public static boolean isIndexable(Module module) {
+        return module.isCodeModule() && !module.isOnClasspath() && module.getLocations().size() == 1
+                && Files.isRegularFile(module.getLocations().get(0));
+    }
+
+    /**
+     * Reads the index of the given module if there is an up to date one, otherwise scans the module and stores the
+     * result for the next time.
+     *
+     * @param module an indexable module
+     * @return the types and annotations of the module
+     */
+    public Reflections getIndex(Module module) {
+        Path archive = module.getLocations().get(0);
+        String checksum;
+        try {
+            checksum = com.google.common.io.Files.hash(archive.toFile(), Hashing.sha1()).toString();
+        } catch (IOException e) {
+            logger.warn("Failed to calculate the checksum of {}, scanning it", archive, e);
+            return module.getReflectionsFragment();
+        }
+
+        Path moduleIndexPath = indexPath.resolve(module.getId().toString());
+        String indexName = module.getVersion() + "-" + checksum + indexKeySuffix + INDEX_EXTENSION;
+        Path indexFile = moduleIndexPath.resolve(indexName);
+        if (Files.isRegularFile(indexFile)) {
+            try (InputStream stream = Files.newInputStream(indexFile)) {
+                Reflections index = serializer.read(stream);
+                logger.debug("Read the class index of {} {}", module.getId(), module.getVersion());
+                return index;
+            } catch (IOException | RuntimeException e) {
+                logger.warn("Failed to read the class index of {} {}, scanning it again", module.getId(), module.getVersion(), e);
+            }
+        }
+
+        Reflections index = module.getReflectionsFragment();
+        try {
+            write(index, moduleIndexPath, indexFile);
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Failed to store the class index of {} {}", module.getId(), module.getVersion(), e);
+        }
+        return index;
+    }
+
+    private void write(Reflections index, Path moduleIndexPath, Path indexFile) throws IOException {
+        Files.createDirectories(moduleIndexPath);
+        // Only the index of the current archive of a module is worth keeping
+        try (DirectoryStream<Path> staleIndices = Files.newDirectoryStream(moduleIndexPath, "*" + INDEX_EXTENSION)) {
+            for (Path staleIndex : staleIndices) {
+                Files.delete(staleIndex);
+            }
+        }
+        // Written next to the index and moved into place, so an interrupted write never leaves a broken index behind
+        Path tempFile = Files.createTempFile(moduleIndexPath, "index", ".tmp");
+        try {
+            Files.write(tempFile, serializer.toString(index).getBytes(TerasologyConstants.CHARSET));
+            Files.move(tempFile, indexFile, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+}
@@ -37,6 +37,7 @@
 import org.terasology.module.sandbox.ModuleSecurityManager;
 import org.terasology.module.sandbox.ModuleSecurityPolicy;
 import org.terasology.module.sandbox.StandardPermissionProviderFactory;
+import org.terasology.naming.Version;
 
 import java.io.BufferedReader;
 import java.io.IOException;
@@ -46,6 +47,7 @@
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.ReflectPermission;
 import java.net.URISyntaxException;
+import java.nio.file.Path;
 import java.security.Policy;
 import java.util.Collections;
 import java.util.Set;
@@ -55,6 +57,8 @@
  */
 public class ModuleManagerImpl implements ModuleManager {
 
+    private static final String CLASS_INDEX_DIR = "moduleClassIndex";
+
     private StandardPermissionProviderFactory permissionProviderFactory = new StandardPermissionProviderFactory();
 
     private ModuleRegistry registry;
@@ -78,7 +82,7 @@ public ModuleManagerImpl() {
 
         registry = new TableModuleRegistry();
         registry.add(engineModule);
-        ModulePathScanner scanner = new ModulePathScanner(new ModuleLoader(metadataReader));
+        ModulePathScanner scanner = new ModulePathScanner(createModuleLoader(engineModule.getVersion()));
         scanner.getModuleLoader().setModuleInfoPath(TerasologyConstants.MODULE_INFO_FILENAME);
         scanner.scan(registry, PathManager.getInstance().getModulePaths());
 
@@ -97,6 +101,15 @@ public ModuleManagerImpl() {
         loadEnvironment(Sets.newHashSet(engineModule), true);
     }
 
+    private ModuleLoader createModuleLoader(Version engineVersion) {
+        Path cachePath = PathManager.getInstance().getCachePath();
+        if (cachePath == null) {
+            return new ModuleLoader(metadataReader);
+        }
+        ModuleClassIndex classIndex = new ModuleClassIndex(cachePath.resolve(CLASS_INDEX_DIR), engineVersion);
+        return new IndexedModuleLoader(metadataReader, classIndex);
+    }
+
     private void setupSandbox() {
         // TODO: This one org.terasology entry is a hack and needs a proper fix
         permissionProviderFactory.getBasePermissionSet().addAPIPackage("org.terasology.world.biomes");
@@ -0,0 +1,460 @@
+/*
+ * Copyright 2015 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.entitySystem.entity.internal;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import gnu.trove.iterator.TLongIterator;
+import gnu.trove.iterator.TLongObjectIterator;
+import gnu.trove.list.TLongList;
+import gnu.trove.list.array.TLongArrayList;
+import gnu.trove.map.TLongIntMap;
+import gnu.trove.map.TLongObjectMap;
+import gnu.trove.map.TObjectIntMap;
+import gnu.trove.map.hash.TLongIntHashMap;
+import gnu.trove.map.hash.TLongObjectHashMap;
+import gnu.trove.map.hash.TObjectIntHashMap;
+import org.terasology.entitySystem.Component;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * A table that groups entities by their archetype, the set of component classes they have.
+ * <br><br>
+ * All entities of an archetype are stored in the rows of its columns, one column per component class. This way
+ * iterating over the entities with a given set of components is a walk over a few contiguous arrays instead of a hash
+ * lookup per entity and component class. Adding or removing a component moves the entity to the row of another
+ * archetype, which makes changing the set of components of an entity more expensive than with
+ * {@link MapComponentTable}. Replacing a component with a new instance of the same class stays cheap. The initial
+ * components of an entity should thus be added at once with {@link #putAll(long, Iterable)}.
+ * <br><br>
+ * Archetypes that lose their last entity get released. Transitions of other archetypes that still point to them get
+ * replaced when they are followed the next time.
+ */
+public class ArchetypeComponentTable implements ComponentTable {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final Map<Set<Class<? extends Component>>, Archetype> archetypes = Maps.newHashMap();
+    private final Map<Class<? extends Component>, List<Archetype>> archetypesByComponent = Maps.newHashMap();
+    private final TLongObjectMap<Archetype> archetypeOfEntity = new TLongObjectHashMap<>();
+    private final TLongIntMap rowOfEntity = new TLongIntHashMap();
+
+    @Override
+    public <T extends Component> T get(long entityId, Class<T> componentClass) {
+        Archetype archetype = archetypeOfEntity.get(entityId);
+        if (archetype != null) {
+            int column = archetype.columnOf(componentClass);
+            if (column >= 0) {
+                return componentClass.cast(archetype.columns[column][rowOfEntity.get(entityId)]);
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public Component put(long entityId, Component component) {
+        Class<? extends Component> componentClass = component.getClass();
+        Archetype archetype = archetypeOfEntity.get(entityId);
+        if (archetype == null) {
+            Archetype target = getArchetype(ImmutableSet.<Class<? extends Component>>of(componentClass));
+            int row = target.addRow(entityId);
+            target.columns[0][row] = component;
+            archetypeOfEntity.put(entityId, target);
+            rowOfEntity.put(entityId, row);
+            return null;
+        }
+
+        int row = rowOfEntity.get(entityId);
+        int column = archetype.columnOf(componentClass);
+        if (column >= 0) {
+            Component oldComponent = archetype.columns[column][row];
+            archetype.columns[column][row] = component;
+            return oldComponent;
+        }
+
+        Archetype target = archetype.addTransitions.get(componentClass);
+        if (target == null || target.released) {
+            target = getArchetype(ImmutableSet.<Class<? extends Component>>builder()
+                    .addAll(archetype.signature).add(componentClass).build());
+            archetype.addTransitions.put(componentClass, target);
+        }
+        int newRow = moveEntity(entityId, archetype, row, target);
+        target.columns[target.columnOf(componentClass)][newRow] = component;
+        return null;
+    }
+
+    @Override
+    public void putAll(long entityId, Iterable<Component> components) {
+        if (archetypeOfEntity.containsKey(entityId)) {
+            for (Component component : components) {
+                put(entityId, component);
+            }
+            return;
+        }
+        Map<Class<? extends Component>, Component> componentsByClass = Maps.newLinkedHashMap();
+        for (Component component : components) {
+            componentsByClass.put(component.getClass(), component);
+        }
+        if (componentsByClass.isEmpty()) {
+            return;
+        }
+        Archetype target = getArchetype(ImmutableSet.copyOf(componentsByClass.keySet()));
+        int row = target.addRow(entityId);
+        for (Map.Entry<Class<? extends Component>, Component> entry : componentsByClass.entrySet()) {
+            target.columns[target.columnOf(entry.getKey())][row] = entry.getValue();
+        }
+        archetypeOfEntity.put(entityId, target);
+        rowOfEntity.put(entityId, row);
+    }
+
+    @Override
+    public <T extends Component> Component remove(long entityId, Class<T> componentClass) {
+        Archetype archetype = archetypeOfEntity.get(entityId);
+        if (archetype == null) {
+            return null;
+        }
+        int column = archetype.columnOf(componentClass);
+        if (column < 0) {
+            return null;
+        }
+        int row = rowOfEntity.get(entityId);
+        Component oldComponent = archetype.columns[column][row];
+        if (archetype.signature.size() == 1) {
+            removeEntity(entityId, archetype, row);
+            return oldComponent;
+        }
+
+        Archetype target = archetype.removeTransitions.get(componentClass);
+        if (target == null || target.released) {
+            ImmutableSet.Builder<Class<? extends Component>> builder = ImmutableSet.builder();
+            for (Class<? extends Component> type : archetype.signature) {
+                if (type != componentClass) {
+                    builder.add(type);
+                }
+            }
+            target = getArchetype(builder.build());
+            archetype.removeTransitions.put(componentClass, target);
+        }
+        moveEntity(entityId, archetype, row, target);
+        return oldComponent;
+    }
+
+    @Override
+    public List<Component> removeAndReturnComponentsOf(long entityId) {
+        Archetype archetype = archetypeOfEntity.get(entityId);
+        if (archetype == null) {
+            return Lists.newArrayList();
+        }
+        int row = rowOfEntity.get(entityId);
+        List<Component> components = archetype.getRow(row);
+        removeEntity(entityId, archetype, row);
+        return components;
+    }
+
+    @Override
+    public void remove(long entityId) {
+        Archetype archetype = archetypeOfEntity.get(entityId);
+        if (archetype != null) {
+            removeEntity(entityId, archetype, rowOfEntity.get(entityId));
+        }
+    }
+
+    @Override
+    public void clear() {
+        archetypes.clear();
+        archetypesByComponent.clear();
+        archetypeOfEntity.clear();
+        rowOfEntity.clear();
+    }
+
+    @Override
+    public int getComponentCount(Class<? extends Component> componentClass) {
+        List<Archetype> archetypeList = archetypesByComponent.get(componentClass);
+        if (archetypeList == null) {
+            return 0;
+        }
+        int count = 0;
+        for (Archetype archetype : archetypeList) {
+            count += archetype.size;
+        }
+        return count;
+    }
+
+    @Override
+    public Iterable<Component> iterateComponents(long entityId) {
+        return getComponentsInNewList(entityId);
+    }
+
+    @Override
+    public List<Component> getComponentsInNewList(long entityId) {
+        Archetype archetype = archetypeOfEntity.get(entityId);
+        if (archetype == null) {
+            return Lists.newArrayList();
+        }
+        return archetype.getRow(rowOfEntity.get(entityId));
+    }
+
+    @Override
+    public <T extends Component> TLongObjectIterator<T> componentIterator(Class<T> componentClass) {
+        List<Archetype> archetypeList = archetypesByComponent.get(componentClass);
+        if (archetypeList == null) {
+            return null;
+        }
+        return new ColumnIterator<>(componentClass, archetypeList);
+    }
+
+    @Override
+    public TLongIterator entityIdIterator() {
+        return new TLongArrayList(archetypeOfEntity.keys()).iterator();
+    }
+
+    @Override
+    public TLongList getEntityIdsWith(Class<? extends Component>[] componentClasses) {
+        TLongList idList = new TLongArrayList();
+        // Only the archetypes of the rarest component class need to be checked for the other classes
+        List<Archetype> candidates = null;
+        for (Class<? extends Component> componentClass : componentClasses) {
+            List<Archetype> archetypeList = archetypesByComponent.get(componentClass);
+            if (archetypeList == null) {
+                return idList;
+            }
+            if (candidates == null || archetypeList.size() < candidates.size()) {
+                candidates = archetypeList;
+            }
+        }
+        for (Archetype archetype : candidates) {
+            if (archetype.size > 0 && archetype.containsAll(componentClasses)) {
+                idList.add(archetype.entityIds, 0, archetype.size);
+            }
+        }
+        return idList;
+    }
+
+    @Override
+    public int numEntities() {
+        return archetypeOfEntity.size();
+    }
+
+    private Archetype getArchetype(Set<Class<? extends Component>> signature) {
+        Archetype archetype = archetypes.get(signature);
+        if (archetype == null) {
+            archetype = new Archetype(signature);
+            archetypes.put(signature, archetype);
+            for (Class<? extends Component> componentClass : signature) {
+                List<Archetype> archetypeList = archetypesByComponent.get(componentClass);
+                if (archetypeList == null) {
+                    archetypeList = Lists.newArrayList();
+                    archetypesByComponent.put(componentClass, archetypeList);
+                }
+                archetypeList.add(archetype);
+            }
+        }
+        return archetype;
+    }
+
+    /**
+     * Copies the components the two archetypes have in common to a new row of the target archetype and removes the
+     * old row.
+     *
+     * @return the row of the entity in the target archetype.
+     */
+    private int moveEntity(long entityId, Archetype source, int sourceRow, Archetype target) {
+        int targetRow = target.addRow(entityId);
+        for (int targetColumn = 0; targetColumn < target.columnClasses.length; targetColumn++) {
+            int sourceColumn = source.columnOf(target.columnClasses[targetColumn]);
+            if (sourceColumn >= 0) {
+                target.columns[targetColumn][targetRow] = source.columns[sourceColumn][sourceRow];
+            }
+        }
+        removeRow(source, sourceRow);
+        archetypeOfEntity.put(entityId, target);
+        rowOfEntity.put(entityId, targetRow);
+        return targetRow;
+    }
+
+    private void removeEntity(long entityId, Archetype archetype, int row) {
+        removeRow(archetype, row);
+        archetypeOfEntity.remove(entityId);
+        rowOfEntity.remove(entityId);
+    }
+
+    /**
+     * Removes the row by moving the last row of the archetype into it. The archetype gets released if it was its last
+     * row.
+     */
+    private void removeRow(Archetype archetype, int row) {
+        int lastRow = archetype.size - 1;
+        if (row != lastRow) {
+            long movedEntity = archetype.entityIds[lastRow];
+            archetype.entityIds[row] = movedEntity;
+            for (Component[] column : archetype.columns) {
+                column[row] = column[lastRow];
+            }
+            rowOfEntity.put(movedEntity, row);
+        }
+        for (Component[] column : archetype.columns) {
+            column[lastRow] = null;
+        }
+        archetype.size = lastRow;
+        if (lastRow == 0) {
+            release(archetype);
+        }
+    }
+
+    private void release(Archetype archetype) {
+        archetypes.remove(archetype.signature);
+        for (Class<? extends Component> componentClass : archetype.signature) {
+            archetypesByComponent.get(componentClass).remove(archetype);
+        }
+        archetype.released = true;
+        archetype.addTransitions.clear();
+        archetype.removeTransitions.clear();
+    }
+
+    private static final class Archetype {
+        private final Set<Class<? extends Component>> signature;
+        private final Class<? extends Component>[] columnClasses;
+        private final TObjectIntMap<Class<? extends Component>> columnIndex;
+        private final Map<Class<? extends Component>, Archetype> addTransitions = Maps.newHashMap();
+        private final Map<Class<? extends Component>, Archetype> removeTransitions = Maps.newHashMap();
+
+        private long[] entityIds = new long[INITIAL_CAPACITY];
+        private Component[][] columns;
+        private int size;
+        private boolean released;
+
+        @SuppressWarnings("unchecked")
+        private Archetype(Set<Class<? extends Component>> signature) {
+            this.signature = signature;
+            this.columnClasses = signature.toArray(new Class[signature.size()]);
+            this.columnIndex = new TObjectIntHashMap<>(columnClasses.length, 0.5f, -1);
+            this.columns = new Component[columnClasses.length][INITIAL_CAPACITY];
+            for (int i = 0; i < columnClasses.length; i++) {
+                columnIndex.put(columnClasses[i], i);
+            }
+        }
+
+        private int columnOf(Class<? extends Component> componentClass) {
+            return columnIndex.get(componentClass);
+        }
+
+        private boolean containsAll(Class<? extends Component>[] componentClasses) {
+            for (Class<? extends Component> componentClass : componentClasses) {
+                if (!columnIndex.containsKey(componentClass)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private int addRow(long entityId) {
+            if (size == entityIds.length) {
+                int capacity = entityIds.length * 2;
+                entityIds = Arrays.copyOf(entityIds, capacity);
+                for (int i = 0; i < columns.length; i++) {
+                    columns[i] = Arrays.copyOf(columns[i], capacity);
+                }
+            }
+            entityIds[size] = entityId;
+            return size++;
+        }
+
+        private List<Component> getRow(int row) {
+            List<Component> components = Lists.newArrayListWithCapacity(columns.length);
+            for (Component[] column : columns) {
+                components.add(column[row]);
+            }
+            return components;
+        }
+    }
+
+    /**
+     * Iterates over the column of a component class in every archetype that contains it.
+     */
+    private static final class ColumnIterator<T extends Component> implements TLongObjectIterator<T> {
+        private final Class<T> componentClass;
+        private final List<Archetype> archetypeList;
+        private int archetypeIndex;
+        private int row = -1;
+        private Archetype current;
+        private int column;
+
+        private ColumnIterator(Class<T> componentClass, List<Archetype> archetypeList) {
+            this.componentClass = componentClass;
+            this.archetypeList = archetypeList;
+            if (!archetypeList.isEmpty()) {
+                current = archetypeList.get(0);
+                column = current.columnOf(componentClass);
+            }
+        }
+
+        @Override
+        public long key() {
+            return current.entityIds[row];
+        }
+
+        @Override
+        public T value() {
+            return componentClass.cast(current.columns[column][row]);
+        }
+
+        @Override
+        public T setValue(T value) {
+            T oldValue = componentClass.cast(current.columns[column][row]);
+            current.columns[column][row] = value;
+            return oldValue;
+        }
+
+        @Override
+        public void advance() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            row++;
+            while (row >= current.size) {
+                current = archetypeList.get(++archetypeIndex);
+                column = current.columnOf(componentClass);
+                row = 0;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (current == null) {
+                return false;
+            }
+            if (row + 1 < current.size) {
+                return true;
+            }
+            for (int i = archetypeIndex + 1; i < archetypeList.size(); i++) {
+                if (archetypeList.get(i).size > 0) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException("Components can't be removed via the column iterator");
+        }
+    }
+}
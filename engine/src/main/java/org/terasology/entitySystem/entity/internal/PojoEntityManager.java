@@ -24,7 +24,6 @@
 import gnu.trove.iterator.TLongIterator;
 import gnu.trove.iterator.TLongObjectIterator;
 import gnu.trove.list.TLongList;
-import gnu.trove.list.array.TLongArrayList;
 import gnu.trove.set.TLongSet;
 import gnu.trove.set.hash.TLongHashSet;
 
@@ -71,7 +70,7 @@ public class PojoEntityManager implements LowLevelEntityManager, EngineEntityMan
     private long nextEntityId = 1;
     private TLongSet loadedIds = new TLongHashSet();
     private Map<Long, BaseEntityRef> entityCache = new MapMaker().weakValues().concurrencyLevel(4).initialCapacity(1000).makeMap();
-    private ComponentTable store = new ComponentTable();
+    private final ComponentTable store;
 
     private Set<EntityChangeSubscriber> subscribers = Sets.newLinkedHashSet();
     private Set<EntityDestroySubscriber> destroySubscribers = Sets.newLinkedHashSet();
@@ -84,6 +83,14 @@ public class PojoEntityManager implements LowLevelEntityManager, EngineEntityMan
     private TypeSerializationLibrary typeSerializerLibrary;
 
     public PojoEntityManager() {
+        this(new MapComponentTable());
+    }
+
+    /**
+     * @param store the table the components of the entities get stored in.
+     */
+    public PojoEntityManager(ComponentTable store) {
+        this.store = store;
     }
 
     public void setTypeSerializerLibrary(TypeSerializationLibrary serializerLibrary) {
@@ -203,9 +210,7 @@ private EntityRef createEntity(Iterable<Component> components) {
             finalComponents = components;
         }
 
-        for (Component c : finalComponents) {
-            store.put(entityId, c);
-        }
+        store.putAll(entityId, finalComponents);
         return createEntityRef(entityId);
     }
 
@@ -313,44 +318,10 @@ public final Iterable<EntityRef> getEntitiesWith(Class<? extends Component>... c
         if (componentClasses.length == 0) {
             return getAllEntities();
         }
-        if (componentClasses.length == 1) {
-            return iterateEntities(componentClasses[0]);
-        }
-        TLongList idList = new TLongArrayList();
-        TLongObjectIterator<? extends Component> primeIterator = store.componentIterator(componentClasses[0]);
-        if (primeIterator == null) {
-            return Collections.emptyList();
-        }
-
-        while (primeIterator.hasNext()) {
-            primeIterator.advance();
-            long id = primeIterator.key();
-            boolean discard = false;
-            for (int i = 1; i < componentClasses.length; ++i) {
-                if (store.get(id, componentClasses[i]) == null) {
-                    discard = true;
-                    break;
-                }
-            }
-            if (!discard) {
-                idList.add(primeIterator.key());
-            }
-        }
-        return new EntityIterable(idList);
-    }
-
-    private Iterable<EntityRef> iterateEntities(Class<? extends Component> componentClass) {
-        TLongList idList = new TLongArrayList();
-        TLongObjectIterator<? extends Component> primeIterator = store.componentIterator(componentClass);
-        if (primeIterator == null) {
+        TLongList idList = store.getEntityIdsWith(componentClasses);
+        if (idList.isEmpty()) {
             return Collections.emptyList();
         }
-
-        while (primeIterator.hasNext()) {
-            primeIterator.advance();
-            long id = primeIterator.key();
-            idList.add(primeIterator.key());
-        }
         return new EntityIterable(idList);
     }
 
@@ -425,9 +396,7 @@ public EntityRef createEntityWithId(long id, Iterable<Component> components) {
             logger.error("Prevented attempt to create entity with an invalid id.");
             return EntityRef.NULL;
         }
-        for (Component c : components) {
-            store.put(id, c);
-        }
+        store.putAll(id, components);
         loadedIds.add(id);
         EntityRef entity = createEntityRef(id);
         if (eventSystem != null) {
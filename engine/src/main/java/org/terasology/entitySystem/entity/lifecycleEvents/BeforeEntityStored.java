@@ -0,0 +1,37 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.entitySystem.entity.lifecycleEvents;
+
+import org.terasology.entitySystem.event.Event;
+
+/**
+ * Sent to an entity right before its components get serialized to store it away, either because the chunk it is in
+ * gets unloaded or because its owning player leaves. Systems that keep state of the entity outside its components
+ * should save it into the components now, as {@link BeforeDeactivateComponent} only gets sent after the entity has
+ * been serialized.
+ */
+public final class BeforeEntityStored implements Event {
+
+    private static BeforeEntityStored instance = new BeforeEntityStored();
+
+    private BeforeEntityStored() {
+    }
+
+    public static BeforeEntityStored newInstance() {
+        return instance;
+    }
+
+}
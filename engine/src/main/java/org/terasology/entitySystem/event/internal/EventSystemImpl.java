@@ -27,6 +27,8 @@
 import com.google.common.collect.Queues;
 import com.google.common.collect.SetMultimap;
 import com.google.common.collect.Sets;
+import gnu.trove.map.TLongObjectMap;
+import gnu.trove.map.hash.TLongObjectHashMap;
 import org.reflections.ReflectionUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -78,6 +80,10 @@ public class EventSystemImpl implements EventSystem {
     private SetMultimap<Class<? extends Event>, EventHandlerInfo> generalHandlers = HashMultimap.create();
     private Comparator<EventHandlerInfo> priorityComparator = new EventHandlerPriorityComparator();
 
+    // Sorted handlers per event type, cleared whenever handlers get added or removed
+    private Map<Class<? extends Event>, DispatchTable> dispatchTables = Maps.newHashMap();
+    private Map<Class<? extends Event>, Map<Class<? extends Component>, EventHandlerInfo[]>> componentDispatchTables = Maps.newHashMap();
+
     // Event metadata
     private BiMap<SimpleUri, Class<? extends Event>> eventIdMap = HashBiMap.create();
     private SetMultimap<Class<? extends Event>, Class<? extends Event>> childEvents = HashMultimap.create();
@@ -116,6 +122,7 @@ public void registerEvent(SimpleUri uri, Class<? extends Event> eventType) {
         if (shouldAddToLibrary(eventType)) {
             eventLibrary.register(uri, eventType);
         }
+        invalidateDispatchTables();
     }
 
     /**
@@ -192,9 +199,16 @@ public void unregisterEventHandler(ComponentSystem handler) {
                 eventHandlerIterator.remove();
             }
         }
+        invalidateDispatchTables();
+    }
+
+    private void invalidateDispatchTables() {
+        dispatchTables.clear();
+        componentDispatchTables.clear();
     }
 
     private void addEventHandler(Class<? extends Event> type, EventHandlerInfo handler, Collection<Class<? extends Component>> components) {
+        invalidateDispatchTables();
         if (components.isEmpty()) {
             generalHandlers.put(type, handler);
             for (Class<? extends Event> childType : childEvents.get(type)) {
@@ -242,6 +256,7 @@ public <T extends Event> void unregisterEventReceiver(EventReceiver<T> eventRece
                 }
             }
         }
+        invalidateDispatchTables();
     }
 
     @Override
@@ -251,9 +266,7 @@ public void send(EntityRef entity, Event event) {
         } else {
             networkReplicate(entity, event);
 
-            Set<EventHandlerInfo> selectedHandlersSet = selectEventHandlers(event.getClass(), entity);
-            List<EventHandlerInfo> selectedHandlers = Lists.newArrayList(selectedHandlersSet);
-            Collections.sort(selectedHandlers, priorityComparator);
+            EventHandlerInfo[] selectedHandlers = getDispatchTable(event.getClass()).getHandlers(entity);
 
             if (event instanceof ConsumableEvent) {
                 sendConsumableEvent(entity, event, selectedHandlers);
@@ -263,7 +276,7 @@ public void send(EntityRef entity, Event event) {
         }
     }
 
-    private void sendStandardEvent(EntityRef entity, Event event, List<EventHandlerInfo> selectedHandlers) {
+    private void sendStandardEvent(EntityRef entity, Event event, EventHandlerInfo[] selectedHandlers) {
         for (EventHandlerInfo handler : selectedHandlers) {
             // Check isValid at each stage in case components were removed.
             if (handler.isValidFor(entity)) {
@@ -272,7 +285,7 @@ private void sendStandardEvent(EntityRef entity, Event event, List<EventHandlerI
         }
     }
 
-    private void sendConsumableEvent(EntityRef entity, Event event, List<EventHandlerInfo> selectedHandlers) {
+    private void sendConsumableEvent(EntityRef entity, Event event, EventHandlerInfo[] selectedHandlers) {
         ConsumableEvent consumableEvent = (ConsumableEvent) event;
         for (EventHandlerInfo handler : selectedHandlers) {
             // Check isValid at each stage in case components were removed.
@@ -349,19 +362,45 @@ public void send(EntityRef entity, Event event, Component component) {
         if (Thread.currentThread() != mainThread) {
             pendingEvents.offer(new PendingEvent(entity, event, component));
         } else {
-            SetMultimap<Class<? extends Component>, EventHandlerInfo> handlers = componentSpecificHandlers.get(event.getClass());
-            if (handlers != null) {
-                List<EventHandlerInfo> eventHandlers = Lists.newArrayList(handlers.get(component.getClass()));
-                Collections.sort(eventHandlers, priorityComparator);
-                for (EventHandlerInfo eventHandler : eventHandlers) {
-                    if (eventHandler.isValidFor(entity)) {
-                        eventHandler.invoke(entity, event);
-                    }
+            for (EventHandlerInfo eventHandler : getComponentHandlers(event.getClass(), component.getClass())) {
+                if (eventHandler.isValidFor(entity)) {
+                    eventHandler.invoke(entity, event);
                 }
             }
         }
     }
 
+    private DispatchTable getDispatchTable(Class<? extends Event> eventType) {
+        DispatchTable table = dispatchTables.get(eventType);
+        if (table == null) {
+            SetMultimap<Class<? extends Component>, EventHandlerInfo> handlers = componentSpecificHandlers.get(eventType);
+            Set<Class<? extends Component>> componentTypes = (handlers != null) ? handlers.keySet()
+                    : Collections.<Class<? extends Component>>emptySet();
+            table = new DispatchTable(eventType, componentTypes);
+            dispatchTables.put(eventType, table);
+        }
+        return table;
+    }
+
+    private EventHandlerInfo[] getComponentHandlers(Class<? extends Event> eventType, Class<? extends Component> componentType) {
+        Map<Class<? extends Component>, EventHandlerInfo[]> handlersByComponent = componentDispatchTables.get(eventType);
+        if (handlersByComponent == null) {
+            handlersByComponent = Maps.newHashMap();
+            componentDispatchTables.put(eventType, handlersByComponent);
+        }
+        EventHandlerInfo[] result = handlersByComponent.get(componentType);
+        if (result == null) {
+            SetMultimap<Class<? extends Component>, EventHandlerInfo> handlers = componentSpecificHandlers.get(eventType);
+            if (handlers != null) {
+                result = sortByPriority(handlers.get(componentType));
+            } else {
+                result = new EventHandlerInfo[0];
+            }
+            handlersByComponent.put(componentType, result);
+        }
+        return result;
+    }
+
     private Set<EventHandlerInfo> selectEventHandlers(Class<? extends Event> eventType, EntityRef entity) {
         Set<EventHandlerInfo> result = Sets.newHashSet();
         result.addAll(generalHandlers.get(eventType));
@@ -382,6 +421,69 @@ private Set<EventHandlerInfo> selectEventHandlers(Class<? extends Event> eventTy
         return result;
     }
 
+    private EventHandlerInfo[] sortByPriority(Collection<EventHandlerInfo> handlers) {
+        EventHandlerInfo[] result = handlers.toArray(new EventHandlerInfo[handlers.size()]);
+        Arrays.sort(result, priorityComparator);
+        return result;
+    }
+
+    /**
+     * Caches the sorted handlers of an event type for every combination of the component types with handlers for
+     * that event type that an entity can have. The combination of an entity is its signature: a bit set with a bit
+     * for each of those component types, which gets looked up one 64 bit word at a time.
+     * <br><br>
+     * Only to be used by the main thread, as the signature buffer is shared.
+     */
+    private final class DispatchTable {
+        private final Class<? extends Event> eventType;
+        private final Class<? extends Component>[] componentTypes;
+        private final long[] signature;
+        private final TLongObjectMap<Object> root = new TLongObjectHashMap<>();
+        private EventHandlerInfo[] generalOnly;
+
+        @SuppressWarnings("unchecked")
+        private DispatchTable(Class<? extends Event> eventType, Set<Class<? extends Component>> componentTypes) {
+            this.eventType = eventType;
+            this.componentTypes = componentTypes.toArray(new Class[componentTypes.size()]);
+            this.signature = new long[(this.componentTypes.length + Long.SIZE - 1) / Long.SIZE];
+        }
+
+        @SuppressWarnings("unchecked")
+        private EventHandlerInfo[] getHandlers(EntityRef entity) {
+            if (signature.length == 0) {
+                if (generalOnly == null) {
+                    generalOnly = sortByPriority(generalHandlers.get(eventType));
+                }
+                return generalOnly;
+            }
+
+            Arrays.fill(signature, 0);
+            for (int i = 0; i < componentTypes.length; i++) {
+                if (entity.hasComponent(componentTypes[i])) {
+                    signature[i / Long.SIZE] |= 1L << (i % Long.SIZE);
+                }
+            }
+
+            TLongObjectMap<Object> node = root;
+            int lastWord = signature.length - 1;
+            for (int word = 0; word < lastWord; word++) {
+                TLongObjectMap<Object> next = (TLongObjectMap<Object>) node.get(signature[word]);
+                if (next == null) {
+                    next = new TLongObjectHashMap<>();
+                    node.put(signature[word], next);
+                }
+                node = next;
+            }
+            EventHandlerInfo[] result = (EventHandlerInfo[]) node.get(signature[lastWord]);
+            if (result == null) {
+                // All entities with the same signature pass the same component checks
+                result = sortByPriority(selectEventHandlers(eventType, entity));
+                node.put(signature[lastWord], result);
+            }
+            return result;
+        }
+    }
+
     private static class EventHandlerPriorityComparator implements Comparator<EventHandlerInfo> {
 
         @Override
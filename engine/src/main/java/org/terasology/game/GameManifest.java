@@ -35,6 +35,7 @@
 import java.io.Writer;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Base64;
 import java.util.List;
 import java.util.Map;
 
@@ -52,6 +53,7 @@ public class GameManifest {
     private Map<String, Short> biomeIdMap = Maps.newHashMap();
     private Map<String, WorldInfo> worlds = Maps.newHashMap();
     private List<NameVersion> modules = Lists.newArrayList();
+    private String chunkCompressionDictionary;
 
     public GameManifest() {
     }
@@ -106,6 +108,18 @@ public void setBlockIdMap(Map<String, Short> blockIdMap) {
         this.blockIdMap = blockIdMap;
     }
 
+    /**
+     * @return the preset dictionary the chunks of the save game got compressed with, or null if they got
+     * compressed without one.
+     */
+    public byte[] getChunkCompressionDictionary() {
+        return (chunkCompressionDictionary != null) ? Base64.getDecoder().decode(chunkCompressionDictionary) : null;
+    }
+
+    public void setChunkCompressionDictionary(byte[] dictionary) {
+        this.chunkCompressionDictionary = (dictionary != null) ? Base64.getEncoder().encodeToString(dictionary) : null;
+    }
+
     public WorldInfo getWorldInfo(String name) {
         return worlds.get(name);
     }
@@ -16,32 +16,115 @@
 
 package org.terasology.logic.common.lifespan;
 
-import org.terasology.entitySystem.entity.EntityManager;
+import com.google.common.collect.Maps;
+import org.terasology.engine.Time;
 import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.entitySystem.entity.lifecycleEvents.BeforeDeactivateComponent;
+import org.terasology.entitySystem.entity.lifecycleEvents.BeforeEntityStored;
+import org.terasology.entitySystem.entity.lifecycleEvents.OnActivatedComponent;
+import org.terasology.entitySystem.entity.lifecycleEvents.OnChangedComponent;
+import org.terasology.entitySystem.event.ReceiveEvent;
 import org.terasology.entitySystem.systems.BaseComponentSystem;
 import org.terasology.entitySystem.systems.RegisterSystem;
-import org.terasology.entitySystem.systems.UpdateSubscriberSystem;
+import org.terasology.logic.delay.TimerManager;
 import org.terasology.registry.In;
 
+import java.util.Map;
+
 /**
+ * Destroys entities once their lifespan has passed. The time of death of each active entity is scheduled with the
+ * {@link TimerManager}, so only the entities that die get touched each frame. The remaining lifespan is saved into the
+ * component before the entity gets stored and before the game gets saved.
+ *
  * @author Immortius
  */
 @RegisterSystem
-public class LifespanSystem extends BaseComponentSystem implements UpdateSubscriberSystem {
+public class LifespanSystem extends BaseComponentSystem {
+
+    @In
+    private Time time;
 
     @In
-    private EntityManager entityManager;
+    private TimerManager timerManager;
+
+    private Map<EntityRef, ScheduledDeath> scheduledDeaths = Maps.newHashMap();
+    private final TimerManager.TimerCallback deathCallback = this::onDeathTime;
+
+    private void onDeathTime(EntityRef entity, long currentWorldTime) {
+        ScheduledDeath death = scheduledDeaths.get(entity);
+        // Timers of entities that got deactivated or rescheduled since are skipped
+        if (death != null && death.deathTime <= currentWorldTime) {
+            scheduledDeaths.remove(entity);
+            entity.destroy();
+        }
+    }
 
     @Override
-    public void update(float delta) {
-        for (EntityRef entity : entityManager.getEntitiesWith(LifespanComponent.class)) {
-            LifespanComponent lifespan = entity.getComponent(LifespanComponent.class);
-            lifespan.lifespan -= delta;
-            if (lifespan.lifespan < 0) {
-                entity.destroy();
-            } else {
-                entity.saveComponent(lifespan);
+    public void preSave() {
+        for (Map.Entry<EntityRef, ScheduledDeath> entry : scheduledDeaths.entrySet()) {
+            LifespanComponent lifespan = entry.getKey().getComponent(LifespanComponent.class);
+            if (lifespan != null) {
+                saveRemainingLifespan(entry.getKey(), lifespan, entry.getValue());
             }
         }
     }
+
+    @ReceiveEvent
+    public void onActivated(OnActivatedComponent event, EntityRef entity, LifespanComponent lifespan) {
+        schedule(entity, lifespan.lifespan);
+    }
+
+    @ReceiveEvent
+    public void onChanged(OnChangedComponent event, EntityRef entity, LifespanComponent lifespan) {
+        ScheduledDeath death = scheduledDeaths.get(entity);
+        if (death == null || death.lifespan != lifespan.lifespan) {
+            schedule(entity, lifespan.lifespan);
+        }
+    }
+
+    @ReceiveEvent
+    public void onStored(BeforeEntityStored event, EntityRef entity, LifespanComponent lifespan) {
+        ScheduledDeath death = scheduledDeaths.get(entity);
+        if (death != null) {
+            saveRemainingLifespan(entity, lifespan, death);
+        }
+    }
+
+    @ReceiveEvent
+    public void onDeactivated(BeforeDeactivateComponent event, EntityRef entity, LifespanComponent lifespan) {
+        scheduledDeaths.remove(entity);
+    }
+
+    private void schedule(EntityRef entity, float lifespan) {
+        long deathTime = time.getGameTimeInMs() + (long) (lifespan * 1000);
+        scheduledDeaths.put(entity, new ScheduledDeath(deathTime, lifespan));
+        timerManager.schedule(entity, deathTime, deathCallback);
+    }
+
+    /**
+     * Saves the remaining lifespan through the entity, so that the change gets stored. The resulting change event
+     * leaves the death time as it is.
+     */
+    private void saveRemainingLifespan(EntityRef entity, LifespanComponent lifespan, ScheduledDeath death) {
+        lifespan.lifespan = death.getRemainingLifespan(time.getGameTimeInMs());
+        death.lifespan = lifespan.lifespan;
+        entity.saveComponent(lifespan);
+    }
+
+    private static final class ScheduledDeath {
+        private final long deathTime;
+        /**
+         * The lifespan in the component when it was last synchronized with the death time
+         */
+        private float lifespan;
+
+        private ScheduledDeath(long deathTime, float lifespan) {
+            this.deathTime = deathTime;
+            this.lifespan = lifespan;
+        }
+
+        private float getRemainingLifespan(long now) {
+            return (deathTime - now) / 1000f;
+        }
+    }
 }
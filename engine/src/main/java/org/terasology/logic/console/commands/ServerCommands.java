@@ -19,6 +19,8 @@
 import org.slf4j.LoggerFactory;
 import org.terasology.config.Config;
 import org.terasology.engine.GameEngine;
+import org.terasology.engine.TerasologyConstants;
+import org.terasology.engine.paths.PathManager;
 import org.terasology.entitySystem.entity.EntityManager;
 import org.terasology.entitySystem.entity.EntityRef;
 import org.terasology.entitySystem.systems.BaseComponentSystem;
@@ -32,6 +34,9 @@
 import org.terasology.logic.permission.PermissionManager;
 import org.terasology.logic.players.PlayerUtil;
 import org.terasology.math.geom.Vector3i;
+import org.terasology.monitoring.ActivityStatistics;
+import org.terasology.monitoring.PerformanceMonitor;
+import org.terasology.monitoring.ThreadStatistics;
 import org.terasology.network.Client;
 import org.terasology.network.ClientComponent;
 import org.terasology.network.ClientInfoComponent;
@@ -41,6 +46,14 @@
 import org.terasology.registry.In;
 import org.terasology.world.chunks.ChunkProvider;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.List;
+
 /**
  * Commands to administer a remote server
  *
@@ -206,4 +219,37 @@ public String reloadChunk(@CommandParam("x") int x, @CommandParam("y") int y, @C
     public void purgeWorld() {
         chunkProvider.purgeWorld();
     }
+
+    @Command(shortDescription = "Enables or disables the performance monitor", runOnServer = true,
+            requiredPermission = PermissionManager.SERVER_MANAGEMENT_PERMISSION)
+    public String monitorPerformance(@CommandParam("enabled") boolean enabled) {
+        PerformanceMonitor.setEnabled(enabled);
+        return "Performance monitor " + (enabled ? "enabled" : "disabled");
+    }
+
+    @Command(shortDescription = "Writes the per-thread statistics of the performance monitor to the log directory",
+            runOnServer = true, requiredPermission = PermissionManager.SERVER_MANAGEMENT_PERMISSION)
+    public String dumpPerformance() {
+        if (!PerformanceMonitor.isEnabled()) {
+            return "The performance monitor is disabled, enable it with 'monitorPerformance true'";
+        }
+        List<ThreadStatistics> statistics = PerformanceMonitor.getThreadStatistics();
+        String fileName = "performance-" + new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date()) + ".txt";
+        Path path = PathManager.getInstance().getLogPath().resolve(fileName);
+        try (BufferedWriter writer = Files.newBufferedWriter(path, TerasologyConstants.CHARSET)) {
+            for (ThreadStatistics thread : statistics) {
+                writer.write(thread + ", " + thread.getDroppedRecords() + " dropped records");
+                writer.newLine();
+                for (ActivityStatistics activity : thread.getActivities()) {
+                    writer.write("    " + activity);
+                    writer.newLine();
+                }
+            }
+        } catch (IOException e) {
+            logger.error("Failed to write performance statistics to {}", path, e);
+            return "Failed to write performance statistics: " + e.getMessage();
+        }
+        logger.info("Performance statistics of {} threads written to {}", statistics.size(), path);
+        return "Performance statistics of " + statistics.size() + " threads written to " + path;
+    }
 }
@@ -15,125 +15,88 @@
  */
 package org.terasology.logic.delay;
 
-import com.google.common.collect.Ordering;
-import com.google.common.collect.SortedSetMultimap;
-import com.google.common.collect.TreeMultimap;
 import org.terasology.engine.Time;
 import org.terasology.entitySystem.entity.EntityRef;
-import org.terasology.entitySystem.entity.lifecycleEvents.BeforeDeactivateComponent;
 import org.terasology.entitySystem.entity.lifecycleEvents.OnActivatedComponent;
 import org.terasology.entitySystem.event.ReceiveEvent;
 import org.terasology.entitySystem.systems.BaseComponentSystem;
 import org.terasology.entitySystem.systems.RegisterMode;
 import org.terasology.entitySystem.systems.RegisterSystem;
-import org.terasology.entitySystem.systems.UpdateSubscriberSystem;
 import org.terasology.registry.In;
 import org.terasology.registry.Share;
 
-import java.util.Iterator;
-import java.util.LinkedList;
-import java.util.List;
 import java.util.Set;
 
 /**
+ * Entities are scheduled with the {@link TimerManager} at the lowest wake up time of their components. Timers are
+ * never cancelled: an entity is scheduled again whenever its lowest wake up time moves forward, and timers that are no
+ * longer relevant are skipped when they expire. The wake up times themselves are kept in the components, so they
+ * survive saving and loading the entity.
+ *
  * @author Marcin Sciesinski
  */
 @RegisterSystem(RegisterMode.AUTHORITY)
 @Share(value = DelayManager.class)
-public class DelayedActionSystem extends BaseComponentSystem implements UpdateSubscriberSystem, DelayManager {
+public class DelayedActionSystem extends BaseComponentSystem implements DelayManager {
     @In
     private Time time;
 
-    private SortedSetMultimap<Long, EntityRef> delayedOperationsSortedByTime = TreeMultimap.create(Ordering.natural(), Ordering.arbitrary());
-    private SortedSetMultimap<Long, EntityRef> periodicOperationsSortedByTime = TreeMultimap.create(Ordering.natural(), Ordering.arbitrary());
+    @In
+    private TimerManager timerManager;
 
-    @Override
-    public void update(float delta) {
-        final long currentWorldTime = time.getGameTimeInMs();
-        invokeDelayedOperations(currentWorldTime);
-        invokePeriodicOperations(currentWorldTime);
-    }
+    private final TimerManager.TimerCallback delayedOperationCallback = this::invokeDelayedOperations;
+    private final TimerManager.TimerCallback periodicOperationCallback = this::invokePeriodicOperations;
 
-    private void invokeDelayedOperations(long currentWorldTime) {
-        List<EntityRef> operationsToInvoke = new LinkedList<>();
-        Iterator<Long> scheduledOperationsIterator = delayedOperationsSortedByTime.keySet().iterator();
-        long processedTime;
-        while (scheduledOperationsIterator.hasNext()) {
-            processedTime = scheduledOperationsIterator.next();
-            if (processedTime > currentWorldTime) {
-                break;
+    private void invokeDelayedOperations(EntityRef delayedEntity, long currentWorldTime) {
+        if (delayedEntity.exists()) {
+            final DelayedActionComponent delayedActions = delayedEntity.getComponent(DelayedActionComponent.class);
+            if (delayedActions == null || delayedActions.getLowestWakeUp() > currentWorldTime) {
+                // Cancelled or rescheduled since
+                return;
             }
-            operationsToInvoke.addAll(delayedOperationsSortedByTime.get(processedTime));
-            scheduledOperationsIterator.remove();
-        }
-
-        for (EntityRef delayedEntity : operationsToInvoke) {
-            if (delayedEntity.exists()) {
-                final DelayedActionComponent delayedActions = delayedEntity.getComponent(DelayedActionComponent.class);
 
-                final Set<String> actionIds = delayedActions.removeActionsUpTo(currentWorldTime);
-                saveOrRemoveComponent(delayedEntity, delayedActions);
+            final Set<String> actionIds = delayedActions.removeActionsUpTo(currentWorldTime);
+            saveOrRemoveComponent(delayedEntity, delayedActions);
 
-                if (!delayedActions.isEmpty()) {
-                    delayedOperationsSortedByTime.put(delayedActions.getLowestWakeUp(), delayedEntity);
-                }
+            if (!delayedActions.isEmpty()) {
+                timerManager.schedule(delayedEntity, delayedActions.getLowestWakeUp(), delayedOperationCallback);
+            }
 
-                for (String actionId : actionIds) {
-                    delayedEntity.send(new DelayedActionTriggeredEvent(actionId));
-                }
+            for (String actionId : actionIds) {
+                delayedEntity.send(new DelayedActionTriggeredEvent(actionId));
             }
         }
     }
 
-    private void invokePeriodicOperations(long currentWorldTime) {
-        List<EntityRef> operationsToInvoke = new LinkedList<>();
-        Iterator<Long> scheduledOperationsIterator = periodicOperationsSortedByTime.keySet().iterator();
-        long processedTime;
-        while (scheduledOperationsIterator.hasNext()) {
-            processedTime = scheduledOperationsIterator.next();
-            if (processedTime > currentWorldTime) {
-                break;
+    private void invokePeriodicOperations(EntityRef periodicEntity, long currentWorldTime) {
+        if (periodicEntity.exists()) {
+            final PeriodicActionComponent periodicActionComponent = periodicEntity.getComponent(PeriodicActionComponent.class);
+            if (periodicActionComponent == null || periodicActionComponent.getLowestWakeUp() > currentWorldTime) {
+                // Cancelled or rescheduled since
+                return;
             }
-            operationsToInvoke.addAll(periodicOperationsSortedByTime.get(processedTime));
-            scheduledOperationsIterator.remove();
-        }
 
-        for (EntityRef periodicEntity : operationsToInvoke) {
-            if (periodicEntity.exists()) {
-                final PeriodicActionComponent periodicActionComponent = periodicEntity.getComponent(PeriodicActionComponent.class);
+            final Set<String> actionIds = periodicActionComponent.getTriggeredActionsAndReschedule(currentWorldTime);
+            saveOrRemoveComponent(periodicEntity, periodicActionComponent);
 
-                final Set<String> actionIds = periodicActionComponent.getTriggeredActionsAndReschedule(currentWorldTime);
-                saveOrRemoveComponent(periodicEntity, periodicActionComponent);
-
-                if (!periodicActionComponent.isEmpty()) {
-                    periodicOperationsSortedByTime.put(periodicActionComponent.getLowestWakeUp(), periodicEntity);
-                }
+            if (!periodicActionComponent.isEmpty()) {
+                timerManager.schedule(periodicEntity, periodicActionComponent.getLowestWakeUp(), periodicOperationCallback);
+            }
 
-                for (String actionId : actionIds) {
-                    periodicEntity.send(new PeriodicActionTriggeredEvent(actionId));
-                }
+            for (String actionId : actionIds) {
+                periodicEntity.send(new PeriodicActionTriggeredEvent(actionId));
             }
         }
     }
 
     @ReceiveEvent
     public void delayedComponentActivated(OnActivatedComponent event, EntityRef entity, DelayedActionComponent delayedActionComponent) {
-        delayedOperationsSortedByTime.put(delayedActionComponent.getLowestWakeUp(), entity);
+        timerManager.schedule(entity, delayedActionComponent.getLowestWakeUp(), delayedOperationCallback);
     }
 
     @ReceiveEvent
     public void periodicComponentActivated(OnActivatedComponent event, EntityRef entity, PeriodicActionComponent periodicActionComponent) {
-        periodicOperationsSortedByTime.put(periodicActionComponent.getLowestWakeUp(), entity);
-    }
-
-    @ReceiveEvent
-    public void delayedComponentDeactivated(BeforeDeactivateComponent event, EntityRef entity, DelayedActionComponent delayedActionComponent) {
-        delayedOperationsSortedByTime.remove(delayedActionComponent.getLowestWakeUp(), entity);
-    }
-
-    @ReceiveEvent
-    public void periodicComponentDeactivated(BeforeDeactivateComponent event, EntityRef entity, PeriodicActionComponent periodicActionComponent) {
-        delayedOperationsSortedByTime.remove(periodicActionComponent.getLowestWakeUp(), entity);
+        timerManager.schedule(entity, periodicActionComponent.getLowestWakeUp(), periodicOperationCallback);
     }
 
     @Override
@@ -146,9 +109,8 @@ public void addDelayedAction(EntityRef entity, String actionId, long delay) {
             delayedActionComponent.addActionId(actionId, scheduleTime);
             entity.saveComponent(delayedActionComponent);
             final long newWakeUp = delayedActionComponent.getLowestWakeUp();
-            if (oldWakeUp < newWakeUp) {
-                delayedOperationsSortedByTime.remove(oldWakeUp, entity);
-                delayedOperationsSortedByTime.put(newWakeUp, entity);
+            if (newWakeUp < oldWakeUp) {
+                timerManager.schedule(entity, newWakeUp, delayedOperationCallback);
             }
         } else {
             delayedActionComponent = new DelayedActionComponent();
@@ -167,9 +129,8 @@ public void addPeriodicAction(EntityRef entity, String actionId, long initialDel
             periodicActionComponent.addScheduledActionId(actionId, scheduleTime, period);
             entity.saveComponent(periodicActionComponent);
             final long newWakeUp = periodicActionComponent.getLowestWakeUp();
-            if (oldWakeUp < newWakeUp) {
-                periodicOperationsSortedByTime.remove(oldWakeUp, entity);
-                periodicOperationsSortedByTime.put(newWakeUp, entity);
+            if (newWakeUp < oldWakeUp) {
+                timerManager.schedule(entity, newWakeUp, periodicOperationCallback);
             }
         } else {
             periodicActionComponent = new PeriodicActionComponent();
@@ -185,10 +146,7 @@ public void cancelDelayedAction(EntityRef entity, String actionId) {
         delayedComponent.removeActionId(actionId);
         long newWakeUp = delayedComponent.getLowestWakeUp();
         if (!delayedComponent.isEmpty() && oldWakeUp < newWakeUp) {
-            delayedOperationsSortedByTime.remove(oldWakeUp, entity);
-            delayedOperationsSortedByTime.put(newWakeUp, entity);
-        } else if (delayedComponent.isEmpty()) {
-            delayedOperationsSortedByTime.remove(oldWakeUp, entity);
+            timerManager.schedule(entity, newWakeUp, delayedOperationCallback);
         }
         saveOrRemoveComponent(entity, delayedComponent);
     }
@@ -200,10 +158,7 @@ public void cancelPeriodicAction(EntityRef entity, String actionId) {
         periodicActionComponent.removeScheduledActionId(actionId);
         long newWakeUp = periodicActionComponent.getLowestWakeUp();
         if (!periodicActionComponent.isEmpty() && oldWakeUp < newWakeUp) {
-            periodicOperationsSortedByTime.remove(oldWakeUp, entity);
-            periodicOperationsSortedByTime.put(newWakeUp, entity);
-        } else if (periodicActionComponent.isEmpty()) {
-            periodicOperationsSortedByTime.remove(oldWakeUp, entity);
+            timerManager.schedule(entity, newWakeUp, periodicOperationCallback);
         }
         saveOrRemoveComponent(entity, periodicActionComponent);
     }
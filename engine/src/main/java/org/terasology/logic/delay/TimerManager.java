@@ -0,0 +1,48 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.logic.delay;
+
+import org.terasology.entitySystem.entity.EntityRef;
+
+/**
+ * Calls back systems once the game time reaches the deadlines they scheduled for entities. Scheduling a deadline takes
+ * constant time and only the deadlines that pass get touched each frame, so systems can keep a deadline for each of
+ * thousands of entities.
+ * <br><br>
+ * Deadlines can't be cancelled. The callback gets called for every deadline that got scheduled, also if the entity
+ * got destroyed or deactivated since or the system scheduled a later deadline for it, so it has to check whether the
+ * deadline is still relevant. Deadlines are not stored: systems keep them in components and schedule them again when
+ * the components get activated.
+ */
+public interface TimerManager {
+
+    /**
+     * @param entity   the entity the deadline is for.
+     * @param gameTime the game time in ms at which the callback should be called.
+     * @param callback called in the first update at or after the deadline.
+     */
+    void schedule(EntityRef entity, long gameTime, TimerCallback callback);
+
+    @FunctionalInterface
+    interface TimerCallback {
+
+        /**
+         * @param entity   the entity the deadline got scheduled for.
+         * @param gameTime the current game time in ms.
+         */
+        void onTimer(EntityRef entity, long gameTime);
+    }
+}
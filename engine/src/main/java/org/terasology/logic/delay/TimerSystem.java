@@ -0,0 +1,67 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.logic.delay;
+
+import com.google.common.collect.Lists;
+import org.terasology.engine.Time;
+import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.entitySystem.systems.BaseComponentSystem;
+import org.terasology.entitySystem.systems.RegisterSystem;
+import org.terasology.entitySystem.systems.UpdateSubscriberSystem;
+import org.terasology.registry.In;
+import org.terasology.registry.Share;
+import org.terasology.utilities.collection.TimerWheel;
+
+import java.util.List;
+
+/**
+ * Keeps the deadlines of all systems on a single timer wheel.
+ */
+@RegisterSystem
+@Share(value = TimerManager.class)
+public class TimerSystem extends BaseComponentSystem implements UpdateSubscriberSystem, TimerManager {
+    @In
+    private Time time;
+
+    private TimerWheel<Timer> timers = new TimerWheel<>();
+    private List<Timer> expiredTimers = Lists.newArrayList();
+
+    @Override
+    public void update(float delta) {
+        long currentWorldTime = time.getGameTimeInMs();
+        expiredTimers.clear();
+        timers.advanceTo(currentWorldTime, expiredTimers);
+        // Callbacks may schedule new deadlines, which only get handed out by the next update
+        for (Timer timer : expiredTimers) {
+            timer.callback.onTimer(timer.entity, currentWorldTime);
+        }
+    }
+
+    @Override
+    public void schedule(EntityRef entity, long gameTime, TimerCallback callback) {
+        timers.schedule(new Timer(entity, callback), gameTime);
+    }
+
+    private static final class Timer {
+        private final EntityRef entity;
+        private final TimerCallback callback;
+
+        private Timer(EntityRef entity, TimerCallback callback) {
+            this.entity = entity;
+            this.callback = callback;
+        }
+    }
+}
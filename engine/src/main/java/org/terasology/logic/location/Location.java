@@ -18,6 +18,7 @@
 
 import org.terasology.entitySystem.entity.EntityRef;
 import org.terasology.entitySystem.entity.lifecycleEvents.BeforeRemoveComponent;
+import org.terasology.entitySystem.entity.lifecycleEvents.OnChangedComponent;
 import org.terasology.entitySystem.event.ReceiveEvent;
 import org.terasology.entitySystem.systems.BaseComponentSystem;
 import org.terasology.entitySystem.systems.RegisterSystem;
@@ -97,6 +98,20 @@ public static void removeChild(EntityRef parent, EntityRef child) {
         }
     }
 
+    /**
+     * The children cache the world transform calculated from the parent's location component, which may have been
+     * replaced by another instance.
+     */
+    @ReceiveEvent
+    public void onChanged(OnChangedComponent event, EntityRef entity, LocationComponent location) {
+        for (EntityRef child : location.getChildren()) {
+            LocationComponent childLoc = child.getComponent(LocationComponent.class);
+            if (childLoc != null) {
+                childLoc.onParentLocationSaved(location);
+            }
+        }
+    }
+
     @ReceiveEvent
     public void onDestroyed(BeforeRemoveComponent event, EntityRef entity, LocationComponent location) {
         if (location.parent.exists()) {
@@ -56,6 +56,19 @@ public final class LocationComponent implements Component, ReplicationCheck {
     @Replicate
     float scale = 1.0f;
 
+    // Cached world transform, valid as long as the local transform and the parent's world transform are unchanged
+    private transient boolean worldTransformDirty = true;
+    private transient int worldTransformVersion;
+    private transient Vector3f worldPosition;
+    private transient Quat4f worldRotation;
+    private transient float worldScale;
+    private transient EntityRef cachedParent;
+    private transient LocationComponent cachedParentLoc;
+    private transient int cachedParentVersion;
+    private transient Vector3f cachedPosition;
+    private transient Quat4f cachedRotation;
+    private transient float cachedScale;
+
     public LocationComponent() {
     }
 
@@ -72,6 +85,7 @@ public Vector3f getLocalPosition() {
 
     public void setLocalPosition(Vector3f newPos) {
         position.set(newPos);
+        worldTransformDirty = true;
     }
 
     public Quat4f getLocalRotation() {
@@ -80,10 +94,12 @@ public Quat4f getLocalRotation() {
 
     public void setLocalRotation(Quat4f newQuat) {
         rotation.set(newQuat);
+        worldTransformDirty = true;
     }
 
     public void setLocalScale(float value) {
         this.scale = value;
+        worldTransformDirty = true;
     }
 
     public float getLocalScale() {
@@ -98,14 +114,8 @@ public Vector3f getWorldPosition() {
     }
 
     public Vector3f getWorldPosition(Vector3f output) {
-        output.set(position);
-        LocationComponent parentLoc = parent.getComponent(LocationComponent.class);
-        while (parentLoc != null) {
-            output.scale(parentLoc.scale);
-            QuaternionUtil.quatRotate(parentLoc.getLocalRotation(), output, output);
-            output.add(parentLoc.position);
-            parentLoc = parentLoc.parent.getComponent(LocationComponent.class);
-        }
+        updateWorldTransform();
+        output.set(worldPosition);
         return output;
     }
 
@@ -114,26 +124,18 @@ public Quat4f getWorldRotation() {
     }
 
     public Quat4f getWorldRotation(Quat4f output) {
-        output.set(rotation);
-        LocationComponent parentLoc = parent.getComponent(LocationComponent.class);
-        while (parentLoc != null) {
-            output.mul(parentLoc.rotation, output);
-            parentLoc = parentLoc.parent.getComponent(LocationComponent.class);
-        }
+        updateWorldTransform();
+        output.set(worldRotation);
         return output;
     }
 
     public float getWorldScale() {
-        float result = scale;
-        LocationComponent parentLoc = parent.getComponent(LocationComponent.class);
-        while (parentLoc != null) {
-            result *= parentLoc.getLocalScale();
-            parentLoc = parentLoc.parent.getComponent(LocationComponent.class);
-        }
-        return result;
+        updateWorldTransform();
+        return worldScale;
     }
 
     public void setWorldPosition(Vector3f value) {
+        worldTransformDirty = true;
         this.position.set(value);
         LocationComponent parentLoc = parent.getComponent(LocationComponent.class);
         if (parentLoc != null) {
@@ -146,6 +148,7 @@ public void setWorldPosition(Vector3f value) {
     }
 
     public void setWorldRotation(Quat4f value) {
+        worldTransformDirty = true;
         this.rotation.set(value);
         LocationComponent parentLoc = parent.getComponent(LocationComponent.class);
         if (parentLoc != null) {
@@ -156,6 +159,7 @@ public void setWorldRotation(Quat4f value) {
     }
 
     public void setWorldScale(float value) {
+        worldTransformDirty = true;
         this.scale = value;
         LocationComponent parentLoc = parent.getComponent(LocationComponent.class);
         if (parentLoc != null) {
@@ -192,4 +196,59 @@ public int hashCode() {
     public boolean shouldReplicate(FieldMetadata field, boolean initial, boolean toOwner) {
         return initial || replicateChanges;
     }
+
+    /**
+     * Called when the location component of the parent got saved, possibly replacing the instance the cached world
+     * transform was calculated from.
+     */
+    void onParentLocationSaved(LocationComponent parentLoc) {
+        if (cachedParentLoc != parentLoc) {
+            worldTransformDirty = true;
+        }
+    }
+
+    /**
+     * Recalculates the cached world transform if this or any parent's local transform has changed since it was
+     * calculated. Besides the dirty flag set by the setters, the local transform is compared against the one the cache
+     * was calculated from, as the vectors returned by {@link #getLocalPosition()} and {@link #getLocalRotation()} can
+     * be modified directly.
+     */
+    private void updateWorldTransform() {
+        if (cachedParentLoc != null) {
+            cachedParentLoc.updateWorldTransform();
+        }
+        if (worldTransformDirty || scale != cachedScale || !position.equals(cachedPosition) || !rotation.equals(cachedRotation)
+                || !parent.equals(cachedParent) || (cachedParentLoc != null && cachedParentLoc.worldTransformVersion != cachedParentVersion)) {
+            calculateWorldTransform();
+        }
+    }
+
+    private void calculateWorldTransform() {
+        if (worldPosition == null) {
+            worldPosition = new Vector3f();
+            worldRotation = new Quat4f(0, 0, 0, 1);
+            cachedPosition = new Vector3f();
+            cachedRotation = new Quat4f(0, 0, 0, 1);
+        }
+        LocationComponent parentLoc = parent.getComponent(LocationComponent.class);
+        worldPosition.set(position);
+        worldRotation.set(rotation);
+        worldScale = scale;
+        if (parentLoc != null) {
+            parentLoc.updateWorldTransform();
+            worldPosition.scale(parentLoc.worldScale);
+            QuaternionUtil.quatRotate(parentLoc.worldRotation, worldPosition, worldPosition);
+            worldPosition.add(parentLoc.worldPosition);
+            worldRotation.mul(parentLoc.worldRotation, worldRotation);
+            worldScale *= parentLoc.worldScale;
+            cachedParentVersion = parentLoc.worldTransformVersion;
+        }
+        cachedParent = parent;
+        cachedParentLoc = parentLoc;
+        cachedPosition.set(position);
+        cachedRotation.set(rotation);
+        cachedScale = scale;
+        worldTransformDirty = false;
+        worldTransformVersion++;
+    }
 }
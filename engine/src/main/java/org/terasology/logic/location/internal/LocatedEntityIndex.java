@@ -0,0 +1,229 @@
+/*
+ * Copyright 2015 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.logic.location.internal;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import gnu.trove.iterator.TLongIterator;
+import gnu.trove.map.TLongObjectMap;
+import gnu.trove.map.hash.TLongObjectHashMap;
+import gnu.trove.set.TLongSet;
+import gnu.trove.set.hash.TLongHashSet;
+import org.terasology.entitySystem.Component;
+import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.entitySystem.entity.internal.EngineEntityManager;
+import org.terasology.entitySystem.entity.internal.EntityChangeSubscriber;
+import org.terasology.logic.location.LocationComponent;
+import org.terasology.math.AABB;
+import org.terasology.math.ChunkMath;
+import org.terasology.math.geom.Vector3f;
+import org.terasology.math.geom.Vector3i;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps track of the chunk each entity with a {@link LocationComponent} is in, so that the entities within an area
+ * can be found without iterating over all located entities.
+ * <br><br>
+ * The index gets updated whenever a {@link LocationComponent} gets added, saved, removed, deactivated or reactivated.
+ * Changes to a location component that don't get saved to the entity are not noticed.
+ * <br><br>
+ * The world position of an entity with a parent changes whenever one of its ancestors moves, without the entity
+ * being notified. Such entities are thus not indexed themselves, but get found through the
+ * {@link LocationComponent#getChildren() children} of their root, the ancestor without a parent. They count as being
+ * located where their root is, so that they always get deactivated and stored together with it.
+ * <br><br>
+ * Chunk positions are calculated from the world position rounded down, so that an entity at x = -0.5 is in the
+ * chunk at x = -1, consistent with the chunk that contains the block it is in.
+ */
+public class LocatedEntityIndex implements EntityChangeSubscriber {
+    private final EngineEntityManager entityManager;
+    private final Map<Vector3i, TLongSet> entitiesByChunk = Maps.newHashMap();
+    private final TLongObjectMap<Vector3i> chunkByEntity = new TLongObjectHashMap<>();
+
+    public LocatedEntityIndex(EngineEntityManager entityManager) {
+        this.entityManager = entityManager;
+        for (EntityRef entity : entityManager.getEntitiesWith(LocationComponent.class)) {
+            update(entity);
+        }
+        entityManager.subscribeForChanges(this);
+    }
+
+    /**
+     * @return all located entities whose world position, or the world position of their root, is within the given
+     * AABB.
+     */
+    public Collection<EntityRef> getEntitiesWithin(AABB aabb) {
+        List<EntityRef> result = Lists.newArrayList();
+        Vector3i minChunk = calcChunkPos(aabb.getMin());
+        Vector3i maxChunk = calcChunkPos(aabb.getMax());
+        Vector3i chunkPos = new Vector3i();
+        for (int x = minChunk.x; x <= maxChunk.x; x++) {
+            for (int y = minChunk.y; y <= maxChunk.y; y++) {
+                for (int z = minChunk.z; z <= maxChunk.z; z++) {
+                    chunkPos.set(x, y, z);
+                    TLongSet entityIds = entitiesByChunk.get(chunkPos);
+                    if (entityIds != null) {
+                        addEntitiesWithin(aabb, entityIds, result);
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Unlike {@link #getEntitiesWithin(AABB)} this method assigns every entity to exactly one chunk, even if it is
+     * located on the border between two chunks.
+     *
+     * @return the located entities whose world position, or the world position of their root, is within the given
+     * chunk.
+     */
+    public Collection<EntityRef> getEntitiesInChunk(Vector3i chunkPos) {
+        List<EntityRef> result = Lists.newArrayList();
+        TLongSet entityIds = entitiesByChunk.get(chunkPos);
+        if (entityIds != null) {
+            TLongIterator iterator = entityIds.iterator();
+            while (iterator.hasNext()) {
+                EntityRef entity = entityManager.getEntity(iterator.next());
+                LocationComponent loc = entity.getComponent(LocationComponent.class);
+                if (loc != null) {
+                    result.add(entity);
+                    addDescendants(loc, result);
+                }
+            }
+        }
+        return result;
+    }
+
+    private void addEntitiesWithin(AABB aabb, TLongSet entityIds, List<EntityRef> result) {
+        Vector3f worldPos = new Vector3f();
+        TLongIterator iterator = entityIds.iterator();
+        while (iterator.hasNext()) {
+            EntityRef entity = entityManager.getEntity(iterator.next());
+            LocationComponent loc = entity.getComponent(LocationComponent.class);
+            if (loc != null && aabb.contains(loc.getWorldPosition(worldPos))) {
+                result.add(entity);
+                addDescendants(loc, result);
+            }
+        }
+    }
+
+    private void addDescendants(LocationComponent loc, List<EntityRef> result) {
+        for (EntityRef child : loc.getChildren()) {
+            LocationComponent childLoc = child.getComponent(LocationComponent.class);
+            if (childLoc != null) {
+                result.add(child);
+                addDescendants(childLoc, result);
+            }
+        }
+    }
+
+    private void update(EntityRef entity) {
+        LocationComponent loc = entity.getComponent(LocationComponent.class);
+        if (loc == null) {
+            remove(entity);
+            return;
+        }
+        long id = entity.getId();
+        if (loc.getParent().hasComponent(LocationComponent.class)) {
+            removeFromChunk(id);
+            return;
+        }
+        updateChunk(id, loc);
+    }
+
+    private void updateChunk(long id, LocationComponent loc) {
+        Vector3i newChunkPos = calcChunkPos(loc.getWorldPosition());
+        Vector3i oldChunkPos = chunkByEntity.get(id);
+        if (newChunkPos.equals(oldChunkPos)) {
+            return;
+        }
+        removeFromChunk(id);
+        TLongSet entityIds = entitiesByChunk.get(newChunkPos);
+        if (entityIds == null) {
+            entityIds = new TLongHashSet();
+            entitiesByChunk.put(newChunkPos, entityIds);
+        }
+        entityIds.add(id);
+        chunkByEntity.put(id, newChunkPos);
+    }
+
+    /**
+     * Gets called before the location component of the entity gets removed. Its children become roots then, even if
+     * they don't get notified.
+     */
+    private void remove(EntityRef entity) {
+        removeFromChunk(entity.getId());
+        LocationComponent loc = entity.getComponent(LocationComponent.class);
+        if (loc != null) {
+            for (EntityRef child : loc.getChildren()) {
+                LocationComponent childLoc = child.getComponent(LocationComponent.class);
+                if (childLoc != null && childLoc.getParent().equals(entity)) {
+                    updateChunk(child.getId(), childLoc);
+                }
+            }
+        }
+    }
+
+    private void removeFromChunk(long id) {
+        Vector3i oldChunkPos = chunkByEntity.remove(id);
+        if (oldChunkPos != null) {
+            TLongSet entityIds = entitiesByChunk.get(oldChunkPos);
+            entityIds.remove(id);
+            if (entityIds.isEmpty()) {
+                entitiesByChunk.remove(oldChunkPos);
+            }
+        }
+    }
+
+    private static Vector3i calcChunkPos(Vector3f pos) {
+        return ChunkMath.calcChunkPos((int) Math.floor(pos.x), (int) Math.floor(pos.y), (int) Math.floor(pos.z));
+    }
+
+    @Override
+    public void onEntityComponentAdded(EntityRef entity, Class<? extends Component> component) {
+        if (component == LocationComponent.class) {
+            update(entity);
+        }
+    }
+
+    @Override
+    public void onEntityComponentChange(EntityRef entity, Class<? extends Component> component) {
+        if (component == LocationComponent.class) {
+            update(entity);
+        }
+    }
+
+    @Override
+    public void onEntityComponentRemoved(EntityRef entity, Class<? extends Component> component) {
+        if (component == LocationComponent.class) {
+            remove(entity);
+        }
+    }
+
+    @Override
+    public void onReactivation(EntityRef entity, Collection<Component> components) {
+        update(entity);
+    }
+
+    @Override
+    public void onBeforeDeactivation(EntityRef entity, Collection<Component> components) {
+        remove(entity);
+    }
+}
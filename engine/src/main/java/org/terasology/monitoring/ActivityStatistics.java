@@ -0,0 +1,109 @@
+/*
+ * Copyright 2015 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.monitoring;
+
+import java.util.Arrays;
+
+/**
+ * The statistics of one activity on one thread, since the performance monitor got enabled.
+ * <br><br>
+ * Execution times are the own times of the activity, excluding the times of nested activities. They are
+ * collected in a histogram with power of two buckets: bucket {@code i} counts the executions that took
+ * from {@code 2^(i-1)} up to {@code 2^i - 1} nanoseconds.
+ */
+public final class ActivityStatistics {
+
+    public static final int HISTOGRAM_BUCKETS = 64;
+
+    private final String name;
+    private final long count;
+    private final long totalNanos;
+    private final long maxNanos;
+    private final long allocatedBytes;
+    private final long[] histogram;
+
+    public ActivityStatistics(String name, long count, long totalNanos, long maxNanos, long allocatedBytes, long[] histogram) {
+        this.name = name;
+        this.count = count;
+        this.totalNanos = totalNanos;
+        this.maxNanos = maxNanos;
+        this.allocatedBytes = allocatedBytes;
+        this.histogram = Arrays.copyOf(histogram, HISTOGRAM_BUCKETS);
+    }
+
+    /**
+     * @return the histogram bucket for an execution time
+     */
+    public static int getBucket(long nanos) {
+        return HISTOGRAM_BUCKETS - Long.numberOfLeadingZeros(Math.max(nanos, 0));
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    public double getMeanNanos() {
+        return (count == 0) ? 0 : (double) totalNanos / count;
+    }
+
+    public long getMaxNanos() {
+        return maxNanos;
+    }
+
+    /**
+     * @return the bytes allocated during the executions of the activity. Exact for the activity's thread if the JVM
+     * supports per-thread allocation counters, otherwise an estimate based on the used heap memory.
+     */
+    public long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    public long[] getHistogram() {
+        return Arrays.copyOf(histogram, HISTOGRAM_BUCKETS);
+    }
+
+    /**
+     * @param fraction the fraction of executions, between 0 and 1
+     * @return an upper bound of the execution time that the given fraction of executions did not exceed,
+     * accurate to a factor of two
+     */
+    public long getPercentileNanos(double fraction) {
+        long threshold = (long) Math.ceil(fraction * count);
+        long seen = 0;
+        for (int bucket = 0; bucket < HISTOGRAM_BUCKETS; bucket++) {
+            seen += histogram[bucket];
+            if (seen >= threshold && seen > 0) {
+                long upperBound = (bucket == HISTOGRAM_BUCKETS - 1) ? Long.MAX_VALUE : (1L << bucket) - 1;
+                return Math.min(upperBound, maxNanos);
+            }
+        }
+        return 0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: %d x, mean %.3f ms, p50 %.3f ms, p99 %.3f ms, max %.3f ms, %d KiB", name, count, getMeanNanos() / 1e6,
+                getPercentileNanos(0.5) / 1e6, getPercentileNanos(0.99) / 1e6, maxNanos / 1e6, allocatedBytes / 1024);
+    }
+}
@@ -20,6 +20,8 @@
 import org.terasology.monitoring.impl.PerformanceMonitorImpl;
 import org.terasology.monitoring.impl.PerformanceMonitorInternal;
 
+import java.util.List;
+
 /**
  * Maintains a running average of execution times and memory allocated by different activities.
  * Activities call to denote when they start and stop.
@@ -27,8 +29,10 @@
  * Activities may be nested, and while a nested activity is running the collection of data from outer activities
  * is paused: time passing and allocated memory are not assigned to them.
  * <br><br>
- * Performance monitor is intended only for use by the main thread of Terasology, and does not handle
- * activities being started and ended on other threads at this time.
+ * Activities can be started and ended on any thread, each thread keeps its own stack of activities.
+ * The running means, spikes and allocation means only cover the main thread of Terasology, the thread that
+ * enabled the monitor and calls rollCycle(). Per-thread statistics of all threads are available
+ * through getThreadStatistics().
  */
 public final class PerformanceMonitor {
     private static PerformanceMonitorInternal instance;
@@ -140,6 +144,16 @@ public static TObjectDoubleMap<String> getAllocationMean() {
         return instance.getAllocationMean();
     }
 
+    /**
+     * Returns the statistics of every thread that recorded activities since the monitor got enabled.
+     * The statistics are collected in the background, so they lag behind the activities by a fraction of a second.
+     *
+     * @return the statistics of each thread, including the execution time histograms of its activities.
+     */
+    public static List<ThreadStatistics> getThreadStatistics() {
+        return instance.getThreadStatistics();
+    }
+
     /**
      * Enables or disables the Performance Monitoring system.
      * <br><br>
@@ -149,10 +163,16 @@ public static TObjectDoubleMap<String> getAllocationMean() {
      */
     public static void setEnabled(boolean enabled) {
         if (enabled && !(instance instanceof PerformanceMonitorImpl)) {
+            instance.dispose();
             instance = new PerformanceMonitorImpl();
         } else if (!enabled && !(instance instanceof NullPerformanceMonitor)) {
+            instance.dispose();
             instance = new NullPerformanceMonitor();
         }
     }
 
+    public static boolean isEnabled() {
+        return instance instanceof PerformanceMonitorImpl;
+    }
+
 }
@@ -0,0 +1,69 @@
+/*
+ * Copyright 2015 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.monitoring;
+
+import com.google.common.collect.ImmutableList;
+
+import java.util.List;
+
+/**
+ * The statistics of all activities recorded on one thread, ordered by decreasing total execution time.
+ */
+public final class ThreadStatistics {
+
+    private final String threadName;
+    private final long threadId;
+    private final boolean alive;
+    private final long droppedRecords;
+    private final List<ActivityStatistics> activities;
+
+    public ThreadStatistics(String threadName, long threadId, boolean alive, long droppedRecords, List<ActivityStatistics> activities) {
+        this.threadName = threadName;
+        this.threadId = threadId;
+        this.alive = alive;
+        this.droppedRecords = droppedRecords;
+        this.activities = ImmutableList.copyOf(activities);
+    }
+
+    public String getThreadName() {
+        return threadName;
+    }
+
+    public long getThreadId() {
+        return threadId;
+    }
+
+    public boolean isAlive() {
+        return alive;
+    }
+
+    /**
+     * @return the number of activity executions that were not recorded, because the thread ended them faster
+     * than they could be collected
+     */
+    public long getDroppedRecords() {
+        return droppedRecords;
+    }
+
+    public List<ActivityStatistics> getActivities() {
+        return activities;
+    }
+
+    @Override
+    public String toString() {
+        return threadName + (alive ? " [ALIVE]" : " [DEAD]") + " Id = " + threadId;
+    }
+}
@@ -20,9 +20,11 @@
 import gnu.trove.procedure.TObjectDoubleProcedure;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.terasology.monitoring.ActivityStatistics;
 import org.terasology.monitoring.PerformanceMonitor;
 import org.terasology.monitoring.ThreadActivity;
 import org.terasology.monitoring.ThreadMonitor;
+import org.terasology.monitoring.ThreadStatistics;
 
 import javax.swing.*;
 import java.awt.*;
@@ -42,7 +44,7 @@ public class PerformanceMonitorPanel extends JPanel {
 
     private final HeaderPanel header;
     private final JList list;
-
+    private final JList threadActivityList;
 
     public PerformanceMonitorPanel() {
         setLayout(new BorderLayout());
@@ -50,8 +52,10 @@ public PerformanceMonitorPanel() {
         list = new JList(new PerformanceListModel());
         list.setCellRenderer(new PerformanceListRenderer(header));
         list.setVisible(true);
+        threadActivityList = new JList(new ThreadActivityListModel());
+        threadActivityList.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 12));
         add(header, BorderLayout.PAGE_START);
-        add(list, BorderLayout.CENTER);
+        add(new JSplitPane(JSplitPane.VERTICAL_SPLIT, new JScrollPane(list), new JScrollPane(threadActivityList)), BorderLayout.CENTER);
     }
 
     private static class HeaderPanel extends JPanel {
@@ -278,4 +282,70 @@ public Object getElementAt(int index) {
             return list.get(index);
         }
     }
+
+    /**
+     * Lists the statistics of the activities of all threads, one line per thread and activity.
+     */
+    private static final class ThreadActivityListModel extends AbstractListModel {
+
+        private static final String FORMAT = "%-24.24s %-32.32s %10d calls  mean %9.3f ms  p50 %9.3f ms  p99 %9.3f ms  max %9.3f ms  %10d KiB";
+
+        private List<String> lines = Collections.emptyList();
+        private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        private ThreadActivityListModel() {
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    Thread.currentThread().setPriority(Thread.MIN_PRIORITY);
+                    try {
+                        while (true) {
+                            Thread.sleep(1000);
+                            try (ThreadActivity ignored = ThreadMonitor.startThreadActivity("Poll")) {
+                                updateLines(PerformanceMonitor.getThreadStatistics());
+                            }
+                        }
+                    } catch (Exception e) {
+                        ThreadMonitor.addError(e);
+                        logger.error("Error executing performance monitor update", e);
+                    }
+                }
+            });
+        }
+
+        private void updateLines(List<ThreadStatistics> statistics) {
+            final List<String> newLines = new ArrayList<>();
+            for (ThreadStatistics thread : statistics) {
+                for (ActivityStatistics activity : thread.getActivities()) {
+                    newLines.add(String.format(FORMAT, thread.getThreadName(), activity.getName(), activity.getCount(),
+                            activity.getMeanNanos() / 1e6, activity.getPercentileNanos(0.5) / 1e6, activity.getPercentileNanos(0.99) / 1e6,
+                            activity.getMaxNanos() / 1e6, activity.getAllocatedBytes() / 1024));
+                }
+            }
+            final Object source = this;
+            SwingUtilities.invokeLater(new Runnable() {
+                @Override
+                public void run() {
+                    int oldSize = lines.size();
+                    lines = newLines;
+                    if (oldSize > 0) {
+                        fireIntervalRemoved(source, 0, oldSize - 1);
+                    }
+                    if (!newLines.isEmpty()) {
+                        fireIntervalAdded(source, 0, newLines.size() - 1);
+                    }
+                }
+            });
+        }
+
+        @Override
+        public int getSize() {
+            return lines.size();
+        }
+
+        @Override
+        public Object getElementAt(int index) {
+            return lines.get(index);
+        }
+    }
 }
@@ -15,11 +15,15 @@
  */
 package org.terasology.monitoring.gui;
 
+import com.google.common.collect.Maps;
 import com.google.common.eventbus.Subscribe;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.terasology.monitoring.ActivityStatistics;
+import org.terasology.monitoring.PerformanceMonitor;
 import org.terasology.monitoring.ThreadActivity;
 import org.terasology.monitoring.ThreadMonitor;
+import org.terasology.monitoring.ThreadStatistics;
 import org.terasology.monitoring.impl.SingleThreadMonitor;
 import org.terasology.monitoring.impl.ThreadMonitorEvent;
 
@@ -27,6 +31,8 @@
 import java.awt.*;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -37,6 +43,7 @@
 public class ThreadMonitorPanel extends JPanel {
 
     private static final Color BACKGROUND = Color.white;
+    private static final int SHOWN_ACTIVITIES = 3;
     private static final Logger logger = LoggerFactory.getLogger(ThreadMonitorPanel.class);
 
     private final JList list;
@@ -72,9 +79,10 @@ private static class ThreadListRenderer implements ListCellRenderer {
         @Override
         public Component getListCellRendererComponent(JList list, Object value, int index, boolean isSelected, boolean cellHasFocus) {
             if (value instanceof SingleThreadMonitor) {
-                renderer.setMonitor((SingleThreadMonitor) value);
+                SingleThreadMonitor monitor = (SingleThreadMonitor) value;
+                renderer.setMonitor(monitor, ((ThreadListModel) list.getModel()).getStatistics(monitor.getThreadId()));
             } else {
-                renderer.setMonitor(null);
+                renderer.setMonitor(null, null);
             }
             return renderer;
         }
@@ -87,6 +95,7 @@ private static class MyRenderer extends JPanel {
             private final JLabel lId = new JLabel();
             private final JLabel lCounters = new JLabel();
             private final JLabel lActive = new JLabel();
+            private final JLabel lActivities = new JLabel();
             private final JPanel pError = new JPanel();
             private final JLabel lErrorSpacer = new JLabel();
             private final JLabel lError = new JLabel();
@@ -104,6 +113,8 @@ public MyRenderer() {
                 pHead.add(lActive, BorderLayout.LINE_END);
                 pHead.add(pError, BorderLayout.PAGE_END);
 
+                lActivities.setForeground(Color.gray);
+
                 lId.setHorizontalAlignment(SwingConstants.RIGHT);
                 lName.setForeground(Color.blue);
                 lCounters.setForeground(Color.gray);
@@ -123,9 +134,10 @@ public MyRenderer() {
                 lError.setForeground(Color.red);
 
                 add(pHead, BorderLayout.PAGE_START);
+                add(lActivities, BorderLayout.PAGE_END);
             }
 
-            public void setMonitor(SingleThreadMonitor monitor) {
+            public void setMonitor(SingleThreadMonitor monitor, ThreadStatistics statistics) {
                 if (monitor != null) {
 
                     lName.setPreferredSize(null);
@@ -165,11 +177,26 @@ public void setMonitor(SingleThreadMonitor monitor) {
                         lError.setText(monitor.getNumErrors() + " Error(s), [" + monitor.getLastError().getClass().getSimpleName() + "] "
                                 + monitor.getLastError().getMessage());
                     }
+
+                    lActivities.setVisible(statistics != null && !statistics.getActivities().isEmpty());
+                    if (statistics != null) {
+                        lActivities.setText(describeActivities(statistics.getActivities()));
+                    }
                 } else {
                     lName.setText("");
                     lId.setText("");
                     lActive.setText("");
+                    lActivities.setText("");
+                }
+            }
+
+            private String describeActivities(List<ActivityStatistics> activities) {
+                StringBuilder builder = new StringBuilder("   ");
+                for (ActivityStatistics activity : activities.subList(0, Math.min(SHOWN_ACTIVITIES, activities.size()))) {
+                    builder.append(String.format("  %s: mean %.3f ms, p99 %.3f ms", activity.getName(),
+                            activity.getMeanNanos() / 1e6, activity.getPercentileNanos(0.99) / 1e6));
                 }
+                return builder.toString();
             }
 
         }
@@ -180,6 +207,7 @@ private static final class ThreadListModel extends AbstractListModel {
         private final java.util.List<SingleThreadMonitor> monitors = new ArrayList<SingleThreadMonitor>();
         private final ExecutorService executor = Executors.newSingleThreadExecutor();
         private final BlockingQueue<Task> queue = new LinkedBlockingQueue<Task>();
+        private volatile Map<Long, ThreadStatistics> statistics = Collections.emptyMap();
 
         private ThreadListModel() {
             ThreadMonitor.registerForEvents(this);
@@ -206,6 +234,7 @@ public void run() {
                                 }
                             } else {
                                 try (ThreadActivity ignored = ThreadMonitor.startThreadActivity("Sort Monitors")) {
+                                    updateStatistics();
                                     Collections.sort(monitors);
                                     invokeContentsChanged(0, monitors.size() - 1);
                                 }
@@ -220,6 +249,21 @@ public void run() {
             });
         }
 
+        private void updateStatistics() {
+            Map<Long, ThreadStatistics> newStatistics = Maps.newHashMap();
+            for (ThreadStatistics threadStatistics : PerformanceMonitor.getThreadStatistics()) {
+                newStatistics.put(threadStatistics.getThreadId(), threadStatistics);
+            }
+            statistics = newStatistics;
+        }
+
+        /**
+         * @return the performance monitor statistics of the given thread, or null if it recorded no activities
+         */
+        public ThreadStatistics getStatistics(long threadId) {
+            return statistics.get(threadId);
+        }
+
         private void invokeIntervalAdded(final int a, final int b) {
             final Object source = this;
             SwingUtilities.invokeLater(new Runnable() {
@@ -18,6 +18,10 @@
 import gnu.trove.map.TObjectDoubleMap;
 import gnu.trove.map.hash.TObjectDoubleHashMap;
 import org.terasology.monitoring.Activity;
+import org.terasology.monitoring.ThreadStatistics;
+
+import java.util.Collections;
+import java.util.List;
 
 /**
  * @author Immortius
@@ -54,4 +58,13 @@ public TObjectDoubleMap<String> getAllocationMean() {
         return metrics;
     }
 
+    @Override
+    public List<ThreadStatistics> getThreadStatistics() {
+        return Collections.emptyList();
+    }
+
+    @Override
+    public void dispose() {
+    }
+
 }
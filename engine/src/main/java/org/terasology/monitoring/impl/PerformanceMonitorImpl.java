@@ -16,39 +16,70 @@
 package org.terasology.monitoring.impl;
 
 import com.google.common.collect.Lists;
-import com.google.common.collect.Queues;
+import com.google.common.collect.Maps;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import gnu.trove.TCollections;
 import gnu.trove.map.TObjectDoubleMap;
 import gnu.trove.map.TObjectLongMap;
 import gnu.trove.map.hash.TObjectDoubleHashMap;
 import gnu.trove.map.hash.TObjectLongHashMap;
 import gnu.trove.procedure.TObjectDoubleProcedure;
 import gnu.trove.procedure.TObjectLongProcedure;
-import org.terasology.engine.EngineTime;
-import org.terasology.engine.Time;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.terasology.monitoring.Activity;
-import org.terasology.registry.CoreRegistry;
-
-import java.util.Deque;
+import org.terasology.monitoring.ActivityStatistics;
+import org.terasology.monitoring.ThreadStatistics;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Active implementation of Performance Monitor
+ * <br><br>
+ * Every thread records its activities into its own ring buffer, without locks and with nanosecond resolution.
+ * A background thread regularly merges the records into per-thread, per-activity statistics. The running means,
+ * spikes and allocation means are computed from the activities of the main thread, the thread that created
+ * the monitor and rolls its cycles. Threads that have terminated are reported one last time and then forgotten.
  */
-// TODO: Check to ensure activities are being started and stopped correctly
 // TODO: Remove activities with 0 time
 public class PerformanceMonitorImpl implements PerformanceMonitorInternal {
+    private static final Logger logger = LoggerFactory.getLogger(PerformanceMonitorImpl.class);
+
     private static final int RETAINED_CYCLES = 60;
     private static final double DECAY_RATE = 0.98;
-    private static final Activity OFF_THREAD_ACTIVITY = new NullActivity();
-    // NullActivity instances are used by the NullPerformanceMonitor and for processes NOT running
-    // on the main thread. Not strictly necessary (these processes are ignored by the PerformanceMonitor
-    // anyway) an instance of this class offers a slight performance improvement over standard Activity
-    // implementations as it doesn't call the PerformanceMonitor.endActivity() method.
+    private static final double NANOS_PER_MS = 1000000.0;
+    private static final long MERGE_INTERVAL_MS = 100;
+    private static final int BUFFER_CAPACITY = 4096;
+    private static final int INITIAL_STACK_DEPTH = 16;
+    private static final int CYCLE_MARKER = -1;
 
     private final Activity activityInstance = new ActivityInstance();
 
-    private final Deque<ActivityInfo> activityStack;
+    private final ThreadLocal<Recorder> recorder = new ThreadLocal<Recorder>() {
+        @Override
+        protected Recorder initialValue() {
+            Recorder newRecorder = new Recorder(Thread.currentThread());
+            recorders.add(newRecorder);
+            return newRecorder;
+        }
+    };
+    private final List<Recorder> recorders = new CopyOnWriteArrayList<>();
+    private final Map<String, Integer> activityIds = Maps.newConcurrentMap();
+    private final List<String> activityNames = new CopyOnWriteArrayList<>();
+    private final AllocationCounter allocationCounter = AllocationCounter.create();
 
+    // Only accessed while merging
     private final List<TObjectLongMap<String>> executionData;
     private final List<TObjectLongMap<String>> allocationData;
 
@@ -64,14 +95,16 @@ public class PerformanceMonitorImpl implements PerformanceMonitorInternal {
     private final TObjectLongProcedure<String> removeExpiredExecutionTimeValueFromTotal;
     private final TObjectLongProcedure<String> removeExpiredAllocatedMemoryValueFromTotal;
 
-    private final SetterOfActivityToRunningMeanMapEntry setExecutionTimeRunningMean;
-    private final SetterOfActivityToRunningMeanMapEntry setAllocatedMemoryRunningMean;
+    // Published by the merger
+    private volatile TObjectDoubleMap<String> runningMean = TCollections.unmodifiableMap(new TObjectDoubleHashMap<>());
+    private volatile TObjectDoubleMap<String> decayingSpikes = TCollections.unmodifiableMap(new TObjectDoubleHashMap<>());
+    private volatile TObjectDoubleMap<String> allocationMean = TCollections.unmodifiableMap(new TObjectDoubleHashMap<>());
+    private volatile List<ThreadStatistics> threadStatistics = Collections.emptyList();
 
     private final Thread mainThread;
-    private final EngineTime timer;
+    private final ScheduledExecutorService merger;
 
     public PerformanceMonitorImpl() {
-        activityStack  = Queues.newArrayDeque();
         executionData  = Lists.newLinkedList();
         allocationData = Lists.newLinkedList();
         currentExecutionData = new TObjectLongHashMap<>();
@@ -86,15 +119,92 @@ public PerformanceMonitorImpl() {
         removeExpiredExecutionTimeValueFromTotal  = new RemoverFromTotalOfActivityExpiredExecutionTimeValue();
         removeExpiredAllocatedMemoryValueFromTotal = new RemoverFromTotalOfActivityExpiredAllocatedMemoryValue();
 
-        setExecutionTimeRunningMean = new SetterOfActivityToRunningMeanMapEntry();
-        setAllocatedMemoryRunningMean = new SetterOfActivityToRunningMeanMapEntry();
-
-        timer = (EngineTime) CoreRegistry.get(Time.class);
         mainThread = Thread.currentThread();
+        merger = Executors.newSingleThreadScheduledExecutor(
+                new ThreadFactoryBuilder().setNameFormat("Performance-Monitor").setDaemon(true).build());
+        merger.scheduleWithFixedDelay(this::merge, MERGE_INTERVAL_MS, MERGE_INTERVAL_MS, TimeUnit.MILLISECONDS);
     }
 
     @Override
     public void rollCycle() {
+        if (Thread.currentThread() == mainThread) {
+            recorder.get().record(CYCLE_MARKER, 0, 0, 0, 0);
+        }
+    }
+
+    @Override
+    public Activity startActivity(String activityName) {
+        recorder.get().start(getActivityId(activityName), System.nanoTime(), allocationCounter.getAllocatedBytes());
+        return activityInstance;
+    }
+
+    @Override
+    public void endActivity() {
+        recorder.get().end(System.nanoTime(), allocationCounter.getAllocatedBytes());
+    }
+
+    @Override
+    public TObjectDoubleMap<String> getRunningMean() {
+        return runningMean;
+    }
+
+    @Override
+    public TObjectDoubleMap<String> getDecayingSpikes() {
+        return decayingSpikes;
+    }
+
+    @Override
+    public TObjectDoubleMap<String> getAllocationMean() {
+        return allocationMean;
+    }
+
+    @Override
+    public List<ThreadStatistics> getThreadStatistics() {
+        return threadStatistics;
+    }
+
+    @Override
+    public void dispose() {
+        merger.shutdownNow();
+    }
+
+    private int getActivityId(String activityName) {
+        Integer id = activityIds.get(activityName);
+        if (id == null) {
+            synchronized (activityNames) {
+                id = activityIds.get(activityName);
+                if (id == null) {
+                    id = activityNames.size();
+                    activityNames.add(activityName);
+                    activityIds.put(activityName, id);
+                }
+            }
+        }
+        return id;
+    }
+
+    /**
+     * Collects the activities recorded since the last call, and publishes the updated metrics. The recorders of
+     * threads that have terminated get dropped once their last records are published.
+     */
+    synchronized void merge() {
+        try {
+            List<Recorder> terminated = Lists.newArrayList();
+            for (Recorder threadRecorder : recorders) {
+                // Checked before draining, so all records of a terminated thread are visible to the drain
+                if (!threadRecorder.thread.isAlive()) {
+                    terminated.add(threadRecorder);
+                }
+                threadRecorder.drain(threadRecorder.thread == mainThread);
+            }
+            publish();
+            recorders.removeAll(terminated);
+        } catch (RuntimeException e) {
+            logger.error("Failed to merge performance data", e);
+        }
+    }
+
+    private void rollMainThreadCycle() {
         executionData.add(currentExecutionData);
         allocationData.add(currentAllocationData);
 
@@ -116,91 +226,197 @@ public void rollCycle() {
         currentAllocationData = new TObjectLongHashMap<>();
     }
 
-    @Override
-    public Activity startActivity(String activityName) {
-        if (Thread.currentThread() != mainThread) {
-            return OFF_THREAD_ACTIVITY;
+    private void publish() {
+        if (!executionData.isEmpty()) {
+            runningMean = TCollections.unmodifiableMap(computeMeans(runningExecutionTotals, 1.0 / (executionData.size() * NANOS_PER_MS)));
+            allocationMean = TCollections.unmodifiableMap(computeMeans(runningAllocationTotals, 1.0 / allocationData.size()));
+            decayingSpikes = TCollections.unmodifiableMap(new TObjectDoubleHashMap<>(spikeData));
         }
 
-        ActivityInfo newActivity = new ActivityInfo(activityName).initialize();
-
-        if (!activityStack.isEmpty()) {
-            ActivityInfo currentActivity = activityStack.peek();
-            currentActivity.ownTime += newActivity.startTime - ((currentActivity.resumeTime > 0) ? currentActivity.resumeTime : currentActivity.startTime);
-            currentActivity.ownMem += (currentActivity.startMem - newActivity.startMem > 0) ? currentActivity.startMem - newActivity.startMem : 0;
+        List<ThreadStatistics> statistics = Lists.newArrayListWithCapacity(recorders.size());
+        for (Recorder threadRecorder : recorders) {
+            statistics.add(threadRecorder.createStatistics());
         }
+        threadStatistics = Collections.unmodifiableList(statistics);
+    }
 
-        activityStack.push(newActivity);
-        return activityInstance;
+    private static TObjectDoubleMap<String> computeMeans(TObjectLongMap<String> totals, double factor) {
+        TObjectDoubleMap<String> activityToMeanMap = new TObjectDoubleHashMap<>();
+        totals.forEachEntry((activityName, total) -> {
+            if (total > 0) {
+                activityToMeanMap.put(activityName, total * factor);
+            }
+            return true;
+        });
+        return activityToMeanMap;
     }
 
-    @Override
-    public void endActivity() {
-        if (Thread.currentThread() != mainThread || activityStack.isEmpty()) {
-            return;
+    /**
+     * Records the activities of a single thread. The stack is only touched by the owning thread, the ring buffer
+     * is written by the owning thread and read by the merger.
+     */
+    private final class Recorder {
+        private final Thread thread;
+
+        private int depth;
+        private int[] stackIds = new int[INITIAL_STACK_DEPTH];
+        private long[] stackStartNanos = new long[INITIAL_STACK_DEPTH];
+        private long[] stackChildNanos = new long[INITIAL_STACK_DEPTH];
+        private long[] stackStartBytes = new long[INITIAL_STACK_DEPTH];
+        private long[] stackChildBytes = new long[INITIAL_STACK_DEPTH];
+
+        private final int[] bufferIds = new int[BUFFER_CAPACITY];
+        private final long[] bufferBegins = new long[BUFFER_CAPACITY];
+        private final long[] bufferEnds = new long[BUFFER_CAPACITY];
+        private final long[] bufferChildNanos = new long[BUFFER_CAPACITY];
+        private final long[] bufferOwnBytes = new long[BUFFER_CAPACITY];
+        private final AtomicLong written = new AtomicLong();
+        private final AtomicLong read = new AtomicLong();
+        private final AtomicLong dropped = new AtomicLong();
+
+        // Only accessed while merging
+        private final List<Accumulator> accumulators = Lists.newArrayList();
+
+        Recorder(Thread thread) {
+            this.thread = thread;
         }
 
-        ActivityInfo oldActivity = activityStack.pop();
-
-        long endTime = timer.getRealTimeInMs();
-        long totalTime = (oldActivity.resumeTime > 0) ? oldActivity.ownTime + endTime - oldActivity.resumeTime : endTime - oldActivity.startTime;
-        currentExecutionData.adjustOrPutValue(oldActivity.name, totalTime, totalTime);
-        
-        long endMem = Runtime.getRuntime().freeMemory();
-        long totalMem = (oldActivity.startMem - endMem > 0) ? oldActivity.startMem - endMem + oldActivity.ownMem : oldActivity.ownMem;
-        currentAllocationData.adjustOrPutValue(oldActivity.name, totalMem, totalMem);
-
-        if (!activityStack.isEmpty()) {
-            ActivityInfo currentActivity = activityStack.peek();
-            currentActivity.resumeTime = endTime;
-            currentActivity.startMem = endMem;
+        void start(int id, long nanos, long bytes) {
+            if (depth == stackIds.length) {
+                int newLength = depth * 2;
+                stackIds = Arrays.copyOf(stackIds, newLength);
+                stackStartNanos = Arrays.copyOf(stackStartNanos, newLength);
+                stackChildNanos = Arrays.copyOf(stackChildNanos, newLength);
+                stackStartBytes = Arrays.copyOf(stackStartBytes, newLength);
+                stackChildBytes = Arrays.copyOf(stackChildBytes, newLength);
+            }
+            stackIds[depth] = id;
+            stackStartNanos[depth] = nanos;
+            stackChildNanos[depth] = 0;
+            stackStartBytes[depth] = bytes;
+            stackChildBytes[depth] = 0;
+            depth++;
         }
-    }
 
-    @Override
-    public TObjectDoubleMap<String> getRunningMean() {
-        TObjectDoubleMap<String> activityToMeanMap = new TObjectDoubleHashMap<>();
-        setExecutionTimeRunningMean.setActivityToMeanMap(activityToMeanMap);
-        setExecutionTimeRunningMean.setFactor(1.0 / executionData.size());
+        void end(long nanos, long bytes) {
+            if (depth == 0) {
+                return;
+            }
+            depth--;
+            long elapsedNanos = nanos - stackStartNanos[depth];
+            long allocatedBytes = Math.max(0, bytes - stackStartBytes[depth]);
+            if (depth > 0) {
+                stackChildNanos[depth - 1] += elapsedNanos;
+                stackChildBytes[depth - 1] += allocatedBytes;
+            }
+            record(stackIds[depth], stackStartNanos[depth], nanos, stackChildNanos[depth],
+                    Math.max(0, allocatedBytes - stackChildBytes[depth]));
+        }
 
-        runningExecutionTotals.forEachEntry(setExecutionTimeRunningMean);
+        void record(int id, long begin, long end, long childNanos, long ownBytes) {
+            long index = written.get();
+            if (index - read.get() >= BUFFER_CAPACITY) {
+                dropped.lazySet(dropped.get() + 1);
+                return;
+            }
+            int slot = (int) (index % BUFFER_CAPACITY);
+            bufferIds[slot] = id;
+            bufferBegins[slot] = begin;
+            bufferEnds[slot] = end;
+            bufferChildNanos[slot] = childNanos;
+            bufferOwnBytes[slot] = ownBytes;
+            written.lazySet(index + 1);
+        }
 
-        return activityToMeanMap;
-    }
+        void drain(boolean isMainThread) {
+            long end = written.get();
+            for (long index = read.get(); index < end; index++) {
+                int slot = (int) (index % BUFFER_CAPACITY);
+                int id = bufferIds[slot];
+                if (id == CYCLE_MARKER) {
+                    rollMainThreadCycle();
+                    continue;
+                }
+                long ownNanos = bufferEnds[slot] - bufferBegins[slot] - bufferChildNanos[slot];
+                long ownBytes = bufferOwnBytes[slot];
+                while (accumulators.size() <= id) {
+                    accumulators.add(null);
+                }
+                Accumulator accumulator = accumulators.get(id);
+                if (accumulator == null) {
+                    accumulator = new Accumulator();
+                    accumulators.set(id, accumulator);
+                }
+                accumulator.add(ownNanos, ownBytes);
+                if (isMainThread) {
+                    String activityName = activityNames.get(id);
+                    currentExecutionData.adjustOrPutValue(activityName, ownNanos, ownNanos);
+                    currentAllocationData.adjustOrPutValue(activityName, ownBytes, ownBytes);
+                }
+            }
+            read.lazySet(end);
+        }
 
-    @Override
-    public TObjectDoubleMap<String> getDecayingSpikes() {
-        return spikeData;
+        ThreadStatistics createStatistics() {
+            List<ActivityStatistics> activities = Lists.newArrayList();
+            for (int id = 0; id < accumulators.size(); id++) {
+                Accumulator accumulator = accumulators.get(id);
+                if (accumulator != null) {
+                    activities.add(new ActivityStatistics(activityNames.get(id), accumulator.count, accumulator.totalNanos,
+                            accumulator.maxNanos, accumulator.allocatedBytes, accumulator.histogram));
+                }
+            }
+            activities.sort(Comparator.comparingLong(ActivityStatistics::getTotalNanos).reversed());
+            return new ThreadStatistics(thread.getName(), thread.getId(), thread.isAlive(), dropped.get(), activities);
+        }
     }
 
-    @Override
-    public TObjectDoubleMap<String> getAllocationMean() {
-        TObjectDoubleMap<String> activityToMeanMap = new TObjectDoubleHashMap<>();
-        setAllocatedMemoryRunningMean.setActivityToMeanMap(activityToMeanMap);
-        setAllocatedMemoryRunningMean.setFactor(1.0 / allocationData.size());
-
-        runningAllocationTotals.forEachEntry(setAllocatedMemoryRunningMean);
-
-        return activityToMeanMap;
+    private static final class Accumulator {
+        private long count;
+        private long totalNanos;
+        private long maxNanos;
+        private long allocatedBytes;
+        private final long[] histogram = new long[ActivityStatistics.HISTOGRAM_BUCKETS];
+
+        void add(long nanos, long bytes) {
+            count++;
+            totalNanos += nanos;
+            maxNanos = Math.max(maxNanos, nanos);
+            allocatedBytes += bytes;
+            histogram[ActivityStatistics.getBucket(nanos)]++;
+        }
     }
 
-    private class ActivityInfo {
-        public String name;
-        public long startTime;
-        public long resumeTime;
-        public long ownTime;
-        public long startMem;
-        public long ownMem;
-
-        public ActivityInfo(String activityName) {
-            this.name = activityName;
+    /**
+     * Counts the bytes allocated by the current thread. Falls back to the used heap memory of the whole JVM, if
+     * the JVM has no per-thread allocation counters.
+     */
+    private abstract static class AllocationCounter {
+
+        static AllocationCounter create() {
+            ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+            if (threadBean instanceof com.sun.management.ThreadMXBean) {
+                com.sun.management.ThreadMXBean allocationBean = (com.sun.management.ThreadMXBean) threadBean;
+                if (allocationBean.isThreadAllocatedMemorySupported() && allocationBean.isThreadAllocatedMemoryEnabled()) {
+                    return new AllocationCounter() {
+                        @Override
+                        long getAllocatedBytes() {
+                            return allocationBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+                        }
+                    };
+                }
+            }
+            logger.info("Per-thread allocation counters are not available, using the used heap memory instead");
+            return new AllocationCounter() {
+                @Override
+                long getAllocatedBytes() {
+                    Runtime runtime = Runtime.getRuntime();
+                    return runtime.totalMemory() - runtime.freeMemory();
+                }
+            };
         }
 
-        public ActivityInfo initialize() {
-            this.startTime = timer.getRealTimeInMs();
-            this.startMem = Runtime.getRuntime().freeMemory();
-            return this;
-        }
+        abstract long getAllocatedBytes();
     }
 
     private class ActivityInstance implements Activity {
@@ -224,8 +440,9 @@ private class UpdaterOfActivityExecutionTimeTotalAndSpikeData implements TObject
         public boolean execute(String activityName, long latestExecutionTime) {
             runningExecutionTotals.adjustOrPutValue(activityName, latestExecutionTime, latestExecutionTime);
             latestSpike = spikeData.get(activityName);
-            if (latestExecutionTime > latestSpike) {
-                spikeData.put(activityName, latestExecutionTime);
+            double latestExecutionTimeInMs = latestExecutionTime / NANOS_PER_MS;
+            if (latestExecutionTimeInMs > latestSpike) {
+                spikeData.put(activityName, latestExecutionTimeInMs);
             }
             return true;
         }
@@ -253,26 +470,4 @@ public boolean execute(String activityName, long expiredAllocatedMemory) {
         }
     }
 
-    private class SetterOfActivityToRunningMeanMapEntry implements TObjectLongProcedure<String> {
-        private TObjectDoubleMap<String> activityToMeanMap;
-        private double factor;
-
-        public SetterOfActivityToRunningMeanMapEntry setActivityToMeanMap(TObjectDoubleMap<String> newActivityToMeanMap) {
-            this.activityToMeanMap = newActivityToMeanMap;
-            return this;
-        }
-
-        public SetterOfActivityToRunningMeanMapEntry setFactor(double newFactor) {
-            this.factor = newFactor;
-            return this;
-        }
-
-        public boolean execute(String activityName, long total) {
-            if (total > 0) {
-                activityToMeanMap.put(activityName, total * factor);
-            }
-            return true;
-        }
-    }
-
 }
@@ -17,6 +17,9 @@
 
 import gnu.trove.map.TObjectDoubleMap;
 import org.terasology.monitoring.Activity;
+import org.terasology.monitoring.ThreadStatistics;
+
+import java.util.List;
 
 /**
  * Base interface for performance monitor implementations.
@@ -35,4 +38,11 @@ public interface PerformanceMonitorInternal {
     TObjectDoubleMap<String> getDecayingSpikes();
 
     TObjectDoubleMap<String> getAllocationMean();
+
+    List<ThreadStatistics> getThreadStatistics();
+
+    /**
+     * Releases the resources of the monitor, after it got replaced.
+     */
+    void dispose();
 }
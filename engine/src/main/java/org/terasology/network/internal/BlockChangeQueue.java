@@ -0,0 +1,101 @@
+/*
+ * Copyright 2015 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.network.internal;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import org.terasology.math.ChunkMath;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.protobuf.NetData;
+import org.terasology.world.block.Block;
+import org.terasology.world.chunks.ChunkConstants;
+import org.terasology.world.propagation.BlockChange;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * The block changes that still have to be sent to a client. Single changes are sent as one message each, the changes of
+ * a bulk update are grouped into one message per chunk.
+ * <p>
+ * A receiver applies the single changes of a net message before the grouped ones, so a single change to a chunk that
+ * already has grouped changes pending is added to the group to keep the order of the changes.
+ */
+final class BlockChangeQueue {
+
+    private final List<NetData.BlockChangeMessage> singleChanges = Lists.newArrayList();
+    private final Map<Vector3i, NetData.ChunkBlockChangesMessage.Builder> chunkChanges = Maps.newLinkedHashMap();
+
+    public synchronized void add(Vector3i pos, Block newBlock) {
+        NetData.ChunkBlockChangesMessage.Builder chunkMessage = chunkChanges.get(ChunkMath.calcChunkPos(pos));
+        if (chunkMessage != null) {
+            chunkMessage.addBlockIndex(blockIndex(pos)).addNewBlock(newBlock.getId());
+        } else {
+            singleChanges.add(NetData.BlockChangeMessage.newBuilder()
+                    .setPos(NetMessageUtil.convert(pos))
+                    .setNewBlock(newBlock.getId())
+                    .build());
+        }
+    }
+
+    /**
+     * @param changes        the changes of a bulk update
+     * @param relevantChunks whether the chunk at a given chunk position is relevant to the client
+     */
+    public synchronized void addAll(Collection<BlockChange> changes, Predicate<Vector3i> relevantChunks) {
+        for (BlockChange change : changes) {
+            Vector3i chunkPos = ChunkMath.calcChunkPos(change.getPosition());
+            NetData.ChunkBlockChangesMessage.Builder chunkMessage = chunkChanges.get(chunkPos);
+            if (chunkMessage == null) {
+                if (!relevantChunks.test(chunkPos)) {
+                    continue;
+                }
+                chunkMessage = NetData.ChunkBlockChangesMessage.newBuilder().setChunkPos(NetMessageUtil.convert(chunkPos));
+                chunkChanges.put(chunkPos, chunkMessage);
+            }
+            chunkMessage.addBlockIndex(blockIndex(change.getPosition())).addNewBlock(change.getTo().getId());
+        }
+    }
+
+    public synchronized void drainTo(NetData.NetMessage.Builder message) {
+        message.addAllBlockChange(singleChanges);
+        singleChanges.clear();
+        for (NetData.ChunkBlockChangesMessage.Builder chunkMessage : chunkChanges.values()) {
+            message.addChunkBlockChanges(chunkMessage);
+        }
+        chunkChanges.clear();
+    }
+
+    /**
+     * @return the index of the given world position within its chunk, as sent in a {@link NetData.ChunkBlockChangesMessage}
+     */
+    static int blockIndex(Vector3i worldPos) {
+        Vector3i blockPos = ChunkMath.calcBlockPos(worldPos);
+        return blockPos.x + ChunkConstants.SIZE_X * (blockPos.z + ChunkConstants.SIZE_Z * blockPos.y);
+    }
+
+    /**
+     * @return the world position of the block with the given index within the chunk at the given chunk position
+     */
+    static Vector3i worldPos(Vector3i chunkPos, int blockIndex) {
+        int x = blockIndex % ChunkConstants.SIZE_X;
+        int z = (blockIndex / ChunkConstants.SIZE_X) % ChunkConstants.SIZE_Z;
+        int y = blockIndex / (ChunkConstants.SIZE_X * ChunkConstants.SIZE_Z);
+        return new Vector3i(chunkPos.x * ChunkConstants.SIZE_X + x, chunkPos.y * ChunkConstants.SIZE_Y + y, chunkPos.z * ChunkConstants.SIZE_Z + z);
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2015 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.network.internal;
+
+import org.terasology.protobuf.EntityData;
+import org.terasology.world.chunks.Chunk;
+
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Keeps the encoded form of the chunks sent to clients, so that a chunk that gets sent to several clients only gets
+ * encoded once. An encoding is reused for as long as the {@link Chunk#getVersion() version} of the chunk doesn't
+ * change, i.e. until a block, liquid or biome of the chunk changes.
+ * <br><br>
+ * The chunks are only weakly referenced, so the encodings of unloaded chunks get dropped together with the chunk.
+ * This class is not thread safe, it is meant to be used from the main thread only.
+ */
+final class EncodedChunkCache {
+
+    private final Map<Chunk, Entry> entries = new WeakHashMap<>();
+
+    /**
+     * @return the encoded chunk, which is only encoded if the chunk changed since it was encoded last.
+     */
+    EntityData.ChunkStore getEncoded(Chunk chunk) {
+        int version = chunk.getVersion();
+        Entry entry = entries.get(chunk);
+        if (entry == null || entry.version != version) {
+            entry = new Entry(version, chunk.encode().build());
+            entries.put(chunk, entry);
+        }
+        return entry.encoded;
+    }
+
+    void clear() {
+        entries.clear();
+    }
+
+    private static final class Entry {
+        private final int version;
+        private final EntityData.ChunkStore encoded;
+
+        private Entry(int version, EntityData.ChunkStore encoded) {
+            this.version = version;
+            this.encoded = encoded;
+        }
+    }
+}
@@ -0,0 +1,262 @@
+/*
+ * Copyright 2015 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.network.internal;
+
+import com.google.common.collect.Lists;
+import gnu.trove.map.TIntIntMap;
+import gnu.trove.map.hash.TIntIntHashMap;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Decides in which network tick a client gets sent the changes of its dirty entities.
+ * <br><br>
+ * Entities are sorted into tiers by their distance to the client's character. Changes of entities in a farther tier
+ * get collected over several ticks and sent together, as a client needs them less urgently. Entities owned by the
+ * client and entities without a position are always in the nearest tier.
+ * <br><br>
+ * Dirty entities wait in a queue ordered by the tick in which they are due next, so only the entities that are due
+ * get looked at in a tick. An entity is first due in the tick after it got dirty; its tier is determined then, and if
+ * that tier's interval hasn't passed yet, it waits until it has.
+ * <br><br>
+ * The updates that are due get sent in order of priority until the byte budget of the tick is used up: updates
+ * that got deferred for {@link #MAX_DEFERRED_TICKS} first, the longest deferred ones first, then by tier and
+ * distance. The remaining ones stay dirty and are due again in the next tick, so no changes get lost.
+ */
+final class EntityUpdateScheduler {
+
+    /**
+     * Maximum distances of the entities in the tiers, except for the last tier which contains all other entities.
+     */
+    static final float[] TIER_DISTANCES = {32, 96};
+
+    /**
+     * The number of ticks over which the changes of the entities in each tier get collected.
+     */
+    static final int[] TIER_INTERVALS = {1, 4, 20};
+
+    static final int MAX_DEFERRED_TICKS = 40;
+
+    private static final Comparator<DueUpdate> PRIORITY_ORDER = Comparator
+            .<DueUpdate>comparingInt(u -> u.overdue ? -u.deferredTicks : 0)
+            .thenComparingInt(u -> u.tier)
+            .thenComparingDouble(u -> u.distanceSquared);
+
+    /**
+     * The tick in which each dirty entity got dirty.
+     */
+    private final TIntIntMap dirtySince = new TIntIntHashMap();
+
+    /**
+     * The tick in which each dirty entity is due next. Entries of the queue that don't match it are outdated.
+     */
+    private final TIntIntMap dueTick = new TIntIntHashMap();
+    private final DueQueue queue = new DueQueue();
+    private final List<DueUpdate> dueUpdates = Lists.newArrayList();
+    private int tick;
+    private float budget;
+
+    /**
+     * Marks the entity as having changes that need to be sent. Further changes until it gets sent get sent together.
+     */
+    public void markDirty(int netId) {
+        if (!dirtySince.containsKey(netId)) {
+            dirtySince.put(netId, tick);
+            schedule(netId, tick + 1);
+        }
+    }
+
+    /**
+     * Forgets the changes of the entity, e.g. because it is no longer relevant to the client.
+     */
+    public void remove(int netId) {
+        dirtySince.remove(netId);
+        dueTick.remove(netId);
+    }
+
+    public boolean isDirty(int netId) {
+        return dirtySince.containsKey(netId);
+    }
+
+    public int getDirtyCount() {
+        return dirtySince.size();
+    }
+
+    /**
+     * Advances to the next network tick and sends the updates that are due within the budget.
+     *
+     * @param allowance the bytes that may be sent per tick. Unused bytes are not carried over, but when an update
+     *                  exceeds the budget the excess gets deducted from the next ticks.
+     */
+    public void sendDueUpdates(float allowance, UpdateTarget target) {
+        tick++;
+        budget = Math.min(budget + allowance, allowance);
+
+        while (!queue.isEmpty() && queue.peekTick() <= tick) {
+            int scheduledTick = queue.peekTick();
+            int netId = queue.poll();
+            if (dueTick.get(netId) != scheduledTick) {
+                continue;
+            }
+            dueTick.remove(netId);
+            int deferredTicks = tick - dirtySince.get(netId);
+            float distanceSquared = target.isOwnedByClient(netId) ? -1 : target.getDistanceSquared(netId);
+            int tier = getTier(distanceSquared);
+            if (deferredTicks >= TIER_INTERVALS[tier]) {
+                dueUpdates.add(new DueUpdate(netId, deferredTicks, tier, distanceSquared));
+            } else {
+                schedule(netId, tick - deferredTicks + TIER_INTERVALS[tier]);
+            }
+        }
+        dueUpdates.sort(PRIORITY_ORDER);
+
+        for (DueUpdate update : dueUpdates) {
+            if (budget > 0) {
+                dirtySince.remove(update.netId);
+                budget -= target.sendUpdate(update.netId);
+            } else {
+                schedule(update.netId, tick + 1);
+            }
+        }
+        dueUpdates.clear();
+    }
+
+    /**
+     * Sends the changes of the entity right away if it is dirty, regardless of whether it is due. The bytes get
+     * deducted from the budget of the next ticks.
+     */
+    public void sendNow(int netId, UpdateTarget target) {
+        if (dirtySince.containsKey(netId)) {
+            dirtySince.remove(netId);
+            dueTick.remove(netId);
+            budget -= target.sendUpdate(netId);
+        }
+    }
+
+    private void schedule(int netId, int scheduledTick) {
+        dueTick.put(netId, scheduledTick);
+        queue.add(scheduledTick, netId);
+    }
+
+    /**
+     * @param distanceSquared the squared distance to the client's character, negative if unknown.
+     */
+    static int getTier(float distanceSquared) {
+        int tier = 0;
+        while (tier < TIER_DISTANCES.length && distanceSquared > TIER_DISTANCES[tier] * TIER_DISTANCES[tier]) {
+            tier++;
+        }
+        return tier;
+    }
+
+    /**
+     * The client the updates get scheduled for.
+     */
+    interface UpdateTarget {
+
+        boolean isOwnedByClient(int netId);
+
+        /**
+         * @return the squared distance between the entity and the client's character, or a negative value if either
+         * has no position.
+         */
+        float getDistanceSquared(int netId);
+
+        /**
+         * Sends the changes of the entity collected since it got marked dirty.
+         *
+         * @return the number of bytes added to the message
+         */
+        int sendUpdate(int netId);
+    }
+
+    /**
+     * A binary min-heap of entities by the tick they are due in, packed into longs so that it doesn't allocate per
+     * entry.
+     */
+    private static final class DueQueue {
+        private long[] heap = new long[16];
+        private int size;
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        int peekTick() {
+            return (int) (heap[0] >> 32);
+        }
+
+        void add(int dueTick, int netId) {
+            if (size == heap.length) {
+                heap = Arrays.copyOf(heap, size * 2);
+            }
+            long entry = ((long) dueTick << 32) | (netId & 0xFFFFFFFFL);
+            int index = size++;
+            while (index > 0) {
+                int parent = (index - 1) >>> 1;
+                if (heap[parent] <= entry) {
+                    break;
+                }
+                heap[index] = heap[parent];
+                index = parent;
+            }
+            heap[index] = entry;
+        }
+
+        /**
+         * Removes the entry that is due first.
+         *
+         * @return its entity
+         */
+        int poll() {
+            int netId = (int) heap[0];
+            long last = heap[--size];
+            int index = 0;
+            int half = size >>> 1;
+            while (index < half) {
+                int child = 2 * index + 1;
+                if (child + 1 < size && heap[child + 1] < heap[child]) {
+                    child++;
+                }
+                if (last <= heap[child]) {
+                    break;
+                }
+                heap[index] = heap[child];
+                index = child;
+            }
+            heap[index] = last;
+            return netId;
+        }
+    }
+
+    private static final class DueUpdate {
+        private final int netId;
+        private final int deferredTicks;
+        private final boolean overdue;
+        private final int tier;
+        private final float distanceSquared;
+
+        private DueUpdate(int netId, int deferredTicks, int tier, float distanceSquared) {
+            this.netId = netId;
+            this.deferredTicks = deferredTicks;
+            this.overdue = deferredTicks >= MAX_DEFERRED_TICKS;
+            this.tier = tier;
+            this.distanceSquared = distanceSquared;
+        }
+    }
+}
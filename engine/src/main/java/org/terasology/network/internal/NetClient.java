@@ -42,8 +42,8 @@
 import org.terasology.logic.common.DisplayNameComponent;
 import org.terasology.logic.location.LocationComponent;
 import org.terasology.math.ChunkMath;
+import org.terasology.math.geom.Vector3f;
 import org.terasology.math.geom.Vector3i;
-import org.terasology.network.Client;
 import org.terasology.network.ClientComponent;
 import org.terasology.network.ColorComponent;
 import org.terasology.network.NetMetricSource;
@@ -66,8 +66,11 @@
 import org.terasology.world.block.BlockComponent;
 import org.terasology.world.block.family.BlockFamily;
 import org.terasology.world.chunks.Chunk;
+import org.terasology.world.propagation.BlockChange;
 
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -83,6 +86,7 @@
 public class NetClient extends AbstractClient implements WorldChangeListener {
     private static final Logger logger = LoggerFactory.getLogger(NetClient.class);
     private static final float NET_TICK_RATE = 0.05f;
+    private static final int BYTES_PER_KILOBYTE = 1024;
 
     private Time time;
     private NetworkSystemImpl networkSystem;
@@ -99,7 +103,7 @@ public class NetClient extends AbstractClient implements WorldChangeListener {
 
     // Entity replication data
     private TIntSet netInitial = new TIntHashSet();
-    private TIntSet netDirty = new TIntHashSet();
+    private EntityUpdateScheduler entityUpdateScheduler = new EntityUpdateScheduler();
     private TIntSet netRemoved = new TIntHashSet();
     private SetMultimap<Integer, Class<? extends Component>> dirtyComponents = LinkedHashMultimap.create();
     private SetMultimap<Integer, Class<? extends Component>> addedComponents = LinkedHashMultimap.create();
@@ -108,14 +112,15 @@ public class NetClient extends AbstractClient implements WorldChangeListener {
     private String preferredName = "Player";
     private long lastReceivedTime;
     private ViewDistance viewDistance = ViewDistance.NEAR;
-    private float chunkSendCounter = 1.0f;
-
-    private float chunkSendRate = 0.05469f;
+    /**
+     * The number of bytes of chunk data that may still be sent, can become negative if a large chunk exceeded it.
+     */
+    private float chunkSendBudget;
 
     private PublicIdentityCertificate identity;
 
     // Outgoing messages
-    private BlockingQueue<NetData.BlockChangeMessage> queuedOutgoingBlockChanges = Queues.newLinkedBlockingQueue();
+    private final BlockChangeQueue queuedOutgoingBlockChanges = new BlockChangeQueue();
     private BlockingQueue<NetData.BiomeChangeMessage> queuedOutgoingBiomeChanges = Queues.newLinkedBlockingQueue();
     private List<NetData.EventMessage> queuedOutgoingEvents = Lists.newArrayList();
     private final List<BlockFamily> newlyRegisteredFamilies = Lists.newArrayList();
@@ -244,29 +249,30 @@ private void sendRegisteredBlocks(NetData.NetMessage.Builder message) {
 
     private void sendNewChunks(NetData.NetMessage.Builder message) {
         if (!readyChunks.isEmpty()) {
-            chunkSendCounter += chunkSendRate * NET_TICK_RATE * networkSystem.getBandwidthPerClient();
-            if (chunkSendCounter > 1.0f) {
-                chunkSendCounter -= 1.0f;
+            float allowance = NET_TICK_RATE * networkSystem.getBandwidthPerClient() * BYTES_PER_KILOBYTE;
+            chunkSendBudget = Math.min(chunkSendBudget + allowance, allowance);
+            if (chunkSendBudget > 0) {
                 Vector3i center = new Vector3i();
                 LocationComponent loc = getEntity().getComponent(ClientComponent.class).character.getComponent(LocationComponent.class);
                 if (loc != null) {
                     center.set(ChunkMath.calcChunkPos(new Vector3i(loc.getWorldPosition(), 0.5f)));
                 }
-                Vector3i pos = null;
-                int distance = Integer.MAX_VALUE;
-                for (Vector3i chunkPos : readyChunks.keySet()) {
-                    int chunkDistance = chunkPos.distanceSquared(center);
-                    if (pos == null || chunkDistance < distance) {
-                        pos = chunkPos;
-                        distance = chunkDistance;
+                List<Vector3i> positions = Lists.newArrayList(readyChunks.keySet());
+                positions.sort(Comparator.comparingInt(pos -> pos.distanceSquared(center)));
+                // The last chunk may exceed the budget, the excess gets deducted from the next ticks
+                for (Vector3i pos : positions) {
+                    if (chunkSendBudget <= 0) {
+                        break;
                     }
+                    Chunk chunk = readyChunks.remove(pos);
+                    relevantChunks.add(pos);
+                    EntityData.ChunkStore encodedChunk = networkSystem.getEncodedChunkCache().getEncoded(chunk);
+                    message.addChunkInfo(encodedChunk);
+                    chunkSendBudget -= encodedChunk.getSerializedSize();
                 }
-                Chunk chunk = readyChunks.remove(pos);
-                relevantChunks.add(pos);
-                message.addChunkInfo(chunk.encode());
             }
         } else {
-            chunkSendCounter = 1.0f;
+            chunkSendBudget = 0;
         }
     }
 
@@ -292,7 +298,7 @@ public void setNetRemoved(int netId) {
         dirtyComponents.keySet().remove(netId);
         addedComponents.keySet().remove(netId);
         removedComponents.keySet().remove(netId);
-        netDirty.remove(netId);
+        entityUpdateScheduler.remove(netId);
         netRelevant.remove(netId);
     }
 
@@ -302,7 +308,7 @@ public void setComponentAdded(int networkId, Class<? extends Component> componen
                 dirtyComponents.put(networkId, component);
             } else {
                 addedComponents.put(networkId, component);
-                netDirty.add(networkId);
+                entityUpdateScheduler.markDirty(networkId);
             }
         }
     }
@@ -312,7 +318,7 @@ public void setComponentRemoved(int networkId, Class<? extends Component> compon
             if (!addedComponents.remove(networkId, component)) {
                 removedComponents.put(networkId, component);
                 if (!dirtyComponents.remove(networkId, component)) {
-                    netDirty.add(networkId);
+                    entityUpdateScheduler.markDirty(networkId);
                 }
             }
         }
@@ -321,7 +327,7 @@ public void setComponentRemoved(int networkId, Class<? extends Component> compon
     public void setComponentDirty(int netId, Class<? extends Component> componentType) {
         if (netRelevant.contains(netId) && !netInitial.contains(netId) && !addedComponents.get(netId).contains(componentType)) {
             dirtyComponents.put(netId, componentType);
-            netDirty.add(netId);
+            entityUpdateScheduler.markDirty(netId);
         }
     }
 
@@ -392,13 +398,15 @@ public void onChunkIrrelevant(Vector3i pos) {
     public void onBlockChanged(Vector3i pos, Block newBlock, Block originalBlock) {
         Vector3i chunkPos = ChunkMath.calcChunkPos(pos);
         if (relevantChunks.contains(chunkPos)) {
-            queuedOutgoingBlockChanges.add(NetData.BlockChangeMessage.newBuilder()
-                    .setPos(NetMessageUtil.convert(pos))
-                    .setNewBlock(newBlock.getId())
-                    .build());
+            queuedOutgoingBlockChanges.add(pos, newBlock);
         }
     }
 
+    @Override
+    public void onBlocksChanged(Collection<BlockChange> changes) {
+        queuedOutgoingBlockChanges.addAll(changes, relevantChunks::contains);
+    }
+
     @Override
     public void onBiomeChanged(Vector3i pos, Biome newBiome, Biome originalBiome) {
         Vector3i chunkPos = ChunkMath.calcChunkPos(pos);
@@ -424,9 +432,7 @@ private void processReceivedMessages() {
     }
 
     private void sendEvents(NetData.NetMessage.Builder message) {
-        List<NetData.BlockChangeMessage> blockChanges = Lists.newArrayListWithExpectedSize(queuedOutgoingBlockChanges.size());
-        queuedOutgoingBlockChanges.drainTo(blockChanges);
-        message.addAllBlockChange(blockChanges);
+        queuedOutgoingBlockChanges.drainTo(message);
 
         List<NetData.BiomeChangeMessage> biomeChanges = Lists.newArrayListWithExpectedSize(queuedOutgoingBiomeChanges.size());
         queuedOutgoingBiomeChanges.drainTo(biomeChanges);
@@ -447,24 +453,65 @@ private void processEntityUpdates(NetData.NetMessage message) {
     }
 
     private void sendDirtyEntities(NetData.NetMessage.Builder message) {
-        TIntIterator dirtyIterator = netDirty.iterator();
-        while (dirtyIterator.hasNext()) {
-            int netId = dirtyIterator.next();
-            EntityRef entity = networkSystem.getEntity(netId);
-            if (!entity.exists()) {
-                logger.error("Sending non-existent entity update for netId {}", netId);
+        LocationComponent characterLocation = getEntity().getComponent(ClientComponent.class).character.getComponent(LocationComponent.class);
+        Vector3f center = (characterLocation != null) ? characterLocation.getWorldPosition() : null;
+        // Entity updates get their own budget, so that they don't have to wait for the chunks of a newly joined client
+        float allowance = NET_TICK_RATE * networkSystem.getBandwidthPerClient() * BYTES_PER_KILOBYTE;
+        EntityUpdateScheduler.UpdateTarget updateTarget = new EntityUpdateScheduler.UpdateTarget() {
+            @Override
+            public boolean isOwnedByClient(int netId) {
+                return networkSystem.getOwner(networkSystem.getEntity(netId)) == NetClient.this;
             }
-            boolean isOwner = networkSystem.getOwner(entity) == this;
-            EntityData.PackedEntity entityData = entitySerializer.serialize(entity, addedComponents.get(netId), dirtyComponents.get(netId), removedComponents.get(netId),
-                    new ServerComponentFieldCheck(isOwner, false));
-            if (entityData != null) {
-                message.addUpdateEntity(NetData.UpdateEntityMessage.newBuilder().setEntity(entityData).setNetId(netId));
+
+            @Override
+            public float getDistanceSquared(int netId) {
+                LocationComponent loc = networkSystem.getEntity(netId).getComponent(LocationComponent.class);
+                if (center == null || loc == null) {
+                    return -1;
+                }
+                Vector3f positionDelta = loc.getWorldPosition();
+                positionDelta.sub(center);
+                return positionDelta.lengthSquared();
+            }
+
+            @Override
+            public int sendUpdate(int netId) {
+                return sendDirtyEntity(netId, message);
+            }
+        };
+        entityUpdateScheduler.sendDueUpdates(allowance, updateTarget);
+        // Events may depend on the current state of their target, so its deferred changes have to arrive first
+        for (NetData.EventMessage event : queuedOutgoingEvents) {
+            if (event.hasTargetId()) {
+                entityUpdateScheduler.sendNow(event.getTargetId(), updateTarget);
             }
         }
-        netDirty.clear();
-        addedComponents.clear();
-        removedComponents.clear();
-        dirtyComponents.clear();
+    }
+
+    /**
+     * Adds the changes of the entity to the message and forgets them.
+     *
+     * @return the number of bytes added to the message
+     */
+    private int sendDirtyEntity(int netId, NetData.NetMessage.Builder message) {
+        EntityRef entity = networkSystem.getEntity(netId);
+        if (!entity.exists()) {
+            logger.error("Sending non-existent entity update for netId {}", netId);
+        }
+        boolean isOwner = networkSystem.getOwner(entity) == this;
+        Set<Class<? extends Component>> added = addedComponents.get(netId);
+        Set<Class<? extends Component>> changed = dirtyComponents.get(netId);
+        Set<Class<? extends Component>> removed = removedComponents.get(netId);
+        EntityData.PackedEntity entityData = networkSystem.getSerializedEntityCache().getUpdate(netId, isOwner, added, changed, removed,
+                () -> entitySerializer.serialize(entity, added, changed, removed, new ServerComponentFieldCheck(isOwner, false)));
+        addedComponents.removeAll(netId);
+        dirtyComponents.removeAll(netId);
+        removedComponents.removeAll(netId);
+        if (entityData == null) {
+            return 0;
+        }
+        message.addUpdateEntity(NetData.UpdateEntityMessage.newBuilder().setEntity(entityData).setNetId(netId));
+        return entityData.getSerializedSize();
     }
 
     private void sendRemovedEntities(NetData.NetMessage.Builder message) {
@@ -488,8 +535,9 @@ private void sendInitialEntities(NetData.NetMessage.Builder message) {
                 continue;
             }
             // Note: Send owner->server fields on initial create
-            Client owner = networkSystem.getOwner(entity);
-            EntityData.PackedEntity entityData = entitySerializer.serialize(entity, true, new ServerComponentFieldCheck(owner == this, true)).build();
+            boolean isOwner = networkSystem.getOwner(entity) == this;
+            EntityData.PackedEntity entityData = networkSystem.getSerializedEntityCache().getInitial(netId, isOwner,
+                    () -> entitySerializer.serialize(entity, true, new ServerComponentFieldCheck(isOwner, true)).build());
             NetData.CreateEntityMessage.Builder createMessage = NetData.CreateEntityMessage.newBuilder().setEntity(entityData);
             BlockComponent blockComponent = entity.getComponent(BlockComponent.class);
             if (blockComponent != null) {
@@ -0,0 +1,275 @@
+/*
+ * Copyright 2015 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.network.internal;
+
+import com.google.common.collect.Maps;
+import gnu.trove.iterator.TIntIterator;
+import gnu.trove.map.TIntObjectMap;
+import gnu.trove.map.hash.TIntObjectHashMap;
+import gnu.trove.set.TIntSet;
+import gnu.trove.set.hash.TIntHashSet;
+import org.terasology.math.Region3i;
+import org.terasology.math.geom.Vector3i;
+
+import java.util.Map;
+
+/**
+ * Tracks which spatial network entities are relevant to which clients (area of interest).
+ * <br><br>
+ * Entities are kept in a grid of chunk positions, and every client has an area of chunks around it. An entity
+ * becomes relevant to a client when it is inside the client's area, and irrelevant again when it is more than
+ * {@link #LEAVE_MARGIN} chunks outside of it, so that entities moving along the border do not get sent repeatedly.
+ * Moving an entity costs a check per client, moving a client costs a look up of the cells in its area (or of the
+ * occupied cells, if there are fewer), independent of the total number of entities.
+ * <br><br>
+ * Entities without a position of their own, like items carried by a character, are not tracked and are relevant to
+ * all clients. {@link #trackEntity} and {@link #untrackEntity} switch an entity between both states.
+ *
+ * @param <C> the type of the clients
+ */
+public class NetRelevanceTracker<C> {
+
+    public static final int LEAVE_MARGIN = 1;
+
+    private final RelevanceListener<C> listener;
+    private final Map<Vector3i, TIntSet> grid = Maps.newHashMap();
+    private final TIntObjectMap<Vector3i> entityCells = new TIntObjectHashMap<>();
+    private final Map<C, ClientArea> clientAreas = Maps.newLinkedHashMap();
+
+    public NetRelevanceTracker(RelevanceListener<C> listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * @return whether the entity is tracked, i.e. its relevance depends on the position of the clients
+     */
+    public boolean isTracked(int netId) {
+        return entityCells.containsKey(netId);
+    }
+
+    /**
+     * @return whether the given entity is currently relevant to the given client
+     */
+    public boolean isRelevant(C client, int netId) {
+        ClientArea area = clientAreas.get(client);
+        return area != null && area.relevant.contains(netId);
+    }
+
+    /**
+     * Starts tracking an entity, it becomes relevant to all clients it is close to.
+     */
+    public void addEntity(int netId, Vector3i chunkPos) {
+        Vector3i cell = new Vector3i(chunkPos);
+        entityCells.put(netId, cell);
+        getOrCreateCell(cell).add(netId);
+        for (Map.Entry<C, ClientArea> entry : clientAreas.entrySet()) {
+            if (entry.getValue().enterRegion.encompasses(cell)) {
+                entry.getValue().relevant.add(netId);
+                listener.onEntityRelevant(entry.getKey(), netId);
+            }
+        }
+    }
+
+    /**
+     * Starts tracking an entity that has been relevant to all clients so far. The clients it is not close to get
+     * notified that it became irrelevant to them.
+     */
+    public void trackEntity(int netId, Vector3i chunkPos) {
+        Vector3i cell = new Vector3i(chunkPos);
+        entityCells.put(netId, cell);
+        getOrCreateCell(cell).add(netId);
+        for (Map.Entry<C, ClientArea> entry : clientAreas.entrySet()) {
+            if (entry.getValue().enterRegion.encompasses(cell)) {
+                entry.getValue().relevant.add(netId);
+            } else {
+                listener.onEntityIrrelevant(entry.getKey(), netId);
+            }
+        }
+    }
+
+    /**
+     * Stops tracking an entity, which becomes relevant to all clients. The clients it has not been relevant to yet
+     * get notified.
+     */
+    public void untrackEntity(int netId) {
+        Vector3i cell = entityCells.remove(netId);
+        if (cell == null) {
+            return;
+        }
+        removeFromCell(netId, cell);
+        for (Map.Entry<C, ClientArea> entry : clientAreas.entrySet()) {
+            if (!entry.getValue().relevant.remove(netId)) {
+                listener.onEntityRelevant(entry.getKey(), netId);
+            }
+        }
+    }
+
+    /**
+     * Updates the position of an entity, notifying the clients it got relevant or irrelevant to.
+     */
+    public void moveEntity(int netId, Vector3i chunkPos) {
+        Vector3i oldCell = entityCells.get(netId);
+        if (oldCell == null || oldCell.equals(chunkPos)) {
+            return;
+        }
+        removeFromCell(netId, oldCell);
+        Vector3i cell = new Vector3i(chunkPos);
+        entityCells.put(netId, cell);
+        getOrCreateCell(cell).add(netId);
+        for (Map.Entry<C, ClientArea> entry : clientAreas.entrySet()) {
+            ClientArea area = entry.getValue();
+            if (area.relevant.contains(netId)) {
+                if (!area.leaveRegion.encompasses(cell)) {
+                    area.relevant.remove(netId);
+                    listener.onEntityIrrelevant(entry.getKey(), netId);
+                }
+            } else if (area.enterRegion.encompasses(cell)) {
+                area.relevant.add(netId);
+                listener.onEntityRelevant(entry.getKey(), netId);
+            }
+        }
+    }
+
+    /**
+     * Stops tracking an entity. The clients are not notified, the entity is expected to be removed from them anyway.
+     */
+    public void removeEntity(int netId) {
+        Vector3i cell = entityCells.remove(netId);
+        if (cell != null) {
+            removeFromCell(netId, cell);
+            for (ClientArea area : clientAreas.values()) {
+                area.relevant.remove(netId);
+            }
+        }
+    }
+
+    /**
+     * Adds a client whose area is not known yet, so no tracked entity is relevant to it.
+     */
+    public void addClient(C client) {
+        if (!clientAreas.containsKey(client)) {
+            clientAreas.put(client, new ClientArea());
+        }
+    }
+
+    /**
+     * Sets the area of a client, adding it if necessary. The entities entering or leaving the area are notified
+     * to the client.
+     *
+     * @param center  the chunk position of the client
+     * @param extents the number of chunks in each direction that are relevant to the client
+     */
+    public void updateClient(C client, Vector3i center, Vector3i extents) {
+        ClientArea area = clientAreas.get(client);
+        if (area == null) {
+            area = new ClientArea();
+            clientAreas.put(client, area);
+        }
+        Region3i enterRegion = Region3i.createFromCenterExtents(center, extents);
+        if (enterRegion.equals(area.enterRegion)) {
+            return;
+        }
+        area.enterRegion = enterRegion;
+        area.leaveRegion = enterRegion.expand(LEAVE_MARGIN);
+
+        TIntIterator iterator = area.relevant.iterator();
+        while (iterator.hasNext()) {
+            int netId = iterator.next();
+            if (!area.leaveRegion.encompasses(entityCells.get(netId))) {
+                iterator.remove();
+                listener.onEntityIrrelevant(client, netId);
+            }
+        }
+
+        if (enterRegion.sizeX() * enterRegion.sizeY() * enterRegion.sizeZ() < grid.size()) {
+            for (Vector3i pos : enterRegion) {
+                TIntSet cellEntities = grid.get(pos);
+                if (cellEntities != null) {
+                    addRelevant(client, area, cellEntities);
+                }
+            }
+        } else {
+            for (Map.Entry<Vector3i, TIntSet> cell : grid.entrySet()) {
+                if (enterRegion.encompasses(cell.getKey())) {
+                    addRelevant(client, area, cell.getValue());
+                }
+            }
+        }
+    }
+
+    /**
+     * Stops tracking a client, without notifying it.
+     */
+    public void removeClient(C client) {
+        clientAreas.remove(client);
+    }
+
+    /**
+     * Stops tracking all entities and clients.
+     */
+    public void clear() {
+        grid.clear();
+        entityCells.clear();
+        clientAreas.clear();
+    }
+
+    private void addRelevant(C client, ClientArea area, TIntSet cellEntities) {
+        TIntIterator iterator = cellEntities.iterator();
+        while (iterator.hasNext()) {
+            int netId = iterator.next();
+            if (area.relevant.add(netId)) {
+                listener.onEntityRelevant(client, netId);
+            }
+        }
+    }
+
+    private TIntSet getOrCreateCell(Vector3i cell) {
+        TIntSet cellEntities = grid.get(cell);
+        if (cellEntities == null) {
+            cellEntities = new TIntHashSet();
+            grid.put(cell, cellEntities);
+        }
+        return cellEntities;
+    }
+
+    private void removeFromCell(int netId, Vector3i cell) {
+        TIntSet cellEntities = grid.get(cell);
+        if (cellEntities != null) {
+            cellEntities.remove(netId);
+            if (cellEntities.isEmpty()) {
+                grid.remove(cell);
+            }
+        }
+    }
+
+    /**
+     * Receives the changes of relevance of entities to clients.
+     *
+     * @param <C> the type of the clients
+     */
+    public interface RelevanceListener<C> {
+
+        void onEntityRelevant(C client, int netId);
+
+        void onEntityIrrelevant(C client, int netId);
+    }
+
+    private static final class ClientArea {
+        private Region3i enterRegion = Region3i.EMPTY;
+        private Region3i leaveRegion = Region3i.EMPTY;
+        private final TIntSet relevant = new TIntHashSet();
+    }
+}
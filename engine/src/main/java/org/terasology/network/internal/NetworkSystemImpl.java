@@ -24,8 +24,11 @@
 import com.google.common.collect.SetMultimap;
 import com.google.common.collect.Sets;
 import com.google.protobuf.ByteString;
+import gnu.trove.iterator.TIntIterator;
 import gnu.trove.map.TIntLongMap;
 import gnu.trove.map.hash.TIntLongHashMap;
+import gnu.trove.set.TIntSet;
+import gnu.trove.set.hash.TIntHashSet;
 import org.jboss.netty.bootstrap.ClientBootstrap;
 import org.jboss.netty.bootstrap.ServerBootstrap;
 import org.jboss.netty.channel.Channel;
@@ -58,6 +61,10 @@
 import org.terasology.entitySystem.metadata.ComponentMetadata;
 import org.terasology.entitySystem.metadata.EventLibrary;
 import org.terasology.entitySystem.metadata.EventMetadata;
+import org.terasology.logic.location.LocationComponent;
+import org.terasology.math.ChunkMath;
+import org.terasology.math.geom.Vector3f;
+import org.terasology.math.geom.Vector3i;
 import org.terasology.module.Module;
 import org.terasology.monitoring.PerformanceMonitor;
 import org.terasology.network.Client;
@@ -146,6 +153,10 @@ public class NetworkSystemImpl implements EntityChangeSubscriber, NetworkSystem
     private int nextNetId = 1;
     private final Set<Client> clientList = Sets.newLinkedHashSet();
     private final Set<NetClient> netClientList = Sets.newLinkedHashSet();
+    private final SerializedEntityCache serializedEntityCache = new SerializedEntityCache();
+    private final EncodedChunkCache encodedChunkCache = new EncodedChunkCache();
+    private final NetRelevanceTracker<NetClient> relevanceTracker = new NetRelevanceTracker<>(new ClientRelevanceListener());
+    private final TIntSet movedEntities = new TIntHashSet();
     private Map<EntityRef, Client> clientPlayerLookup = Maps.newHashMap();
     private Map<EntityRef, EntityRef> ownerLookup = Maps.newHashMap();
     private SetMultimap<EntityRef, EntityRef> ownedLookup = HashMultimap.create();
@@ -283,10 +294,13 @@ public void shutdown() {
         entitySerializer = null;
         clientList.clear();
         netClientList.clear();
+        relevanceTracker.clear();
+        movedEntities.clear();
         blockManager = null;
         biomeManager = null;
         ownerLookup.clear();
         ownedLookup.clear();
+        encodedChunkCache.clear();
         ownershipHelper = null;
         storageManager = null;
         logger.info("Network shutdown");
@@ -313,10 +327,14 @@ public void update() {
                     nextNetworkTick += NET_TICK_RATE;
                     netTick = true;
                 }
+                if (netTick && mode.isServer()) {
+                    updateRelevance();
+                }
                 PerformanceMonitor.startActivity("Client update");
                 for (Client client : clientList) {
                     client.update(netTick);
                 }
+                serializedEntityCache.clear();
                 PerformanceMonitor.endActivity();
                 if (server != null) {
                     server.update(netTick);
@@ -325,6 +343,54 @@ public void update() {
         }
     }
 
+    /**
+     * Updates the relevance of the spatial entities that moved, and of the areas of the clients. Entities that got
+     * attached to another entity become relevant to all clients, as the position of the entity carrying them is not
+     * tracked, and get tracked again when they are detached.
+     */
+    private void updateRelevance() {
+        PerformanceMonitor.startActivity("Update net relevance");
+        TIntIterator movedIterator = movedEntities.iterator();
+        while (movedIterator.hasNext()) {
+            int netId = movedIterator.next();
+            Vector3i chunkPos = getRelevanceChunkPos(getEntity(netId));
+            if (chunkPos == null) {
+                relevanceTracker.untrackEntity(netId);
+            } else if (relevanceTracker.isTracked(netId)) {
+                relevanceTracker.moveEntity(netId, chunkPos);
+            } else {
+                relevanceTracker.trackEntity(netId, chunkPos);
+            }
+        }
+        movedEntities.clear();
+
+        for (NetClient client : netClientList) {
+            LocationComponent loc = client.getEntity().getComponent(LocationComponent.class);
+            if (loc != null) {
+                Vector3i chunkDistance = client.getViewDistance().getChunkDistance();
+                Vector3i extents = new Vector3i(chunkDistance.x / 2, chunkDistance.y / 2, chunkDistance.z / 2);
+                relevanceTracker.updateClient(client, ChunkMath.calcChunkPos(loc.getWorldPosition()), extents);
+            }
+        }
+        PerformanceMonitor.endActivity();
+    }
+
+    /**
+     * @return the chunk position that determines the relevance of the entity, or null if it has no position in the
+     * world of its own, e.g. because it is carried by another entity
+     */
+    private Vector3i getRelevanceChunkPos(EntityRef entity) {
+        LocationComponent loc = entity.getComponent(LocationComponent.class);
+        if (loc == null || loc.getParent().exists()) {
+            return null;
+        }
+        Vector3f worldPos = loc.getWorldPosition();
+        if (!Float.isFinite(worldPos.x) || !Float.isFinite(worldPos.y) || !Float.isFinite(worldPos.z)) {
+            return null;
+        }
+        return ChunkMath.calcChunkPos(worldPos);
+    }
+
     private void processPendingDisconnects() {
         if (!disconnectedClients.isEmpty()) {
             List<NetClient> removedPlayers = Lists.newArrayListWithExpectedSize(disconnectedClients.size());
@@ -366,6 +432,20 @@ public Client getOwner(EntityRef entity) {
         return clientPlayerLookup.get(owner);
     }
 
+    /**
+     * @return the payloads of the entities serialized during the current network tick, shared by all clients
+     */
+    SerializedEntityCache getSerializedEntityCache() {
+        return serializedEntityCache;
+    }
+
+    /**
+     * @return the encoded chunks, shared by all clients
+     */
+    EncodedChunkCache getEncodedChunkCache() {
+        return encodedChunkCache;
+    }
+
     NetClient getNetOwner(EntityRef entity) {
         Client owner = getOwner(entity);
         if (owner instanceof NetClient) {
@@ -428,9 +508,18 @@ public void registerNetworkEntity(EntityRef entity) {
                         clientPlayer.setNetInitial(netComponent.getNetworkId());
                     }
                     break;
+                case RELEVANT:
+                    Vector3i chunkPos = getRelevanceChunkPos(entity);
+                    if (chunkPos != null) {
+                        relevanceTracker.addEntity(netComponent.getNetworkId(), chunkPos);
+                    } else {
+                        for (NetClient client : netClientList) {
+                            client.setNetInitial(netComponent.getNetworkId());
+                        }
+                    }
+                    break;
                 default:
                     for (NetClient client : netClientList) {
-                        // TODO: Relevance Check
                         client.setNetInitial(netComponent.getNetworkId());
                     }
                     break;
@@ -515,6 +604,8 @@ public void unregisterNetworkEntity(EntityRef entity) {
                 logger.debug("Unregistering network entity: {} with netId {}", entity, netComponent.getNetworkId());
                 netIdToEntityId.remove(netComponent.getNetworkId());
                 if (mode.isServer()) {
+                    relevanceTracker.removeEntity(netComponent.getNetworkId());
+                    movedEntities.remove(netComponent.getNetworkId());
                     for (NetClient client : netClientList) {
                         client.setNetRemoved(netComponent.getNetworkId());
                     }
@@ -616,6 +707,9 @@ public void onEntityComponentChange(EntityRef entity, Class<? extends Component>
             switch (mode) {
                 case LISTEN_SERVER:
                 case DEDICATED_SERVER:
+                    if (component == LocationComponent.class && netComp.replicateMode == NetworkComponent.ReplicateMode.RELEVANT) {
+                        movedEntities.add(netComp.getNetworkId());
+                    }
                     if (metadata.isReplicated()) {
                         for (NetClient client : netClientList) {
                             client.setComponentDirty(netComp.getNetworkId(), component);
@@ -771,6 +865,7 @@ private void processRemovedClient(Client client) {
         if (client instanceof NetClient) {
             NetClient netClient = (NetClient) client;
             netClientList.remove(netClient);
+            relevanceTracker.removeClient(netClient);
         }
         clientList.remove(client);
         clientPlayerLookup.remove(client.getEntity());
@@ -788,6 +883,7 @@ private void processNewClient(NetClient client) {
                 NetData.JoinCompleteMessage.newBuilder().setClientId(client.getEntity().getComponent(NetworkComponent.class).getNetworkId())).build());
         clientList.add(client);
         netClientList.add(client);
+        relevanceTracker.addClient(client);
         clientPlayerLookup.put(client.getEntity(), client);
 
         connectClient(client);
@@ -803,8 +899,10 @@ private void processNewClient(NetClient client) {
                         }
                         break;
                     default:
-                        // TODO: Relevance Check
-                        client.setNetInitial(netComp.getNetworkId());
+                        // Spatial entities get sent once the area of the client is known
+                        if (!relevanceTracker.isTracked(netComp.getNetworkId())) {
+                            client.setNetInitial(netComp.getNetworkId());
+                        }
                         break;
                 }
             }
@@ -963,4 +1061,17 @@ public void onBlockFamilyRegistered(BlockFamily family) {
     }
 
 
+
+    private static class ClientRelevanceListener implements NetRelevanceTracker.RelevanceListener<NetClient> {
+
+        @Override
+        public void onEntityRelevant(NetClient client, int netId) {
+            client.setNetInitial(netId);
+        }
+
+        @Override
+        public void onEntityIrrelevant(NetClient client, int netId) {
+            client.setNetRemoved(netId);
+        }
+    }
 }
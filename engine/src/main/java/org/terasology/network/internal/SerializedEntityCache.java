@@ -0,0 +1,138 @@
+/*
+ * Copyright 2015 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.network.internal;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Maps;
+import org.terasology.entitySystem.Component;
+import org.terasology.protobuf.EntityData;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Caches the entity payloads serialized during a single network tick, so that an entity that gets sent to several
+ * clients is only serialized once for the owner and once for all other clients.
+ * <br><br>
+ * Entries are keyed by the network id, the ownership role and the sets of added, changed and removed components, as
+ * these are all that the serialized payload depends on while the entity itself can't change. Lookups use the
+ * component sets of the caller as they are, only keys that get stored copy them. The cache has to be cleared at the
+ * end of every network tick.
+ */
+final class SerializedEntityCache {
+
+    /**
+     * Stands in for updates that turned out to contain no changes, as these get serialized to null.
+     */
+    private static final EntityData.PackedEntity NO_CHANGES = EntityData.PackedEntity.getDefaultInstance();
+
+    private final Map<Key, EntityData.PackedEntity> entries = Maps.newHashMap();
+
+    /**
+     * @return the full payload of the entity, which gets serialized by the given supplier if it isn't cached yet
+     */
+    EntityData.PackedEntity getInitial(int netId, boolean owner, Supplier<EntityData.PackedEntity> serializer) {
+        return get(new Key(netId, owner, true, ImmutableSet.of(), ImmutableSet.of(), ImmutableSet.of()), serializer);
+    }
+
+    /**
+     * @return the delta payload of the entity or null if it contains no changes. Gets serialized by the given
+     * supplier if it isn't cached yet.
+     */
+    EntityData.PackedEntity getUpdate(int netId, boolean owner, Set<Class<? extends Component>> added,
+                                      Set<Class<? extends Component>> changed, Set<Class<? extends Component>> removed,
+                                      Supplier<EntityData.PackedEntity> serializer) {
+        return get(new Key(netId, owner, false, added, changed, removed), serializer);
+    }
+
+    void clear() {
+        entries.clear();
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    /**
+     * @param key a key that may refer to sets the caller modifies later on. It only gets stored as a copy.
+     */
+    private EntityData.PackedEntity get(Key key, Supplier<EntityData.PackedEntity> serializer) {
+        EntityData.PackedEntity entity = entries.get(key);
+        if (entity == null) {
+            entity = serializer.get();
+            entries.put(key.copy(), (entity != null) ? entity : NO_CHANGES);
+        }
+        return (entity != NO_CHANGES) ? entity : null;
+    }
+
+    private static final class Key {
+        private final int netId;
+        private final boolean owner;
+        private final boolean initial;
+        private final Set<Class<? extends Component>> added;
+        private final Set<Class<? extends Component>> changed;
+        private final Set<Class<? extends Component>> removed;
+        private final int hash;
+
+        Key(int netId, boolean owner, boolean initial, Set<Class<? extends Component>> added,
+            Set<Class<? extends Component>> changed, Set<Class<? extends Component>> removed) {
+            this.netId = netId;
+            this.owner = owner;
+            this.initial = initial;
+            this.added = added;
+            this.changed = changed;
+            this.removed = removed;
+            this.hash = ((((netId * 31 + Boolean.hashCode(owner)) * 31 + Boolean.hashCode(initial)) * 31
+                    + added.hashCode()) * 31 + changed.hashCode()) * 31 + removed.hashCode();
+        }
+
+        private Key(Key key) {
+            this.netId = key.netId;
+            this.owner = key.owner;
+            this.initial = key.initial;
+            this.added = ImmutableSet.copyOf(key.added);
+            this.changed = ImmutableSet.copyOf(key.changed);
+            this.removed = ImmutableSet.copyOf(key.removed);
+            this.hash = key.hash;
+        }
+
+        /**
+         * @return a key with the same content that doesn't change when the sets of this key do.
+         */
+        Key copy() {
+            return new Key(this);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj == this) {
+                return true;
+            }
+            if (obj instanceof Key) {
+                Key other = (Key) obj;
+                return netId == other.netId && owner == other.owner && initial == other.initial
+                        && added.equals(other.added) && changed.equals(other.changed) && removed.equals(other.removed);
+            }
+            return false;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -258,6 +258,7 @@ private void processMessages() {
             processReceivedChunks(message);
             processInvalidatedChunks(message);
             processBlockChanges(message);
+            processChunkBlockChanges(message);
             processBiomeChanges(message);
             processRemoveEntities(message);
             for (NetData.CreateEntityMessage createEntity : message.getCreateEntityList()) {
@@ -303,6 +304,30 @@ private void processBlockChanges(NetData.NetMessage message) {
         }
     }
 
+    private void processChunkBlockChanges(NetData.NetMessage message) {
+        WorldProvider worldProvider = CoreRegistry.get(WorldProvider.class);
+        for (NetData.ChunkBlockChangesMessage chunkChanges : message.getChunkBlockChangesList()) {
+            Vector3i chunkPos = NetMessageUtil.convert(chunkChanges.getChunkPos());
+            logger.debug("Received {} block changes in chunk {}", chunkChanges.getBlockIndexCount(), chunkPos);
+            if (worldProvider.isBlockRelevant(BlockChangeQueue.worldPos(chunkPos, 0))) {
+                Map<Vector3i, Block> blocks = Maps.newHashMap();
+                for (int i = 0; i < chunkChanges.getBlockIndexCount(); i++) {
+                    Vector3i pos = BlockChangeQueue.worldPos(chunkPos, chunkChanges.getBlockIndex(i));
+                    blocks.put(pos, blockManager.getBlock((short) chunkChanges.getNewBlock(i)));
+                }
+                worldProvider.setBlocks(blocks);
+            } else {
+                for (int i = 0; i < chunkChanges.getBlockIndexCount(); i++) {
+                    Vector3i pos = BlockChangeQueue.worldPos(chunkPos, chunkChanges.getBlockIndex(i));
+                    awaitingChunkReadyBlockUpdates.put(chunkPos, NetData.BlockChangeMessage.newBuilder()
+                            .setPos(NetMessageUtil.convert(pos))
+                            .setNewBlock(chunkChanges.getNewBlock(i))
+                            .build());
+                }
+            }
+        }
+    }
+
     private void processBiomeChanges(NetData.NetMessage message) {
         for (NetData.BiomeChangeMessage biomeChange : message.getBiomeChangeList()) {
             logger.debug("Received block change to {}", blockManager.getBlock((short) biomeChange.getNewBiome()));
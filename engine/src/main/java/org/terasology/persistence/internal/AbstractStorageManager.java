@@ -22,8 +22,9 @@
 import org.terasology.entitySystem.entity.EntityRef;
 import org.terasology.entitySystem.entity.internal.EngineEntityManager;
 import org.terasology.entitySystem.entity.internal.OwnershipHelper;
-import org.terasology.logic.location.LocationComponent;
-import org.terasology.math.AABB;
+import org.terasology.entitySystem.entity.lifecycleEvents.BeforeEntityStored;
+import org.terasology.game.GameManifest;
+import org.terasology.logic.location.internal.LocatedEntityIndex;
 import org.terasology.math.geom.Vector3i;
 import org.terasology.module.ModuleEnvironment;
 import org.terasology.network.ClientComponent;
@@ -37,7 +38,6 @@
 import org.terasology.world.chunks.Chunk;
 
 import java.io.BufferedInputStream;
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.FileSystem;
@@ -46,7 +46,6 @@
 import java.nio.file.Path;
 import java.util.Collection;
 import java.util.List;
-import java.util.zip.GZIPInputStream;
 
 /**
  * An abstract implementation of {@link StorageManager} that is able
@@ -68,20 +67,39 @@ public abstract class AbstractStorageManager implements StorageManager {
     private final EngineEntityManager entityManager;
     private final PrefabSerializer prefabSerializer;
     private final OwnershipHelper helper;
+    private final RegionFileCache regionFileCache;
+    private final LocatedEntityIndex locatedEntityIndex;
 
     private boolean storeChunksInZips = true;
+    private boolean storeChunksInRegionFiles;
+    private volatile byte[] chunkCompressionDictionary;
+    private volatile ChunkCodec chunkCodec = new GzipChunkCodec();
 
     public AbstractStorageManager(Path savePath, ModuleEnvironment environment, EngineEntityManager entityManager,
                                   BlockManager blockManager, BiomeManager biomeManager, boolean storeChunksInZips) {
+        this(savePath, environment, entityManager, blockManager, biomeManager, storeChunksInZips, false);
+    }
+
+    /**
+     * @param storeChunksInRegionFiles if true, chunks get stored in region files. This takes precedence over
+     *                                 storeChunksInZips.
+     */
+    public AbstractStorageManager(Path savePath, ModuleEnvironment environment, EngineEntityManager entityManager,
+                                  BlockManager blockManager, BiomeManager biomeManager, boolean storeChunksInZips,
+                                  boolean storeChunksInRegionFiles) {
         this.entityManager = entityManager;
         this.environment = environment;
         this.storeChunksInZips = storeChunksInZips;
+        this.storeChunksInRegionFiles = storeChunksInRegionFiles;
         this.prefabSerializer = new PrefabSerializer(entityManager.getComponentLibrary(), entityManager.getTypeSerializerLibrary());
         this.blockManager = blockManager;
         this.biomeManager = biomeManager;
 
         this.storagePathProvider = new StoragePathProvider(savePath);
+        this.regionFileCache = new RegionFileCache(storagePathProvider.getChunkRegionEntryCount());
         this.helper = new OwnershipHelper(entityManager.getComponentLibrary());
+        this.locatedEntityIndex = new LocatedEntityIndex(entityManager);
+        loadChunkCompressionDictionary();
     }
 
     @Override
@@ -90,8 +108,9 @@ public void loadGlobalStore() throws IOException {
         if (Files.isRegularFile(globalDataFile)) {
             try (InputStream in = new BufferedInputStream(Files.newInputStream(globalDataFile))) {
                 EntityData.GlobalStore store = EntityData.GlobalStore.parseFrom(in);
+                List<EntityJournal.Batch> journal = EntityJournal.read(storagePathProvider.getEntityJournalPath());
                 GlobalStoreLoader loader = new GlobalStoreLoader(environment, entityManager, prefabSerializer);
-                loader.load(store);
+                loader.load(store, journal);
             }
         }
     }
@@ -110,9 +129,8 @@ public ChunkStore loadChunkStore(Vector3i chunkPos) {
         byte[] chunkData = loadCompressedChunk(chunkPos);
         ChunkStore store = null;
         if (chunkData != null) {
-            ByteArrayInputStream bais = new ByteArrayInputStream(chunkData);
-            try (GZIPInputStream gzipIn = new GZIPInputStream(bais)) {
-                EntityData.ChunkStore storeData = EntityData.ChunkStore.parseFrom(gzipIn);
+            try {
+                EntityData.ChunkStore storeData = EntityData.ChunkStore.parseFrom(chunkCodec.decompress(chunkData));
                 store = new ChunkStoreInternal(storeData, this, entityManager, blockManager, biomeManager);
             } catch (IOException e) {
                 logger.error("Failed to read existing saved chunk {}", chunkPos);
@@ -138,6 +156,23 @@ protected byte[] loadChunkZip(Vector3i chunkPos) {
         return chunkData;
     }
 
+    protected byte[] loadChunkRegion(Vector3i chunkPos) {
+        Path regionPath = storagePathProvider.getChunkRegionPath(storagePathProvider.getChunkRegionPosition(chunkPos));
+        try (RegionFile regionFile = regionFileCache.getForReading(regionPath)) {
+            if (regionFile != null) {
+                byte[] chunkData = regionFile.read(storagePathProvider.getChunkRegionIndex(chunkPos));
+                if (chunkData != null) {
+                    return chunkData;
+                }
+            }
+        } catch (IOException e) {
+            logger.error("Failed to load chunk region {}", regionPath, e);
+            return null;
+        }
+        // The chunk might still be in a zip that has not been converted yet:
+        return loadChunkZip(chunkPos);
+    }
+
     @Override
     public void update() {
     }
@@ -153,8 +188,56 @@ void setStoreChunksInZips(boolean storeChunksInZips) {
         this.storeChunksInZips = storeChunksInZips;
     }
 
+    public boolean isStoreChunksInRegionFiles() {
+        return storeChunksInRegionFiles;
+    }
+
+    /**
+     * For tests only
+     */
+    void setStoreChunksInRegionFiles(boolean storeChunksInRegionFiles) {
+        this.storeChunksInRegionFiles = storeChunksInRegionFiles;
+    }
+
+    /**
+     * @return the preset dictionary chunks get compressed with, or null if they get compressed with GZIP.
+     */
+    protected byte[] getChunkCompressionDictionary() {
+        return chunkCompressionDictionary;
+    }
+
+    /**
+     * Changes the codec for chunks. Chunks compressed with the previous codec can still be decompressed afterwards.
+     *
+     * @param dictionary the preset dictionary to compress chunks with, or null to compress them with GZIP.
+     */
+    protected void setChunkCompressionDictionary(byte[] dictionary) {
+        this.chunkCompressionDictionary = dictionary;
+        this.chunkCodec = (dictionary != null) ? new DeflateChunkCodec(dictionary) : new GzipChunkCodec();
+    }
+
+    /**
+     * Uses the chunk compression dictionary that is stored in the game manifest of the save game, if there is one.
+     */
+    protected void loadChunkCompressionDictionary() {
+        Path manifestPath = storagePathProvider.getGameManifestPath();
+        if (Files.isRegularFile(manifestPath)) {
+            try {
+                setChunkCompressionDictionary(GameManifest.load(manifestPath).getChunkCompressionDictionary());
+            } catch (IOException | RuntimeException e) {
+                logger.error("Failed to read the chunk compression dictionary from {}", manifestPath, e);
+            }
+        }
+    }
+
+    protected ChunkCodec getChunkCodec() {
+        return chunkCodec;
+    }
+
     protected byte[] loadCompressedChunk(Vector3i chunkPos) {
-        if (isStoreChunksInZips()) {
+        if (isStoreChunksInRegionFiles()) {
+            return loadChunkRegion(chunkPos);
+        } else if (isStoreChunksInZips()) {
             return loadChunkZip(chunkPos);
         } else {
             Path chunkPath = storagePathProvider.getChunkPath(chunkPos);
@@ -186,20 +269,29 @@ protected EntityData.PlayerStore loadPlayerStoreData(String playerId) {
     protected Collection<EntityRef> getEntitiesOfChunk(Chunk chunk) {
         List<EntityRef> entitiesToStore = Lists.newArrayList();
 
-        AABB aabb = chunk.getAABB();
-        for (EntityRef entity : getEntityManager().getEntitiesWith(LocationComponent.class)) {
+        for (EntityRef entity : locatedEntityIndex.getEntitiesWithin(chunk.getAABB())) {
             if (!entity.getOwner().exists() && !entity.isAlwaysRelevant() && !entity.hasComponent(ClientComponent.class)) {
-                LocationComponent loc = entity.getComponent(LocationComponent.class);
-                if (loc != null) {
-                    if (aabb.contains(loc.getWorldPosition())) {
-                        entitiesToStore.add(entity);
-                    }
-                }
+                entitiesToStore.add(entity);
             }
         }
         return entitiesToStore;
     }
 
+    /**
+     * Lets systems save their state into the components of the entity and the entities it owns, before these get
+     * serialized to be stored.
+     */
+    protected void prepareEntityForStorageRecursive(EntityRef entity) {
+        if (entity.isActive()) {
+            entity.send(BeforeEntityStored.newInstance());
+            for (EntityRef ownedEntity : helper.listOwnedEntities(entity)) {
+                if (!ownedEntity.isAlwaysRelevant() && ownedEntity.isPersistent()) {
+                    prepareEntityForStorageRecursive(ownedEntity);
+                }
+            }
+        }
+    }
+
     protected void deactivateOrDestroyEntityRecursive(EntityRef entity) {
         if (entity.isActive()) {
             for (EntityRef ownedEntity : helper.listOwnedEntities(entity)) {
@@ -220,6 +312,10 @@ protected StoragePathProvider getStoragePathProvider() {
         return storagePathProvider;
     }
 
+    protected RegionFileCache getRegionFileCache() {
+        return regionFileCache;
+    }
+
     protected ModuleEnvironment getEnvironment() {
         return environment;
     }
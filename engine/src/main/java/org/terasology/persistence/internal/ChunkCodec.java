@@ -0,0 +1,38 @@
+/*
+ * Copyright 2015 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.persistence.internal;
+
+import java.io.IOException;
+
+/**
+ * Compresses the encoded chunk stores that get written to disk.
+ * <br><br>
+ * Implementations must be thread safe, as chunks get compressed on several threads while saving.
+ */
+public interface ChunkCodec {
+
+    /**
+     * @param data a serialized {@link org.terasology.protobuf.EntityData.ChunkStore}.
+     */
+    byte[] compress(byte[] data);
+
+    /**
+     * @param data data as returned by {@link #compress(byte[])} of this or a previously used codec.
+     */
+    byte[] decompress(byte[] data) throws IOException;
+
+    ChunkCodecStatistics getStatistics();
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2015 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.persistence.internal;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Thread safe counters of the data processed by a {@link ChunkCodec}, used to report its compression ratio and
+ * throughput.
+ */
+public final class ChunkCodecStatistics {
+    private static final double BYTES_PER_MEGABYTE = 1024 * 1024;
+    private static final double NANOS_PER_SECOND = 1e9;
+
+    private final AtomicLong compressedChunks = new AtomicLong();
+    private final AtomicLong uncompressedBytesIn = new AtomicLong();
+    private final AtomicLong compressedBytesOut = new AtomicLong();
+    private final AtomicLong compressionNanos = new AtomicLong();
+    private final AtomicLong decompressedChunks = new AtomicLong();
+    private final AtomicLong decompressedBytesOut = new AtomicLong();
+    private final AtomicLong decompressionNanos = new AtomicLong();
+
+    void recordCompression(int uncompressedSize, int compressedSize, long nanos) {
+        compressedChunks.incrementAndGet();
+        uncompressedBytesIn.addAndGet(uncompressedSize);
+        compressedBytesOut.addAndGet(compressedSize);
+        compressionNanos.addAndGet(nanos);
+    }
+
+    void recordDecompression(int decompressedSize, long nanos) {
+        decompressedChunks.incrementAndGet();
+        decompressedBytesOut.addAndGet(decompressedSize);
+        decompressionNanos.addAndGet(nanos);
+    }
+
+    public long getCompressedChunks() {
+        return compressedChunks.get();
+    }
+
+    public long getDecompressedChunks() {
+        return decompressedChunks.get();
+    }
+
+    /**
+     * @return the uncompressed size of all compressed chunks divided by their compressed size, or 0 if nothing got
+     * compressed yet.
+     */
+    public double getCompressionRatio() {
+        long compressed = compressedBytesOut.get();
+        return (compressed == 0) ? 0 : (double) uncompressedBytesIn.get() / compressed;
+    }
+
+    /**
+     * @return the uncompressed megabytes compressed per second of compression time.
+     */
+    public double getCompressionThroughput() {
+        return getThroughput(uncompressedBytesIn.get(), compressionNanos.get());
+    }
+
+    /**
+     * @return the uncompressed megabytes produced per second of decompression time.
+     */
+    public double getDecompressionThroughput() {
+        return getThroughput(decompressedBytesOut.get(), decompressionNanos.get());
+    }
+
+    private static double getThroughput(long bytes, long nanos) {
+        return (nanos == 0) ? 0 : (bytes / BYTES_PER_MEGABYTE) / (nanos / NANOS_PER_SECOND);
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT, "%d chunks compressed with ratio %.2f at %.1f MB/s, %d decompressed at %.1f MB/s",
+                getCompressedChunks(), getCompressionRatio(), getCompressionThroughput(), getDecompressedChunks(),
+                getDecompressionThroughput());
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright 2015 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.persistence.internal;
+
+import com.google.common.collect.Lists;
+import gnu.trove.map.TLongObjectMap;
+import gnu.trove.map.hash.TLongObjectHashMap;
+
+import java.io.ByteArrayOutputStream;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Creates preset dictionaries for a {@link DeflateChunkCodec} out of sample chunks.
+ * <br><br>
+ * The dictionary consists of the byte sequences that occur in the most samples. Deflate can refer to data up to
+ * 32 KiB back, so a larger dictionary would be useless. Deflate also encodes references to close data more
+ * efficiently, which is why the most common sequences get placed at the end of the dictionary.
+ * <br><br>
+ * Only every few bytes a sequence gets counted, so that no more than {@link #MAX_COUNTED_SEGMENTS} sequences get
+ * counted in total. Sequences that overlap a sequence which is already part of the dictionary get skipped, as
+ * their bytes would mostly be in the dictionary twice.
+ */
+public final class ChunkDictionaryTrainer {
+    public static final int MAX_DICTIONARY_SIZE = 32 * 1024;
+    public static final int MAX_COUNTED_SEGMENTS = 1 << 16;
+    private static final int SEGMENT_LENGTH = 16;
+    private static final int MIN_STRIDE = 4;
+
+    private ChunkDictionaryTrainer() {
+    }
+
+    /**
+     * @param samples serialized chunk stores of the world the dictionary is for.
+     * @return the dictionary, which is empty if the samples have nothing in common.
+     */
+    public static byte[] train(Collection<byte[]> samples) {
+        List<byte[]> sampleList = Lists.newArrayList(samples);
+        if (sampleList.isEmpty()) {
+            return new byte[0];
+        }
+        int segmentsPerSample = Math.max(1, MAX_COUNTED_SEGMENTS / sampleList.size());
+        TLongObjectMap<SegmentCount> segmentCounts = new TLongObjectHashMap<>();
+        for (int sampleIndex = 0; sampleIndex < sampleList.size(); sampleIndex++) {
+            byte[] sample = sampleList.get(sampleIndex);
+            int stride = Math.max(MIN_STRIDE, (sample.length + segmentsPerSample - 1) / segmentsPerSample);
+            for (int offset = 0; offset + SEGMENT_LENGTH <= sample.length; offset += stride) {
+                long key = hash(sample, offset);
+                SegmentCount count = segmentCounts.get(key);
+                if (count == null) {
+                    segmentCounts.put(key, new SegmentCount(sampleIndex, offset));
+                } else if (count.matches(sampleList, sample, offset)) {
+                    count.addOccurrence(sampleIndex);
+                }
+                // else: a hash collision, which only costs this occurrence
+            }
+        }
+
+        List<SegmentCount> commonSegments = Lists.newArrayList();
+        for (SegmentCount count : segmentCounts.valueCollection()) {
+            if (count.samples > 1) {
+                commonSegments.add(count);
+            }
+        }
+        // Most common first, ties are broken by the number of occurrences within the samples:
+        commonSegments.sort((a, b) -> (a.samples != b.samples)
+                ? Integer.compare(b.samples, a.samples) : Integer.compare(b.occurrences, a.occurrences));
+
+        List<SegmentCount> chosenSegments = Lists.newArrayList();
+        BitSet[] usedBytes = new BitSet[sampleList.size()];
+        int maxSegments = MAX_DICTIONARY_SIZE / SEGMENT_LENGTH;
+        for (SegmentCount count : commonSegments) {
+            if (chosenSegments.size() == maxSegments) {
+                break;
+            }
+            BitSet used = usedBytes[count.sampleIndex];
+            if (used == null) {
+                used = new BitSet(sampleList.get(count.sampleIndex).length);
+                usedBytes[count.sampleIndex] = used;
+            }
+            int nextUsed = used.nextSetBit(count.offset);
+            if (nextUsed >= 0 && nextUsed < count.offset + SEGMENT_LENGTH) {
+                continue;
+            }
+            used.set(count.offset, count.offset + SEGMENT_LENGTH);
+            chosenSegments.add(count);
+        }
+
+        ByteArrayOutputStream dictionary = new ByteArrayOutputStream(chosenSegments.size() * SEGMENT_LENGTH);
+        for (int i = chosenSegments.size() - 1; i >= 0; i--) {
+            SegmentCount count = chosenSegments.get(i);
+            dictionary.write(sampleList.get(count.sampleIndex), count.offset, SEGMENT_LENGTH);
+        }
+        return dictionary.toByteArray();
+    }
+
+    private static long hash(byte[] data, int offset) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = offset; i < offset + SEGMENT_LENGTH; i++) {
+            hash = (hash ^ (data[i] & 0xff)) * 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    /**
+     * Counts a segment, which is identified by the place where it occurred first.
+     */
+    private static final class SegmentCount {
+        private final int sampleIndex;
+        private final int offset;
+        private int samples = 1;
+        private int occurrences = 1;
+        private int lastSample;
+
+        private SegmentCount(int sampleIndex, int offset) {
+            this.sampleIndex = sampleIndex;
+            this.offset = offset;
+            this.lastSample = sampleIndex;
+        }
+
+        private boolean matches(List<byte[]> sampleList, byte[] data, int dataOffset) {
+            byte[] sample = sampleList.get(sampleIndex);
+            for (int i = 0; i < SEGMENT_LENGTH; i++) {
+                if (sample[offset + i] != data[dataOffset + i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void addOccurrence(int sampleIndex) {
+            occurrences++;
+            if (sampleIndex != lastSample) {
+                samples++;
+                lastSample = sampleIndex;
+            }
+        }
+    }
+}
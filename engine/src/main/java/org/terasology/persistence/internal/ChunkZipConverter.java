@@ -0,0 +1,120 @@
+/*
+ * Copyright 2015 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.persistence.internal;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.terasology.math.geom.Vector3i;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Converts the chunk zips of a save game into region files.
+ * <br><br>
+ * Chunks that are already present in a region file don't get overwritten, as they are newer than the ones in the
+ * zip. A zip gets only deleted after all its chunks have been written, so an interrupted conversion gets simply
+ * continued the next time.
+ */
+public class ChunkZipConverter {
+    private static final Logger logger = LoggerFactory.getLogger(ChunkZipConverter.class);
+
+    private final StoragePathProvider storagePathProvider;
+    private final RegionFileCache regionFileCache;
+
+    public ChunkZipConverter(StoragePathProvider storagePathProvider, RegionFileCache regionFileCache) {
+        this.storagePathProvider = storagePathProvider;
+        this.regionFileCache = regionFileCache;
+    }
+
+    /**
+     * The write lock for the world directory should be acquired before this method gets called.
+     */
+    public void convertChunkZips() throws IOException {
+        Path worldPath = storagePathProvider.getWorldPath();
+        if (!Files.isDirectory(worldPath)) {
+            return;
+        }
+        List<Path> chunkZips = Lists.newArrayList();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(worldPath)) {
+            for (Path path : stream) {
+                if (storagePathProvider.isChunkZipPath(path) && Files.isRegularFile(path)) {
+                    chunkZips.add(path);
+                }
+            }
+        }
+        if (chunkZips.isEmpty()) {
+            return;
+        }
+        logger.info("Converting {} chunk zips into region files", chunkZips.size());
+        for (Path chunkZip : chunkZips) {
+            convertChunkZip(chunkZip);
+        }
+        logger.info("Conversion of chunk zips finished");
+    }
+
+    private void convertChunkZip(Path chunkZipPath) throws IOException {
+        final Map<Path, RegionFile> regionFiles = Maps.newHashMap();
+        try {
+            try (FileSystem chunkZip = FileSystems.newFileSystem(chunkZipPath, null)) {
+                for (Path root : chunkZip.getRootDirectories()) {
+                    Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+                        @Override
+                        public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                            String filename = file.getFileName().toString();
+                            Vector3i chunkPos = storagePathProvider.getChunkPositionFromFilename(filename);
+                            if (chunkPos == null) {
+                                logger.warn("Skipping unexpected file {} in chunk zip", file);
+                                return FileVisitResult.CONTINUE;
+                            }
+                            Vector3i chunkRegionPos = storagePathProvider.getChunkRegionPosition(chunkPos);
+                            Path regionPath = storagePathProvider.getChunkRegionPath(chunkRegionPos);
+                            RegionFile regionFile = regionFiles.get(regionPath);
+                            if (regionFile == null) {
+                                regionFile = regionFileCache.getForWriting(regionPath);
+                                regionFiles.put(regionPath, regionFile);
+                            }
+                            int index = storagePathProvider.getChunkRegionIndex(chunkPos);
+                            if (!regionFile.contains(index)) {
+                                regionFile.write(index, Files.readAllBytes(file));
+                            }
+                            return FileVisitResult.CONTINUE;
+                        }
+                    });
+                }
+            }
+            for (RegionFile regionFile : regionFiles.values()) {
+                regionFile.flush();
+            }
+        } finally {
+            for (RegionFile regionFile : regionFiles.values()) {
+                regionFile.close();
+            }
+        }
+        Files.delete(chunkZipPath);
+    }
+}
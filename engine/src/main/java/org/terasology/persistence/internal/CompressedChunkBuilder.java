@@ -15,16 +15,14 @@
  */
 package org.terasology.persistence.internal;
 
+import com.google.common.base.Preconditions;
 import org.terasology.entitySystem.entity.EntityRef;
 import org.terasology.entitySystem.entity.internal.EngineEntityManager;
 import org.terasology.protobuf.EntityData;
 import org.terasology.world.chunks.internal.ChunkImpl;
 
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
 import java.util.Collection;
 import java.util.Set;
-import java.util.zip.GZIPOutputStream;
 
 /**
  * Provides an easy to get a compressed version of a chunk. Either the chunk most have a snapshot of it's state
@@ -36,6 +34,8 @@ public class CompressedChunkBuilder {
     private EntityData.EntityStore entityStore;
     private ChunkImpl chunk;
     private boolean viaSnapshot;
+    private ChunkCodec codec;
+    private byte[] encodedChunk;
     private byte[] result;
     private Set<EntityRef> storedEntities;
 
@@ -45,10 +45,11 @@ public class CompressedChunkBuilder {
      * @param chunkUnloaded if true the chunk data will be used directly.  If deactivate is false then the chunk will be
      *                      but in snapshot mode so that concurrent modifications (and possibly future unload) is
      *                      possible.
+     * @param codec         the codec that compresses the encoded chunk.
      */
     public CompressedChunkBuilder(EngineEntityManager entityManager, ChunkImpl chunk,
                                   Collection<EntityRef> entitiesToSave,
-                                  boolean chunkUnloaded) {
+                                  boolean chunkUnloaded, ChunkCodec codec) {
         EntityStorer storer = new EntityStorer(entityManager);
         for (EntityRef entityRef : entitiesToSave) {
             if (entityRef.isPersistent()) {
@@ -60,6 +61,7 @@ public CompressedChunkBuilder(EngineEntityManager entityManager, ChunkImpl chunk
 
         this.chunk = chunk;
         this.viaSnapshot = !chunkUnloaded;
+        this.codec = codec;
         if (viaSnapshot) {
             this.chunk.createSnapshot();
         }
@@ -70,16 +72,21 @@ public CompressedChunkBuilder(EngineEntityManager entityManager, ChunkImpl chunk
      * @param entityStore encoded entities to be stored.
      * @param chunk       chunk for which {@link ChunkImpl#createSnapshot()} has been called.
      * @param viaSnapshot specifies if the previously taken snapshot will be encoded or if
+     * @param codec       the codec that compresses the encoded chunk.
      */
-    public CompressedChunkBuilder(EntityData.EntityStore entityStore, ChunkImpl chunk, boolean viaSnapshot) {
+    public CompressedChunkBuilder(EntityData.EntityStore entityStore, ChunkImpl chunk, boolean viaSnapshot,
+                                  ChunkCodec codec) {
         this.entityStore = entityStore;
         this.chunk = chunk;
         this.viaSnapshot = viaSnapshot;
+        this.codec = codec;
     }
 
-    public synchronized byte[] buildEncodedChunk() {
-        if (result == null) {
-
+    /**
+     * @return the serialized, uncompressed chunk store. It gets kept until the chunk gets compressed.
+     */
+    public synchronized byte[] buildUncompressedChunk() {
+        if (encodedChunk == null) {
             EntityData.ChunkStore.Builder encoded;
             if (viaSnapshot) {
                 encoded = chunk.encodeAndReleaseSnapshot();
@@ -87,21 +94,25 @@ public synchronized byte[] buildEncodedChunk() {
                 encoded = chunk.encode();
             }
             encoded.setStore(entityStore);
-            EntityData.ChunkStore store = encoded.build();
-            result = compressChunkStore(store);
+            encodedChunk = encoded.build().toByteArray();
         }
-        return result;
+        return encodedChunk;
     }
 
-    private byte[] compressChunkStore(EntityData.ChunkStore store) {
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        try (GZIPOutputStream gzipOut = new GZIPOutputStream(baos)) {
-            store.writeTo(gzipOut);
-        } catch (IOException e) {
-            // as no real IO is involved this should not happen
-            throw new RuntimeException(e);
+    public synchronized byte[] buildEncodedChunk() {
+        if (result == null) {
+            result = codec.compress(buildUncompressedChunk());
+            encodedChunk = null;
         }
-        return baos.toByteArray();
+        return result;
+    }
+
+    /**
+     * Replaces the codec the chunk gets compressed with. Only possible until the chunk got compressed.
+     */
+    public synchronized void setCodec(ChunkCodec codec) {
+        Preconditions.checkState(result == null, "The chunk got compressed already");
+        this.codec = codec;
     }
 
     public Set<EntityRef> getStoredEntities() {
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2015 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.persistence.internal;
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.zip.Adler32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Compresses chunks with deflate, using a preset dictionary trained from chunks of the same world (see
+ * {@link ChunkDictionaryTrainer}).
+ * <br><br>
+ * Chunks of a world are very similar to each other, but a chunk on its own is too small for the compression to
+ * learn much about the data. The dictionary provides that knowledge up front. The compressed data is a zlib stream
+ * that contains the id of the dictionary. Chunks compressed by a {@link GzipChunkCodec} can be decompressed too.
+ */
+public final class DeflateChunkCodec implements ChunkCodec {
+    private static final int BUFFER_SIZE = 8192;
+
+    private final byte[] dictionary;
+    private final int dictionaryId;
+    private final GzipChunkCodec gzipCodec = new GzipChunkCodec();
+    private final ChunkCodecStatistics statistics = new ChunkCodecStatistics();
+
+    public DeflateChunkCodec(byte[] dictionary) {
+        this.dictionary = dictionary.clone();
+        Adler32 adler = new Adler32();
+        adler.update(dictionary);
+        this.dictionaryId = (int) adler.getValue();
+    }
+
+    public byte[] getDictionary() {
+        return dictionary.clone();
+    }
+
+    @Override
+    public byte[] compress(byte[] data) {
+        long start = System.nanoTime();
+        Deflater deflater = new Deflater();
+        ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 2 + 64);
+        try {
+            deflater.setDictionary(dictionary);
+            deflater.setInput(data);
+            deflater.finish();
+            byte[] buffer = new byte[BUFFER_SIZE];
+            while (!deflater.finished()) {
+                int length = deflater.deflate(buffer);
+                out.write(buffer, 0, length);
+            }
+        } finally {
+            deflater.end();
+        }
+        byte[] result = out.toByteArray();
+        statistics.recordCompression(data.length, result.length, System.nanoTime() - start);
+        return result;
+    }
+
+    @Override
+    public byte[] decompress(byte[] data) throws IOException {
+        long start = System.nanoTime();
+        byte[] result = GzipChunkCodec.isGzip(data) ? gzipCodec.decompress(data) : inflate(data);
+        statistics.recordDecompression(result.length, System.nanoTime() - start);
+        return result;
+    }
+
+    private byte[] inflate(byte[] data) throws IOException {
+        Inflater inflater = new Inflater();
+        ByteArrayOutputStream out = new ByteArrayOutputStream(data.length * 4);
+        try {
+            inflater.setInput(data);
+            byte[] buffer = new byte[BUFFER_SIZE];
+            while (!inflater.finished()) {
+                int length = inflater.inflate(buffer);
+                if (length == 0) {
+                    if (inflater.needsDictionary()) {
+                        if (inflater.getAdler() != dictionaryId) {
+                            throw new IOException("Chunk got compressed with an unknown dictionary");
+                        }
+                        inflater.setDictionary(dictionary);
+                    } else if (inflater.needsInput()) {
+                        throw new EOFException("Compressed chunk data ended unexpectedly");
+                    }
+                }
+                out.write(buffer, 0, length);
+            }
+        } catch (DataFormatException e) {
+            throw new IOException("Compressed chunk data is corrupt", e);
+        } finally {
+            inflater.end();
+        }
+        return out.toByteArray();
+    }
+
+    @Override
+    public ChunkCodecStatistics getStatistics() {
+        return statistics;
+    }
+}
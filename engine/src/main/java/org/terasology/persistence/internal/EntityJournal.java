@@ -0,0 +1,285 @@
+/*
+ * Copyright 2015 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.persistence.internal;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import gnu.trove.iterator.TLongIterator;
+import gnu.trove.set.TLongSet;
+import gnu.trove.set.hash.TLongHashSet;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.terasology.protobuf.EntityData;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.zip.CRC32;
+
+/**
+ * Write-ahead journal with the changes that got made to the global entity store since it got last written
+ * completely.
+ * <br><br>
+ * Each batch of the journal contains the changes of one save transaction: entities that got added to the global
+ * store or got changed are stored completely, entities that are no longer part of it only by their id. Every batch
+ * starts with its length and a checksum, so that a batch that got only partially written can be detected. Reading
+ * the journal stops at the first such batch.
+ * <br><br>
+ * Save transactions write their batch into a separate delta file which gets appended to the journal when the changes
+ * get merged. Like applying a {@link RegionFileDelta}, appending a delta is safe to repeat: a partially written tail
+ * gets cut off first and a batch that is already the last one of the journal does not get appended again.
+ * <br><br>
+ * An instance keeps track of what the journal and global store on disk contain, so that the next save transaction
+ * only needs to write the difference. It gets only used by the saving thread.
+ */
+final class EntityJournal {
+    private static final Logger logger = LoggerFactory.getLogger(EntityJournal.class);
+
+    private static final int BATCH_MAGIC_NUMBER = 0x54454A42;
+    private static final int BATCH_HEADER_SIZE = 12;
+    private static final int MAX_BATCHES_BETWEEN_COMPACTIONS = 32;
+
+    private boolean compactionDue = true;
+    private TLongSet storedEntityIds = new TLongHashSet();
+    private Set<String> storedPrefabs = Sets.newHashSet();
+    private int batchCount;
+    private long batchBytes;
+    private long globalStoreBytes;
+
+    /**
+     * @return true if the next save should write a complete global store and an empty journal. This is the case
+     * if it is unknown what is currently stored, or if the journal got larger than a complete global store.
+     */
+    public boolean isCompactionDue() {
+        return compactionDue || batchCount >= MAX_BATCHES_BETWEEN_COMPACTIONS || batchBytes > globalStoreBytes;
+    }
+
+    public boolean isEntityStored(long entityId) {
+        return storedEntityIds.contains(entityId);
+    }
+
+    public boolean isPrefabStored(String prefabName) {
+        return storedPrefabs.contains(prefabName);
+    }
+
+    public TLongSet getStoredEntityIds() {
+        return storedEntityIds;
+    }
+
+    /**
+     * Records that a complete global store and an empty journal got merged into the save game.
+     */
+    public void recordCompaction(TLongSet entityIds, EntityData.GlobalStore globalStore) {
+        storedEntityIds = entityIds;
+        storedPrefabs = Sets.newHashSet();
+        for (EntityData.Prefab prefab : globalStore.getPrefabList()) {
+            storedPrefabs.add(prefab.getName());
+        }
+        batchCount = 0;
+        batchBytes = 0;
+        globalStoreBytes = globalStore.getSerializedSize();
+        compactionDue = false;
+    }
+
+    /**
+     * Records that the given batch got appended to the journal of the save game.
+     */
+    public void recordBatch(TLongSet entityIds, Batch batch) {
+        storedEntityIds = entityIds;
+        for (EntityData.Prefab prefab : batch.getChangedEntities().getPrefabList()) {
+            storedPrefabs.add(prefab.getName());
+        }
+        batchCount++;
+        batchBytes += batch.getChangedEntities().getSerializedSize();
+    }
+
+    /**
+     * Forgets what is stored, e.g. after a failed save transaction. The next save will write a complete global store.
+     */
+    public void reset() {
+        compactionDue = true;
+        storedEntityIds = new TLongHashSet();
+        storedPrefabs = Sets.newHashSet();
+        batchCount = 0;
+        batchBytes = 0;
+    }
+
+    /**
+     * Writes a delta file that contains the given batch and can be appended to a journal via
+     * {@link #append(Path, Path)}.
+     */
+    public static void write(Path path, Batch batch) throws IOException {
+        byte[] payload = batch.toByteArray();
+        CRC32 checksum = new CRC32();
+        checksum.update(payload);
+        ByteBuffer data = ByteBuffer.allocate(BATCH_HEADER_SIZE + payload.length);
+        data.putInt(BATCH_MAGIC_NUMBER);
+        data.putInt(payload.length);
+        data.putInt((int) checksum.getValue());
+        data.put(payload);
+        Files.write(path, data.array());
+    }
+
+    /**
+     * Writes a journal without any batches, which replaces the journal when the global store got written completely.
+     */
+    public static void writeEmpty(Path path) throws IOException {
+        Files.write(path, new byte[0]);
+    }
+
+    /**
+     * Appends the batch of a delta file written by {@link #write(Path, Batch)} to the journal at the given path.
+     */
+    public static void append(Path deltaPath, Path journalPath) throws IOException {
+        byte[] delta = Files.readAllBytes(deltaPath);
+        if (getBatchEnd(delta, 0) != delta.length) {
+            throw new IOException("File " + deltaPath + " is not a complete entity journal delta");
+        }
+        byte[] journal = Files.isRegularFile(journalPath) ? Files.readAllBytes(journalPath) : new byte[0];
+        int validEnd = 0;
+        int lastBatchStart = -1;
+        for (int end = getBatchEnd(journal, 0); end != -1; end = getBatchEnd(journal, validEnd)) {
+            lastBatchStart = validEnd;
+            validEnd = end;
+        }
+        try (FileChannel channel = FileChannel.open(journalPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            if (validEnd < journal.length) {
+                logger.warn("Removing {} bytes of an incomplete batch from {}", journal.length - validEnd, journalPath);
+                channel.truncate(validEnd);
+            }
+            boolean alreadyAppended = lastBatchStart != -1
+                    && Arrays.equals(delta, Arrays.copyOfRange(journal, lastBatchStart, validEnd));
+            if (!alreadyAppended) {
+                ByteBuffer buffer = ByteBuffer.wrap(delta);
+                long position = validEnd;
+                while (buffer.hasRemaining()) {
+                    position += channel.write(buffer, position);
+                }
+            }
+            channel.force(true);
+        }
+    }
+
+    /**
+     * @return the complete batches of the journal at the given path in the order they got appended. The result is
+     * empty if the file does not exist.
+     */
+    public static List<Batch> read(Path journalPath) throws IOException {
+        if (!Files.isRegularFile(journalPath)) {
+            return Collections.emptyList();
+        }
+        byte[] journal = Files.readAllBytes(journalPath);
+        List<Batch> batches = Lists.newArrayList();
+        int start = 0;
+        for (int end = getBatchEnd(journal, 0); end != -1; end = getBatchEnd(journal, start)) {
+            batches.add(Batch.parseFrom(journal, start + BATCH_HEADER_SIZE, end - start - BATCH_HEADER_SIZE));
+            start = end;
+        }
+        if (start < journal.length) {
+            logger.warn("Ignoring {} bytes of an incomplete batch at the end of {}", journal.length - start, journalPath);
+        }
+        return batches;
+    }
+
+    /**
+     * @return the offset after the batch that starts at the given offset, or -1 if there is no complete batch.
+     */
+    private static int getBatchEnd(byte[] data, int offset) {
+        if (data.length - offset < BATCH_HEADER_SIZE) {
+            return -1;
+        }
+        ByteBuffer header = ByteBuffer.wrap(data, offset, BATCH_HEADER_SIZE);
+        if (header.getInt() != BATCH_MAGIC_NUMBER) {
+            return -1;
+        }
+        int length = header.getInt();
+        int expectedChecksum = header.getInt();
+        if (length < 0 || length > data.length - offset - BATCH_HEADER_SIZE) {
+            return -1;
+        }
+        CRC32 checksum = new CRC32();
+        checksum.update(data, offset + BATCH_HEADER_SIZE, length);
+        if ((int) checksum.getValue() != expectedChecksum) {
+            return -1;
+        }
+        return offset + BATCH_HEADER_SIZE + length;
+    }
+
+    /**
+     * The changes of the global store made by one save transaction.
+     */
+    public static final class Batch {
+        private final EntityData.GlobalStore changedEntities;
+        private final TLongSet removedEntities;
+
+        /**
+         * @param changedEntities the added and changed entities, together with the component classes and prefabs
+         *                        they need and the next entity id.
+         * @param removedEntities the ids of the entities that are no longer part of the global store.
+         */
+        public Batch(EntityData.GlobalStore changedEntities, TLongSet removedEntities) {
+            this.changedEntities = changedEntities;
+            this.removedEntities = removedEntities;
+        }
+
+        public EntityData.GlobalStore getChangedEntities() {
+            return changedEntities;
+        }
+
+        public TLongSet getRemovedEntities() {
+            return removedEntities;
+        }
+
+        private byte[] toByteArray() throws IOException {
+            int size = CodedOutputStream.computeRawVarint32Size(removedEntities.size());
+            TLongIterator iterator = removedEntities.iterator();
+            while (iterator.hasNext()) {
+                size += CodedOutputStream.computeRawVarint64Size(iterator.next());
+            }
+            size += changedEntities.getSerializedSize();
+
+            byte[] result = new byte[size];
+            CodedOutputStream out = CodedOutputStream.newInstance(result);
+            out.writeRawVarint32(removedEntities.size());
+            iterator = removedEntities.iterator();
+            while (iterator.hasNext()) {
+                out.writeRawVarint64(iterator.next());
+            }
+            changedEntities.writeTo(out);
+            out.checkNoSpaceLeft();
+            return result;
+        }
+
+        private static Batch parseFrom(byte[] data, int offset, int length) throws IOException {
+            CodedInputStream in = CodedInputStream.newInstance(data, offset, length);
+            int removedCount = in.readRawVarint32();
+            TLongSet removedEntities = new TLongHashSet(removedCount);
+            for (int i = 0; i < removedCount; i++) {
+                removedEntities.add(in.readRawVarint64());
+            }
+            return new Batch(EntityData.GlobalStore.parseFrom(in), removedEntities);
+        }
+    }
+}
@@ -16,6 +16,9 @@
 package org.terasology.persistence.internal;
 
 import com.google.common.collect.Maps;
+import gnu.trove.iterator.TLongIterator;
+import gnu.trove.set.TLongSet;
+import gnu.trove.set.hash.TLongHashSet;
 import org.terasology.entitySystem.Component;
 import org.terasology.entitySystem.entity.EntityRef;
 import org.terasology.entitySystem.entity.internal.EngineEntityManager;
@@ -46,12 +49,7 @@ public GlobalStoreBuilder(EngineEntityManager entityManager, PrefabSerializer pr
     public EntityData.GlobalStore build(EngineEntityManager entityManager, Iterable<EntityRef> entities) {
         EntityData.GlobalStore.Builder store = EntityData.GlobalStore.newBuilder();
 
-        Map<Class<? extends Component>, Integer> componentIdTable = Maps.newHashMap();
-        for (ComponentMetadata<?> componentMetadata : entityManager.getComponentLibrary().iterateComponentMetadata()) {
-            store.addComponentClass(componentMetadata.getUri().toString());
-            componentIdTable.put(componentMetadata.getType(), componentIdTable.size());
-        }
-        prefabSerializer.setComponentIdMapping(componentIdTable);
+        Map<Class<? extends Component>, Integer> componentIdTable = addComponentClasses(entityManager, store);
         /*
          * The prefabs can't be obtained from  entityManager.getPrefabManager().listPrefabs() as that might not
          * be thread save.
@@ -78,5 +76,61 @@ public EntityData.GlobalStore build(EngineEntityManager entityManager, Iterable<
         return store.build();
     }
 
+    /**
+     * Builds the journal batch that turns the global store described by the journal into one with the given
+     * entities.
+     *
+     * @param entities           the entities that should be in the global store.
+     * @param prefabs            the prefabs the persistent entities are based on. Only prefabs that are not yet
+     *                           stored get added to the batch.
+     * @param changedEntityIds   the ids of the entities that changed since the journal got last written.
+     */
+    public EntityJournal.Batch buildJournalBatch(EngineEntityManager entityManager, Iterable<EntityRef> entities,
+                                                 Iterable<Prefab> prefabs, TLongSet changedEntityIds,
+                                                 EntityJournal journal) {
+        EntityData.GlobalStore.Builder store = EntityData.GlobalStore.newBuilder();
+
+        Map<Class<? extends Component>, Integer> componentIdTable = addComponentClasses(entityManager, store);
+        for (Prefab prefab : prefabs) {
+            if (!journal.isPrefabStored(prefab.getName())) {
+                store.addPrefab(prefabSerializer.serialize(prefab));
+            }
+        }
+
+        EntitySerializer entitySerializer = new EntitySerializer(entityManager);
+        entitySerializer.setComponentIdMapping(componentIdTable);
+        TLongSet entityIds = new TLongHashSet();
+        for (EntityRef entity : entities) {
+            if (entity.isPersistent()) {
+                long id = entity.getId();
+                entityIds.add(id);
+                if (!journal.isEntityStored(id) || changedEntityIds.contains(id)) {
+                    store.addEntity(entitySerializer.serialize(entity));
+                }
+            }
+        }
+
+        TLongSet removedEntityIds = new TLongHashSet();
+        TLongIterator iterator = journal.getStoredEntityIds().iterator();
+        while (iterator.hasNext()) {
+            long id = iterator.next();
+            if (!entityIds.contains(id)) {
+                removedEntityIds.add(id);
+            }
+        }
+        store.setNextEntityId(nextEntityId);
+        return new EntityJournal.Batch(store.build(), removedEntityIds);
+    }
+
+    private Map<Class<? extends Component>, Integer> addComponentClasses(EngineEntityManager entityManager,
+                                                                         EntityData.GlobalStore.Builder store) {
+        Map<Class<? extends Component>, Integer> componentIdTable = Maps.newHashMap();
+        for (ComponentMetadata<?> componentMetadata : entityManager.getComponentLibrary().iterateComponentMetadata()) {
+            store.addComponentClass(componentMetadata.getUri().toString());
+            componentIdTable.put(componentMetadata.getType(), componentIdTable.size());
+        }
+        prefabSerializer.setComponentIdMapping(componentIdTable);
+        return componentIdTable;
+    }
 
 }
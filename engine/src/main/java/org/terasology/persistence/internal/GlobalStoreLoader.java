@@ -15,7 +15,11 @@
  */
 package org.terasology.persistence.internal;
 
+import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import gnu.trove.iterator.TLongIterator;
+import gnu.trove.map.TLongIntMap;
+import gnu.trove.map.hash.TLongIntHashMap;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.terasology.asset.Assets;
@@ -35,6 +39,8 @@
 import org.terasology.persistence.serializers.PrefabSerializer;
 import org.terasology.protobuf.EntityData;
 
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
@@ -62,14 +68,51 @@ public GlobalStoreLoader(ModuleEnvironment environment, EngineEntityManager enti
     }
 
     public void load(EntityData.GlobalStore globalStore) {
+        load(globalStore, Collections.<EntityJournal.Batch>emptyList());
+    }
+
+    /**
+     * Loads the global store with the changes of the journal batches applied to it.
+     * <br><br>
+     * Every entity gets only created once, from the store or batch that contains its latest version. Entities
+     * removed by a batch don't get created at all.
+     */
+    public void load(EntityData.GlobalStore globalStore, List<EntityJournal.Batch> journal) {
+        List<EntityData.GlobalStore> stores = Lists.newArrayListWithCapacity(journal.size() + 1);
+        stores.add(globalStore);
+        TLongIntMap latestStoreOfEntity = new TLongIntHashMap();
+        for (EntityData.Entity entityData : globalStore.getEntityList()) {
+            latestStoreOfEntity.put(entityData.getId(), 0);
+        }
+        long nextEntityId = globalStore.getNextEntityId();
+        for (EntityJournal.Batch batch : journal) {
+            int storeIndex = stores.size();
+            EntityData.GlobalStore changedEntities = batch.getChangedEntities();
+            stores.add(changedEntities);
+            TLongIterator removedIterator = batch.getRemovedEntities().iterator();
+            while (removedIterator.hasNext()) {
+                latestStoreOfEntity.remove(removedIterator.next());
+            }
+            for (EntityData.Entity entityData : changedEntities.getEntityList()) {
+                latestStoreOfEntity.put(entityData.getId(), storeIndex);
+            }
+            nextEntityId = Math.max(nextEntityId, changedEntities.getNextEntityId());
+        }
+
         entityManager.clear();
-        entityManager.setNextId(globalStore.getNextEntityId());
+        entityManager.setNextId(nextEntityId);
 
-        loadComponentMapping(globalStore);
-        loadMissingPrefabs(globalStore);
+        for (int storeIndex = 0; storeIndex < stores.size(); storeIndex++) {
+            EntityData.GlobalStore store = stores.get(storeIndex);
+            loadComponentMapping(store);
+            loadMissingPrefabs(store);
 
-        for (EntityData.Entity entityData : globalStore.getEntityList()) {
-            entitySerializer.deserialize(entityData);
+            for (EntityData.Entity entityData : store.getEntityList()) {
+                long id = entityData.getId();
+                if (latestStoreOfEntity.containsKey(id) && latestStoreOfEntity.get(id) == storeIndex) {
+                    entitySerializer.deserialize(entityData);
+                }
+            }
         }
     }
 
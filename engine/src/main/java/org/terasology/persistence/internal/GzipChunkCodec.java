@@ -0,0 +1,69 @@
+/*
+ * Copyright 2015 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.persistence.internal;
+
+import com.google.common.io.ByteStreams;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Compresses every chunk on its own with GZIP. This is the format chunks got always stored in.
+ */
+public final class GzipChunkCodec implements ChunkCodec {
+    private final ChunkCodecStatistics statistics = new ChunkCodecStatistics();
+
+    /**
+     * @return true if the data starts with the GZIP magic number.
+     */
+    public static boolean isGzip(byte[] data) {
+        return data.length >= 2 && (data[0] & 0xff) == 0x1f && (data[1] & 0xff) == 0x8b;
+    }
+
+    @Override
+    public byte[] compress(byte[] data) {
+        long start = System.nanoTime();
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzipOut = new GZIPOutputStream(baos)) {
+            gzipOut.write(data);
+        } catch (IOException e) {
+            // as no real IO is involved this should not happen
+            throw new RuntimeException(e);
+        }
+        byte[] result = baos.toByteArray();
+        statistics.recordCompression(data.length, result.length, System.nanoTime() - start);
+        return result;
+    }
+
+    @Override
+    public byte[] decompress(byte[] data) throws IOException {
+        long start = System.nanoTime();
+        byte[] result;
+        try (GZIPInputStream gzipIn = new GZIPInputStream(new ByteArrayInputStream(data))) {
+            result = ByteStreams.toByteArray(gzipIn);
+        }
+        statistics.recordDecompression(result.length, System.nanoTime() - start);
+        return result;
+    }
+
+    @Override
+    public ChunkCodecStatistics getStatistics() {
+        return statistics;
+    }
+}
@@ -42,12 +42,19 @@ public ReadOnlyStorageManager(Path savePath, ModuleEnvironment environment, Engi
 
     public ReadOnlyStorageManager(Path savePath, ModuleEnvironment environment, EngineEntityManager entityManager,
                                   BlockManager blockManager, BiomeManager biomeManager, boolean storeChunksInZips) {
-        super(savePath, environment, entityManager, blockManager, biomeManager, storeChunksInZips);
+        this(savePath, environment, entityManager, blockManager, biomeManager, storeChunksInZips, false);
+    }
+
+    public ReadOnlyStorageManager(Path savePath, ModuleEnvironment environment, EngineEntityManager entityManager,
+                                  BlockManager blockManager, BiomeManager biomeManager, boolean storeChunksInZips,
+                                  boolean storeChunksInRegionFiles) {
+        super(savePath, environment, entityManager, blockManager, biomeManager, storeChunksInZips,
+                storeChunksInRegionFiles);
     }
 
     @Override
     public void finishSavingAndShutdown() {
-        // don't care
+        getRegionFileCache().closeAll();
     }
 
     @Override
@@ -34,6 +34,7 @@
 import org.terasology.game.Game;
 import org.terasology.game.GameManifest;
 import org.terasology.logic.location.LocationComponent;
+import org.terasology.logic.location.internal.LocatedEntityIndex;
 import org.terasology.math.geom.Vector3f;
 import org.terasology.math.geom.Vector3i;
 import org.terasology.module.Module;
@@ -108,7 +109,12 @@ public final class ReadWriteStorageManager extends AbstractStorageManager implem
 
 
     private EngineEntityManager privateEntityManager;
+    private LocatedEntityIndex privateEntityIndex;
     private EntitySetDeltaRecorder entitySetDeltaRecorder;
+    /**
+     * Null if the global store gets always written completely.
+     */
+    private final EntityJournal entityJournal;
     /**
      * A component library that provides a copy() method that replaces {@link EntityRef}s which {@link EntityRef}s
      * that will use the privateEntityManager.
@@ -122,20 +128,39 @@ public ReadWriteStorageManager(Path savePath, ModuleEnvironment environment, Eng
 
     public ReadWriteStorageManager(Path savePath, ModuleEnvironment environment, EngineEntityManager entityManager,
                                    BlockManager blockManager, BiomeManager biomeManager, boolean storeChunksInZips) throws IOException {
-        super(savePath, environment, entityManager, blockManager, biomeManager, storeChunksInZips);
+        this(savePath, environment, entityManager, blockManager, biomeManager, storeChunksInZips, false);
+    }
+
+    public ReadWriteStorageManager(Path savePath, ModuleEnvironment environment, EngineEntityManager entityManager,
+                                   BlockManager blockManager, BiomeManager biomeManager, boolean storeChunksInZips,
+                                   boolean storeChunksInRegionFiles) throws IOException {
+        this(savePath, environment, entityManager, blockManager, biomeManager, storeChunksInZips,
+                storeChunksInRegionFiles, false);
+    }
+
+    /**
+     * @param storeEntitiesInJournal if true, saves append the changes of the global store to a journal and write
+     *                               the complete global store only now and then.
+     */
+    public ReadWriteStorageManager(Path savePath, ModuleEnvironment environment, EngineEntityManager entityManager,
+                                   BlockManager blockManager, BiomeManager biomeManager, boolean storeChunksInZips,
+                                   boolean storeChunksInRegionFiles, boolean storeEntitiesInJournal) throws IOException {
+        super(savePath, environment, entityManager, blockManager, biomeManager, storeChunksInZips,
+                storeChunksInRegionFiles);
 
         entityManager.subscribeForDestruction(this);
         entityManager.subscribeForChanges(this);
         // TODO Ensure that the component library and the type serializer library are thread save (e.g. immutable)
         this.privateEntityManager = createPrivateEntityManager(entityManager.getComponentLibrary());
+        this.privateEntityIndex = new LocatedEntityIndex(privateEntityManager);
         Files.createDirectories(getStoragePathProvider().getStoragePathDirectory());
-        this.saveTransactionHelper = new SaveTransactionHelper(getStoragePathProvider());
+        this.saveTransactionHelper = new SaveTransactionHelper(getStoragePathProvider(), getRegionFileCache());
         this.saveThreadManager = TaskMaster.createFIFOTaskMaster("Saving", 1);
         this.config = CoreRegistry.get(Config.class);
         this.entityRefReplacingComponentLibrary = privateEntityManager.getComponentLibrary()
                 .createCopyUsingCopyStrategy(EntityRef.class, new DelayedEntityRefCopyStrategy(this));
         this.entitySetDeltaRecorder = new EntitySetDeltaRecorder(this.entityRefReplacingComponentLibrary);
-
+        this.entityJournal = storeEntitiesInJournal ? new EntityJournal() : null;
     }
 
     private static EngineEntityManager createPrivateEntityManager(ComponentLibrary componentLibrary) {
@@ -149,6 +174,8 @@ private static EngineEntityManager createPrivateEntityManager(ComponentLibrary c
     public void finishSavingAndShutdown() {
         saveThreadManager.shutdown(new ShutdownTask(), true);
         checkSaveTransactionAndClearUpIfItIsDone();
+        getRegionFileCache().closeAll();
+        logger.info("Chunk compression: {}", getChunkCodec().getStatistics());
     }
 
     private void checkSaveTransactionAndClearUpIfItIsDone() {
@@ -169,11 +196,13 @@ private void checkSaveTransactionAndClearUpIfItIsDone() {
     private void addGlobalStoreBuilderToSaveTransaction(SaveTransactionBuilder transactionBuilder) {
         GlobalStoreBuilder globalStoreBuilder = new GlobalStoreBuilder(getEntityManager(), getPrefabSerializer());
         transactionBuilder.setGlobalStoreBuilder(globalStoreBuilder);
+        transactionBuilder.setEntityJournal(entityJournal);
     }
 
     @Override
     public void deactivatePlayer(Client client) {
         EntityRef character = client.getEntity().getComponent(ClientComponent.class).character;
+        prepareEntityForStorageRecursive(character);
         PlayerStoreBuilder playerStoreBuilder = createPlayerStore(client, character);
         EntityData.PlayerStore playerStore = playerStoreBuilder.build(getEntityManager());
         deactivateOrDestroyEntityRecursive(character);
@@ -249,11 +278,14 @@ private void waitForCompletionOfPreviousSave() {
 
     private SaveTransaction createSaveTransaction() {
         SaveTransactionBuilder saveTransactionBuilder = new SaveTransactionBuilder(privateEntityManager,
-                entitySetDeltaRecorder, isStoreChunksInZips(), getStoragePathProvider(), worldDirectoryWriteLock);
+                privateEntityIndex, entitySetDeltaRecorder, isStoreChunksInZips(), isStoreChunksInRegionFiles(),
+                getChunkEncodingThreads(), getStoragePathProvider(), getRegionFileCache(), worldDirectoryWriteLock);
 
         ChunkProvider chunkProvider = CoreRegistry.get(ChunkProvider.class);
         NetworkSystem networkSystem = CoreRegistry.get(NetworkSystem.class);
 
+        saveTransactionBuilder.setChunkCodec(getChunkCodec());
+        trainChunkCompressionDictionaryIfNecessary(saveTransactionBuilder);
         addChunksToSaveTransaction(saveTransactionBuilder, chunkProvider);
         addPlayersToSaveTransaction(saveTransactionBuilder, networkSystem);
         addGlobalStoreBuilderToSaveTransaction(saveTransactionBuilder);
@@ -263,6 +295,22 @@ private SaveTransaction createSaveTransaction() {
     }
 
 
+    /**
+     * Lets the save transaction train the chunk compression dictionary on the saving thread, until one got trained.
+     * The dictionary does not change afterwards, as it is needed to decompress the chunks stored with it.
+     */
+    private void trainChunkCompressionDictionaryIfNecessary(SaveTransactionBuilder saveTransactionBuilder) {
+        if (getChunkCompressionDictionary() != null || config == null
+                || !config.getSystem().isChunkCompressionDictionaryEnabled()) {
+            return;
+        }
+        saveTransactionBuilder.trainChunkCompressionDictionary(this::setChunkCompressionDictionary);
+    }
+
+    private int getChunkEncodingThreads() {
+        return (config != null) ? config.getSystem().getSaveEncodingThreads() : 1;
+    }
+
     private void addPlayersToSaveTransaction(SaveTransactionBuilder saveTransactionBuilder,
                                              NetworkSystem networkSystem) {
         unloadedAndSavingPlayerMap.clear();
@@ -310,9 +358,12 @@ private PlayerStoreBuilder createPlayerStore(Client client, EntityRef character)
     @Override
     public void deactivateChunk(Chunk chunk) {
         Collection<EntityRef> entitiesOfChunk = getEntitiesOfChunk(chunk);
+        for (EntityRef entity : entitiesOfChunk) {
+            prepareEntityForStorageRecursive(entity);
+        }
         ChunkImpl chunkImpl = (ChunkImpl) chunk; // storage manager only works with ChunkImpl
         unloadedAndUnsavedChunkMap.put(chunk.getPosition(), new CompressedChunkBuilder(getEntityManager(), chunkImpl,
-                entitiesOfChunk, true));
+                entitiesOfChunk, true, getChunkCodec()));
 
         for (EntityRef entity : entitiesOfChunk) {
             deactivateOrDestroyEntityRecursive(entity);
@@ -370,6 +421,7 @@ private void addGameManifestToSaveTransaction(SaveTransactionBuilder saveTransac
         }
         gameManifest.setBiomeIdMap(biomeIdMap);
         gameManifest.addWorld(worldProvider.getWorldInfo());
+        gameManifest.setChunkCompressionDictionary(getChunkCompressionDictionary());
         saveTransactionBuilder.setGameManifest(gameManifest);
     }
 
@@ -448,6 +500,11 @@ public void checkAndRepairSaveIfNecessary() throws IOException {
         saveTransactionHelper.cleanupSaveTransactionDirectory();
         if (Files.exists(getStoragePathProvider().getUnmergedChangesPath())) {
             saveTransactionHelper.mergeChanges();
+            // The merged manifest may contain a chunk compression dictionary that was not known yet:
+            loadChunkCompressionDictionary();
+        }
+        if (isStoreChunksInRegionFiles()) {
+            new ChunkZipConverter(getStoragePathProvider(), getRegionFileCache()).convertChunkZips();
         }
     }
 
@@ -459,6 +516,7 @@ public void deleteWorld() {
         unloadedAndSavingChunkMap.clear();
         unloadedAndUnsavedPlayerMap.clear();
         unloadedAndSavingPlayerMap.clear();
+        getRegionFileCache().closeAll();
 
         try {
             FilesUtil.recursiveDelete(getStoragePathProvider().getWorldPath());
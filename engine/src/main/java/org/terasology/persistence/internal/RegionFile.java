@@ -0,0 +1,289 @@
+/*
+ * Copyright 2015 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.persistence.internal;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.BitSet;
+
+/**
+ * A file that stores a fixed number of variable sized entries (compressed chunks).
+ * <br><br>
+ * The file starts with a header that contains for every entry the offset of its first sector and its length in
+ * bytes. The payload of each entry is stored in consecutive sectors of {@link #SECTOR_SIZE} bytes. An entry whose
+ * length is 0 is not present.
+ * <br><br>
+ * Reads are served from a memory mapping of the file. Writes only touch the sectors of the entry that gets written
+ * and its header entry, so that saving a few chunks does not require the whole file to be rewritten. The payload
+ * gets written before the header entry, so an interrupted write of an entry that got moved leaves the old entry
+ * intact.
+ * <br><br>
+ * A region file can be shared by several holders, see {@link #retain()}. Each holder closes it once, the file and its
+ * mapping get only released when the last holder closed it.
+ */
+public class RegionFile implements Closeable {
+    public static final int SECTOR_SIZE = 4096;
+    private static final int HEADER_ENTRY_SIZE = 8;
+
+    private static final Logger logger = LoggerFactory.getLogger(RegionFile.class);
+
+    private final Path path;
+    private final FileChannel channel;
+    private final boolean writable;
+    private final int headerSectors;
+    private final int[] sectorOffsets;
+    private final int[] lengths;
+    private final BitSet usedSectors = new BitSet();
+    private MappedByteBuffer mappedBuffer;
+    private int holders = 1;
+
+    /**
+     * @param path       location of the region file. Will be created if it does not exist and writable is true.
+     * @param entryCount the number of entries the region file has room for.
+     * @param writable   if false the region file gets opened in read only mode.
+     */
+    public RegionFile(Path path, int entryCount, boolean writable) throws IOException {
+        this.path = path;
+        this.writable = writable;
+        this.sectorOffsets = new int[entryCount];
+        this.lengths = new int[entryCount];
+        this.headerSectors = sectorsFor(entryCount * HEADER_ENTRY_SIZE);
+        if (writable) {
+            channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                    StandardOpenOption.CREATE);
+        } else {
+            channel = FileChannel.open(path, StandardOpenOption.READ);
+        }
+        try {
+            readHeader(entryCount);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private void readHeader(int entryCount) throws IOException {
+        long headerSize = (long) headerSectors * SECTOR_SIZE;
+        if (channel.size() == 0 && writable) {
+            writeFully(ByteBuffer.allocate((int) headerSize), 0);
+        }
+        long fileSize = channel.size();
+        if (fileSize < headerSize) {
+            throw new IOException("Region file " + path + " has a truncated header");
+        }
+        long sectorCount = fileSize / SECTOR_SIZE;
+
+        ByteBuffer header = ByteBuffer.allocate(entryCount * HEADER_ENTRY_SIZE);
+        readFully(header, 0);
+        header.flip();
+        usedSectors.set(0, headerSectors);
+        for (int i = 0; i < entryCount; i++) {
+            int offset = header.getInt();
+            int length = header.getInt();
+            if (length <= 0) {
+                continue;
+            }
+            int sectors = sectorsFor(length);
+            boolean outOfBounds = offset < headerSectors || offset + sectors > sectorCount;
+            if (outOfBounds || usedSectors.get(offset, offset + sectors).cardinality() > 0) {
+                logger.warn("Ignoring invalid entry {} of region file {}", i, path);
+                continue;
+            }
+            sectorOffsets[i] = offset;
+            lengths[i] = length;
+            usedSectors.set(offset, offset + sectors);
+        }
+    }
+
+    public int getEntryCount() {
+        return lengths.length;
+    }
+
+    public boolean isWritable() {
+        return writable;
+    }
+
+    public synchronized boolean contains(int index) {
+        return lengths[index] > 0;
+    }
+
+    /**
+     * @return the data of the specified entry or null if there is no such entry.
+     */
+    public synchronized byte[] read(int index) throws IOException {
+        int length = lengths[index];
+        if (length == 0) {
+            return null;
+        }
+        ByteBuffer view = getMappedBuffer().duplicate();
+        view.position(sectorOffsets[index] * SECTOR_SIZE);
+        byte[] data = new byte[length];
+        view.get(data);
+        return data;
+    }
+
+    /**
+     * Replaces the data of the specified entry. The entry gets rewritten in place if the new data fits in the sectors
+     * of the old entry, otherwise it gets moved to the first free range of sectors or appended to the file.
+     */
+    public synchronized void write(int index, byte[] data) throws IOException {
+        if (!writable) {
+            throw new IOException("Region file " + path + " has been opened read only");
+        }
+        if (data.length == 0) {
+            throw new IllegalArgumentException("Entries can't be empty");
+        }
+        int requiredSectors = sectorsFor(data.length);
+        int offset = sectorOffsets[index];
+        int allocatedSectors = (lengths[index] > 0) ? sectorsFor(lengths[index]) : 0;
+        if (requiredSectors > allocatedSectors) {
+            // The old sectors get released afterwards so that they can't get overwritten by the new payload
+            int newOffset = findFreeSectors(requiredSectors);
+            if (allocatedSectors > 0) {
+                usedSectors.clear(offset, offset + allocatedSectors);
+            }
+            offset = newOffset;
+        } else if (requiredSectors < allocatedSectors) {
+            usedSectors.clear(offset + requiredSectors, offset + allocatedSectors);
+        }
+        usedSectors.set(offset, offset + requiredSectors);
+
+        ByteBuffer payload = ByteBuffer.allocate(requiredSectors * SECTOR_SIZE);
+        payload.put(data);
+        payload.clear();
+        writeFully(payload, (long) offset * SECTOR_SIZE);
+
+        ByteBuffer headerEntry = ByteBuffer.allocate(HEADER_ENTRY_SIZE);
+        headerEntry.putInt(offset);
+        headerEntry.putInt(data.length);
+        headerEntry.flip();
+        writeFully(headerEntry, (long) index * HEADER_ENTRY_SIZE);
+
+        sectorOffsets[index] = offset;
+        lengths[index] = data.length;
+        // The file might have grown, so the mapping gets recreated on the next read:
+        unmap();
+    }
+
+    /**
+     * Forces all written data to the storage device.
+     */
+    public synchronized void flush() throws IOException {
+        if (writable) {
+            channel.force(false);
+        }
+    }
+
+    /**
+     * Adds a holder of the region file, which has to close it when it no longer uses it.
+     *
+     * @return false if the region file has already been closed by all its holders.
+     */
+    public synchronized boolean retain() {
+        if (holders == 0) {
+            return false;
+        }
+        holders++;
+        return true;
+    }
+
+    /**
+     * Releases the region file for the calling holder. The file gets closed when no holder is left.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (holders == 0) {
+            return;
+        }
+        holders--;
+        if (holders == 0) {
+            unmap();
+            channel.close();
+        }
+    }
+
+    private MappedByteBuffer getMappedBuffer() throws IOException {
+        if (mappedBuffer == null) {
+            mappedBuffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        return mappedBuffer;
+    }
+
+    /**
+     * Releases the current mapping right away, instead of when it gets garbage collected. Must only be called while
+     * holding the lock of this object, as reads copy from the mapping while holding it.
+     */
+    private void unmap() {
+        if (mappedBuffer == null) {
+            return;
+        }
+        MappedByteBuffer buffer = mappedBuffer;
+        mappedBuffer = null;
+        try {
+            Method cleanerMethod = buffer.getClass().getMethod("cleaner");
+            cleanerMethod.setAccessible(true);
+            Object cleaner = cleanerMethod.invoke(buffer);
+            if (cleaner != null) {
+                cleaner.getClass().getMethod("clean").invoke(cleaner);
+            }
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            logger.debug("Unable to unmap region file {}, the mapping gets released by the garbage collector", path, e);
+        }
+    }
+
+    private int findFreeSectors(int count) {
+        int start = usedSectors.nextClearBit(headerSectors);
+        while (true) {
+            int end = usedSectors.nextSetBit(start);
+            if (end == -1 || end - start >= count) {
+                return start;
+            }
+            start = usedSectors.nextClearBit(end);
+        }
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        long currentPosition = position;
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, currentPosition);
+            if (read < 0) {
+                throw new EOFException("Unexpected end of region file " + path);
+            }
+            currentPosition += read;
+        }
+    }
+
+    private void writeFully(ByteBuffer buffer, long position) throws IOException {
+        long currentPosition = position;
+        while (buffer.hasRemaining()) {
+            currentPosition += channel.write(buffer, currentPosition);
+        }
+    }
+
+    private static int sectorsFor(int byteCount) {
+        return (byteCount + SECTOR_SIZE - 1) / SECTOR_SIZE;
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2015 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.persistence.internal;
+
+import com.google.common.collect.Maps;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+/**
+ * Keeps the region files of a save game open, so that loading a chunk does not require the region file to be opened
+ * and its header to be parsed again.
+ * <br><br>
+ * Region files get opened read only until they need to be written. The writes happen when the changes of a save
+ * transaction get merged, while the world directory write lock is being hold.
+ * <br><br>
+ * The returned region files are retained for the caller, which has to close them when it is done. A region file that
+ * gets replaced by one opened for writing stays open until the last reader has closed it.
+ */
+public class RegionFileCache {
+    private static final Logger logger = LoggerFactory.getLogger(RegionFileCache.class);
+
+    private final int entryCount;
+    private final Map<Path, RegionFile> openFiles = Maps.newHashMap();
+
+    public RegionFileCache(int entryCount) {
+        this.entryCount = entryCount;
+    }
+
+    /**
+     * @return the opened region file, which the caller has to close, or null if there is no such file.
+     */
+    public synchronized RegionFile getForReading(Path path) throws IOException {
+        RegionFile regionFile = openFiles.get(path);
+        if (regionFile == null) {
+            if (!Files.isRegularFile(path)) {
+                return null;
+            }
+            regionFile = new RegionFile(path, entryCount, false);
+            openFiles.put(path, regionFile);
+        }
+        regionFile.retain();
+        return regionFile;
+    }
+
+    /**
+     * @return the region file opened in write mode, which the caller has to close. The file gets created if it does
+     * not exist yet.
+     */
+    public synchronized RegionFile getForWriting(Path path) throws IOException {
+        RegionFile regionFile = openFiles.get(path);
+        if (regionFile != null && !regionFile.isWritable()) {
+            // Readers that still use the read only file keep it open until they are done
+            regionFile.close();
+            openFiles.remove(path);
+            regionFile = null;
+        }
+        if (regionFile == null) {
+            regionFile = new RegionFile(path, entryCount, true);
+            openFiles.put(path, regionFile);
+        }
+        regionFile.retain();
+        return regionFile;
+    }
+
+    /**
+     * Closes all open region files once their current holders are done. They will be reopened on demand. Must be
+     * called before region files get deleted or moved, as mapped files can't be deleted on some platforms.
+     */
+    public synchronized void closeAll() {
+        for (Map.Entry<Path, RegionFile> entry : openFiles.entrySet()) {
+            try {
+                entry.getValue().close();
+            } catch (IOException e) {
+                logger.error("Failed to close region file {}", entry.getKey(), e);
+            }
+        }
+        openFiles.clear();
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2015 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.persistence.internal;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+/**
+ * A file that contains the entries of a {@link RegionFile} that got modified by a save transaction.
+ * <br><br>
+ * Save transactions write these deltas instead of whole region files. When the changes of the save transaction get
+ * merged, the deltas get written into the region files. Applying a delta twice has no additional effect, so an
+ * interrupted merge can simply be repeated.
+ */
+public final class RegionFileDelta {
+    private static final int MAGIC_NUMBER = 0x54524444;
+
+    private RegionFileDelta() {
+    }
+
+    /**
+     * @param entries the new data of the region file entries, indexed by entry index.
+     */
+    public static void write(Path path, Map<Integer, byte[]> entries) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)))) {
+            out.writeInt(MAGIC_NUMBER);
+            out.writeInt(entries.size());
+            for (Map.Entry<Integer, byte[]> entry : entries.entrySet()) {
+                out.writeInt(entry.getKey());
+                out.writeInt(entry.getValue().length);
+                out.write(entry.getValue());
+            }
+        }
+    }
+
+    public static void apply(Path path, RegionFile regionFile) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readInt() != MAGIC_NUMBER) {
+                throw new IOException("File " + path + " is not a region file delta");
+            }
+            int entryCount = in.readInt();
+            for (int i = 0; i < entryCount; i++) {
+                int index = in.readInt();
+                byte[] data = new byte[in.readInt()];
+                in.readFully(data);
+                regionFile.write(index, data);
+            }
+        }
+        regionFile.flush();
+    }
+}
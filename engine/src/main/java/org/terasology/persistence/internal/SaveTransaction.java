@@ -20,15 +20,16 @@
 import com.google.common.collect.Maps;
 import gnu.trove.procedure.TLongObjectProcedure;
 import gnu.trove.procedure.TLongProcedure;
+import gnu.trove.set.TLongSet;
+import gnu.trove.set.hash.TLongHashSet;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.terasology.entitySystem.Component;
 import org.terasology.entitySystem.entity.EntityRef;
 import org.terasology.entitySystem.entity.internal.EngineEntityManager;
+import org.terasology.entitySystem.prefab.Prefab;
 import org.terasology.game.GameManifest;
-import org.terasology.logic.location.LocationComponent;
-import org.terasology.math.ChunkMath;
-import org.terasology.math.geom.Vector3f;
+import org.terasology.logic.location.internal.LocatedEntityIndex;
 import org.terasology.math.geom.Vector3i;
 import org.terasology.network.ClientComponent;
 import org.terasology.protobuf.EntityData;
@@ -37,6 +38,7 @@
 
 import java.io.BufferedOutputStream;
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.io.OutputStream;
 import java.nio.file.AccessDeniedException;
 import java.nio.file.AtomicMoveNotSupportedException;
@@ -55,7 +57,12 @@
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 import java.util.concurrent.locks.Lock;
+import java.util.function.Consumer;
 
 /**
  * Task that writes a previously created memory snapshot of the game to the disk.
@@ -67,10 +74,13 @@
 public class SaveTransaction extends AbstractTask {
     private static final Logger logger = LoggerFactory.getLogger(SaveTransaction.class);
 
+    private static final int CHUNK_DICTIONARY_SAMPLES = 32;
+
     private static final ImmutableMap<String, String> CREATE_ZIP_OPTIONS = ImmutableMap.of("create", "true", "encoding", "UTF-8");
     private final GameManifest gameManifest;
     private final Lock worldDirectoryWriteLock;
     private final EngineEntityManager privateEntityManager;
+    private final LocatedEntityIndex privateEntityIndex;
     private final EntitySetDeltaRecorder deltaToSave;
     private volatile SaveTransactionResult result;
 
@@ -80,38 +90,55 @@ public class SaveTransaction extends AbstractTask {
     private final Map<Vector3i, CompressedChunkBuilder> unloadedChunks;
     private final Map<Vector3i, ChunkImpl> loadedChunks;
     private final GlobalStoreBuilder globalStoreBuilder;
+    private final EntityJournal entityJournal;
 
     // processed data:
     private EntityData.GlobalStore globalStore;
+    private EntityJournal.Batch entityJournalBatch;
+    private TLongSet globalEntityIds;
     private Map<String, EntityData.PlayerStore> allPlayers;
     private Map<Vector3i, CompressedChunkBuilder> allChunks;
 
 
     // Save parameters:
     private final boolean storeChunksInZips;
+    private final boolean storeChunksInRegionFiles;
+    private final int chunkEncodingThreads;
+    private final Consumer<byte[]> chunkDictionaryListener;
+    private final ChunkCodec chunkCodec;
 
     // utility classes for saving:
     private final StoragePathProvider storagePathProvider;
     private final SaveTransactionHelper saveTransactionHelper;
 
 
-    public SaveTransaction(EngineEntityManager privateEntityManager, EntitySetDeltaRecorder deltaToSave,
+    public SaveTransaction(EngineEntityManager privateEntityManager, LocatedEntityIndex privateEntityIndex,
+                           EntitySetDeltaRecorder deltaToSave,
                            Map<String, EntityData.PlayerStore> unloadedPlayers,
                            Map<String, PlayerStoreBuilder> loadedPlayers, GlobalStoreBuilder globalStoreBuilder,
-                           Map<Vector3i, CompressedChunkBuilder> unloadedChunks, Map<Vector3i, ChunkImpl> loadedChunks,
-                           GameManifest gameManifest, boolean storeChunksInZips,
-                           StoragePathProvider storagePathProvider, Lock worldDirectoryWriteLock) {
+                           EntityJournal entityJournal, Map<Vector3i, CompressedChunkBuilder> unloadedChunks,
+                           Map<Vector3i, ChunkImpl> loadedChunks, GameManifest gameManifest, ChunkCodec chunkCodec,
+                           Consumer<byte[]> chunkDictionaryListener,
+                           boolean storeChunksInZips, boolean storeChunksInRegionFiles, int chunkEncodingThreads,
+                           StoragePathProvider storagePathProvider, RegionFileCache regionFileCache,
+                           Lock worldDirectoryWriteLock) {
         this.privateEntityManager = privateEntityManager;
+        this.privateEntityIndex = privateEntityIndex;
         this.deltaToSave = deltaToSave;
         this.unloadedPlayers = unloadedPlayers;
         this.loadedPlayers = loadedPlayers;
         this.unloadedChunks = unloadedChunks;
         this.loadedChunks = loadedChunks;
         this.globalStoreBuilder = globalStoreBuilder;
+        this.entityJournal = entityJournal;
         this.gameManifest = gameManifest;
+        this.chunkCodec = chunkCodec;
+        this.chunkDictionaryListener = chunkDictionaryListener;
         this.storeChunksInZips = storeChunksInZips;
+        this.storeChunksInRegionFiles = storeChunksInRegionFiles;
+        this.chunkEncodingThreads = chunkEncodingThreads;
         this.storagePathProvider = storagePathProvider;
-        this.saveTransactionHelper = new SaveTransactionHelper(storagePathProvider);
+        this.saveTransactionHelper = new SaveTransactionHelper(storagePathProvider, regionFileCache);
         this.worldDirectoryWriteLock = worldDirectoryWriteLock;
     }
 
@@ -130,6 +157,8 @@ public void run() {
             saveTransactionHelper.cleanupSaveTransactionDirectory();
             applyDeltaToPrivateEntityManager();
             prepareChunksPlayersAndGlobalStore();
+            trainChunkCompressionDictionaryIfRequested();
+            encodeChunks();
             createSaveTransactionDirectory();
             writePlayerStores();
             writeGlobalStore();
@@ -137,27 +166,91 @@ public void run() {
             saveGameManifest();
             perpareChangesForMerge();
             mergeChanges();
+            recordStoredGlobalEntities();
             result = SaveTransactionResult.createSuccessResult();
             logger.info("Save game finished");
         } catch (IOException | RuntimeException t) {
             logger.error("Save game creation failed", t);
+            if (entityJournal != null) {
+                entityJournal.reset();
+            }
             result = SaveTransactionResult.createFailureResult(t);
         }
     }
 
+    /**
+     * Trains a chunk compression dictionary from the loaded chunks if a listener for it got specified. The chunks of
+     * this save get compressed with it and the game manifest refers to it.
+     * <br><br>
+     * The samples are the chunk stores encoded from the snapshots, which get compressed with the new codec afterwards.
+     */
+    private void trainChunkCompressionDictionaryIfRequested() {
+        if (chunkDictionaryListener == null || loadedChunks.size() < CHUNK_DICTIONARY_SAMPLES) {
+            return;
+        }
+        List<byte[]> samples = Lists.newArrayListWithCapacity(CHUNK_DICTIONARY_SAMPLES);
+        for (Vector3i chunkPos : loadedChunks.keySet()) {
+            samples.add(allChunks.get(chunkPos).buildUncompressedChunk());
+            if (samples.size() == CHUNK_DICTIONARY_SAMPLES) {
+                break;
+            }
+        }
+        byte[] dictionary = ChunkDictionaryTrainer.train(samples);
+        if (dictionary.length > 0) {
+            logger.info("Compressing chunks with a dictionary of {} bytes from now on", dictionary.length);
+            ChunkCodec dictionaryCodec = new DeflateChunkCodec(dictionary);
+            for (Vector3i chunkPos : loadedChunks.keySet()) {
+                allChunks.get(chunkPos).setCodec(dictionaryCodec);
+            }
+            gameManifest.setChunkCompressionDictionary(dictionary);
+            chunkDictionaryListener.accept(dictionary);
+        }
+    }
+
     private void prepareChunksPlayersAndGlobalStore() {
         /**
          * Currently loaded persistent entities without owner that have not been saved yet.
          */
         Set<EntityRef> unsavedEntities = new HashSet<>();
+        Set<Prefab> prefabs = new HashSet<>();
         for (EntityRef entity : privateEntityManager.getAllEntities()) {
             if (entity.isPersistent()) {
                 unsavedEntities.add(entity);
+                Prefab prefab = entity.getParentPrefab();
+                if (prefab != null) {
+                    prefabs.add(prefab);
+                }
             }
         }
         preparePlayerStores(unsavedEntities);
         prepareCompressedChunkBuilders(unsavedEntities);
-        this.globalStore = globalStoreBuilder.build(privateEntityManager, unsavedEntities);
+        globalEntityIds = new TLongHashSet();
+        for (EntityRef entity : unsavedEntities) {
+            globalEntityIds.add(entity.getId());
+        }
+        if (entityJournal == null || entityJournal.isCompactionDue()) {
+            this.globalStore = globalStoreBuilder.build(privateEntityManager, unsavedEntities);
+        } else {
+            this.entityJournalBatch = globalStoreBuilder.buildJournalBatch(privateEntityManager, unsavedEntities,
+                    prefabs, getChangedEntityIds(), entityJournal);
+        }
+    }
+
+    private TLongSet getChangedEntityIds() {
+        TLongSet changedEntityIds = new TLongHashSet(deltaToSave.getEntityDeltas().keySet());
+        changedEntityIds.addAll(deltaToSave.getDestroyedEntities());
+        return changedEntityIds;
+    }
+
+    private void recordStoredGlobalEntities() {
+        if (entityJournal == null) {
+            return;
+        }
+        if (entityJournalBatch != null) {
+            entityJournal.recordBatch(globalEntityIds, entityJournalBatch);
+        } else {
+            entityJournal.recordCompaction(globalEntityIds, globalStore);
+        }
     }
 
 
@@ -178,7 +271,7 @@ private void prepareCompressedChunkBuilders(Set<EntityRef> unsavedEntities) {
             ChunkImpl chunk = chunkEntry.getValue();
             unsavedEntities.removeAll(entitiesToStore);
             CompressedChunkBuilder compressedChunkBuilder = new CompressedChunkBuilder(privateEntityManager, chunk,
-                    entitiesToStore, false);
+                    entitiesToStore, false, chunkCodec);
             unsavedEntities.removeAll(compressedChunkBuilder.getStoredEntities());
             allChunks.put(chunkEntry.getKey(), compressedChunkBuilder);
         }
@@ -204,27 +297,26 @@ private void preparePlayerStores(Set<EntityRef> unsavedEntities) {
         }
     }
 
+    /**
+     * Entities get assigned to chunks by their world position rounded down (see {@link LocatedEntityIndex}). Entities
+     * with negative coordinates that previously got truncated towards zero are thus stored with the chunk that
+     * contains them now, which is the chunk that also gets them when it is deactivated.
+     */
     private Map<Vector3i, Collection<EntityRef>> createChunkPosToUnsavedOwnerLessEntitiesMap() {
         Map<Vector3i, Collection<EntityRef>> chunkPosToEntitiesMap = Maps.newHashMap();
-        for (EntityRef entity : privateEntityManager.getEntitiesWith(LocationComponent.class)) {
-            /*
-             * Note: Entities with owners get saved with the owner. Entities that are always relevant don't get stored
-             * in chunk as the chunk is not always loaded
-             */
-            if (entity.isPersistent() && !entity.getOwner().exists() && !entity.hasComponent(ClientComponent.class)
-                    && !entity.isAlwaysRelevant()) {
-                LocationComponent locationComponent = entity.getComponent(LocationComponent.class);
-                if (locationComponent != null) {
-                    Vector3f loc = locationComponent.getWorldPosition();
-                    Vector3i chunkPos = ChunkMath.calcChunkPos((int) loc.x, (int) loc.y, (int) loc.z);
-                    Collection<EntityRef> collection = chunkPosToEntitiesMap.get(chunkPos);
-                    if (collection == null) {
-                        collection = Lists.newArrayList();
-                        chunkPosToEntitiesMap.put(chunkPos, collection);
-                    }
+        for (Vector3i chunkPos : loadedChunks.keySet()) {
+            Collection<EntityRef> collection = Lists.newArrayList();
+            for (EntityRef entity : privateEntityIndex.getEntitiesInChunk(chunkPos)) {
+                /*
+                 * Note: Entities with owners get saved with the owner. Entities that are always relevant don't get
+                 * stored in chunk as the chunk is not always loaded
+                 */
+                if (entity.isPersistent() && !entity.getOwner().exists() && !entity.hasComponent(ClientComponent.class)
+                        && !entity.isAlwaysRelevant()) {
                     collection.add(entity);
                 }
             }
+            chunkPosToEntitiesMap.put(chunkPos, collection);
         }
         return chunkPosToEntitiesMap;
     }
@@ -313,6 +405,34 @@ public boolean execute(long entityId) {
         });
     }
 
+    /**
+     * Encodes and compresses the chunks on a pool of threads. The builders keep the results, so the chunks can
+     * afterwards be written one after the other, in the same order as before.
+     */
+    private void encodeChunks() throws IOException {
+        int threads = Math.min(chunkEncodingThreads, allChunks.size());
+        if (threads <= 1) {
+            return;
+        }
+        List<Callable<byte[]>> encodingTasks = Lists.newArrayListWithCapacity(allChunks.size());
+        for (CompressedChunkBuilder compressedChunkBuilder : allChunks.values()) {
+            encodingTasks.add(compressedChunkBuilder::buildEncodedChunk);
+        }
+        ForkJoinPool encodingPool = new ForkJoinPool(threads);
+        try {
+            for (Future<byte[]> encodedChunk : encodingPool.invokeAll(encodingTasks)) {
+                encodedChunk.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while encoding chunks");
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Failed to encode chunk", e.getCause());
+        } finally {
+            encodingPool.shutdownNow();
+        }
+    }
+
     private void createSaveTransactionDirectory() throws IOException {
         Path directory = storagePathProvider.getUnfinishedSaveTransactionPath();
         Files.createDirectories(directory);
@@ -360,18 +480,27 @@ private void writePlayerStores() throws IOException {
     }
 
     private void writeGlobalStore() throws IOException {
+        if (entityJournalBatch != null) {
+            EntityJournal.write(storagePathProvider.getEntityJournalDeltaTempPath(), entityJournalBatch);
+            return;
+        }
         Path path = storagePathProvider.getGlobalEntityStoreTempPath();
         try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(path))) {
             globalStore.writeTo(out);
         }
+        // The changes in the journal are part of the new global store, so it gets replaced by an empty one:
+        if (Files.exists(storagePathProvider.getEntityJournalPath())) {
+            EntityJournal.writeEmpty(storagePathProvider.getEntityJournalTempPath());
+        }
     }
 
     private void writeChunkStores() throws IOException {
-        FileSystemProvider zipProvider = getZipFileSystemProvider();
-
         Path chunksPath = storagePathProvider.getWorldTempPath();
         Files.createDirectories(chunksPath);
-        if (storeChunksInZips) {
+        if (storeChunksInRegionFiles) {
+            writeChunkRegionDeltas();
+        } else if (storeChunksInZips) {
+            FileSystemProvider zipProvider = getZipFileSystemProvider();
             Map<Vector3i, FileSystem> newChunkZips = Maps.newHashMap();
             for (Map.Entry<Vector3i, CompressedChunkBuilder> entry : allChunks.entrySet()) {
                 Vector3i chunkPos = entry.getKey();
@@ -426,6 +555,28 @@ public FileVisitResult visitFile(Path file, BasicFileAttributes attrs)
         }
     }
 
+    /**
+     * Writes only the chunks of this transaction, grouped by region file. The deltas get written into the region
+     * files when the changes get merged.
+     */
+    private void writeChunkRegionDeltas() throws IOException {
+        Map<Vector3i, Map<Integer, byte[]>> regionDeltas = Maps.newHashMap();
+        for (Map.Entry<Vector3i, CompressedChunkBuilder> entry : allChunks.entrySet()) {
+            Vector3i chunkPos = entry.getKey();
+            Vector3i chunkRegionPos = storagePathProvider.getChunkRegionPosition(chunkPos);
+            Map<Integer, byte[]> regionDelta = regionDeltas.get(chunkRegionPos);
+            if (regionDelta == null) {
+                regionDelta = Maps.newTreeMap();
+                regionDeltas.put(chunkRegionPos, regionDelta);
+            }
+            regionDelta.put(storagePathProvider.getChunkRegionIndex(chunkPos), entry.getValue().buildEncodedChunk());
+        }
+        for (Map.Entry<Vector3i, Map<Integer, byte[]>> regionDeltaEntry : regionDeltas.entrySet()) {
+            Path deltaPath = storagePathProvider.getChunkRegionDeltaTempPath(regionDeltaEntry.getKey());
+            RegionFileDelta.write(deltaPath, regionDeltaEntry.getValue());
+        }
+    }
+
     private FileSystemProvider getZipFileSystemProvider() throws IOException {
         // This is a little bit of a hack to get around a JAVA 7 bug (hopefully fixed in JAVA 8
         FileSystemProvider zipProvider = null;
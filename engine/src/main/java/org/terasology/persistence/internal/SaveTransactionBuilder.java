@@ -18,12 +18,14 @@
 import com.google.common.collect.Maps;
 import org.terasology.entitySystem.entity.internal.EngineEntityManager;
 import org.terasology.game.GameManifest;
+import org.terasology.logic.location.internal.LocatedEntityIndex;
 import org.terasology.math.geom.Vector3i;
 import org.terasology.protobuf.EntityData;
 import org.terasology.world.chunks.internal.ChunkImpl;
 
 import java.util.Map;
 import java.util.concurrent.locks.Lock;
+import java.util.function.Consumer;
 
 /**
  * Utility class for creating {@link SaveTransaction} instances.
@@ -33,23 +35,36 @@
 class SaveTransactionBuilder {
     private final Lock worldDirectoryWriteLock;
     private final EngineEntityManager privateEntityManager;
+    private final LocatedEntityIndex privateEntityIndex;
     private final EntitySetDeltaRecorder deltaToSave;
     private Map<String, EntityData.PlayerStore> unloadedPlayers = Maps.newHashMap();
     private Map<String, PlayerStoreBuilder> loadedPlayers = Maps.newHashMap();
     private Map<Vector3i, CompressedChunkBuilder> unloadedChunks = Maps.newHashMap();
     private Map<Vector3i, ChunkImpl> loadedChunks = Maps.newHashMap();
     private GlobalStoreBuilder globalStoreBuilder;
+    private EntityJournal entityJournal;
+    private ChunkCodec chunkCodec;
+    private Consumer<byte[]> chunkDictionaryListener;
     private final boolean storeChunksInZips;
+    private final boolean storeChunksInRegionFiles;
+    private final int chunkEncodingThreads;
     private final StoragePathProvider storagePathProvider;
+    private final RegionFileCache regionFileCache;
     private GameManifest gameManifest;
 
-    SaveTransactionBuilder(EngineEntityManager privateEntityManager, EntitySetDeltaRecorder deltaToSave,
-                           boolean storeChunksInZips, StoragePathProvider storagePathProvider,
+    SaveTransactionBuilder(EngineEntityManager privateEntityManager, LocatedEntityIndex privateEntityIndex,
+                           EntitySetDeltaRecorder deltaToSave,
+                           boolean storeChunksInZips, boolean storeChunksInRegionFiles, int chunkEncodingThreads,
+                           StoragePathProvider storagePathProvider, RegionFileCache regionFileCache,
                            Lock worldDirectoryWriteLock) {
         this.privateEntityManager = privateEntityManager;
+        this.privateEntityIndex = privateEntityIndex;
         this.deltaToSave = deltaToSave;
         this.storeChunksInZips = storeChunksInZips;
+        this.storeChunksInRegionFiles = storeChunksInRegionFiles;
+        this.chunkEncodingThreads = chunkEncodingThreads;
         this.storagePathProvider = storagePathProvider;
+        this.regionFileCache = regionFileCache;
         this.worldDirectoryWriteLock = worldDirectoryWriteLock;
     }
 
@@ -65,6 +80,27 @@ public void setGlobalStoreBuilder(GlobalStoreBuilder globalStoreBuilder) {
         this.globalStoreBuilder = globalStoreBuilder;
     }
 
+    /**
+     * @param entityJournal the journal to append the changes of the global store to, or null if the global store
+     *                      should be written completely.
+     */
+    public void setEntityJournal(EntityJournal entityJournal) {
+        this.entityJournal = entityJournal;
+    }
+
+    public void setChunkCodec(ChunkCodec chunkCodec) {
+        this.chunkCodec = chunkCodec;
+    }
+
+    /**
+     * Lets the save transaction train a chunk compression dictionary from the loaded chunks.
+     *
+     * @param listener gets called on the saving thread with the new dictionary, if one could be trained.
+     */
+    public void trainChunkCompressionDictionary(Consumer<byte[]> listener) {
+        this.chunkDictionaryListener = listener;
+    }
+
     public void addUnloadedChunk(final Vector3i chunkPosition, final CompressedChunkBuilder b) {
         unloadedChunks.put(chunkPosition, b);
     }
@@ -75,9 +111,10 @@ public void addLoadedChunk(final Vector3i chunkPosition, final ChunkImpl chunk)
     }
 
     public SaveTransaction build() {
-        return new SaveTransaction(privateEntityManager, deltaToSave, unloadedPlayers, loadedPlayers, globalStoreBuilder,
-                unloadedChunks, loadedChunks, gameManifest, storeChunksInZips, storagePathProvider,
-                worldDirectoryWriteLock);
+        return new SaveTransaction(privateEntityManager, privateEntityIndex, deltaToSave, unloadedPlayers, loadedPlayers,
+                globalStoreBuilder, entityJournal, unloadedChunks, loadedChunks, gameManifest, chunkCodec,
+                chunkDictionaryListener, storeChunksInZips, storeChunksInRegionFiles, chunkEncodingThreads,
+                storagePathProvider, regionFileCache, worldDirectoryWriteLock);
 
     }
 
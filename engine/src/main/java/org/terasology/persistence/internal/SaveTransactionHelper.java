@@ -35,9 +35,11 @@
 public class SaveTransactionHelper {
     private static final Logger logger = LoggerFactory.getLogger(SaveTransactionHelper.class);
     private final StoragePathProvider storagePathProvider;
+    private final RegionFileCache regionFileCache;
 
-    public SaveTransactionHelper(StoragePathProvider storagePathProvider) {
+    public SaveTransactionHelper(StoragePathProvider storagePathProvider, RegionFileCache regionFileCache) {
         this.storagePathProvider = storagePathProvider;
+        this.regionFileCache = regionFileCache;
     }
 
     public void cleanupSaveTransactionDirectory() throws IOException {
@@ -65,6 +67,10 @@ public FileVisitResult postVisitDirectory(Path directory, IOException exc) throw
      * without any file corruption when the file system supports atomic moves.
      * <br><br>
      * The write lock for the save directory should be acquired before this method gets called.
+     * <br><br>
+     * Chunk region deltas get written into their region files instead of being moved. This is safe to repeat too,
+     * as the delta gets only deleted after it has been completely applied. The same applies to the delta of the
+     * entity journal, which gets appended to the journal.
      */
     public void mergeChanges() throws IOException {
         final Path sourceDirectory = storagePathProvider.getUnmergedChangesPath();
@@ -85,6 +91,20 @@ public FileVisitResult preVisitDirectory(Path sourceSubDir, BasicFileAttributes
             @Override
             public FileVisitResult visitFile(Path sourcePath, BasicFileAttributes attrs) throws IOException {
                 Path targetPath = targetDirectory.resolve(sourceDirectory.relativize(sourcePath));
+                if (storagePathProvider.isChunkRegionDeltaPath(sourcePath)) {
+                    // Region files get modified in place instead of being replaced:
+                    Path regionPath = storagePathProvider.getChunkRegionPathOfDelta(targetPath);
+                    try (RegionFile regionFile = regionFileCache.getForWriting(regionPath)) {
+                        RegionFileDelta.apply(sourcePath, regionFile);
+                    }
+                    Files.delete(sourcePath);
+                    return FileVisitResult.CONTINUE;
+                }
+                if (storagePathProvider.isEntityJournalDeltaPath(sourcePath)) {
+                    EntityJournal.append(sourcePath, storagePathProvider.getEntityJournalPath());
+                    Files.delete(sourcePath);
+                    return FileVisitResult.CONTINUE;
+                }
                 try {
                     // Delete file, as behavior of atomic move is undefined if target file exists:
                     Files.deleteIfExists(targetPath);
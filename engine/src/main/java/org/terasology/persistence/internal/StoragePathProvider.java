@@ -29,9 +29,15 @@ public class StoragePathProvider {
     private static final String WORLDS_PATH = "worlds";
     private static final String PLAYER_STORE_EXTENSION = ".player";
     private static final String GLOBAL_ENTITY_STORE = "global.dat";
+    private static final String ENTITY_JOURNAL = "global.journal";
+    private static final String ENTITY_JOURNAL_DELTA = "global.journal.delta";
     private static final String UNFINISHED_SAVE_TRANSACTION = "unfinished-save-transaction";
     private static final String UNMERGED_CHANGED = "unmerged-changes";
+    private static final String CHUNK_ZIP_EXTENSION = ".chunks.zip";
+    private static final String CHUNK_REGION_EXTENSION = ".chunks.region";
+    private static final String CHUNK_REGION_DELTA_EXTENSION = ".chunks.region.delta";
     private static final int CHUNK_ZIP_DIM = 32;
+    private static final int CHUNK_REGION_DIM = 16;
 
     private final Path storagePathDirectory;
     private final Path playersPath;
@@ -99,13 +105,37 @@ public Path getGlobalEntityStoreTempPath() {
         return unfinishedSaveTransactionPath.resolve(GLOBAL_ENTITY_STORE);
     }
 
+    public Path getEntityJournalPath() {
+        return storagePathDirectory.resolve(ENTITY_JOURNAL);
+    }
+
+    public Path getEntityJournalTempPath() {
+        return unfinishedSaveTransactionPath.resolve(ENTITY_JOURNAL);
+    }
+
+    /**
+     * @return the path of the file that contains the changes of the global store made by the save transaction. The
+     * content of that file gets appended to the entity journal when the changes get merged.
+     */
+    public Path getEntityJournalDeltaTempPath() {
+        return unfinishedSaveTransactionPath.resolve(ENTITY_JOURNAL_DELTA);
+    }
+
+    public boolean isEntityJournalDeltaPath(Path path) {
+        return path.getFileName().toString().equals(ENTITY_JOURNAL_DELTA);
+    }
+
     public String getChunkFilename(Vector3i pos) {
         return String.format("%d.%d.%d.chunk", pos.x, pos.y, pos.z);
     }
 
 
     private String getChunkZipFilename(Vector3i pos) {
-        return String.format("%d.%d.%d.chunks.zip", pos.x, pos.y, pos.z);
+        return String.format("%d.%d.%d" + CHUNK_ZIP_EXTENSION, pos.x, pos.y, pos.z);
+    }
+
+    public boolean isChunkZipPath(Path path) {
+        return path.getFileName().toString().endsWith(CHUNK_ZIP_EXTENSION);
     }
 
     public Vector3i getChunkZipPosition(Vector3i chunkPos) {
@@ -123,6 +153,75 @@ public Vector3i getChunkZipPosition(Vector3i chunkPos) {
         return result;
     }
 
+    public Path getChunkRegionPath(Vector3i chunkRegionPos) {
+        return worldPath.resolve(getChunkRegionFilename(chunkRegionPos));
+    }
+
+    /**
+     * @return the path of the file that contains the chunks of the given region that got modified by the save
+     * transaction. The content of that file gets written into the region file when the changes get merged.
+     */
+    public Path getChunkRegionDeltaTempPath(Vector3i chunkRegionPos) {
+        return getWorldTempPath().resolve(String.format("%d.%d.%d" + CHUNK_REGION_DELTA_EXTENSION,
+                chunkRegionPos.x, chunkRegionPos.y, chunkRegionPos.z));
+    }
+
+    public boolean isChunkRegionDeltaPath(Path path) {
+        return path.getFileName().toString().endsWith(CHUNK_REGION_DELTA_EXTENSION);
+    }
+
+    /**
+     * @param deltaPath a path as returned by {@link #getChunkRegionDeltaTempPath(Vector3i)} relocated to any
+     *                  directory.
+     * @return the path of the region file in the same directory, that the given delta belongs to.
+     */
+    public Path getChunkRegionPathOfDelta(Path deltaPath) {
+        String deltaFilename = deltaPath.getFileName().toString();
+        String baseName = deltaFilename.substring(0, deltaFilename.length() - CHUNK_REGION_DELTA_EXTENSION.length());
+        String regionFilename = baseName + CHUNK_REGION_EXTENSION;
+        return deltaPath.resolveSibling(regionFilename);
+    }
+
+    private String getChunkRegionFilename(Vector3i pos) {
+        return String.format("%d.%d.%d" + CHUNK_REGION_EXTENSION, pos.x, pos.y, pos.z);
+    }
+
+    public Vector3i getChunkRegionPosition(Vector3i chunkPos) {
+        return new Vector3i(Math.floorDiv(chunkPos.x, CHUNK_REGION_DIM), Math.floorDiv(chunkPos.y, CHUNK_REGION_DIM),
+                Math.floorDiv(chunkPos.z, CHUNK_REGION_DIM));
+    }
+
+    /**
+     * @return the index of the chunk within the region file that contains it.
+     */
+    public int getChunkRegionIndex(Vector3i chunkPos) {
+        Vector3i regionPos = getChunkRegionPosition(chunkPos);
+        int x = chunkPos.x - regionPos.x * CHUNK_REGION_DIM;
+        int y = chunkPos.y - regionPos.y * CHUNK_REGION_DIM;
+        int z = chunkPos.z - regionPos.z * CHUNK_REGION_DIM;
+        return x + CHUNK_REGION_DIM * (y + CHUNK_REGION_DIM * z);
+    }
+
+    public int getChunkRegionEntryCount() {
+        return CHUNK_REGION_DIM * CHUNK_REGION_DIM * CHUNK_REGION_DIM;
+    }
+
+    /**
+     * @param chunkFilename a file name as returned by {@link #getChunkFilename(Vector3i)}.
+     * @return the chunk position encoded in the file name or null if it isn't a valid chunk file name.
+     */
+    public Vector3i getChunkPositionFromFilename(String chunkFilename) {
+        String[] parts = chunkFilename.split("\\.");
+        if (parts.length != 4 || !"chunk".equals(parts[3])) {
+            return null;
+        }
+        try {
+            return new Vector3i(Integer.parseInt(parts[0]), Integer.parseInt(parts[1]), Integer.parseInt(parts[2]));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
     public Path getChunkPath(Vector3i chunkPos) {
         return worldPath.resolve(getChunkFilename(chunkPos));
     }
@@ -132,6 +231,10 @@ public Path getChunkTempPath(Vector3i chunkPos) {
     }
 
 
+    public Path getGameManifestPath() {
+        return storagePathDirectory.resolve(GameManifest.DEFAULT_FILE_NAME);
+    }
+
     public Path getGameManifestTempPath() {
         return unfinishedSaveTransactionPath.resolve(GameManifest.DEFAULT_FILE_NAME);
     }
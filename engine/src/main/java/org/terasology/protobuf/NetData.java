@@ -403,6 +403,30 @@ org.terasology.protobuf.NetData.ModuleRequestOrBuilder getModuleRequestOrBuilder
      * <code>optional .HandshakeVerification handshakeVerification = 103;</code>
      */
     org.terasology.protobuf.NetData.HandshakeVerificationOrBuilder getHandshakeVerificationOrBuilder();
+
+    /**
+     * <code>repeated .ChunkBlockChangesMessage chunkBlockChanges = 23;</code>
+     */
+    java.util.List<org.terasology.protobuf.NetData.ChunkBlockChangesMessage> 
+        getChunkBlockChangesList();
+    /**
+     * <code>repeated .ChunkBlockChangesMessage chunkBlockChanges = 23;</code>
+     */
+    org.terasology.protobuf.NetData.ChunkBlockChangesMessage getChunkBlockChanges(int index);
+    /**
+     * <code>repeated .ChunkBlockChangesMessage chunkBlockChanges = 23;</code>
+     */
+    int getChunkBlockChangesCount();
+    /**
+     * <code>repeated .ChunkBlockChangesMessage chunkBlockChanges = 23;</code>
+     */
+    java.util.List<? extends org.terasology.protobuf.NetData.ChunkBlockChangesMessageOrBuilder> 
+        getChunkBlockChangesOrBuilderList();
+    /**
+     * <code>repeated .ChunkBlockChangesMessage chunkBlockChanges = 23;</code>
+     */
+    org.terasology.protobuf.NetData.ChunkBlockChangesMessageOrBuilder getChunkBlockChangesOrBuilder(
+        int index);
   }
   /**
    * Protobuf type {@code NetMessage}
@@ -672,6 +696,14 @@ private NetMessage(
               bitField0_ |= 0x00000400;
               break;
             }
+            case 186: {
+              if (!((mutable_bitField0_ & 0x00200000) == 0x00200000)) {
+                chunkBlockChanges_ = new java.util.ArrayList<org.terasology.protobuf.NetData.ChunkBlockChangesMessage>();
+                mutable_bitField0_ |= 0x00200000;
+              }
+              chunkBlockChanges_.add(input.readMessage(org.terasology.protobuf.NetData.ChunkBlockChangesMessage.PARSER, extensionRegistry));
+              break;
+            }
           }
         }
       } catch (com.google.protobuf.InvalidProtocolBufferException e) {
@@ -710,6 +742,9 @@ private NetMessage(
         if (((mutable_bitField0_ & 0x00002000) == 0x00002000)) {
           moduleRequest_ = java.util.Collections.unmodifiableList(moduleRequest_);
         }
+        if (((mutable_bitField0_ & 0x00200000) == 0x00200000)) {
+          chunkBlockChanges_ = java.util.Collections.unmodifiableList(chunkBlockChanges_);
+        }
         this.unknownFields = unknownFields.build();
         makeExtensionsImmutable();
       }
@@ -1329,6 +1364,41 @@ public org.terasology.protobuf.NetData.HandshakeVerificationOrBuilder getHandsha
       return handshakeVerification_;
     }
 
+    public static final int CHUNKBLOCKCHANGES_FIELD_NUMBER = 23;
+    private java.util.List<org.terasology.protobuf.NetData.ChunkBlockChangesMessage> chunkBlockChanges_;
+    /**
+     * <code>repeated .ChunkBlockChangesMessage chunkBlockChanges = 23;</code>
+     */
+    public java.util.List<org.terasology.protobuf.NetData.ChunkBlockChangesMessage> getChunkBlockChangesList() {
+      return chunkBlockChanges_;
+    }
+    /**
+     * <code>repeated .ChunkBlockChangesMessage chunkBlockChanges = 23;</code>
+     */
+    public java.util.List<? extends org.terasology.protobuf.NetData.ChunkBlockChangesMessageOrBuilder> 
+        getChunkBlockChangesOrBuilderList() {
+      return chunkBlockChanges_;
+    }
+    /**
+     * <code>repeated .ChunkBlockChangesMessage chunkBlockChanges = 23;</code>
+     */
+    public int getChunkBlockChangesCount() {
+      return chunkBlockChanges_.size();
+    }
+    /**
+     * <code>repeated .ChunkBlockChangesMessage chunkBlockChanges = 23;</code>
+     */
+    public org.terasology.protobuf.NetData.ChunkBlockChangesMessage getChunkBlockChanges(int index) {
+      return chunkBlockChanges_.get(index);
+    }
+    /**
+     * <code>repeated .ChunkBlockChangesMessage chunkBlockChanges = 23;</code>
+     */
+    public org.terasology.protobuf.NetData.ChunkBlockChangesMessageOrBuilder getChunkBlockChangesOrBuilder(
+        int index) {
+      return chunkBlockChanges_.get(index);
+    }
+
     private void initFields() {
       chunkInfo_ = java.util.Collections.emptyList();
       invalidateChunk_ = java.util.Collections.emptyList();
@@ -1351,6 +1421,7 @@ private void initFields() {
       newIdentityRequest_ = org.terasology.protobuf.NetData.NewIdentityRequest.getDefaultInstance();
       provisionIdentity_ = org.terasology.protobuf.NetData.ProvisionIdentity.getDefaultInstance();
       handshakeVerification_ = org.terasology.protobuf.NetData.HandshakeVerification.getDefaultInstance();
+      chunkBlockChanges_ = java.util.Collections.emptyList();
     }
     private byte memoizedIsInitialized = -1;
     public final boolean isInitialized() {
@@ -1478,6 +1549,12 @@ public final boolean isInitialized() {
           return false;
         }
       }
+      for (int i = 0; i < getChunkBlockChangesCount(); i++) {
+        if (!getChunkBlockChanges(i).isInitialized()) {
+          memoizedIsInitialized = 0;
+          return false;
+        }
+      }
       if (!extensionsAreInitialized()) {
         memoizedIsInitialized = 0;
         return false;
@@ -1543,6 +1620,9 @@ public void writeTo(com.google.protobuf.CodedOutputStream output)
       if (((bitField0_ & 0x00000040) == 0x00000040)) {
         output.writeMessage(22, joinComplete_);
       }
+      for (int i = 0; i < chunkBlockChanges_.size(); i++) {
+        output.writeMessage(23, chunkBlockChanges_.get(i));
+      }
       if (((bitField0_ & 0x00000080) == 0x00000080)) {
         output.writeMessage(100, handshakeHello_);
       }
@@ -1633,6 +1713,10 @@ public int getSerializedSize() {
         size += com.google.protobuf.CodedOutputStream
           .computeMessageSize(22, joinComplete_);
       }
+      for (int i = 0; i < chunkBlockChanges_.size(); i++) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeMessageSize(23, chunkBlockChanges_.get(i));
+      }
       if (((bitField0_ & 0x00000080) == 0x00000080)) {
         size += com.google.protobuf.CodedOutputStream
           .computeMessageSize(100, handshakeHello_);
@@ -1780,6 +1864,7 @@ private void maybeForceBuilderInitialization() {
           getNewIdentityRequestFieldBuilder();
           getProvisionIdentityFieldBuilder();
           getHandshakeVerificationFieldBuilder();
+          getChunkBlockChangesFieldBuilder();
         }
       }
       private static Builder create() {
@@ -1910,6 +1995,12 @@ public Builder clear() {
           handshakeVerificationBuilder_.clear();
         }
         bitField0_ = (bitField0_ & ~0x00100000);
+        if (chunkBlockChangesBuilder_ == null) {
+          chunkBlockChanges_ = java.util.Collections.emptyList();
+          bitField0_ = (bitField0_ & ~0x00200000);
+        } else {
+          chunkBlockChangesBuilder_.clear();
+        }
         return this;
       }
 
@@ -2112,6 +2203,15 @@ public org.terasology.protobuf.NetData.NetMessage buildPartial() {
         } else {
           result.handshakeVerification_ = handshakeVerificationBuilder_.build();
         }
+        if (chunkBlockChangesBuilder_ == null) {
+          if (((bitField0_ & 0x00200000) == 0x00200000)) {
+            chunkBlockChanges_ = java.util.Collections.unmodifiableList(chunkBlockChanges_);
+            bitField0_ = (bitField0_ & ~0x00200000);
+          }
+          result.chunkBlockChanges_ = chunkBlockChanges_;
+        } else {
+          result.chunkBlockChanges_ = chunkBlockChangesBuilder_.build();
+        }
         result.bitField0_ = to_bitField0_;
         onBuilt();
         return result;
@@ -2421,6 +2521,32 @@ public Builder mergeFrom(org.terasology.protobuf.NetData.NetMessage other) {
         if (other.hasHandshakeVerification()) {
           mergeHandshakeVerification(other.getHandshakeVerification());
         }
+        if (chunkBlockChangesBuilder_ == null) {
+          if (!other.chunkBlockChanges_.isEmpty()) {
+            if (chunkBlockChanges_.isEmpty()) {
+              chunkBlockChanges_ = other.chunkBlockChanges_;
+              bitField0_ = (bitField0_ & ~0x00200000);
+            } else {
+              ensureChunkBlockChangesIsMutable();
+              chunkBlockChanges_.addAll(other.chunkBlockChanges_);
+            }
+            onChanged();
+          }
+        } else {
+          if (!other.chunkBlockChanges_.isEmpty()) {
+            if (chunkBlockChangesBuilder_.isEmpty()) {
+              chunkBlockChangesBuilder_.dispose();
+              chunkBlockChangesBuilder_ = null;
+              chunkBlockChanges_ = other.chunkBlockChanges_;
+              bitField0_ = (bitField0_ & ~0x00200000);
+              chunkBlockChangesBuilder_ = 
+                com.google.protobuf.GeneratedMessage.alwaysUseFieldBuilders ?
+                   getChunkBlockChangesFieldBuilder() : null;
+            } else {
+              chunkBlockChangesBuilder_.addAllMessages(other.chunkBlockChanges_);
+            }
+          }
+        }
         this.mergeExtensionFields(other);
         this.mergeUnknownFields(other.getUnknownFields());
         return this;
@@ -2547,6 +2673,12 @@ public final boolean isInitialized() {
             return false;
           }
         }
+        for (int i = 0; i < getChunkBlockChangesCount(); i++) {
+          if (!getChunkBlockChanges(i).isInitialized()) {
+            
+            return false;
+          }
+        }
         if (!extensionsAreInitialized()) {
           
           return false;
@@ -6201,6 +6333,246 @@ public org.terasology.protobuf.NetData.HandshakeVerificationOrBuilder getHandsha
         return handshakeVerificationBuilder_;
       }
 
+      private java.util.List<org.terasology.protobuf.NetData.ChunkBlockChangesMessage> chunkBlockChanges_ =
+        java.util.Collections.emptyList();
+      private void ensureChunkBlockChangesIsMutable() {
+        if (!((bitField0_ & 0x00200000) == 0x00200000)) {
+          chunkBlockChanges_ = new java.util.ArrayList<org.terasology.protobuf.NetData.ChunkBlockChangesMessage>(chunkBlockChanges_);
+          bitField0_ |= 0x00200000;
+         }
+      }
+
+      private com.google.protobuf.RepeatedFieldBuilder<
+          org.terasology.protobuf.NetData.ChunkBlockChangesMessage, org.terasology.protobuf.NetData.ChunkBlockChangesMessage.Builder, org.terasology.protobuf.NetData.ChunkBlockChangesMessageOrBuilder> chunkBlockChangesBuilder_;
+
+      /**
+       * <code>repeated .ChunkBlockChangesMessage chunkBlockChanges = 23;</code>
+       */
+      public java.util.List<org.terasology.protobuf.NetData.ChunkBlockChangesMessage> getChunkBlockChangesList() {
+        if (chunkBlockChangesBuilder_ == null) {
+          return java.util.Collections.unmodifiableList(chunkBlockChanges_);
+        } else {
+          return chunkBlockChangesBuilder_.getMessageList();
+        }
+      }
+      /**
+       * <code>repeated .ChunkBlockChangesMessage chunkBlockChanges = 23;</code>
+       */
+      public int getChunkBlockChangesCount() {
+        if (chunkBlockChangesBuilder_ == null) {
+          return chunkBlockChanges_.size();
+        } else {
+          return chunkBlockChangesBuilder_.getCount();
+        }
+      }
+      /**
+       * <code>repeated .ChunkBlockChangesMessage chunkBlockChanges = 23;</code>
+       */
+      public org.terasology.protobuf.NetData.ChunkBlockChangesMessage getChunkBlockChanges(int index) {
+        if (chunkBlockChangesBuilder_ == null) {
+          return chunkBlockChanges_.get(index);
+        } else {
+          return chunkBlockChangesBuilder_.getMessage(index);
+        }
+      }
+      /**
+       * <code>repeated .ChunkBlockChangesMessage chunkBlockChanges = 23;</code>
+       */
+      public Builder setChunkBlockChanges(
+          int index, org.terasology.protobuf.NetData.ChunkBlockChangesMessage value) {
+        if (chunkBlockChangesBuilder_ == null) {
+          if (value == null) {
+            throw new NullPointerException();
+          }
+          ensureChunkBlockChangesIsMutable();
+          chunkBlockChanges_.set(index, value);
+          onChanged();
+        } else {
+          chunkBlockChangesBuilder_.setMessage(index, value);
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .ChunkBlockChangesMessage chunkBlockChanges = 23;</code>
+       */
+      public Builder setChunkBlockChanges(
+          int index, org.terasology.protobuf.NetData.ChunkBlockChangesMessage.Builder builderForValue) {
+        if (chunkBlockChangesBuilder_ == null) {
+          ensureChunkBlockChangesIsMutable();
+          chunkBlockChanges_.set(index, builderForValue.build());
+          onChanged();
+        } else {
+          chunkBlockChangesBuilder_.setMessage(index, builderForValue.build());
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .ChunkBlockChangesMessage chunkBlockChanges = 23;</code>
+       */
+      public Builder addChunkBlockChanges(org.terasology.protobuf.NetData.ChunkBlockChangesMessage value) {
+        if (chunkBlockChangesBuilder_ == null) {
+          if (value == null) {
+            throw new NullPointerException();
+          }
+          ensureChunkBlockChangesIsMutable();
+          chunkBlockChanges_.add(value);
+          onChanged();
+        } else {
+          chunkBlockChangesBuilder_.addMessage(value);
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .ChunkBlockChangesMessage chunkBlockChanges = 23;</code>
+       */
+      public Builder addChunkBlockChanges(
+          int index, org.terasology.protobuf.NetData.ChunkBlockChangesMessage value) {
+        if (chunkBlockChangesBuilder_ == null) {
+          if (value == null) {
+            throw new NullPointerException();
+          }
+          ensureChunkBlockChangesIsMutable();
+          chunkBlockChanges_.add(index, value);
+          onChanged();
+        } else {
+          chunkBlockChangesBuilder_.addMessage(index, value);
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .ChunkBlockChangesMessage chunkBlockChanges = 23;</code>
+       */
+      public Builder addChunkBlockChanges(
+          org.terasology.protobuf.NetData.ChunkBlockChangesMessage.Builder builderForValue) {
+        if (chunkBlockChangesBuilder_ == null) {
+          ensureChunkBlockChangesIsMutable();
+          chunkBlockChanges_.add(builderForValue.build());
+          onChanged();
+        } else {
+          chunkBlockChangesBuilder_.addMessage(builderForValue.build());
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .ChunkBlockChangesMessage chunkBlockChanges = 23;</code>
+       */
+      public Builder addChunkBlockChanges(
+          int index, org.terasology.protobuf.NetData.ChunkBlockChangesMessage.Builder builderForValue) {
+        if (chunkBlockChangesBuilder_ == null) {
+          ensureChunkBlockChangesIsMutable();
+          chunkBlockChanges_.add(index, builderForValue.build());
+          onChanged();
+        } else {
+          chunkBlockChangesBuilder_.addMessage(index, builderForValue.build());
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .ChunkBlockChangesMessage chunkBlockChanges = 23;</code>
+       */
+      public Builder addAllChunkBlockChanges(
+          java.lang.Iterable<? extends org.terasology.protobuf.NetData.ChunkBlockChangesMessage> values) {
+        if (chunkBlockChangesBuilder_ == null) {
+          ensureChunkBlockChangesIsMutable();
+          com.google.protobuf.AbstractMessageLite.Builder.addAll(
+              values, chunkBlockChanges_);
+          onChanged();
+        } else {
+          chunkBlockChangesBuilder_.addAllMessages(values);
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .ChunkBlockChangesMessage chunkBlockChanges = 23;</code>
+       */
+      public Builder clearChunkBlockChanges() {
+        if (chunkBlockChangesBuilder_ == null) {
+          chunkBlockChanges_ = java.util.Collections.emptyList();
+          bitField0_ = (bitField0_ & ~0x00200000);
+          onChanged();
+        } else {
+          chunkBlockChangesBuilder_.clear();
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .ChunkBlockChangesMessage chunkBlockChanges = 23;</code>
+       */
+      public Builder removeChunkBlockChanges(int index) {
+        if (chunkBlockChangesBuilder_ == null) {
+          ensureChunkBlockChangesIsMutable();
+          chunkBlockChanges_.remove(index);
+          onChanged();
+        } else {
+          chunkBlockChangesBuilder_.remove(index);
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .ChunkBlockChangesMessage chunkBlockChanges = 23;</code>
+       */
+      public org.terasology.protobuf.NetData.ChunkBlockChangesMessage.Builder getChunkBlockChangesBuilder(
+          int index) {
+        return getChunkBlockChangesFieldBuilder().getBuilder(index);
+      }
+      /**
+       * <code>repeated .ChunkBlockChangesMessage chunkBlockChanges = 23;</code>
+       */
+      public org.terasology.protobuf.NetData.ChunkBlockChangesMessageOrBuilder getChunkBlockChangesOrBuilder(
+          int index) {
+        if (chunkBlockChangesBuilder_ == null) {
+          return chunkBlockChanges_.get(index);  } else {
+          return chunkBlockChangesBuilder_.getMessageOrBuilder(index);
+        }
+      }
+      /**
+       * <code>repeated .ChunkBlockChangesMessage chunkBlockChanges = 23;</code>
+       */
+      public java.util.List<? extends org.terasology.protobuf.NetData.ChunkBlockChangesMessageOrBuilder> 
+           getChunkBlockChangesOrBuilderList() {
+        if (chunkBlockChangesBuilder_ != null) {
+          return chunkBlockChangesBuilder_.getMessageOrBuilderList();
+        } else {
+          return java.util.Collections.unmodifiableList(chunkBlockChanges_);
+        }
+      }
+      /**
+       * <code>repeated .ChunkBlockChangesMessage chunkBlockChanges = 23;</code>
+       */
+      public org.terasology.protobuf.NetData.ChunkBlockChangesMessage.Builder addChunkBlockChangesBuilder() {
+        return getChunkBlockChangesFieldBuilder().addBuilder(
+            org.terasology.protobuf.NetData.ChunkBlockChangesMessage.getDefaultInstance());
+      }
+      /**
+       * <code>repeated .ChunkBlockChangesMessage chunkBlockChanges = 23;</code>
+       */
+      public org.terasology.protobuf.NetData.ChunkBlockChangesMessage.Builder addChunkBlockChangesBuilder(
+          int index) {
+        return getChunkBlockChangesFieldBuilder().addBuilder(
+            index, org.terasology.protobuf.NetData.ChunkBlockChangesMessage.getDefaultInstance());
+      }
+      /**
+       * <code>repeated .ChunkBlockChangesMessage chunkBlockChanges = 23;</code>
+       */
+      public java.util.List<org.terasology.protobuf.NetData.ChunkBlockChangesMessage.Builder> 
+           getChunkBlockChangesBuilderList() {
+        return getChunkBlockChangesFieldBuilder().getBuilderList();
+      }
+      private com.google.protobuf.RepeatedFieldBuilder<
+          org.terasology.protobuf.NetData.ChunkBlockChangesMessage, org.terasology.protobuf.NetData.ChunkBlockChangesMessage.Builder, org.terasology.protobuf.NetData.ChunkBlockChangesMessageOrBuilder> 
+          getChunkBlockChangesFieldBuilder() {
+        if (chunkBlockChangesBuilder_ == null) {
+          chunkBlockChangesBuilder_ = new com.google.protobuf.RepeatedFieldBuilder<
+              org.terasology.protobuf.NetData.ChunkBlockChangesMessage, org.terasology.protobuf.NetData.ChunkBlockChangesMessage.Builder, org.terasology.protobuf.NetData.ChunkBlockChangesMessageOrBuilder>(
+                  chunkBlockChanges_,
+                  ((bitField0_ & 0x00200000) == 0x00200000),
+                  getParentForChildren(),
+                  isClean());
+          chunkBlockChanges_ = null;
+        }
+        return chunkBlockChangesBuilder_;
+      }
+
       // @@protoc_insertion_point(builder_scope:NetMessage)
     }
 
@@ -25031,79 +25403,934 @@ public org.terasology.protobuf.NetData.Vector3iDataOrBuilder getTargetBlockPosOr
     // @@protoc_insertion_point(class_scope:EventMessage)
   }
 
-  private static final com.google.protobuf.Descriptors.Descriptor
-    internal_static_NetMessage_descriptor;
-  private static
-    com.google.protobuf.GeneratedMessage.FieldAccessorTable
-      internal_static_NetMessage_fieldAccessorTable;
-  private static final com.google.protobuf.Descriptors.Descriptor
-    internal_static_HandshakeHello_descriptor;
-  private static
-    com.google.protobuf.GeneratedMessage.FieldAccessorTable
-      internal_static_HandshakeHello_fieldAccessorTable;
-  private static final com.google.protobuf.Descriptors.Descriptor
-    internal_static_NewIdentityRequest_descriptor;
-  private static
-    com.google.protobuf.GeneratedMessage.FieldAccessorTable
-      internal_static_NewIdentityRequest_fieldAccessorTable;
-  private static final com.google.protobuf.Descriptors.Descriptor
-    internal_static_ProvisionIdentity_descriptor;
-  private static
-    com.google.protobuf.GeneratedMessage.FieldAccessorTable
-      internal_static_ProvisionIdentity_fieldAccessorTable;
-  private static final com.google.protobuf.Descriptors.Descriptor
-    internal_static_CertificateSet_descriptor;
-  private static
-    com.google.protobuf.GeneratedMessage.FieldAccessorTable
-      internal_static_CertificateSet_fieldAccessorTable;
-  private static final com.google.protobuf.Descriptors.Descriptor
-    internal_static_HandshakeVerification_descriptor;
-  private static
-    com.google.protobuf.GeneratedMessage.FieldAccessorTable
-      internal_static_HandshakeVerification_fieldAccessorTable;
-  private static final com.google.protobuf.Descriptors.Descriptor
-    internal_static_Certificate_descriptor;
-  private static
-    com.google.protobuf.GeneratedMessage.FieldAccessorTable
-      internal_static_Certificate_fieldAccessorTable;
-  private static final com.google.protobuf.Descriptors.Descriptor
-    internal_static_BlockFamilyRegisteredMessage_descriptor;
-  private static
-    com.google.protobuf.GeneratedMessage.FieldAccessorTable
-      internal_static_BlockFamilyRegisteredMessage_fieldAccessorTable;
-  private static final com.google.protobuf.Descriptors.Descriptor
-    internal_static_InvalidateChunkMessage_descriptor;
-  private static
-    com.google.protobuf.GeneratedMessage.FieldAccessorTable
-      internal_static_InvalidateChunkMessage_fieldAccessorTable;
-  private static final com.google.protobuf.Descriptors.Descriptor
-    internal_static_BlockChangeMessage_descriptor;
-  private static
-    com.google.protobuf.GeneratedMessage.FieldAccessorTable
-      internal_static_BlockChangeMessage_fieldAccessorTable;
-  private static final com.google.protobuf.Descriptors.Descriptor
-    internal_static_BiomeChangeMessage_descriptor;
-  private static
-    com.google.protobuf.GeneratedMessage.FieldAccessorTable
-      internal_static_BiomeChangeMessage_fieldAccessorTable;
-  private static final com.google.protobuf.Descriptors.Descriptor
-    internal_static_Vector3iData_descriptor;
-  private static
-    com.google.protobuf.GeneratedMessage.FieldAccessorTable
-      internal_static_Vector3iData_fieldAccessorTable;
-  private static final com.google.protobuf.Descriptors.Descriptor
-    internal_static_ServerInfoRequest_descriptor;
-  private static
-    com.google.protobuf.GeneratedMessage.FieldAccessorTable
-      internal_static_ServerInfoRequest_fieldAccessorTable;
-  private static final com.google.protobuf.Descriptors.Descriptor
-    internal_static_JoinMessage_descriptor;
-  private static
-    com.google.protobuf.GeneratedMessage.FieldAccessorTable
-      internal_static_JoinMessage_fieldAccessorTable;
-  private static final com.google.protobuf.Descriptors.Descriptor
-    internal_static_Color_descriptor;
-  private static
+  public interface ChunkBlockChangesMessageOrBuilder extends
+      // @@protoc_insertion_point(interface_extends:ChunkBlockChangesMessage)
+      com.google.protobuf.GeneratedMessage.
+          ExtendableMessageOrBuilder<ChunkBlockChangesMessage> {
+
+    /**
+     * <code>optional .Vector3iData chunkPos = 1;</code>
+     */
+    boolean hasChunkPos();
+    /**
+     * <code>optional .Vector3iData chunkPos = 1;</code>
+     */
+    org.terasology.protobuf.NetData.Vector3iData getChunkPos();
+    /**
+     * <code>optional .Vector3iData chunkPos = 1;</code>
+     */
+    org.terasology.protobuf.NetData.Vector3iDataOrBuilder getChunkPosOrBuilder();
+
+    /**
+     * <code>repeated int32 blockIndex = 2 [packed = true];</code>
+     */
+    java.util.List<java.lang.Integer> getBlockIndexList();
+    /**
+     * <code>repeated int32 blockIndex = 2 [packed = true];</code>
+     */
+    int getBlockIndexCount();
+    /**
+     * <code>repeated int32 blockIndex = 2 [packed = true];</code>
+     */
+    int getBlockIndex(int index);
+
+    /**
+     * <code>repeated int32 newBlock = 3 [packed = true];</code>
+     */
+    java.util.List<java.lang.Integer> getNewBlockList();
+    /**
+     * <code>repeated int32 newBlock = 3 [packed = true];</code>
+     */
+    int getNewBlockCount();
+    /**
+     * <code>repeated int32 newBlock = 3 [packed = true];</code>
+     */
+    int getNewBlock(int index);
+  }
+  /**
+   * Protobuf type {@code ChunkBlockChangesMessage}
+   */
+  public static final class ChunkBlockChangesMessage extends
+      com.google.protobuf.GeneratedMessage.ExtendableMessage<
+        ChunkBlockChangesMessage> implements
+      // @@protoc_insertion_point(message_implements:ChunkBlockChangesMessage)
+      ChunkBlockChangesMessageOrBuilder {
+    // Use ChunkBlockChangesMessage.newBuilder() to construct.
+    private ChunkBlockChangesMessage(com.google.protobuf.GeneratedMessage.ExtendableBuilder<org.terasology.protobuf.NetData.ChunkBlockChangesMessage, ?> builder) {
+      super(builder);
+      this.unknownFields = builder.getUnknownFields();
+    }
+    private ChunkBlockChangesMessage(boolean noInit) { this.unknownFields = com.google.protobuf.UnknownFieldSet.getDefaultInstance(); }
+
+    private static final ChunkBlockChangesMessage defaultInstance;
+    public static ChunkBlockChangesMessage getDefaultInstance() {
+      return defaultInstance;
+    }
+
+    public ChunkBlockChangesMessage getDefaultInstanceForType() {
+      return defaultInstance;
+    }
+
+    private final com.google.protobuf.UnknownFieldSet unknownFields;
+    @java.lang.Override
+    public final com.google.protobuf.UnknownFieldSet
+        getUnknownFields() {
+      return this.unknownFields;
+    }
+    private ChunkBlockChangesMessage(
+        com.google.protobuf.CodedInputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      initFields();
+      int mutable_bitField0_ = 0;
+      com.google.protobuf.UnknownFieldSet.Builder unknownFields =
+          com.google.protobuf.UnknownFieldSet.newBuilder();
+      try {
+        boolean done = false;
+        while (!done) {
+          int tag = input.readTag();
+          switch (tag) {
+            case 0:
+              done = true;
+              break;
+            default: {
+              if (!parseUnknownField(input, unknownFields,
+                                     extensionRegistry, tag)) {
+                done = true;
+              }
+              break;
+            }
+            case 10: {
+              org.terasology.protobuf.NetData.Vector3iData.Builder subBuilder = null;
+              if (((bitField0_ & 0x00000001) == 0x00000001)) {
+                subBuilder = chunkPos_.toBuilder();
+              }
+              chunkPos_ = input.readMessage(org.terasology.protobuf.NetData.Vector3iData.PARSER, extensionRegistry);
+              if (subBuilder != null) {
+                subBuilder.mergeFrom(chunkPos_);
+                chunkPos_ = subBuilder.buildPartial();
+              }
+              bitField0_ |= 0x00000001;
+              break;
+            }
+            case 16: {
+              if (!((mutable_bitField0_ & 0x00000002) == 0x00000002)) {
+                blockIndex_ = new java.util.ArrayList<java.lang.Integer>();
+                mutable_bitField0_ |= 0x00000002;
+              }
+              blockIndex_.add(input.readInt32());
+              break;
+            }
+            case 18: {
+              int length = input.readRawVarint32();
+              int limit = input.pushLimit(length);
+              if (!((mutable_bitField0_ & 0x00000002) == 0x00000002) && input.getBytesUntilLimit() > 0) {
+                blockIndex_ = new java.util.ArrayList<java.lang.Integer>();
+                mutable_bitField0_ |= 0x00000002;
+              }
+              while (input.getBytesUntilLimit() > 0) {
+                blockIndex_.add(input.readInt32());
+              }
+              input.popLimit(limit);
+              break;
+            }
+            case 24: {
+              if (!((mutable_bitField0_ & 0x00000004) == 0x00000004)) {
+                newBlock_ = new java.util.ArrayList<java.lang.Integer>();
+                mutable_bitField0_ |= 0x00000004;
+              }
+              newBlock_.add(input.readInt32());
+              break;
+            }
+            case 26: {
+              int length = input.readRawVarint32();
+              int limit = input.pushLimit(length);
+              if (!((mutable_bitField0_ & 0x00000004) == 0x00000004) && input.getBytesUntilLimit() > 0) {
+                newBlock_ = new java.util.ArrayList<java.lang.Integer>();
+                mutable_bitField0_ |= 0x00000004;
+              }
+              while (input.getBytesUntilLimit() > 0) {
+                newBlock_.add(input.readInt32());
+              }
+              input.popLimit(limit);
+              break;
+            }
+          }
+        }
+      } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+        throw e.setUnfinishedMessage(this);
+      } catch (java.io.IOException e) {
+        throw new com.google.protobuf.InvalidProtocolBufferException(
+            e.getMessage()).setUnfinishedMessage(this);
+      } finally {
+        if (((mutable_bitField0_ & 0x00000002) == 0x00000002)) {
+          blockIndex_ = java.util.Collections.unmodifiableList(blockIndex_);
+        }
+        if (((mutable_bitField0_ & 0x00000004) == 0x00000004)) {
+          newBlock_ = java.util.Collections.unmodifiableList(newBlock_);
+        }
+        this.unknownFields = unknownFields.build();
+        makeExtensionsImmutable();
+      }
+    }
+    public static final com.google.protobuf.Descriptors.Descriptor
+        getDescriptor() {
+      return org.terasology.protobuf.NetData.internal_static_ChunkBlockChangesMessage_descriptor;
+    }
+
+    protected com.google.protobuf.GeneratedMessage.FieldAccessorTable
+        internalGetFieldAccessorTable() {
+      return org.terasology.protobuf.NetData.internal_static_ChunkBlockChangesMessage_fieldAccessorTable
+          .ensureFieldAccessorsInitialized(
+              org.terasology.protobuf.NetData.ChunkBlockChangesMessage.class, org.terasology.protobuf.NetData.ChunkBlockChangesMessage.Builder.class);
+    }
+
+    public static com.google.protobuf.Parser<ChunkBlockChangesMessage> PARSER =
+        new com.google.protobuf.AbstractParser<ChunkBlockChangesMessage>() {
+      public ChunkBlockChangesMessage parsePartialFrom(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws com.google.protobuf.InvalidProtocolBufferException {
+        return new ChunkBlockChangesMessage(input, extensionRegistry);
+      }
+    };
+
+    @java.lang.Override
+    public com.google.protobuf.Parser<ChunkBlockChangesMessage> getParserForType() {
+      return PARSER;
+    }
+
+    private int bitField0_;
+    public static final int CHUNKPOS_FIELD_NUMBER = 1;
+    private org.terasology.protobuf.NetData.Vector3iData chunkPos_;
+    /**
+     * <code>optional .Vector3iData chunkPos = 1;</code>
+     */
+    public boolean hasChunkPos() {
+      return ((bitField0_ & 0x00000001) == 0x00000001);
+    }
+    /**
+     * <code>optional .Vector3iData chunkPos = 1;</code>
+     */
+    public org.terasology.protobuf.NetData.Vector3iData getChunkPos() {
+      return chunkPos_;
+    }
+    /**
+     * <code>optional .Vector3iData chunkPos = 1;</code>
+     */
+    public org.terasology.protobuf.NetData.Vector3iDataOrBuilder getChunkPosOrBuilder() {
+      return chunkPos_;
+    }
+
+    public static final int BLOCKINDEX_FIELD_NUMBER = 2;
+    private java.util.List<java.lang.Integer> blockIndex_;
+    /**
+     * <code>repeated int32 blockIndex = 2 [packed = true];</code>
+     */
+    public java.util.List<java.lang.Integer>
+        getBlockIndexList() {
+      return blockIndex_;
+    }
+    /**
+     * <code>repeated int32 blockIndex = 2 [packed = true];</code>
+     */
+    public int getBlockIndexCount() {
+      return blockIndex_.size();
+    }
+    /**
+     * <code>repeated int32 blockIndex = 2 [packed = true];</code>
+     */
+    public int getBlockIndex(int index) {
+      return blockIndex_.get(index);
+    }
+    private int blockIndexMemoizedSerializedSize = -1;
+
+    public static final int NEWBLOCK_FIELD_NUMBER = 3;
+    private java.util.List<java.lang.Integer> newBlock_;
+    /**
+     * <code>repeated int32 newBlock = 3 [packed = true];</code>
+     */
+    public java.util.List<java.lang.Integer>
+        getNewBlockList() {
+      return newBlock_;
+    }
+    /**
+     * <code>repeated int32 newBlock = 3 [packed = true];</code>
+     */
+    public int getNewBlockCount() {
+      return newBlock_.size();
+    }
+    /**
+     * <code>repeated int32 newBlock = 3 [packed = true];</code>
+     */
+    public int getNewBlock(int index) {
+      return newBlock_.get(index);
+    }
+    private int newBlockMemoizedSerializedSize = -1;
+
+    private void initFields() {
+      chunkPos_ = org.terasology.protobuf.NetData.Vector3iData.getDefaultInstance();
+      blockIndex_ = java.util.Collections.emptyList();
+      newBlock_ = java.util.Collections.emptyList();
+    }
+    private byte memoizedIsInitialized = -1;
+    public final boolean isInitialized() {
+      byte isInitialized = memoizedIsInitialized;
+      if (isInitialized == 1) return true;
+      if (isInitialized == 0) return false;
+
+      if (!extensionsAreInitialized()) {
+        memoizedIsInitialized = 0;
+        return false;
+      }
+      memoizedIsInitialized = 1;
+      return true;
+    }
+
+    public void writeTo(com.google.protobuf.CodedOutputStream output)
+                        throws java.io.IOException {
+      getSerializedSize();
+      com.google.protobuf.GeneratedMessage
+        .ExtendableMessage<org.terasology.protobuf.NetData.ChunkBlockChangesMessage>.ExtensionWriter extensionWriter =
+          newExtensionWriter();
+      if (((bitField0_ & 0x00000001) == 0x00000001)) {
+        output.writeMessage(1, chunkPos_);
+      }
+      if (getBlockIndexList().size() > 0) {
+        output.writeRawVarint32(18);
+        output.writeRawVarint32(blockIndexMemoizedSerializedSize);
+      }
+      for (int i = 0; i < blockIndex_.size(); i++) {
+        output.writeInt32NoTag(blockIndex_.get(i));
+      }
+      if (getNewBlockList().size() > 0) {
+        output.writeRawVarint32(26);
+        output.writeRawVarint32(newBlockMemoizedSerializedSize);
+      }
+      for (int i = 0; i < newBlock_.size(); i++) {
+        output.writeInt32NoTag(newBlock_.get(i));
+      }
+      extensionWriter.writeUntil(536870912, output);
+      getUnknownFields().writeTo(output);
+    }
+
+    private int memoizedSerializedSize = -1;
+    public int getSerializedSize() {
+      int size = memoizedSerializedSize;
+      if (size != -1) return size;
+
+      size = 0;
+      if (((bitField0_ & 0x00000001) == 0x00000001)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeMessageSize(1, chunkPos_);
+      }
+      {
+        int dataSize = 0;
+        for (int i = 0; i < blockIndex_.size(); i++) {
+          dataSize += com.google.protobuf.CodedOutputStream
+            .computeInt32SizeNoTag(blockIndex_.get(i));
+        }
+        size += dataSize;
+        if (!getBlockIndexList().isEmpty()) {
+          size += 1;
+          size += com.google.protobuf.CodedOutputStream
+              .computeInt32SizeNoTag(dataSize);
+        }
+        blockIndexMemoizedSerializedSize = dataSize;
+      }
+      {
+        int dataSize = 0;
+        for (int i = 0; i < newBlock_.size(); i++) {
+          dataSize += com.google.protobuf.CodedOutputStream
+            .computeInt32SizeNoTag(newBlock_.get(i));
+        }
+        size += dataSize;
+        if (!getNewBlockList().isEmpty()) {
+          size += 1;
+          size += com.google.protobuf.CodedOutputStream
+              .computeInt32SizeNoTag(dataSize);
+        }
+        newBlockMemoizedSerializedSize = dataSize;
+      }
+      size += extensionsSerializedSize();
+      size += getUnknownFields().getSerializedSize();
+      memoizedSerializedSize = size;
+      return size;
+    }
+
+    private static final long serialVersionUID = 0L;
+    @java.lang.Override
+    protected java.lang.Object writeReplace()
+        throws java.io.ObjectStreamException {
+      return super.writeReplace();
+    }
+
+    public static org.terasology.protobuf.NetData.ChunkBlockChangesMessage parseFrom(
+        com.google.protobuf.ByteString data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static org.terasology.protobuf.NetData.ChunkBlockChangesMessage parseFrom(
+        com.google.protobuf.ByteString data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static org.terasology.protobuf.NetData.ChunkBlockChangesMessage parseFrom(byte[] data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static org.terasology.protobuf.NetData.ChunkBlockChangesMessage parseFrom(
+        byte[] data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static org.terasology.protobuf.NetData.ChunkBlockChangesMessage parseFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      return PARSER.parseFrom(input);
+    }
+    public static org.terasology.protobuf.NetData.ChunkBlockChangesMessage parseFrom(
+        java.io.InputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return PARSER.parseFrom(input, extensionRegistry);
+    }
+    public static org.terasology.protobuf.NetData.ChunkBlockChangesMessage parseDelimitedFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      return PARSER.parseDelimitedFrom(input);
+    }
+    public static org.terasology.protobuf.NetData.ChunkBlockChangesMessage parseDelimitedFrom(
+        java.io.InputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return PARSER.parseDelimitedFrom(input, extensionRegistry);
+    }
+    public static org.terasology.protobuf.NetData.ChunkBlockChangesMessage parseFrom(
+        com.google.protobuf.CodedInputStream input)
+        throws java.io.IOException {
+      return PARSER.parseFrom(input);
+    }
+    public static org.terasology.protobuf.NetData.ChunkBlockChangesMessage parseFrom(
+        com.google.protobuf.CodedInputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return PARSER.parseFrom(input, extensionRegistry);
+    }
+
+    public static Builder newBuilder() { return Builder.create(); }
+    public Builder newBuilderForType() { return newBuilder(); }
+    public static Builder newBuilder(org.terasology.protobuf.NetData.ChunkBlockChangesMessage prototype) {
+      return newBuilder().mergeFrom(prototype);
+    }
+    public Builder toBuilder() { return newBuilder(this); }
+
+    @java.lang.Override
+    protected Builder newBuilderForType(
+        com.google.protobuf.GeneratedMessage.BuilderParent parent) {
+      Builder builder = new Builder(parent);
+      return builder;
+    }
+    /**
+     * Protobuf type {@code ChunkBlockChangesMessage}
+     */
+    public static final class Builder extends
+        com.google.protobuf.GeneratedMessage.ExtendableBuilder<
+          org.terasology.protobuf.NetData.ChunkBlockChangesMessage, Builder> implements
+        // @@protoc_insertion_point(builder_implements:ChunkBlockChangesMessage)
+        org.terasology.protobuf.NetData.ChunkBlockChangesMessageOrBuilder {
+      public static final com.google.protobuf.Descriptors.Descriptor
+          getDescriptor() {
+        return org.terasology.protobuf.NetData.internal_static_ChunkBlockChangesMessage_descriptor;
+      }
+
+      protected com.google.protobuf.GeneratedMessage.FieldAccessorTable
+          internalGetFieldAccessorTable() {
+        return org.terasology.protobuf.NetData.internal_static_ChunkBlockChangesMessage_fieldAccessorTable
+            .ensureFieldAccessorsInitialized(
+                org.terasology.protobuf.NetData.ChunkBlockChangesMessage.class, org.terasology.protobuf.NetData.ChunkBlockChangesMessage.Builder.class);
+      }
+
+      // Construct using org.terasology.protobuf.NetData.ChunkBlockChangesMessage.newBuilder()
+      private Builder() {
+        maybeForceBuilderInitialization();
+      }
+
+      private Builder(
+          com.google.protobuf.GeneratedMessage.BuilderParent parent) {
+        super(parent);
+        maybeForceBuilderInitialization();
+      }
+      private void maybeForceBuilderInitialization() {
+        if (com.google.protobuf.GeneratedMessage.alwaysUseFieldBuilders) {
+          getChunkPosFieldBuilder();
+        }
+      }
+      private static Builder create() {
+        return new Builder();
+      }
+
+      public Builder clear() {
+        super.clear();
+        if (chunkPosBuilder_ == null) {
+          chunkPos_ = org.terasology.protobuf.NetData.Vector3iData.getDefaultInstance();
+        } else {
+          chunkPosBuilder_.clear();
+        }
+        bitField0_ = (bitField0_ & ~0x00000001);
+        blockIndex_ = java.util.Collections.emptyList();
+        bitField0_ = (bitField0_ & ~0x00000002);
+        newBlock_ = java.util.Collections.emptyList();
+        bitField0_ = (bitField0_ & ~0x00000004);
+        return this;
+      }
+
+      public Builder clone() {
+        return create().mergeFrom(buildPartial());
+      }
+
+      public com.google.protobuf.Descriptors.Descriptor
+          getDescriptorForType() {
+        return org.terasology.protobuf.NetData.internal_static_ChunkBlockChangesMessage_descriptor;
+      }
+
+      public org.terasology.protobuf.NetData.ChunkBlockChangesMessage getDefaultInstanceForType() {
+        return org.terasology.protobuf.NetData.ChunkBlockChangesMessage.getDefaultInstance();
+      }
+
+      public org.terasology.protobuf.NetData.ChunkBlockChangesMessage build() {
+        org.terasology.protobuf.NetData.ChunkBlockChangesMessage result = buildPartial();
+        if (!result.isInitialized()) {
+          throw newUninitializedMessageException(result);
+        }
+        return result;
+      }
+
+      public org.terasology.protobuf.NetData.ChunkBlockChangesMessage buildPartial() {
+        org.terasology.protobuf.NetData.ChunkBlockChangesMessage result = new org.terasology.protobuf.NetData.ChunkBlockChangesMessage(this);
+        int from_bitField0_ = bitField0_;
+        int to_bitField0_ = 0;
+        if (((from_bitField0_ & 0x00000001) == 0x00000001)) {
+          to_bitField0_ |= 0x00000001;
+        }
+        if (chunkPosBuilder_ == null) {
+          result.chunkPos_ = chunkPos_;
+        } else {
+          result.chunkPos_ = chunkPosBuilder_.build();
+        }
+        if (((bitField0_ & 0x00000002) == 0x00000002)) {
+          blockIndex_ = java.util.Collections.unmodifiableList(blockIndex_);
+          bitField0_ = (bitField0_ & ~0x00000002);
+        }
+        result.blockIndex_ = blockIndex_;
+        if (((bitField0_ & 0x00000004) == 0x00000004)) {
+          newBlock_ = java.util.Collections.unmodifiableList(newBlock_);
+          bitField0_ = (bitField0_ & ~0x00000004);
+        }
+        result.newBlock_ = newBlock_;
+        result.bitField0_ = to_bitField0_;
+        onBuilt();
+        return result;
+      }
+
+      public Builder mergeFrom(com.google.protobuf.Message other) {
+        if (other instanceof org.terasology.protobuf.NetData.ChunkBlockChangesMessage) {
+          return mergeFrom((org.terasology.protobuf.NetData.ChunkBlockChangesMessage)other);
+        } else {
+          super.mergeFrom(other);
+          return this;
+        }
+      }
+
+      public Builder mergeFrom(org.terasology.protobuf.NetData.ChunkBlockChangesMessage other) {
+        if (other == org.terasology.protobuf.NetData.ChunkBlockChangesMessage.getDefaultInstance()) return this;
+        if (other.hasChunkPos()) {
+          mergeChunkPos(other.getChunkPos());
+        }
+        if (!other.blockIndex_.isEmpty()) {
+          if (blockIndex_.isEmpty()) {
+            blockIndex_ = other.blockIndex_;
+            bitField0_ = (bitField0_ & ~0x00000002);
+          } else {
+            ensureBlockIndexIsMutable();
+            blockIndex_.addAll(other.blockIndex_);
+          }
+          onChanged();
+        }
+        if (!other.newBlock_.isEmpty()) {
+          if (newBlock_.isEmpty()) {
+            newBlock_ = other.newBlock_;
+            bitField0_ = (bitField0_ & ~0x00000004);
+          } else {
+            ensureNewBlockIsMutable();
+            newBlock_.addAll(other.newBlock_);
+          }
+          onChanged();
+        }
+        this.mergeExtensionFields(other);
+        this.mergeUnknownFields(other.getUnknownFields());
+        return this;
+      }
+
+      public final boolean isInitialized() {
+        if (!extensionsAreInitialized()) {
+          
+          return false;
+        }
+        return true;
+      }
+
+      public Builder mergeFrom(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws java.io.IOException {
+        org.terasology.protobuf.NetData.ChunkBlockChangesMessage parsedMessage = null;
+        try {
+          parsedMessage = PARSER.parsePartialFrom(input, extensionRegistry);
+        } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+          parsedMessage = (org.terasology.protobuf.NetData.ChunkBlockChangesMessage) e.getUnfinishedMessage();
+          throw e;
+        } finally {
+          if (parsedMessage != null) {
+            mergeFrom(parsedMessage);
+          }
+        }
+        return this;
+      }
+      private int bitField0_;
+
+      private org.terasology.protobuf.NetData.Vector3iData chunkPos_ = org.terasology.protobuf.NetData.Vector3iData.getDefaultInstance();
+      private com.google.protobuf.SingleFieldBuilder<
+          org.terasology.protobuf.NetData.Vector3iData, org.terasology.protobuf.NetData.Vector3iData.Builder, org.terasology.protobuf.NetData.Vector3iDataOrBuilder> chunkPosBuilder_;
+      /**
+       * <code>optional .Vector3iData chunkPos = 1;</code>
+       */
+      public boolean hasChunkPos() {
+        return ((bitField0_ & 0x00000001) == 0x00000001);
+      }
+      /**
+       * <code>optional .Vector3iData chunkPos = 1;</code>
+       */
+      public org.terasology.protobuf.NetData.Vector3iData getChunkPos() {
+        if (chunkPosBuilder_ == null) {
+          return chunkPos_;
+        } else {
+          return chunkPosBuilder_.getMessage();
+        }
+      }
+      /**
+       * <code>optional .Vector3iData chunkPos = 1;</code>
+       */
+      public Builder setChunkPos(org.terasology.protobuf.NetData.Vector3iData value) {
+        if (chunkPosBuilder_ == null) {
+          if (value == null) {
+            throw new NullPointerException();
+          }
+          chunkPos_ = value;
+          onChanged();
+        } else {
+          chunkPosBuilder_.setMessage(value);
+        }
+        bitField0_ |= 0x00000001;
+        return this;
+      }
+      /**
+       * <code>optional .Vector3iData chunkPos = 1;</code>
+       */
+      public Builder setChunkPos(
+          org.terasology.protobuf.NetData.Vector3iData.Builder builderForValue) {
+        if (chunkPosBuilder_ == null) {
+          chunkPos_ = builderForValue.build();
+          onChanged();
+        } else {
+          chunkPosBuilder_.setMessage(builderForValue.build());
+        }
+        bitField0_ |= 0x00000001;
+        return this;
+      }
+      /**
+       * <code>optional .Vector3iData chunkPos = 1;</code>
+       */
+      public Builder mergeChunkPos(org.terasology.protobuf.NetData.Vector3iData value) {
+        if (chunkPosBuilder_ == null) {
+          if (((bitField0_ & 0x00000001) == 0x00000001) &&
+              chunkPos_ != org.terasology.protobuf.NetData.Vector3iData.getDefaultInstance()) {
+            chunkPos_ =
+              org.terasology.protobuf.NetData.Vector3iData.newBuilder(chunkPos_).mergeFrom(value).buildPartial();
+          } else {
+            chunkPos_ = value;
+          }
+          onChanged();
+        } else {
+          chunkPosBuilder_.mergeFrom(value);
+        }
+        bitField0_ |= 0x00000001;
+        return this;
+      }
+      /**
+       * <code>optional .Vector3iData chunkPos = 1;</code>
+       */
+      public Builder clearChunkPos() {
+        if (chunkPosBuilder_ == null) {
+          chunkPos_ = org.terasology.protobuf.NetData.Vector3iData.getDefaultInstance();
+          onChanged();
+        } else {
+          chunkPosBuilder_.clear();
+        }
+        bitField0_ = (bitField0_ & ~0x00000001);
+        return this;
+      }
+      /**
+       * <code>optional .Vector3iData chunkPos = 1;</code>
+       */
+      public org.terasology.protobuf.NetData.Vector3iData.Builder getChunkPosBuilder() {
+        bitField0_ |= 0x00000001;
+        onChanged();
+        return getChunkPosFieldBuilder().getBuilder();
+      }
+      /**
+       * <code>optional .Vector3iData chunkPos = 1;</code>
+       */
+      public org.terasology.protobuf.NetData.Vector3iDataOrBuilder getChunkPosOrBuilder() {
+        if (chunkPosBuilder_ != null) {
+          return chunkPosBuilder_.getMessageOrBuilder();
+        } else {
+          return chunkPos_;
+        }
+      }
+      /**
+       * <code>optional .Vector3iData chunkPos = 1;</code>
+       */
+      private com.google.protobuf.SingleFieldBuilder<
+          org.terasology.protobuf.NetData.Vector3iData, org.terasology.protobuf.NetData.Vector3iData.Builder, org.terasology.protobuf.NetData.Vector3iDataOrBuilder> 
+          getChunkPosFieldBuilder() {
+        if (chunkPosBuilder_ == null) {
+          chunkPosBuilder_ = new com.google.protobuf.SingleFieldBuilder<
+              org.terasology.protobuf.NetData.Vector3iData, org.terasology.protobuf.NetData.Vector3iData.Builder, org.terasology.protobuf.NetData.Vector3iDataOrBuilder>(
+                  getChunkPos(),
+                  getParentForChildren(),
+                  isClean());
+          chunkPos_ = null;
+        }
+        return chunkPosBuilder_;
+      }
+
+      private java.util.List<java.lang.Integer> blockIndex_ = java.util.Collections.emptyList();
+      private void ensureBlockIndexIsMutable() {
+        if (!((bitField0_ & 0x00000002) == 0x00000002)) {
+          blockIndex_ = new java.util.ArrayList<java.lang.Integer>(blockIndex_);
+          bitField0_ |= 0x00000002;
+         }
+      }
+      /**
+       * <code>repeated int32 blockIndex = 2 [packed = true];</code>
+       */
+      public java.util.List<java.lang.Integer>
+          getBlockIndexList() {
+        return java.util.Collections.unmodifiableList(blockIndex_);
+      }
+      /**
+       * <code>repeated int32 blockIndex = 2 [packed = true];</code>
+       */
+      public int getBlockIndexCount() {
+        return blockIndex_.size();
+      }
+      /**
+       * <code>repeated int32 blockIndex = 2 [packed = true];</code>
+       */
+      public int getBlockIndex(int index) {
+        return blockIndex_.get(index);
+      }
+      /**
+       * <code>repeated int32 blockIndex = 2 [packed = true];</code>
+       */
+      public Builder setBlockIndex(
+          int index, int value) {
+        ensureBlockIndexIsMutable();
+        blockIndex_.set(index, value);
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>repeated int32 blockIndex = 2 [packed = true];</code>
+       */
+      public Builder addBlockIndex(int value) {
+        ensureBlockIndexIsMutable();
+        blockIndex_.add(value);
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>repeated int32 blockIndex = 2 [packed = true];</code>
+       */
+      public Builder addAllBlockIndex(
+          java.lang.Iterable<? extends java.lang.Integer> values) {
+        ensureBlockIndexIsMutable();
+        com.google.protobuf.AbstractMessageLite.Builder.addAll(
+            values, blockIndex_);
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>repeated int32 blockIndex = 2 [packed = true];</code>
+       */
+      public Builder clearBlockIndex() {
+        blockIndex_ = java.util.Collections.emptyList();
+        bitField0_ = (bitField0_ & ~0x00000002);
+        onChanged();
+        return this;
+      }
+
+      private java.util.List<java.lang.Integer> newBlock_ = java.util.Collections.emptyList();
+      private void ensureNewBlockIsMutable() {
+        if (!((bitField0_ & 0x00000004) == 0x00000004)) {
+          newBlock_ = new java.util.ArrayList<java.lang.Integer>(newBlock_);
+          bitField0_ |= 0x00000004;
+         }
+      }
+      /**
+       * <code>repeated int32 newBlock = 3 [packed = true];</code>
+       */
+      public java.util.List<java.lang.Integer>
+          getNewBlockList() {
+        return java.util.Collections.unmodifiableList(newBlock_);
+      }
+      /**
+       * <code>repeated int32 newBlock = 3 [packed = true];</code>
+       */
+      public int getNewBlockCount() {
+        return newBlock_.size();
+      }
+      /**
+       * <code>repeated int32 newBlock = 3 [packed = true];</code>
+       */
+      public int getNewBlock(int index) {
+        return newBlock_.get(index);
+      }
+      /**
+       * <code>repeated int32 newBlock = 3 [packed = true];</code>
+       */
+      public Builder setNewBlock(
+          int index, int value) {
+        ensureNewBlockIsMutable();
+        newBlock_.set(index, value);
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>repeated int32 newBlock = 3 [packed = true];</code>
+       */
+      public Builder addNewBlock(int value) {
+        ensureNewBlockIsMutable();
+        newBlock_.add(value);
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>repeated int32 newBlock = 3 [packed = true];</code>
+       */
+      public Builder addAllNewBlock(
+          java.lang.Iterable<? extends java.lang.Integer> values) {
+        ensureNewBlockIsMutable();
+        com.google.protobuf.AbstractMessageLite.Builder.addAll(
+            values, newBlock_);
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>repeated int32 newBlock = 3 [packed = true];</code>
+       */
+      public Builder clearNewBlock() {
+        newBlock_ = java.util.Collections.emptyList();
+        bitField0_ = (bitField0_ & ~0x00000004);
+        onChanged();
+        return this;
+      }
+
+      // @@protoc_insertion_point(builder_scope:ChunkBlockChangesMessage)
+    }
+
+    static {
+      defaultInstance = new ChunkBlockChangesMessage(true);
+      defaultInstance.initFields();
+    }
+
+    // @@protoc_insertion_point(class_scope:ChunkBlockChangesMessage)
+  }
+
+  private static final com.google.protobuf.Descriptors.Descriptor
+    internal_static_NetMessage_descriptor;
+  private static
+    com.google.protobuf.GeneratedMessage.FieldAccessorTable
+      internal_static_NetMessage_fieldAccessorTable;
+  private static final com.google.protobuf.Descriptors.Descriptor
+    internal_static_HandshakeHello_descriptor;
+  private static
+    com.google.protobuf.GeneratedMessage.FieldAccessorTable
+      internal_static_HandshakeHello_fieldAccessorTable;
+  private static final com.google.protobuf.Descriptors.Descriptor
+    internal_static_NewIdentityRequest_descriptor;
+  private static
+    com.google.protobuf.GeneratedMessage.FieldAccessorTable
+      internal_static_NewIdentityRequest_fieldAccessorTable;
+  private static final com.google.protobuf.Descriptors.Descriptor
+    internal_static_ProvisionIdentity_descriptor;
+  private static
+    com.google.protobuf.GeneratedMessage.FieldAccessorTable
+      internal_static_ProvisionIdentity_fieldAccessorTable;
+  private static final com.google.protobuf.Descriptors.Descriptor
+    internal_static_CertificateSet_descriptor;
+  private static
+    com.google.protobuf.GeneratedMessage.FieldAccessorTable
+      internal_static_CertificateSet_fieldAccessorTable;
+  private static final com.google.protobuf.Descriptors.Descriptor
+    internal_static_HandshakeVerification_descriptor;
+  private static
+    com.google.protobuf.GeneratedMessage.FieldAccessorTable
+      internal_static_HandshakeVerification_fieldAccessorTable;
+  private static final com.google.protobuf.Descriptors.Descriptor
+    internal_static_Certificate_descriptor;
+  private static
+    com.google.protobuf.GeneratedMessage.FieldAccessorTable
+      internal_static_Certificate_fieldAccessorTable;
+  private static final com.google.protobuf.Descriptors.Descriptor
+    internal_static_BlockFamilyRegisteredMessage_descriptor;
+  private static
+    com.google.protobuf.GeneratedMessage.FieldAccessorTable
+      internal_static_BlockFamilyRegisteredMessage_fieldAccessorTable;
+  private static final com.google.protobuf.Descriptors.Descriptor
+    internal_static_InvalidateChunkMessage_descriptor;
+  private static
+    com.google.protobuf.GeneratedMessage.FieldAccessorTable
+      internal_static_InvalidateChunkMessage_fieldAccessorTable;
+  private static final com.google.protobuf.Descriptors.Descriptor
+    internal_static_BlockChangeMessage_descriptor;
+  private static
+    com.google.protobuf.GeneratedMessage.FieldAccessorTable
+      internal_static_BlockChangeMessage_fieldAccessorTable;
+  private static final com.google.protobuf.Descriptors.Descriptor
+    internal_static_BiomeChangeMessage_descriptor;
+  private static
+    com.google.protobuf.GeneratedMessage.FieldAccessorTable
+      internal_static_BiomeChangeMessage_fieldAccessorTable;
+  private static final com.google.protobuf.Descriptors.Descriptor
+    internal_static_Vector3iData_descriptor;
+  private static
+    com.google.protobuf.GeneratedMessage.FieldAccessorTable
+      internal_static_Vector3iData_fieldAccessorTable;
+  private static final com.google.protobuf.Descriptors.Descriptor
+    internal_static_ServerInfoRequest_descriptor;
+  private static
+    com.google.protobuf.GeneratedMessage.FieldAccessorTable
+      internal_static_ServerInfoRequest_fieldAccessorTable;
+  private static final com.google.protobuf.Descriptors.Descriptor
+    internal_static_JoinMessage_descriptor;
+  private static
+    com.google.protobuf.GeneratedMessage.FieldAccessorTable
+      internal_static_JoinMessage_fieldAccessorTable;
+  private static final com.google.protobuf.Descriptors.Descriptor
+    internal_static_Color_descriptor;
+  private static
     com.google.protobuf.GeneratedMessage.FieldAccessorTable
       internal_static_Color_fieldAccessorTable;
   private static final com.google.protobuf.Descriptors.Descriptor
@@ -25171,6 +26398,11 @@ public org.terasology.protobuf.NetData.Vector3iDataOrBuilder getTargetBlockPosOr
   private static
     com.google.protobuf.GeneratedMessage.FieldAccessorTable
       internal_static_EventMessage_fieldAccessorTable;
+  private static final com.google.protobuf.Descriptors.Descriptor
+    internal_static_ChunkBlockChangesMessage_descriptor;
+  private static
+    com.google.protobuf.GeneratedMessage.FieldAccessorTable
+      internal_static_ChunkBlockChangesMessage_fieldAccessorTable;
 
   public static com.google.protobuf.Descriptors.FileDescriptor
       getDescriptor() {
@@ -25180,7 +26412,7 @@ public org.terasology.protobuf.NetData.Vector3iDataOrBuilder getTargetBlockPosOr
       descriptor;
   static {
     java.lang.String[] descriptorData = {
-      "\n\020NetMessage.proto\032\020EntityData.proto\"\377\006\n" +
+      "\n\020NetMessage.proto\032\020EntityData.proto\"\265\007\n" +
       "\nNetMessage\022\036\n\tchunkInfo\030\002 \003(\0132\013.ChunkSt" +
       "ore\0220\n\017invalidateChunk\030\003 \003(\0132\027.Invalidat" +
       "eChunkMessage\022(\n\013blockChange\030\004 \003(\0132\023.Blo" +
@@ -25203,63 +26435,67 @@ public org.terasology.protobuf.NetData.Vector3iDataOrBuilder getTargetBlockPosOr
       "2\023.NewIdentityRequest\022-\n\021provisionIdenti" +
       "ty\030f \001(\0132\022.ProvisionIdentity\0225\n\025handshak" +
       "eVerification\030g \001(\0132\026.HandshakeVerificat" +
-      "ion*\t\010\210\'\020\200\200\200\200\002\"a\n\016HandshakeHello\022\016\n\006rand" +
-      "om\030\001 \001(\014\022!\n\013certificate\030\002 \001(\0132\014.Certific" +
-      "ate\022\021\n\ttimestamp\030\003 \001(\022*\t\010\210\'\020\200\200\200\200\002\"H\n\022New" +
-      "IdentityRequest\022\027\n\017preMasterSecret\030\001 \001(\014" +
-      "\022\016\n\006random\030\002 \001(\014*\t\010\210\'\020\200\200\200\200\002\"=\n\021Provision" +
-      "Identity\022\035\n\025encryptedCertificates\030\001 \001(\014*" +
-      "\t\010\210\'\020\200\200\200\200\002\"]\n\016CertificateSet\022\'\n\021publicCe",
-      "rtificate\030\001 \001(\0132\014.Certificate\022\027\n\017private" +
-      "Exponent\030\002 \001(\014*\t\010\210\'\020\200\200\200\200\002\"5\n\025HandshakeVe" +
-      "rification\022\021\n\tsignature\030\001 \001(\014*\t\010\210\'\020\200\200\200\200\002" +
-      "\"Z\n\013Certificate\022\n\n\002id\030\001 \001(\t\022\017\n\007modulus\030\002" +
-      " \001(\014\022\020\n\010exponent\030\003 \001(\014\022\021\n\tsignature\030\004 \001(" +
-      "\014*\t\010\210\'\020\200\200\200\200\002\"L\n\034BlockFamilyRegisteredMes" +
-      "sage\022\020\n\010blockUri\030\001 \003(\t\022\017\n\007blockId\030\002 \003(\005*" +
-      "\t\010\210\'\020\200\200\200\200\002\"?\n\026InvalidateChunkMessage\022\032\n\003" +
-      "pos\030\001 \001(\0132\r.Vector3iData*\t\010\210\'\020\200\200\200\200\002\"M\n\022B" +
-      "lockChangeMessage\022\032\n\003pos\030\001 \001(\0132\r.Vector3",
-      "iData\022\020\n\010newBlock\030\002 \001(\005*\t\010\210\'\020\200\200\200\200\002\"M\n\022Bi" +
-      "omeChangeMessage\022\032\n\003pos\030\001 \001(\0132\r.Vector3i" +
-      "Data\022\020\n\010newBiome\030\002 \001(\005*\t\010\210\'\020\200\200\200\200\002\"/\n\014Vec" +
-      "tor3iData\022\t\n\001x\030\001 \001(\005\022\t\n\001y\030\002 \001(\005\022\t\n\001z\030\003 \001" +
-      "(\005\"\036\n\021ServerInfoRequest*\t\010\210\'\020\200\200\200\200\002\"i\n\013Jo" +
-      "inMessage\022\014\n\004name\030\001 \001(\t\022\017\n\007version\030\002 \001(\t" +
-      "\022\031\n\021viewDistanceLevel\030\003 \001(\021\022\025\n\005color\030\004 \001" +
-      "(\0132\006.Color*\t\010\210\'\020\200\200\200\200\002\"\025\n\005Color\022\014\n\004rgba\030\001" +
-      " \001(\r\"2\n\023JoinCompleteMessage\022\020\n\010clientId\030" +
-      "\001 \001(\005*\t\010\210\'\020\200\200\200\200\002\"\206\003\n\021ServerInfoMessage\022\033",
-      "\n\006module\030\001 \003(\0132\013.ModuleInfo\022\023\n\007blockId\030\002" +
-      " \003(\021B\002\020\001\022\021\n\tblockName\030\003 \003(\t\022%\n\tcomponent" +
-      "\030\004 \003(\0132\022.SerializationInfo\022!\n\005event\030\005 \003(" +
-      "\0132\022.SerializationInfo\022\023\n\007assetId\030\006 \003(\005B\002" +
-      "\020\001\022\020\n\010assetUri\030\007 \003(\t\022\033\n\023registerBlockFam" +
-      "ily\030\010 \003(\t\022\035\n\tworldInfo\030\t \003(\0132\n.WorldInfo" +
-      "\022\030\n\014biomeShortId\030\n \003(\021B\002\020\001\022\017\n\007biomeId\030\013 " +
-      "\003(\t\022\017\n\007version\030\017 \001(\t\022\020\n\010gameName\030\020 \001(\t\022\014" +
-      "\n\004time\030\021 \001(\003\022\030\n\020reflectionHeight\030\022 \001(\002*\t" +
-      "\010\210\'\020\200\200\200\200\002\"3\n\tWorldInfo\022\r\n\005title\030\001 \001(\t\022\014\n",
-      "\004time\030\002 \001(\003*\t\010\210\'\020\200\200\200\200\002\"]\n\021SerializationI" +
-      "nfo\022\014\n\004name\030\001 \001(\t\022\n\n\002id\030\002 \001(\005\022\021\n\tfieldNa" +
-      "me\030\003 \003(\t\022\020\n\010fieldIds\030\004 \001(\014*\t\010\210\'\020\200\200\200\200\002\"@\n" +
-      "\nModuleInfo\022\020\n\010moduleId\030\001 \001(\t\022\025\n\rmoduleV" +
-      "ersion\030\002 \001(\t*\t\010\210\'\020\200\200\200\200\002\",\n\rModuleRequest" +
-      "\022\020\n\010moduleId\030\001 \001(\t*\t\010\210\'\020\200\200\200\200\002\"W\n\020ModuleD" +
-      "ataHeader\022\n\n\002id\030\001 \001(\t\022\017\n\007version\030\002 \001(\t\022\014" +
-      "\n\004size\030\003 \001(\003\022\r\n\005error\030\017 \001(\t*\t\010\210\'\020\200\200\200\200\002\"\'" +
-      "\n\nModuleData\022\016\n\006module\030\001 \001(\014*\t\010\210\'\020\200\200\200\200\002\"" +
-      "-\n\017ModuleSendError\022\017\n\007message\030\001 \001(\t*\t\010\210\'",
-      "\020\200\200\200\200\002\"`\n\023CreateEntityMessage\022\035\n\006entity\030" +
-      "\001 \001(\0132\r.PackedEntity\022\037\n\010blockPos\030\002 \001(\0132\r" +
-      ".Vector3iData*\t\010\210\'\020\200\200\200\200\002\"N\n\023UpdateEntity" +
-      "Message\022\035\n\006entity\030\001 \001(\0132\r.PackedEntity\022\r" +
-      "\n\005netId\030\002 \001(\005*\t\010\210\'\020\200\200\200\200\002\"/\n\023RemoveEntity" +
-      "Message\022\r\n\005netId\030\001 \001(\005*\t\010\210\'\020\200\200\200\200\002\"i\n\014Eve" +
-      "ntMessage\022\020\n\010targetId\030\001 \001(\005\022\025\n\005event\030\002 \001" +
-      "(\0132\006.Event\022%\n\016targetBlockPos\030\003 \001(\0132\r.Vec" +
-      "tor3iData*\t\010\210\'\020\200\200\200\200\002B$\n\027org.terasology.p" +
-      "rotobufB\007NetDataH\001"
+      "ion\0224\n\021chunkBlockChanges\030\027 \003(\0132\031.ChunkBl" +
+      "ockChangesMessage*\t\010\210\'\020\200\200\200\200\002\"a\n\016Handshak" +
+      "eHello\022\016\n\006random\030\001 \001(\014\022!\n\013certificate\030\002 " +
+      "\001(\0132\014.Certificate\022\021\n\ttimestamp\030\003 \001(\022*\t\010\210" +
+      "\'\020\200\200\200\200\002\"H\n\022NewIdentityRequest\022\027\n\017preMast" +
+      "erSecret\030\001 \001(\014\022\016\n\006random\030\002 \001(\014*\t\010\210\'\020\200\200\200\200" +
+      "\002\"=\n\021ProvisionIdentity\022\035\n\025encryptedCerti",
+      "ficates\030\001 \001(\014*\t\010\210\'\020\200\200\200\200\002\"]\n\016CertificateS" +
+      "et\022\'\n\021publicCertificate\030\001 \001(\0132\014.Certific" +
+      "ate\022\027\n\017privateExponent\030\002 \001(\014*\t\010\210\'\020\200\200\200\200\002\"" +
+      "5\n\025HandshakeVerification\022\021\n\tsignature\030\001 " +
+      "\001(\014*\t\010\210\'\020\200\200\200\200\002\"Z\n\013Certificate\022\n\n\002id\030\001 \001(" +
+      "\t\022\017\n\007modulus\030\002 \001(\014\022\020\n\010exponent\030\003 \001(\014\022\021\n\t" +
+      "signature\030\004 \001(\014*\t\010\210\'\020\200\200\200\200\002\"L\n\034BlockFamil" +
+      "yRegisteredMessage\022\020\n\010blockUri\030\001 \003(\t\022\017\n\007" +
+      "blockId\030\002 \003(\005*\t\010\210\'\020\200\200\200\200\002\"?\n\026InvalidateCh" +
+      "unkMessage\022\032\n\003pos\030\001 \001(\0132\r.Vector3iData*\t",
+      "\010\210\'\020\200\200\200\200\002\"M\n\022BlockChangeMessage\022\032\n\003pos\030\001" +
+      " \001(\0132\r.Vector3iData\022\020\n\010newBlock\030\002 \001(\005*\t\010" +
+      "\210\'\020\200\200\200\200\002\"M\n\022BiomeChangeMessage\022\032\n\003pos\030\001 " +
+      "\001(\0132\r.Vector3iData\022\020\n\010newBiome\030\002 \001(\005*\t\010\210" +
+      "\'\020\200\200\200\200\002\"/\n\014Vector3iData\022\t\n\001x\030\001 \001(\005\022\t\n\001y\030" +
+      "\002 \001(\005\022\t\n\001z\030\003 \001(\005\"\036\n\021ServerInfoRequest*\t\010" +
+      "\210\'\020\200\200\200\200\002\"i\n\013JoinMessage\022\014\n\004name\030\001 \001(\t\022\017\n" +
+      "\007version\030\002 \001(\t\022\031\n\021viewDistanceLevel\030\003 \001(" +
+      "\021\022\025\n\005color\030\004 \001(\0132\006.Color*\t\010\210\'\020\200\200\200\200\002\"\025\n\005C" +
+      "olor\022\014\n\004rgba\030\001 \001(\r\"2\n\023JoinCompleteMessag",
+      "e\022\020\n\010clientId\030\001 \001(\005*\t\010\210\'\020\200\200\200\200\002\"\206\003\n\021Serve" +
+      "rInfoMessage\022\033\n\006module\030\001 \003(\0132\013.ModuleInf" +
+      "o\022\023\n\007blockId\030\002 \003(\021B\002\020\001\022\021\n\tblockName\030\003 \003(" +
+      "\t\022%\n\tcomponent\030\004 \003(\0132\022.SerializationInfo" +
+      "\022!\n\005event\030\005 \003(\0132\022.SerializationInfo\022\023\n\007a" +
+      "ssetId\030\006 \003(\005B\002\020\001\022\020\n\010assetUri\030\007 \003(\t\022\033\n\023re" +
+      "gisterBlockFamily\030\010 \003(\t\022\035\n\tworldInfo\030\t \003" +
+      "(\0132\n.WorldInfo\022\030\n\014biomeShortId\030\n \003(\021B\002\020\001" +
+      "\022\017\n\007biomeId\030\013 \003(\t\022\017\n\007version\030\017 \001(\t\022\020\n\010ga" +
+      "meName\030\020 \001(\t\022\014\n\004time\030\021 \001(\003\022\030\n\020reflection",
+      "Height\030\022 \001(\002*\t\010\210\'\020\200\200\200\200\002\"3\n\tWorldInfo\022\r\n\005" +
+      "title\030\001 \001(\t\022\014\n\004time\030\002 \001(\003*\t\010\210\'\020\200\200\200\200\002\"]\n\021" +
+      "SerializationInfo\022\014\n\004name\030\001 \001(\t\022\n\n\002id\030\002 " +
+      "\001(\005\022\021\n\tfieldName\030\003 \003(\t\022\020\n\010fieldIds\030\004 \001(\014" +
+      "*\t\010\210\'\020\200\200\200\200\002\"@\n\nModuleInfo\022\020\n\010moduleId\030\001 " +
+      "\001(\t\022\025\n\rmoduleVersion\030\002 \001(\t*\t\010\210\'\020\200\200\200\200\002\",\n" +
+      "\rModuleRequest\022\020\n\010moduleId\030\001 \001(\t*\t\010\210\'\020\200\200" +
+      "\200\200\002\"W\n\020ModuleDataHeader\022\n\n\002id\030\001 \001(\t\022\017\n\007v" +
+      "ersion\030\002 \001(\t\022\014\n\004size\030\003 \001(\003\022\r\n\005error\030\017 \001(" +
+      "\t*\t\010\210\'\020\200\200\200\200\002\"\'\n\nModuleData\022\016\n\006module\030\001 \001",
+      "(\014*\t\010\210\'\020\200\200\200\200\002\"-\n\017ModuleSendError\022\017\n\007mess" +
+      "age\030\001 \001(\t*\t\010\210\'\020\200\200\200\200\002\"`\n\023CreateEntityMess" +
+      "age\022\035\n\006entity\030\001 \001(\0132\r.PackedEntity\022\037\n\010bl" +
+      "ockPos\030\002 \001(\0132\r.Vector3iData*\t\010\210\'\020\200\200\200\200\002\"N" +
+      "\n\023UpdateEntityMessage\022\035\n\006entity\030\001 \001(\0132\r." +
+      "PackedEntity\022\r\n\005netId\030\002 \001(\005*\t\010\210\'\020\200\200\200\200\002\"/" +
+      "\n\023RemoveEntityMessage\022\r\n\005netId\030\001 \001(\005*\t\010\210" +
+      "\'\020\200\200\200\200\002\"i\n\014EventMessage\022\020\n\010targetId\030\001 \001(" +
+      "\005\022\025\n\005event\030\002 \001(\0132\006.Event\022%\n\016targetBlockP" +
+      "os\030\003 \001(\0132\r.Vector3iData*\t\010\210\'\020\200\200\200\200\002\"t\n\030Ch",
+      "unkBlockChangesMessage\022\037\n\010chunkPos\030\001 \001(\013" +
+      "2\r.Vector3iData\022\026\n\nblockIndex\030\002 \003(\005B\002\020\001\022" +
+      "\024\n\010newBlock\030\003 \003(\005B\002\020\001*\t\010\210\'\020\200\200\200\200\002B$\n\027org." +
+      "terasology.protobufB\007NetDataH\001"
     };
     com.google.protobuf.Descriptors.FileDescriptor.InternalDescriptorAssigner assigner =
         new com.google.protobuf.Descriptors.FileDescriptor.    InternalDescriptorAssigner() {
@@ -25279,7 +26515,7 @@ public com.google.protobuf.ExtensionRegistry assignDescriptors(
     internal_static_NetMessage_fieldAccessorTable = new
       com.google.protobuf.GeneratedMessage.FieldAccessorTable(
         internal_static_NetMessage_descriptor,
-        new java.lang.String[] { "ChunkInfo", "InvalidateChunk", "BlockChange", "CreateEntity", "RemoveEntity", "UpdateEntity", "Event", "Time", "BiomeChange", "ServerInfoRequest", "ServerInfo", "BlockFamilyRegistered", "Join", "ModuleRequest", "ModuleDataHeader", "ModuleData", "JoinComplete", "HandshakeHello", "NewIdentityRequest", "ProvisionIdentity", "HandshakeVerification", });
+        new java.lang.String[] { "ChunkInfo", "InvalidateChunk", "BlockChange", "CreateEntity", "RemoveEntity", "UpdateEntity", "Event", "Time", "BiomeChange", "ServerInfoRequest", "ServerInfo", "BlockFamilyRegistered", "Join", "ModuleRequest", "ModuleDataHeader", "ModuleData", "JoinComplete", "HandshakeHello", "NewIdentityRequest", "ProvisionIdentity", "HandshakeVerification", "ChunkBlockChanges", });
     internal_static_HandshakeHello_descriptor =
       getDescriptor().getMessageTypes().get(1);
     internal_static_HandshakeHello_fieldAccessorTable = new
@@ -25442,6 +26678,12 @@ public com.google.protobuf.ExtensionRegistry assignDescriptors(
       com.google.protobuf.GeneratedMessage.FieldAccessorTable(
         internal_static_EventMessage_descriptor,
         new java.lang.String[] { "TargetId", "Event", "TargetBlockPos", });
+    internal_static_ChunkBlockChangesMessage_descriptor =
+      getDescriptor().getMessageTypes().get(28);
+    internal_static_ChunkBlockChangesMessage_fieldAccessorTable = new
+      com.google.protobuf.GeneratedMessage.FieldAccessorTable(
+        internal_static_ChunkBlockChangesMessage_descriptor,
+        new java.lang.String[] { "ChunkPos", "BlockIndex", "NewBlock", });
     org.terasology.protobuf.EntityData.getDescriptor();
   }
 
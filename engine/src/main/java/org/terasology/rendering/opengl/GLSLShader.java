@@ -222,6 +222,8 @@ private StringBuilder createShaderBuilder() {
         for (ChunkVertexFlag vertexFlag : ChunkVertexFlag.values()) {
             builder.append("#define ").append(vertexFlag.getDefineName()).append(" int(").append(vertexFlag.getValue()).append(") \n");
         }
+        builder.append("#define BLOCK_HINT_TILE_STRIDE ").append((float) ChunkVertexFlag.TILE_STRIDE).append(" \n");
+        builder.append("#define BLOCK_HINT_TILES_PER_DIM ").append((float) ChunkVertexFlag.MAX_TILES_PER_DIM).append(" \n");
 
         return builder;
     }
@@ -27,6 +27,7 @@
 import org.terasology.world.ChunkView;
 import org.terasology.world.block.Block;
 import org.terasology.world.chunks.ChunkConstants;
+import org.terasology.world.internal.PaddedChunkSnapshot;
 
 import java.util.concurrent.TimeUnit;
 
@@ -40,23 +41,43 @@ public final class ChunkTessellator {
     private static int statVertexArrayUpdateCount;
 
     private GLBufferPool bufferPool;
+    private GreedyChunkMesher greedyMesher;
 
     public ChunkTessellator(GLBufferPool bufferPool) {
         this.bufferPool = bufferPool;
     }
 
-    public ChunkMesh generateMesh(ChunkView chunkView, int meshHeight, int verticalOffset) {
+    /**
+     * Creates a tessellator that merges coplanar faces of full cube blocks into larger quads.
+     *
+     * @param relativeTileSize the size of a tile of the world atlas, relative to the atlas
+     */
+    public ChunkTessellator(GLBufferPool bufferPool, float relativeTileSize) {
+        this.bufferPool = bufferPool;
+        this.greedyMesher = new GreedyChunkMesher(relativeTileSize);
+    }
+
+    /**
+     * Generates the mesh of the chunk at the local origin of the given view. Unless the view is a
+     * {@link PaddedChunkSnapshot} already, a snapshot of it gets taken first, which requires the view to be read locked.
+     */
+    public ChunkMesh generateMesh(ChunkView view, int meshHeight, int verticalOffset) {
         PerformanceMonitor.startActivity("GenerateMesh");
         ChunkMesh mesh = new ChunkMesh(bufferPool);
+        PaddedChunkSnapshot chunkView = PaddedChunkSnapshot.of(view);
 
         final Stopwatch watch = Stopwatch.createStarted();
 
-        for (int x = 0; x < ChunkConstants.SIZE_X; x++) {
-            for (int z = 0; z < ChunkConstants.SIZE_Z; z++) {
-                for (int y = verticalOffset; y < verticalOffset + meshHeight; y++) {
-                    Block block = chunkView.getBlock(x, y, z);
-                    if (block != null && block.getMeshGenerator() != null) {
-                        block.getMeshGenerator().generateChunkMesh(chunkView, mesh, x, y, z);
+        if (greedyMesher != null) {
+            greedyMesher.generateBlockVertices(chunkView, mesh, meshHeight, verticalOffset);
+        } else {
+            for (int x = 0; x < ChunkConstants.SIZE_X; x++) {
+                for (int z = 0; z < ChunkConstants.SIZE_Z; z++) {
+                    for (int y = verticalOffset; y < verticalOffset + meshHeight; y++) {
+                        Block block = chunkView.getBlock(x, y, z);
+                        if (block != null && block.getMeshGenerator() != null) {
+                            block.getMeshGenerator().generateChunkMesh(chunkView, mesh, x, y, z);
+                        }
                     }
                 }
             }
@@ -75,8 +96,11 @@ public ChunkMesh generateMesh(ChunkView chunkView, int meshHeight, int verticalO
         return mesh;
     }
 
-    private void generateOptimizedBuffers(ChunkView chunkView, ChunkMesh mesh) {
+    private void generateOptimizedBuffers(PaddedChunkSnapshot chunkView, ChunkMesh mesh) {
         PerformanceMonitor.startActivity("OptimizeBuffers");
+        final Vector3f vertexPos = new Vector3f();
+        final Vector3f normal = new Vector3f();
+        final VertexLighting lighting = new VertexLighting();
 
         for (ChunkMesh.RenderType type : ChunkMesh.RenderType.values()) {
             ChunkMesh.VertexElements elements = mesh.getVertexElements(type);
@@ -94,7 +118,7 @@ private void generateOptimizedBuffers(ChunkView chunkView, ChunkMesh mesh) {
             int cColor = 0;
             int cFlags = 0;
             for (int i = 0; i < elements.vertices.size(); i += 3, cTex += 2, cColor += 4, cFlags++) {
-                Vector3f vertexPos = new Vector3f(
+                vertexPos.set(
                         elements.vertices.get(i),
                         elements.vertices.get(i + 1),
                         elements.vertices.get(i + 2));
@@ -111,9 +135,9 @@ private void generateOptimizedBuffers(ChunkView chunkView, ChunkMesh mesh) {
                 /* FLAGS */
                 elements.finalVertices.put(Float.floatToIntBits(elements.flags.get(cFlags)));
 
-                float[] result = new float[3];
-                Vector3f normal = new Vector3f(elements.normals.get(i), elements.normals.get(i + 1), elements.normals.get(i + 2));
-                calcLightingValuesForVertexPos(chunkView, vertexPos, result, normal);
+                float[] result = lighting.output;
+                normal.set(elements.normals.get(i), elements.normals.get(i + 1), elements.normals.get(i + 2));
+                calcLightingValuesForVertexPos(chunkView, vertexPos, lighting, normal);
 
                 /* LIGHTING DATA / TEX DATA 1 */
                 elements.finalVertices.put(Float.floatToIntBits(result[0]));
@@ -146,11 +170,12 @@ private void generateOptimizedBuffers(ChunkView chunkView, ChunkMesh mesh) {
         PerformanceMonitor.endActivity();
     }
 
-    private void calcLightingValuesForVertexPos(ChunkView chunkView, Vector3f vertexPos, float[] output, Vector3f normal) {
+    private void calcLightingValuesForVertexPos(PaddedChunkSnapshot chunkView, Vector3f vertexPos, VertexLighting lighting, Vector3f normal) {
         PerformanceMonitor.startActivity("calcLighting");
-        float[] lights = new float[8];
-        float[] blockLights = new float[8];
-        Block[] blocks = new Block[4];
+        float[] lights = lighting.lights;
+        float[] blockLights = lighting.blockLights;
+        Block[] blocks = lighting.blocks;
+        float[] output = lighting.output;
 
         PerformanceMonitor.startActivity("gatherLightInfo");
         Direction dir = Direction.inDirection(normal);
@@ -246,4 +271,14 @@ private void calcLightingValuesForVertexPos(ChunkView chunkView, Vector3f vertex
     public static int getVertexArrayUpdateCount() {
         return statVertexArrayUpdateCount;
     }
+
+    /**
+     * The buffers used to calculate the lighting of a vertex, reused for all vertices of a mesh.
+     */
+    private static final class VertexLighting {
+        private final float[] lights = new float[8];
+        private final float[] blockLights = new float[8];
+        private final Block[] blocks = new Block[4];
+        private final float[] output = new float[3];
+    }
 }
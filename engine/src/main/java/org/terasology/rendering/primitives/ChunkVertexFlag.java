@@ -27,6 +27,17 @@ public enum ChunkVertexFlag {
     WAVING(5, "BLOCK_HINT_WAVING"),
     WAVING_BLOCK(6, "BLOCK_HINT_WAVING_BLOCK");
 
+    /**
+     * Vertices of faces that repeat a texture tile of the atlas carry the tile in their flag value, as multiples of
+     * this stride. Needs to be larger than the value of every flag.
+     */
+    public static final int TILE_STRIDE = 16;
+
+    /**
+     * The highest number of atlas tiles per dimension that can be encoded into a flag value.
+     */
+    public static final int MAX_TILES_PER_DIM = 256;
+
     private int value;
     private String defineName;
 
@@ -42,4 +53,13 @@ public int getValue() {
     public String getDefineName() {
         return defineName;
     }
+
+    /**
+     * @param tileX the column of the repeated atlas tile, less than {@link #MAX_TILES_PER_DIM}
+     * @param tileY the row of the repeated atlas tile, less than {@link #MAX_TILES_PER_DIM}
+     * @return the value of this flag for vertices of faces that repeat the given atlas tile
+     */
+    public int getValueWithRepeatedTile(int tileX, int tileY) {
+        return value + TILE_STRIDE * (1 + tileX + MAX_TILES_PER_DIM * tileY);
+    }
 }
@@ -0,0 +1,511 @@
+/*
+ * Copyright 2015 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.rendering.primitives;
+
+import com.google.common.base.Objects;
+import com.google.common.collect.Maps;
+import org.terasology.math.Side;
+import org.terasology.math.geom.Vector2f;
+import org.terasology.math.geom.Vector3f;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.math.geom.Vector4f;
+import org.terasology.world.biomes.Biome;
+import org.terasology.world.block.Block;
+import org.terasology.world.block.BlockAppearance;
+import org.terasology.world.block.BlockPart;
+import org.terasology.world.block.shapes.BlockMeshPart;
+import org.terasology.world.chunks.ChunkConstants;
+import org.terasology.world.internal.PaddedChunkSnapshot;
+
+import java.util.Map;
+
+/**
+ * Generates the block vertices of a chunk mesh like {@link BlockMeshGeneratorSingleShape}, but merges coplanar faces of
+ * full cube blocks into larger quads (greedy meshing).
+ * <br><br>
+ * Two faces get merged if they belong to the same block type and biome and if the lighting is the same at all their
+ * corners, so a merged quad looks exactly like the faces it replaces. The texture coordinates of merged quads run past
+ * the atlas tile; their vertex flag carries the tile, which the chunk shader uses to repeat it.
+ * All other blocks are passed to their mesh generator as usual.
+ * <br><br>
+ * The blocks and light values of the neighbours are read from the {@link PaddedChunkSnapshot} directly.
+ */
+final class GreedyChunkMesher {
+
+    private static final float EPSILON = 0.001f;
+
+    /**
+     * The tolerance for texture coordinates, relative to the size of a tile.
+     */
+    private static final float TEX_EPSILON = 0.01f;
+
+    /**
+     * The part of a tile covered by a single face, see the border in {@link BlockMeshPart}.
+     */
+    private static final float TILE_COVERAGE = 126f / 128f;
+
+    private static final Side[] SIDES = Side.values();
+
+    private final float relativeTileSize;
+
+    GreedyChunkMesher(float relativeTileSize) {
+        this.relativeTileSize = relativeTileSize;
+    }
+
+    void generateBlockVertices(PaddedChunkSnapshot snapshot, ChunkMesh mesh, int meshHeight, int verticalOffset) {
+        new Pass(snapshot, mesh, meshHeight, verticalOffset).run();
+    }
+
+    /**
+     * The state of tessellating a single chunk. Tessellation runs concurrently for different chunks.
+     */
+    private final class Pass {
+        private final PaddedChunkSnapshot snapshot;
+        private final ChunkMesh mesh;
+        private final int verticalOffset;
+        private final int[] size;
+
+        private final Biome[] biomes;
+        private final Map<Block, CubeFaces> cubeFaces = Maps.newIdentityHashMap();
+
+        private final Block[] maskBlocks;
+        private final Biome[] maskBiomes;
+        private final int[] maskLight;
+
+        private final int[] pos = new int[3];
+
+        private Pass(PaddedChunkSnapshot snapshot, ChunkMesh mesh, int meshHeight, int verticalOffset) {
+            this.snapshot = snapshot;
+            this.mesh = mesh;
+            this.verticalOffset = verticalOffset;
+            this.size = new int[]{ChunkConstants.SIZE_X, meshHeight, ChunkConstants.SIZE_Z};
+
+            biomes = new Biome[ChunkConstants.SIZE_X * meshHeight * ChunkConstants.SIZE_Z];
+
+            int maxMaskSize = Math.max(ChunkConstants.SIZE_X, ChunkConstants.SIZE_Z) * Math.max(meshHeight, ChunkConstants.SIZE_Z);
+            maskBlocks = new Block[maxMaskSize];
+            maskBiomes = new Biome[maxMaskSize];
+            maskLight = new int[maxMaskSize];
+        }
+
+        private void run() {
+            generateOtherBlocks();
+            for (Side side : SIDES) {
+                generateCubeFaces(side);
+            }
+        }
+
+        /**
+         * Passes all blocks that aren't full cubes to their mesh generator and looks up the biomes of the cubes.
+         */
+        private void generateOtherBlocks() {
+            for (int x = 0; x < size[0]; x++) {
+                for (int z = 0; z < size[2]; z++) {
+                    for (int y = 0; y < size[1]; y++) {
+                        Block block = snapshot.getBlockAt(paddedIndex(x, y, z));
+                        if (block == null || block.getMeshGenerator() == null) {
+                            continue;
+                        }
+                        if (getCubeFaces(block) != null) {
+                            biomes[index(x, y, z)] = snapshot.getBiome(x, y + verticalOffset, z);
+                        } else {
+                            block.getMeshGenerator().generateChunkMesh(snapshot, mesh, x, y + verticalOffset, z);
+                        }
+                    }
+                }
+            }
+        }
+
+        private void generateCubeFaces(Side side) {
+            Vector3i normal = side.getVector3i();
+            int axisN = (normal.x != 0) ? 0 : (normal.y != 0) ? 1 : 2;
+            int axisU = (axisN + 1) % 3;
+            int axisV = (axisN + 2) % 3;
+            int sizeU = size[axisU];
+            int sizeV = size[axisV];
+
+            for (int n = 0; n < size[axisN]; n++) {
+                pos[axisN] = n;
+                for (int v = 0; v < sizeV; v++) {
+                    pos[axisV] = v;
+                    for (int u = 0; u < sizeU; u++) {
+                        pos[axisU] = u;
+                        fillMask(side, normal, u + v * sizeU);
+                    }
+                }
+
+                for (int v = 0; v < sizeV; v++) {
+                    for (int u = 0; u < sizeU; ) {
+                        int start = u + v * sizeU;
+                        if (maskBlocks[start] == null) {
+                            u++;
+                            continue;
+                        }
+                        int width = 1;
+                        while (u + width < sizeU && canMerge(start, start + width)) {
+                            width++;
+                        }
+                        int height = 1;
+                        while (v + height < sizeV && canMergeRow(start, start + height * sizeU, width)) {
+                            height++;
+                        }
+
+                        pos[axisN] = n;
+                        pos[axisU] = u;
+                        pos[axisV] = v;
+                        appendQuad(side, start, axisU, axisV, width, height);
+
+                        for (int j = 0; j < height; j++) {
+                            for (int i = 0; i < width; i++) {
+                                maskBlocks[start + i + j * sizeU] = null;
+                            }
+                        }
+                        u += width;
+                    }
+                }
+            }
+        }
+
+        /**
+         * Puts the face of the block at {@link #pos} into the mask if it is visible and can be merged.
+         * Visible faces that can't be merged get appended right away.
+         */
+        private void fillMask(Side side, Vector3i normal, int maskIndex) {
+            maskBlocks[maskIndex] = null;
+            int x = pos[0];
+            int y = pos[1];
+            int z = pos[2];
+            Block block = snapshot.getBlockAt(paddedIndex(x, y, z));
+            CubeFaces faces = (block != null && block.getMeshGenerator() != null) ? getCubeFaces(block) : null;
+            if (faces == null || faces.parts[side.ordinal()] == null) {
+                return;
+            }
+            Block adjacent = snapshot.getBlockAt(paddedIndex(x + normal.x, y + normal.y, z + normal.z));
+            if (!BlockMeshGeneratorSingleShape.isSideVisibleForBlockTypes(adjacent, block, side)) {
+                return;
+            }
+
+            Biome biome = biomes[index(x, y, z)];
+            int faceLight = faces.mergeable[side.ordinal()] ? calcFaceLight(side, normal, x, y, z) : -1;
+            if (faceLight == -1) {
+                Vector4f colorOffset = block.calcColorOffsetFor(BlockPart.fromSide(side), biome);
+                faces.parts[side.ordinal()].appendTo(mesh, x, y + verticalOffset, z, colorOffset, faces.renderType, faces.flags[side.ordinal()]);
+                return;
+            }
+            maskBlocks[maskIndex] = block;
+            maskBiomes[maskIndex] = biome;
+            maskLight[maskIndex] = faceLight;
+        }
+
+        private boolean canMerge(int maskIndex, int otherIndex) {
+            return maskBlocks[otherIndex] == maskBlocks[maskIndex] && maskLight[otherIndex] == maskLight[maskIndex]
+                    && Objects.equal(maskBiomes[otherIndex], maskBiomes[maskIndex]);
+        }
+
+        private boolean canMergeRow(int maskIndex, int rowStart, int width) {
+            for (int i = 0; i < width; i++) {
+                if (!canMerge(maskIndex, rowStart + i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Appends the quad covering width x height faces, starting with the face of the block at {@link #pos}.
+         */
+        private void appendQuad(Side side, int maskIndex, int axisU, int axisV, int width, int height) {
+            Block block = maskBlocks[maskIndex];
+            CubeFaces faces = getCubeFaces(block);
+            BlockMeshPart part = faces.parts[side.ordinal()];
+            Vector4f colorOffset = block.calcColorOffsetFor(BlockPart.fromSide(side), maskBiomes[maskIndex]);
+            ChunkVertexFlag flag = faces.flags[side.ordinal()];
+            Vector2f gradientU = faces.gradientsU[side.ordinal()];
+            Vector2f gradientV = faces.gradientsV[side.ordinal()];
+            int flagValue = (width == 1 && height == 1) ? flag.getValue()
+                    : flag.getValueWithRepeatedTile(faces.tilesX[side.ordinal()], faces.tilesY[side.ordinal()]);
+
+            ChunkMesh.VertexElements elements = mesh.getVertexElements(faces.renderType);
+            int nextIndex = elements.vertexCount;
+            float[] vertex = new float[3];
+            for (int i = 0; i < part.size(); i++) {
+                Vector3f partVertex = part.getVertex(i);
+                Vector3f partNormal = part.getNormal(i);
+                Vector2f texCoord = part.getTexCoord(i);
+                vertex[0] = partVertex.x + pos[0];
+                vertex[1] = partVertex.y + pos[1] + verticalOffset;
+                vertex[2] = partVertex.z + pos[2];
+                float u = texCoord.x;
+                float v = texCoord.y;
+                if (element(partVertex, axisU) > 0) {
+                    vertex[axisU] += width - 1;
+                    u += gradientU.x * (width - 1);
+                    v += gradientU.y * (width - 1);
+                }
+                if (element(partVertex, axisV) > 0) {
+                    vertex[axisV] += height - 1;
+                    u += gradientV.x * (height - 1);
+                    v += gradientV.y * (height - 1);
+                }
+
+                elements.tex.add(u);
+                elements.tex.add(v);
+                elements.color.add(colorOffset.x);
+                elements.color.add(colorOffset.y);
+                elements.color.add(colorOffset.z);
+                elements.color.add(colorOffset.w);
+                elements.vertices.add(vertex[0]);
+                elements.vertices.add(vertex[1]);
+                elements.vertices.add(vertex[2]);
+                elements.normals.add(partNormal.x);
+                elements.normals.add(partNormal.y);
+                elements.normals.add(partNormal.z);
+                elements.flags.add(flagValue);
+            }
+            elements.vertexCount += part.size();
+            for (int i = 0; i < part.indicesSize(); i++) {
+                elements.indices.add(part.getIndex(i) + nextIndex);
+            }
+        }
+
+        /**
+         * Calculates the inputs of the lighting that {@link ChunkTessellator} calculates for the corners of the face.
+         *
+         * @return the lighting inputs packed into an int, or -1 if they differ between the corners
+         */
+        private int calcFaceLight(Side side, Vector3i normal, int x, int y, int z) {
+            // The corners of the face, with corner c lying between the blocks c - 1 and c
+            int minX = x + ((normal.x > 0) ? 1 : 0);
+            int minY = y + ((normal.y > 0) ? 1 : 0);
+            int minZ = z + ((normal.z > 0) ? 1 : 0);
+            int maxX = (normal.x != 0) ? minX : x + 1;
+            int maxY = (normal.y != 0) ? minY : y + 1;
+            int maxZ = (normal.z != 0) ? minZ : z + 1;
+
+            int faceLight = -1;
+            for (int cy = minY; cy <= maxY; cy++) {
+                for (int cz = minZ; cz <= maxZ; cz++) {
+                    for (int cx = minX; cx <= maxX; cx++) {
+                        int cornerLight = calcCornerLight(normal, cx, cy, cz);
+                        if (faceLight != -1 && cornerLight != faceLight) {
+                            return -1;
+                        }
+                        faceLight = cornerLight;
+                    }
+                }
+            }
+            return faceLight;
+        }
+
+        private int calcCornerLight(Vector3i normal, int cx, int cy, int cz) {
+            int sunlightSum = 0;
+            int sunlightCount = 0;
+            int lightSum = 0;
+            int lightCount = 0;
+            int occluders = 0;
+            int billboardOccluders = 0;
+            for (int y = cy - 1; y <= cy; y++) {
+                for (int z = cz - 1; z <= cz; z++) {
+                    for (int x = cx - 1; x <= cx; x++) {
+                        int index = paddedIndex(x, y, z);
+                        byte sunlight = snapshot.getSunlightAt(index);
+                        if (sunlight > 0) {
+                            sunlightSum += sunlight;
+                            sunlightCount++;
+                        }
+                        byte light = snapshot.getLightAt(index);
+                        if (light > 0) {
+                            lightSum += light;
+                            lightCount++;
+                        }
+                        // Only the blocks in front of the face occlude it
+                        boolean inFront = (normal.x == 0 || (x == cx) == (normal.x > 0))
+                                && (normal.y == 0 || (y == cy) == (normal.y > 0))
+                                && (normal.z == 0 || (z == cz) == (normal.z > 0));
+                        Block block = snapshot.getBlockAt(index);
+                        if (inFront && block.isShadowCasting()) {
+                            if (block.isTranslucent()) {
+                                billboardOccluders++;
+                            } else {
+                                occluders++;
+                            }
+                        }
+                    }
+                }
+            }
+            return sunlightSum | sunlightCount << 7 | lightSum << 11 | lightCount << 18 | occluders << 22 | billboardOccluders << 25;
+        }
+
+        private CubeFaces getCubeFaces(Block block) {
+            CubeFaces faces = cubeFaces.get(block);
+            if (faces == null) {
+                faces = CubeFaces.create(block, relativeTileSize);
+                cubeFaces.put(block, faces);
+            }
+            return (faces != CubeFaces.NONE) ? faces : null;
+        }
+
+        private int paddedIndex(int x, int y, int z) {
+            return PaddedChunkSnapshot.index(x, y + verticalOffset, z);
+        }
+
+        private int index(int x, int y, int z) {
+            return x + ChunkConstants.SIZE_X * (z + ChunkConstants.SIZE_Z * y);
+        }
+    }
+
+    /**
+     * The faces of a block that gets tessellated by the greedy mesher.
+     */
+    private static final class CubeFaces {
+        private static final CubeFaces NONE = new CubeFaces(ChunkMesh.RenderType.OPAQUE);
+
+        private final ChunkMesh.RenderType renderType;
+        private final BlockMeshPart[] parts = new BlockMeshPart[SIDES.length];
+        private final ChunkVertexFlag[] flags = new ChunkVertexFlag[SIDES.length];
+        private final boolean[] mergeable = new boolean[SIDES.length];
+        private final int[] tilesX = new int[SIDES.length];
+        private final int[] tilesY = new int[SIDES.length];
+        private final Vector2f[] gradientsU = new Vector2f[SIDES.length];
+        private final Vector2f[] gradientsV = new Vector2f[SIDES.length];
+
+        private CubeFaces(ChunkMesh.RenderType renderType) {
+            this.renderType = renderType;
+        }
+
+        /**
+         * @return the faces of the block or {@link #NONE} if it has to be passed to its mesh generator
+         */
+        static CubeFaces create(Block block, float relativeTileSize) {
+            if (!(block.getMeshGenerator() instanceof BlockMeshGeneratorSingleShape) || block.isLiquid() || block.isWater()
+                    || block.isLava() || block.isWaving() || block.isDoubleSided()) {
+                return NONE;
+            }
+            BlockAppearance appearance = block.getPrimaryAppearance();
+            if (appearance.getPart(BlockPart.CENTER) != null) {
+                return NONE;
+            }
+
+            // Same as in BlockMeshGeneratorSingleShape
+            ChunkMesh.RenderType renderType = ChunkMesh.RenderType.TRANSLUCENT;
+            if (!block.isTranslucent()) {
+                renderType = ChunkMesh.RenderType.OPAQUE;
+            }
+            if (block.isIce()) {
+                renderType = ChunkMesh.RenderType.WATER_AND_ICE;
+            }
+
+            CubeFaces faces = new CubeFaces(renderType);
+            for (Side side : SIDES) {
+                BlockPart blockPart = BlockPart.fromSide(side);
+                int i = side.ordinal();
+                faces.parts[i] = appearance.getPart(blockPart);
+                faces.flags[i] = (block.isGrass() && side != Side.TOP && side != Side.BOTTOM) ? ChunkVertexFlag.COLOR_MASK : ChunkVertexFlag.NORMAL;
+                if (faces.parts[i] != null) {
+                    faces.mergeable[i] = faces.initMerging(side, appearance.getTextureAtlasPos(blockPart), relativeTileSize);
+                }
+            }
+            return faces;
+        }
+
+        /**
+         * Checks that the part of the side is a single quad covering the whole side, with the texture coordinates
+         * covering a whole tile, and calculates how the texture coordinates continue into the next blocks.
+         *
+         * @return whether faces of this side can be merged
+         */
+        private boolean initMerging(Side side, Vector2f atlasPos, float relativeTileSize) {
+            int i = side.ordinal();
+            BlockMeshPart part = parts[i];
+            if (part.size() != 4 || part.indicesSize() != 6) {
+                return false;
+            }
+            Vector3i normal = side.getVector3i();
+            int axisN = (normal.x != 0) ? 0 : (normal.y != 0) ? 1 : 2;
+            int axisU = (axisN + 1) % 3;
+            int axisV = (axisN + 2) % 3;
+
+            Vector2f gradientU = new Vector2f();
+            Vector2f gradientV = new Vector2f();
+            int corners = 0;
+            for (int v = 0; v < 4; v++) {
+                Vector3f vertex = part.getVertex(v);
+                float signN = Math.signum(normal.x + normal.y + normal.z);
+                if (!isClose(element(vertex, axisN), 0.5f * signN, EPSILON)
+                        || !isClose(Math.abs(element(vertex, axisU)), 0.5f, EPSILON) || !isClose(Math.abs(element(vertex, axisV)), 0.5f, EPSILON)) {
+                    return false;
+                }
+                float signU = Math.signum(element(vertex, axisU));
+                float signV = Math.signum(element(vertex, axisV));
+                corners |= 1 << ((signU > 0 ? 1 : 0) + (signV > 0 ? 2 : 0));
+                Vector2f texCoord = part.getTexCoord(v);
+                gradientU.x += texCoord.x * signU / 2;
+                gradientU.y += texCoord.y * signU / 2;
+                gradientV.x += texCoord.x * signV / 2;
+                gradientV.y += texCoord.y * signV / 2;
+            }
+            if (corners != 0b1111) {
+                return false;
+            }
+
+            // The texture coordinates have to step by a whole tile, along different axes
+            float tileCoverage = relativeTileSize * TILE_COVERAGE;
+            float texEpsilon = relativeTileSize * TEX_EPSILON;
+            boolean uAlongX = isClose(Math.abs(gradientU.x), tileCoverage, texEpsilon) && isClose(gradientU.y, 0, texEpsilon);
+            boolean uAlongY = isClose(Math.abs(gradientU.y), tileCoverage, texEpsilon) && isClose(gradientU.x, 0, texEpsilon);
+            boolean vAlongX = isClose(Math.abs(gradientV.x), tileCoverage, texEpsilon) && isClose(gradientV.y, 0, texEpsilon);
+            boolean vAlongY = isClose(Math.abs(gradientV.y), tileCoverage, texEpsilon) && isClose(gradientV.x, 0, texEpsilon);
+            if (!(uAlongX && vAlongY) && !(uAlongY && vAlongX)) {
+                return false;
+            }
+
+            int tileX = Math.round(atlasPos.x / relativeTileSize);
+            int tileY = Math.round(atlasPos.y / relativeTileSize);
+            if (!isClose(atlasPos.x, tileX * relativeTileSize, texEpsilon) || !isClose(atlasPos.y, tileY * relativeTileSize, texEpsilon)
+                    || tileX >= ChunkVertexFlag.MAX_TILES_PER_DIM || tileY >= ChunkVertexFlag.MAX_TILES_PER_DIM) {
+                return false;
+            }
+            for (int v = 0; v < 4; v++) {
+                Vector2f texCoord = part.getTexCoord(v);
+                if (texCoord.x < atlasPos.x - texEpsilon || texCoord.x > atlasPos.x + relativeTileSize + texEpsilon
+                        || texCoord.y < atlasPos.y - texEpsilon || texCoord.y > atlasPos.y + relativeTileSize + texEpsilon) {
+                    return false;
+                }
+            }
+
+            tilesX[i] = tileX;
+            tilesY[i] = tileY;
+            gradientsU[i] = gradientU;
+            gradientsV[i] = gradientV;
+            return true;
+        }
+
+        private static boolean isClose(float a, float b, float epsilon) {
+            return Math.abs(a - b) < epsilon;
+        }
+    }
+
+    private static float element(Vector3f vector, int axis) {
+        switch (axis) {
+            case 0:
+                return vector.x;
+            case 1:
+                return vector.y;
+            default:
+                return vector.z;
+        }
+    }
+}
@@ -33,12 +33,13 @@
 import org.terasology.world.chunks.RenderableChunk;
 import org.terasology.world.chunks.pipeline.ChunkTask;
 import org.terasology.world.chunks.pipeline.ShutdownChunkTask;
+import org.terasology.world.internal.PaddedChunkSnapshot;
 
-import java.util.Comparator;
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.BlockingDeque;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.ToIntFunction;
 
 /**
  * Provides the mechanism for updating and generating chunk meshes.
@@ -71,7 +72,7 @@ public ChunkMeshUpdateManager(ChunkTessellator tessellator, WorldProvider worldP
         this.tessellator = tessellator;
         this.worldProvider = worldProvider;
 
-        chunkUpdater = TaskMaster.createDynamicPriorityTaskMaster("Chunk-Updater", NUM_TASK_THREADS, new ChunkUpdaterComparator());
+        chunkUpdater = TaskMaster.createBucketedPriorityTaskMaster("Chunk-Updater", NUM_TASK_THREADS, new ChunkUpdaterPriority());
     }
 
     /**
@@ -99,9 +100,13 @@ public boolean queueChunkUpdate(RenderableChunk chunk) {
      */
     public void setCameraPosition(Vector3f cameraPosition) {
         Vector3i chunkPos = ChunkMath.calcChunkPos(cameraPosition);
+        boolean moved = chunkPos.x != cameraChunkPosX || chunkPos.y != cameraChunkPosY || chunkPos.z != cameraChunkPosZ;
         cameraChunkPosX = chunkPos.x;
         cameraChunkPosY = chunkPos.y;
         cameraChunkPosZ = chunkPos.z;
+        if (moved) {
+            chunkUpdater.reprioritize();
+        }
     }
 
     public List<RenderableChunk> availableChunksForUpdate() {
@@ -162,22 +167,26 @@ public boolean isTerminateSignal() {
 
         @Override
         public void run() {
-            ChunkMesh newMesh;
             ChunkView chunkView = worldProvider.getLocalView(c.getPosition());
             if (chunkView != null) {
                 c.setDirty(false);
+                PaddedChunkSnapshot snapshot = null;
+                // Only hold the locks for copying the chunk, tessellation works on the copy
                 chunkView.readLock();
                 try {
                     if (chunkView.isValidView()) {
-                        newMesh = tessellator.generateMesh(chunkView, ChunkConstants.SIZE_Y, 0);
-
-                        c.setPendingMesh(newMesh);
-                        ChunkMonitor.fireChunkTessellated(c.getPosition(), newMesh);
+                        snapshot = PaddedChunkSnapshot.of(chunkView);
                     }
                 } finally {
                     chunkView.readUnlock();
                 }
 
+                if (snapshot != null) {
+                    ChunkMesh newMesh = tessellator.generateMesh(snapshot, ChunkConstants.SIZE_Y, 0);
+
+                    c.setPendingMesh(newMesh);
+                    ChunkMonitor.fireChunkTessellated(c.getPosition(), newMesh);
+                }
             }
             chunkMeshUpdateManager.finishedProcessing(c);
             // Clean these up because the task executor holds the object in memory.
@@ -187,13 +196,9 @@ public void run() {
         }
     }
 
-    private class ChunkUpdaterComparator implements Comparator<ChunkTask> {
+    private class ChunkUpdaterPriority implements ToIntFunction<ChunkTask> {
         @Override
-        public int compare(ChunkTask o1, ChunkTask o2) {
-            return score(o1) - score(o2);
-        }
-
-        private int score(ChunkTask task) {
+        public int applyAsInt(ChunkTask task) {
             if (task.isTerminateSignal()) {
                 return -1;
             }
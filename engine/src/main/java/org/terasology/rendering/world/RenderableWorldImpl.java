@@ -34,6 +34,7 @@
 import org.terasology.rendering.world.viewDistance.ViewDistance;
 import org.terasology.world.ChunkView;
 import org.terasology.world.WorldProvider;
+import org.terasology.world.block.tiles.WorldAtlas;
 import org.terasology.world.chunks.ChunkConstants;
 import org.terasology.world.chunks.ChunkProvider;
 import org.terasology.world.chunks.RenderableChunk;
@@ -81,7 +82,12 @@ public class RenderableWorldImpl implements RenderableWorld {
     public RenderableWorldImpl(WorldProvider worldProvider, ChunkProvider chunkProvider, GLBufferPool bufferPool, Camera playerCamera, Camera shadowMapCamera) {
         this.worldProvider = worldProvider;
         this.chunkProvider = chunkProvider;
-        chunkTessellator = new ChunkTessellator(bufferPool);
+        WorldAtlas worldAtlas = CoreRegistry.get(WorldAtlas.class);
+        if (renderingConfig.isGreedyMeshing() && worldAtlas != null) {
+            chunkTessellator = new ChunkTessellator(bufferPool, worldAtlas.getRelativeTileSize());
+        } else {
+            chunkTessellator = new ChunkTessellator(bufferPool);
+        }
         chunkMeshUpdateManager = new ChunkMeshUpdateManager(chunkTessellator, worldProvider);
 
         this.playerCamera = playerCamera;
@@ -0,0 +1,148 @@
+/*
+ * Copyright 2015 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.utilities.collection;
+
+import com.google.common.collect.Lists;
+
+import java.util.AbstractCollection;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.ToIntFunction;
+
+/**
+ * A collection that iterates its elements by ascending priority, with the elements sorted into a bucket per priority
+ * instead of being kept sorted.
+ * <br><br>
+ * Adding and removing elements takes constant time. Priorities below 0 share the first bucket, priorities beyond the
+ * last bucket share the last one, and elements of the same bucket are iterated in the order they were added. The
+ * priority of an element is calculated when it gets added, {@link #reprioritize()} calculates the priorities of all
+ * elements again when they have changed.
+ * <br><br>
+ * This class is not thread safe.
+ */
+public class PriorityBuckets<T> extends AbstractCollection<T> {
+
+    private final ToIntFunction<? super T> priority;
+    private final ArrayDeque<T>[] buckets;
+    private int size;
+
+    /**
+     * @param priority    calculates the priority of an element, lower values get iterated first
+     * @param bucketCount the number of distinct priorities
+     */
+    @SuppressWarnings("unchecked")
+    public PriorityBuckets(ToIntFunction<? super T> priority, int bucketCount) {
+        if (bucketCount <= 0) {
+            throw new IllegalArgumentException("Must have at least one bucket.");
+        }
+        this.priority = priority;
+        buckets = new ArrayDeque[bucketCount];
+        for (int i = 0; i < bucketCount; i++) {
+            buckets[i] = new ArrayDeque<>();
+        }
+    }
+
+    @Override
+    public boolean add(T element) {
+        bucketOf(element).add(element);
+        size++;
+        return true;
+    }
+
+    /**
+     * Calculates the priority of all elements again, and moves them to the bucket of their new priority.
+     */
+    public void reprioritize() {
+        List<T> elements = Lists.newArrayListWithCapacity(size);
+        for (ArrayDeque<T> bucket : buckets) {
+            elements.addAll(bucket);
+            bucket.clear();
+        }
+        for (T element : elements) {
+            bucketOf(element).add(element);
+        }
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void clear() {
+        for (ArrayDeque<T> bucket : buckets) {
+            bucket.clear();
+        }
+        size = 0;
+    }
+
+    /**
+     * @return an iterator over the elements by ascending priority, which supports removal
+     */
+    @Override
+    public Iterator<T> iterator() {
+        return new BucketIterator();
+    }
+
+    private ArrayDeque<T> bucketOf(T element) {
+        int bucket = priority.applyAsInt(element);
+        if (bucket < 0) {
+            bucket = 0;
+        } else if (bucket >= buckets.length) {
+            bucket = buckets.length - 1;
+        }
+        return buckets[bucket];
+    }
+
+    private class BucketIterator implements Iterator<T> {
+        private int bucketIndex;
+        private Iterator<T> bucketIterator = buckets[0].iterator();
+        private Iterator<T> lastIterator;
+
+        @Override
+        public boolean hasNext() {
+            while (!bucketIterator.hasNext()) {
+                if (bucketIndex + 1 >= buckets.length) {
+                    return false;
+                }
+                bucketIndex++;
+                bucketIterator = buckets[bucketIndex].iterator();
+            }
+            return true;
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            lastIterator = bucketIterator;
+            return bucketIterator.next();
+        }
+
+        @Override
+        public void remove() {
+            if (lastIterator == null) {
+                throw new IllegalStateException();
+            }
+            lastIterator.remove();
+            lastIterator = null;
+            size--;
+        }
+    }
+}
@@ -0,0 +1,259 @@
+/*
+ * Copyright 2015 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.utilities.collection;
+
+import com.google.common.collect.Lists;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * A hierarchical timer wheel, holding elements until their deadline has passed.
+ * <br><br>
+ * The wheel has four levels of 256 slots each. The first level has a slot for each of the next 256 time units, every
+ * further level covers 256 times the time span of the level below. Elements get placed in the lowest level that covers
+ * their deadline and move down a level whenever the slot they are in comes up. Scheduling an element therefore takes
+ * constant time and advancing the wheel only touches the elements that expire or move down, plus one slot per 256 time
+ * units passed. Advancing the wheel a long way at once sorts all elements in again instead. Deadlines more than 2^32
+ * time units ahead are held at the highest level until they come into range.
+ * <br><br>
+ * Elements can't be removed individually. Users are expected to check whether an expired element is still relevant,
+ * which is cheaper than tracking the elements, and to schedule an element again whenever its deadline moves forward.
+ * <br><br>
+ * This class is not thread safe.
+ */
+public final class TimerWheel<T> {
+
+    private static final int SLOT_BITS = 8;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+    private static final long RANGE = 1L << (SLOT_BITS * LEVELS);
+
+    /**
+     * Advancing further than this at once takes longer than sorting all timers into the wheel again.
+     */
+    private static final long REBUILD_DISTANCE = 1L << (SLOT_BITS * 2);
+
+    private final List<Timer<T>>[][] wheels;
+    private final long[] occupiedFirstLevelSlots = new long[SLOTS / Long.SIZE];
+    private final List<Timer<T>> pending = Lists.newArrayList();
+    private boolean started;
+    private long currentTime;
+    private int size;
+
+    @SuppressWarnings("unchecked")
+    public TimerWheel() {
+        wheels = new List[LEVELS][SLOTS];
+    }
+
+    /**
+     * Adds an element, which expires once the wheel gets advanced to its deadline or beyond. Deadlines that have
+     * passed already expire with the next advance.
+     */
+    public void schedule(T element, long deadline) {
+        Timer<T> timer = new Timer<>(element, deadline);
+        size++;
+        if (started) {
+            insert(timer, currentTime + 1);
+        } else {
+            pending.add(timer);
+        }
+    }
+
+    /**
+     * Advances the wheel to the given time. The first call sets the starting time of the wheel.
+     *
+     * @param time    the current time, in the same unit as the deadlines
+     * @param expired the collection the elements with a deadline up to the given time get added to
+     */
+    public void advanceTo(long time, Collection<? super T> expired) {
+        if (!started) {
+            start(time, expired);
+            return;
+        }
+        if (time - currentTime >= REBUILD_DISTANCE) {
+            rebuild(time, expired);
+            return;
+        }
+        while (currentTime < time) {
+            long next = currentTime + 1;
+            int index = (int) (next & SLOT_MASK);
+            if (index != 0) {
+                // Skip the empty slots up to the next one with elements, or the next time the higher levels move down
+                next += nextOccupiedSlot(index) - index;
+                if (next > time) {
+                    currentTime = time;
+                    break;
+                }
+                index = (int) (next & SLOT_MASK);
+            }
+            currentTime = next;
+            if (index == 0) {
+                cascade(1);
+            }
+            expire(index, expired);
+        }
+    }
+
+    /**
+     * @return the number of scheduled elements that have not expired yet
+     */
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        for (List<Timer<T>>[] wheel : wheels) {
+            for (int i = 0; i < SLOTS; i++) {
+                wheel[i] = null;
+            }
+        }
+        for (int i = 0; i < occupiedFirstLevelSlots.length; i++) {
+            occupiedFirstLevelSlots[i] = 0;
+        }
+        pending.clear();
+        size = 0;
+    }
+
+    private void start(long time, Collection<? super T> expired) {
+        started = true;
+        currentTime = time;
+        reinsert(pending, expired);
+        pending.clear();
+    }
+
+    private void rebuild(long time, Collection<? super T> expired) {
+        List<Timer<T>> timers = Lists.newArrayListWithCapacity(size);
+        for (List<Timer<T>>[] wheel : wheels) {
+            for (int i = 0; i < SLOTS; i++) {
+                if (wheel[i] != null) {
+                    timers.addAll(wheel[i]);
+                    wheel[i] = null;
+                }
+            }
+        }
+        for (int i = 0; i < occupiedFirstLevelSlots.length; i++) {
+            occupiedFirstLevelSlots[i] = 0;
+        }
+        currentTime = time;
+        reinsert(timers, expired);
+    }
+
+    private void reinsert(List<Timer<T>> timers, Collection<? super T> expired) {
+        for (Timer<T> timer : timers) {
+            if (timer.deadline <= currentTime) {
+                expired.add(timer.element);
+                size--;
+            } else {
+                insert(timer, currentTime + 1);
+            }
+        }
+    }
+
+    /**
+     * @param minExpiry the earliest time the timer may expire at, as the slots up to the current time may have been
+     *                  handled already
+     */
+    private void insert(Timer<T> timer, long minExpiry) {
+        long expiry = Math.max(timer.deadline, minExpiry);
+        long delta = expiry - currentTime;
+        if (delta >= RANGE) {
+            // Gets inserted again once it comes into range
+            expiry = currentTime + RANGE - 1;
+            delta = RANGE - 1;
+        }
+        int level = 0;
+        while (delta >= 1L << (SLOT_BITS * (level + 1))) {
+            level++;
+        }
+        int index = (int) ((expiry >>> (SLOT_BITS * level)) & SLOT_MASK);
+        List<Timer<T>> slot = wheels[level][index];
+        if (slot == null) {
+            slot = Lists.newArrayList();
+            wheels[level][index] = slot;
+        }
+        slot.add(timer);
+        if (level == 0) {
+            occupiedFirstLevelSlots[index >>> 6] |= 1L << (index & 63);
+        }
+    }
+
+    /**
+     * Moves the timers of the slot of the given level that starts at the current time down to the lower levels.
+     */
+    private void cascade(int level) {
+        int index = (int) ((currentTime >>> (SLOT_BITS * level)) & SLOT_MASK);
+        List<Timer<T>> slot = wheels[level][index];
+        if (slot != null) {
+            wheels[level][index] = null;
+            for (Timer<T> timer : slot) {
+                insert(timer, currentTime);
+            }
+        }
+        if (index == 0 && level + 1 < LEVELS) {
+            cascade(level + 1);
+        }
+    }
+
+    private void expire(int index, Collection<? super T> expired) {
+        List<Timer<T>> slot = wheels[0][index];
+        if (slot == null) {
+            return;
+        }
+        wheels[0][index] = null;
+        occupiedFirstLevelSlots[index >>> 6] &= ~(1L << (index & 63));
+        for (Timer<T> timer : slot) {
+            if (timer.deadline <= currentTime) {
+                expired.add(timer.element);
+                size--;
+            } else {
+                insert(timer, currentTime + 1);
+            }
+        }
+    }
+
+    /**
+     * @return the index of the first occupied slot of the first level at or after the given index, or the number of
+     * slots if there is none
+     */
+    private int nextOccupiedSlot(int fromIndex) {
+        int word = fromIndex >>> 6;
+        long bits = occupiedFirstLevelSlots[word] & (-1L << (fromIndex & 63));
+        while (bits == 0) {
+            word++;
+            if (word == occupiedFirstLevelSlots.length) {
+                return SLOTS;
+            }
+            bits = occupiedFirstLevelSlots[word];
+        }
+        return word * Long.SIZE + Long.numberOfTrailingZeros(bits);
+    }
+
+    private static final class Timer<T> {
+        private final T element;
+        private final long deadline;
+
+        private Timer(T element, long deadline) {
+            this.element = element;
+            this.deadline = deadline;
+        }
+    }
+}
@@ -0,0 +1,382 @@
+/*
+ * Copyright 2015 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.utilities.concurrency;
+
+import com.google.common.collect.Lists;
+
+import java.util.AbstractQueue;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Queue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.ToIntFunction;
+
+/**
+ * A blocking queue that hands out the elements with the lowest priority value first, for many producers and consumers.
+ * <br><br>
+ * The priority of an element is calculated once when it is added, and sorts the element into a bucket with the
+ * elements of the same priority. Priorities below 0 share the first bucket, priorities beyond the last bucket share
+ * the last one. Elements of the same bucket are handed out in the order they were added. When the priorities of the
+ * queued elements change, like when the player moves, {@link #reprioritize()} calculates them again in one batch.
+ * <br><br>
+ * The buckets are split across a number of shards, usually one per consumer thread. Added elements are spread over the
+ * shards, and each thread blocking in {@link #take()} is given a shard of its own, from which it takes unless another
+ * shard has an element of higher priority. Other callers take from whichever shard has the element of highest
+ * priority. Adding and taking don't lock, so the consumers only contend when they take from the same bucket. The order
+ * is exact for a single shard, with more shards an element may be handed out while a concurrently added element of
+ * higher priority is still in flight.
+ * <br><br>
+ * The iterator is weakly consistent: it never throws {@link java.util.ConcurrentModificationException}, and may miss
+ * elements that are added, taken or reprioritized while it iterates.
+ */
+public class BucketedPriorityBlockingQueue<T> extends AbstractQueue<T> implements BlockingQueue<T> {
+
+    private static final int DEFAULT_BUCKETS = 128;
+
+    private final ToIntFunction<? super T> priority;
+    private final Shard<T>[] shards;
+    private final AtomicInteger nextShard = new AtomicInteger();
+    private final AtomicInteger nextHomeShard = new AtomicInteger();
+    private final ThreadLocal<Shard<T>> homeShard = new ThreadLocal<>();
+
+    /**
+     * Guards the number of running reprioritizations, consumers wait on it while all elements are being moved
+     */
+    private final Lock reprioritizationLock = new ReentrantLock();
+    private final Condition reprioritizationFinished = reprioritizationLock.newCondition();
+    private int runningReprioritizations;
+
+    /**
+     * Counts the elements, so consumers can block until one is available
+     */
+    private final Semaphore available = new Semaphore(0);
+
+    public BucketedPriorityBlockingQueue(ToIntFunction<? super T> priority, int shardCount) {
+        this(priority, shardCount, DEFAULT_BUCKETS);
+    }
+
+    /**
+     * @param priority    calculates the priority of an element, lower values get handed out first
+     * @param shardCount  the number of shards, usually the number of consumer threads
+     * @param bucketCount the number of distinct priorities
+     */
+    @SuppressWarnings("unchecked")
+    public BucketedPriorityBlockingQueue(ToIntFunction<? super T> priority, int shardCount, int bucketCount) {
+        if (shardCount <= 0 || bucketCount <= 0) {
+            throw new IllegalArgumentException("Must have at least one shard and bucket.");
+        }
+        this.priority = priority;
+        shards = new Shard[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new Shard<>(bucketCount);
+        }
+    }
+
+    /**
+     * Calculates the priority of all queued elements again, and moves them to the bucket of their new priority.
+     * Elements that get added or taken meanwhile may be handed out slightly out of order.
+     */
+    public void reprioritize() {
+        reprioritizationLock.lock();
+        try {
+            runningReprioritizations++;
+        } finally {
+            reprioritizationLock.unlock();
+        }
+        try {
+            List<T> elements = Lists.newArrayList();
+            for (Shard<T> shard : shards) {
+                for (Queue<T> bucket : shard.buckets) {
+                    elements.clear();
+                    for (T element = bucket.poll(); element != null; element = bucket.poll()) {
+                        elements.add(element);
+                    }
+                    for (T element : elements) {
+                        bucketOf(element, shard).add(element);
+                    }
+                }
+            }
+        } finally {
+            reprioritizationLock.lock();
+            try {
+                runningReprioritizations--;
+                reprioritizationFinished.signalAll();
+            } finally {
+                reprioritizationLock.unlock();
+            }
+        }
+    }
+
+    @Override
+    public boolean add(T t) {
+        return offer(t);
+    }
+
+    @Override
+    public void put(T t) throws InterruptedException {
+        offer(t);
+    }
+
+    @Override
+    public boolean offer(T t, long timeout, TimeUnit unit) throws InterruptedException {
+        return offer(t);
+    }
+
+    @Override
+    public boolean offer(T t) {
+        if (t == null) {
+            throw new NullPointerException();
+        }
+        Shard<T> shard = shards[Math.floorMod(nextShard.getAndIncrement(), shards.length)];
+        shard.size.incrementAndGet();
+        bucketOf(t, shard).add(t);
+        available.release();
+        return true;
+    }
+
+    @Override
+    public T poll() {
+        if (!available.tryAcquire()) {
+            return null;
+        }
+        return remove(homeShard.get());
+    }
+
+    @Override
+    public T take() throws InterruptedException {
+        Shard<T> home = homeShard.get();
+        if (home == null) {
+            // Only threads that block for elements are consumers worth a shard of their own
+            home = shards[Math.floorMod(nextHomeShard.getAndIncrement(), shards.length)];
+            homeShard.set(home);
+        }
+        available.acquire();
+        return remove(home);
+    }
+
+    @Override
+    public T poll(long timeout, TimeUnit unit) throws InterruptedException {
+        if (!available.tryAcquire(timeout, unit)) {
+            return null;
+        }
+        return remove(homeShard.get());
+    }
+
+    @Override
+    public T peek() {
+        for (int bucket = 0; bucket < shards[0].buckets.length; bucket++) {
+            for (Shard<T> shard : shards) {
+                T element = shard.buckets[bucket].peek();
+                if (element != null) {
+                    return element;
+                }
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public int remainingCapacity() {
+        return Integer.MAX_VALUE;
+    }
+
+    @Override
+    public int drainTo(Collection<? super T> c) {
+        return drainTo(c, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public int drainTo(Collection<? super T> c, int maxElements) {
+        int count = 0;
+        while (count < maxElements && available.tryAcquire()) {
+            c.add(remove(homeShard.get()));
+            count++;
+        }
+        return count;
+    }
+
+    @Override
+    public int size() {
+        return available.availablePermits();
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        if (o == null || !available.tryAcquire()) {
+            return false;
+        }
+        for (Shard<T> shard : shards) {
+            for (Queue<T> bucket : shard.buckets) {
+                if (bucket.remove(o)) {
+                    shard.size.decrementAndGet();
+                    return true;
+                }
+            }
+        }
+        available.release();
+        return false;
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return new WeaklyConsistentIterator();
+    }
+
+    /**
+     * Removes the element of the highest priority, preferring the given shard. The caller must have acquired a permit,
+     * so there is an element to remove, although it may be moving between buckets at this moment.
+     *
+     * @param home the shard of the calling consumer, or null to take from the best shard
+     */
+    private T remove(Shard<T> home) {
+        while (true) {
+            Shard<T> best = null;
+            int bestBucket = shards[0].buckets.length;
+            if (home != null) {
+                best = home;
+                bestBucket = home.lowestOccupiedBucket(bestBucket);
+            }
+            for (Shard<T> shard : shards) {
+                if (shard != home) {
+                    // Steal if another shard has an element of higher priority
+                    int bucket = shard.lowestOccupiedBucket(bestBucket);
+                    if (bucket < bestBucket) {
+                        best = shard;
+                        bestBucket = bucket;
+                    }
+                }
+            }
+            if (best != null && bestBucket < best.buckets.length) {
+                T element = best.buckets[bestBucket].poll();
+                if (element != null) {
+                    best.size.decrementAndGet();
+                    return element;
+                }
+            } else {
+                awaitReprioritization();
+            }
+        }
+    }
+
+    /**
+     * Blocks while a reprioritization is moving elements between buckets, as the element the caller holds a permit for
+     * may be among them.
+     */
+    private void awaitReprioritization() {
+        reprioritizationLock.lock();
+        try {
+            while (runningReprioritizations > 0) {
+                reprioritizationFinished.awaitUninterruptibly();
+            }
+        } finally {
+            reprioritizationLock.unlock();
+        }
+    }
+
+    private Queue<T> bucketOf(T element, Shard<T> shard) {
+        int bucket = priority.applyAsInt(element);
+        if (bucket < 0) {
+            bucket = 0;
+        } else if (bucket >= shard.buckets.length) {
+            bucket = shard.buckets.length - 1;
+        }
+        return shard.buckets[bucket];
+    }
+
+    /**
+     * Iterates over the buckets of all shards in the order of their priority.
+     */
+    private final class WeaklyConsistentIterator implements Iterator<T> {
+        private int bucket;
+        private int shard;
+        private Iterator<T> current = shards[0].buckets[0].iterator();
+        private T next;
+        private T lastReturned;
+
+        @Override
+        public boolean hasNext() {
+            while (next == null) {
+                if (current.hasNext()) {
+                    next = current.next();
+                } else if (++shard < shards.length) {
+                    current = shards[shard].buckets[bucket].iterator();
+                } else if (++bucket < shards[0].buckets.length) {
+                    shard = 0;
+                    current = shards[shard].buckets[bucket].iterator();
+                } else {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            lastReturned = next;
+            next = null;
+            return lastReturned;
+        }
+
+        @Override
+        public void remove() {
+            if (lastReturned == null) {
+                throw new IllegalStateException();
+            }
+            BucketedPriorityBlockingQueue.this.remove(lastReturned);
+            lastReturned = null;
+        }
+    }
+
+    private static final class Shard<T> {
+        private final Queue<T>[] buckets;
+        private final AtomicInteger size = new AtomicInteger();
+
+        @SuppressWarnings("unchecked")
+        private Shard(int bucketCount) {
+            buckets = new Queue[bucketCount];
+            for (int i = 0; i < bucketCount; i++) {
+                buckets[i] = new ConcurrentLinkedQueue<>();
+            }
+        }
+
+        /**
+         * @return the index of the first bucket with an element below the given limit, or the limit if there is none
+         */
+        private int lowestOccupiedBucket(int limit) {
+            if (size.get() == 0) {
+                return limit;
+            }
+            for (int i = 0; i < limit; i++) {
+                if (!buckets[i].isEmpty()) {
+                    return i;
+                }
+            }
+            return limit;
+        }
+    }
+}
@@ -29,6 +29,7 @@
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.PriorityBlockingQueue;
 import java.util.concurrent.TimeUnit;
+import java.util.function.ToIntFunction;
 
 /**
  * @author Immortius
@@ -68,6 +69,16 @@ public static <T extends Task> TaskMaster<T> createDynamicPriorityTaskMaster(Str
         return new TaskMaster<>(name, threads, new DynamicPriorityBlockingQueue<T>(comparator));
     }
 
+    /**
+     * Creates a task master whose tasks are sorted into buckets by priority when they are offered. The priorities of the
+     * queued tasks are only calculated again when {@link #reprioritize()} is called.
+     *
+     * @param priority calculates the priority of a task, tasks with lower values run first
+     */
+    public static <T extends Task> TaskMaster<T> createBucketedPriorityTaskMaster(String name, int threads, ToIntFunction<? super T> priority) {
+        return new TaskMaster<>(name, threads, new BucketedPriorityBlockingQueue<T>(priority, threads));
+    }
+
     /**
      * Offers a task to this task master. This does not block, but may fail if the queue is full.
      *
@@ -87,6 +98,15 @@ public void put(T task) throws InterruptedException {
         taskQueue.put(task);
     }
 
+    /**
+     * Calculates the priority of all queued tasks again, if this task master has a bucketed priority queue.
+     */
+    public void reprioritize() {
+        if (taskQueue instanceof BucketedPriorityBlockingQueue) {
+            ((BucketedPriorityBlockingQueue<T>) taskQueue).reprioritize();
+        }
+    }
+
     public void shutdown(T shutdownTask, boolean awaitComplete) {
         if (!shutdownTask.isTerminateSignal()) {
             throw new IllegalArgumentException("Expected task to provide terminate signal");
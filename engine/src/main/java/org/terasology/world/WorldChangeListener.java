@@ -19,6 +19,9 @@
 import org.terasology.math.geom.Vector3i;
 import org.terasology.world.biomes.Biome;
 import org.terasology.world.block.Block;
+import org.terasology.world.propagation.BlockChange;
+
+import java.util.Collection;
 
 /**
  * @author Immortius
@@ -27,6 +30,17 @@ public interface WorldChangeListener {
 
     void onBlockChanged(Vector3i pos, Block newBlock, Block originalBlock);
 
+    /**
+     * Notifies about the changes of a bulk block update. By default every change is handled like a single block change.
+     *
+     * @param changes the changed blocks
+     */
+    default void onBlocksChanged(Collection<BlockChange> changes) {
+        for (BlockChange change : changes) {
+            onBlockChanged(change.getPosition(), change.getTo(), change.getFrom());
+        }
+    }
+
     void onBiomeChanged(Vector3i pos, Biome newBiome, Biome originalBiome);
 
 }
@@ -38,6 +38,12 @@ public interface ManagedChunk extends CoreChunk {
 
     void prepareForReactivation();
 
+    /**
+     * @return a counter that changes whenever the block, liquid or biome data of the chunk changes. Can be used to
+     * detect whether a previous result of {@link #encode()} is still up to date.
+     */
+    int getVersion();
+
     // TODO: Expose appropriate iterators, remove this method
     EntityData.ChunkStore.Builder encode();
 }
@@ -0,0 +1,267 @@
+/*
+ * Copyright 2015 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.world.chunks.blockdata;
+
+import com.google.common.base.Preconditions;
+import org.terasology.world.chunks.deflate.TeraVisitingDeflator;
+
+import java.util.Arrays;
+
+/**
+ * TeraPaletteArray16Bit implements a compressed array with elements of 16 bit size.
+ * Its elements are in the range -32'768 through +32'767. Instead of the elements themselves it stores indices into a
+ * palette of the distinct values, packed into longs with 1, 2, 4, 8 or 16 bits per element.
+ * <br><br>
+ * Setting a value that is not in the palette yet adds it to the palette. If the palette outgrows the number of
+ * values the current index size can address, all indices get re-packed with twice as many bits. Palette entries that
+ * are no longer used only get dropped when the array gets deflated again.
+ * <br><br>
+ * Palette, packed indices and index size are published together as one immutable {@link State}, so readers that don't
+ * hold the chunk lock never combine indices with a palette or bit width they weren't written for. Writers still have
+ * to be serialized externally.
+ */
+public class TeraPaletteArray16Bit extends TeraSparseArray {
+
+    private static final int MAX_BITS_PER_ENTRY_LOG = 4;
+
+    private volatile State state;
+
+    public TeraPaletteArray16Bit() {
+        super();
+    }
+
+    public TeraPaletteArray16Bit(int sizeX, int sizeY, int sizeZ) {
+        super(sizeX, sizeY, sizeZ, true);
+    }
+
+    /**
+     * @param palette     the distinct values, only the first paletteSize entries are used
+     * @param paletteSize the number of used palette entries
+     * @param data        the packed palette indices, as created by {@link #pack(int[], int, int)}
+     */
+    public TeraPaletteArray16Bit(int sizeX, int sizeY, int sizeZ, short[] palette, int paletteSize, long[] data) {
+        super(sizeX, sizeY, sizeZ, false);
+        Preconditions.checkNotNull(palette);
+        Preconditions.checkNotNull(data);
+        Preconditions.checkArgument(paletteSize > 0 && paletteSize <= palette.length, "Invalid palette size " + paletteSize);
+        int bitsPerEntryLog = bitsPerEntryLogFor(paletteSize);
+        int expectedLength = wordCount(getSizeXYZ(), bitsPerEntryLog);
+        Preconditions.checkArgument(data.length == expectedLength, "The length of parameter 'data' has to be " + expectedLength + " but is " + data.length);
+        this.state = new State(palette, paletteSize, data, bitsPerEntryLog);
+    }
+
+    @Override
+    protected void initialize() {
+        this.state = new State(new short[1], 1, new long[wordCount(getSizeXYZ(), 0)], 0);
+    }
+
+    /**
+     * @return the number of bits per element used for the given palette size, as logarithm of 2.
+     */
+    public static int bitsPerEntryLogFor(int paletteSize) {
+        for (int bitsLog = 0; bitsLog <= MAX_BITS_PER_ENTRY_LOG; bitsLog++) {
+            if (paletteSize <= 1 << (1 << bitsLog)) {
+                return bitsLog;
+            }
+        }
+        throw new IllegalArgumentException("A palette can't contain more than 65536 entries: " + paletteSize);
+    }
+
+    /**
+     * @return the memory consumption of a palette array with the given size and number of palette entries.
+     */
+    public static int estimateMemoryConsumptionInBytes(int sizeXYZ, int paletteSize) {
+        return 16 + paletteSize * 2 + 16 + wordCount(sizeXYZ, bitsPerEntryLogFor(paletteSize)) * 8;
+    }
+
+    /**
+     * Packs palette indices into the format used by this array.
+     *
+     * @param indices         the palette index of every element
+     * @param length          the number of elements
+     * @param bitsPerEntryLog the number of bits per element, as logarithm of 2
+     */
+    public static long[] pack(int[] indices, int length, int bitsPerEntryLog) {
+        long[] packed = new long[wordCount(length, bitsPerEntryLog)];
+        int bits = 1 << bitsPerEntryLog;
+        int entriesPerWordLog = 6 - bitsPerEntryLog;
+        int entryMask = (1 << entriesPerWordLog) - 1;
+        for (int i = 0; i < length; i++) {
+            packed[i >>> entriesPerWordLog] |= ((long) indices[i]) << ((i & entryMask) * bits);
+        }
+        return packed;
+    }
+
+    private static int wordCount(int length, int bitsPerEntryLog) {
+        int entriesPerWord = 64 >>> bitsPerEntryLog;
+        return (length + entriesPerWord - 1) / entriesPerWord;
+    }
+
+    @Override
+    public TeraArray copy() {
+        State current = state;
+        return new TeraPaletteArray16Bit(getSizeX(), getSizeY(), getSizeZ(), Arrays.copyOf(current.palette, current.paletteSize),
+                current.paletteSize, Arrays.copyOf(current.data, current.data.length));
+    }
+
+    @Override
+    public TeraArray deflate(TeraVisitingDeflator deflator) {
+        return Preconditions.checkNotNull(deflator).deflatePaletteArray16Bit(this);
+    }
+
+    @Override
+    public int getEstimatedMemoryConsumptionInBytes() {
+        State current = state;
+        if (current == null) {
+            return 4;
+        }
+        return 16 + current.palette.length * 2 + 16 + current.data.length * 8;
+    }
+
+    @Override
+    public int getElementSizeInBits() {
+        return 16;
+    }
+
+    /**
+     * @return the number of bits each element currently takes up.
+     */
+    public int getBitsPerEntry() {
+        return 1 << state.bitsPerEntryLog;
+    }
+
+    public int getPaletteSize() {
+        return state.paletteSize;
+    }
+
+    /**
+     * @return the palette index of the element at the given position.
+     */
+    public int getPaletteIndex(int x, int y, int z) {
+        return state.getIndex(pos(x, y, z));
+    }
+
+    @Override
+    public int get(int x, int y, int z) {
+        State current = state;
+        return current.palette[current.getIndex(pos(x, y, z))];
+    }
+
+    @Override
+    public int set(int x, int y, int z, int value) {
+        int pos = pos(x, y, z);
+        State current = state;
+        int old = current.palette[current.getIndex(pos)];
+        if (old != value) {
+            setValue(current, pos, (short) value);
+        }
+        return old;
+    }
+
+    @Override
+    public boolean set(int x, int y, int z, int value, int expected) {
+        int pos = pos(x, y, z);
+        State current = state;
+        int old = current.palette[current.getIndex(pos)];
+        if (old == expected) {
+            if (old != value) {
+                setValue(current, pos, (short) value);
+            }
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Values already in the palette get written into the current state's indices in place, every index it contains
+     * stays valid for its palette. New values are added to a copy of the palette (and indices, if they need more bits)
+     * that gets published before any index refers to the new entry.
+     */
+    private void setValue(State current, int pos, short value) {
+        int index = current.indexOf(value);
+        State target = current;
+        if (index < 0) {
+            target = current.withEntry(value, getSizeXYZ());
+            state = target;
+            index = target.paletteSize - 1;
+        }
+        target.setIndex(pos, index);
+    }
+
+    /**
+     * An immutable snapshot of the palette and the index size. Only the packed indices get modified in place, and only
+     * with indices into this snapshot's palette.
+     */
+    private static final class State {
+        private final short[] palette;
+        private final int paletteSize;
+        private final long[] data;
+        private final int bitsPerEntryLog;
+
+        private State(short[] palette, int paletteSize, long[] data, int bitsPerEntryLog) {
+            this.palette = palette;
+            this.paletteSize = paletteSize;
+            this.data = data;
+            this.bitsPerEntryLog = bitsPerEntryLog;
+        }
+
+        private int getIndex(int pos) {
+            int entriesPerWordLog = 6 - bitsPerEntryLog;
+            int shift = (pos & ((1 << entriesPerWordLog) - 1)) << bitsPerEntryLog;
+            return (int) (data[pos >>> entriesPerWordLog] >>> shift) & ((1 << (1 << bitsPerEntryLog)) - 1);
+        }
+
+        private void setIndex(int pos, int index) {
+            int entriesPerWordLog = 6 - bitsPerEntryLog;
+            int shift = (pos & ((1 << entriesPerWordLog) - 1)) << bitsPerEntryLog;
+            long mask = ((1L << (1 << bitsPerEntryLog)) - 1) << shift;
+            int word = pos >>> entriesPerWordLog;
+            data[word] = (data[word] & ~mask) | (((long) index << shift) & mask);
+        }
+
+        /**
+         * @return the palette index of the value or -1 if it isn't in the palette.
+         */
+        private int indexOf(short value) {
+            for (int i = 0; i < paletteSize; i++) {
+                if (palette[i] == value) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * @return a copy of this state with the value appended to the palette, re-packed with twice as many bits if
+         * the current index size can't address the new entry.
+         */
+        private State withEntry(short value, int length) {
+            int newPaletteSize = paletteSize + 1;
+            short[] newPalette = Arrays.copyOf(palette, newPaletteSize);
+            newPalette[paletteSize] = value;
+            if (newPaletteSize <= 1 << (1 << bitsPerEntryLog)) {
+                return new State(newPalette, newPaletteSize, Arrays.copyOf(data, data.length), bitsPerEntryLog);
+            }
+            int newBitsPerEntryLog = bitsPerEntryLog + 1;
+            Preconditions.checkState(newBitsPerEntryLog <= MAX_BITS_PER_ENTRY_LOG);
+            int[] indices = new int[length];
+            for (int i = 0; i < length; i++) {
+                indices[i] = getIndex(i);
+            }
+            return new State(newPalette, newPaletteSize, pack(indices, length, newBitsPerEntryLog), newBitsPerEntryLog);
+        }
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright 2015 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.world.chunks.deflate;
+
+import gnu.trove.map.TShortIntMap;
+import gnu.trove.map.hash.TShortIntHashMap;
+import org.terasology.world.chunks.blockdata.TeraArray;
+import org.terasology.world.chunks.blockdata.TeraDenseArray16Bit;
+import org.terasology.world.chunks.blockdata.TeraPaletteArray16Bit;
+import org.terasology.world.chunks.blockdata.TeraSparseArray16Bit;
+
+import java.util.Arrays;
+
+/**
+ * TeraPaletteDeflator extends the {@link TeraStandardDeflator} with palette compression for 16-bit arrays.<br>
+ * A 16-bit array gets replaced by a {@link TeraPaletteArray16Bit} whenever that takes up less memory than both the
+ * array itself and the result of the standard deflation. As chunks rarely contain more than a few dozen distinct
+ * blocks, this is the case for most of them. Deflating a palette array drops the palette entries no longer in use.
+ */
+public class TeraPaletteDeflator extends TeraStandardDeflator {
+
+    /**
+     * With more distinct values the indices take up 16 bits, which is never smaller than the dense array.
+     */
+    private static final int MAX_PALETTE_SIZE = 256;
+
+    public TeraPaletteDeflator() {
+    }
+
+    @Override
+    public TeraArray deflateDenseArray16Bit(short[] data, int rowSize, int sizeX, int sizeY, int sizeZ) {
+        TeraArray standard = super.deflateDenseArray16Bit(data, rowSize, sizeX, sizeY, sizeZ);
+        int sizeToBeat = (standard != null) ? standard.getEstimatedMemoryConsumptionInBytes() : 16 + data.length * 2;
+        TeraArray palette = createPaletteArray(data, sizeX, sizeY, sizeZ, sizeToBeat);
+        return (palette != null) ? palette : standard;
+    }
+
+    @Override
+    public TeraArray deflateSparseArray16Bit(short[][] inflated, short[] deflated, short fill, int rowSize, int sizeX, int sizeY, int sizeZ) {
+        if (inflated == null) {
+            // A single value for the whole array can't be stored any smaller
+            return null;
+        }
+        short[] values = new short[rowSize * sizeY];
+        for (int y = 0; y < sizeY; y++) {
+            if (inflated[y] != null) {
+                System.arraycopy(inflated[y], 0, values, y * rowSize, rowSize);
+            } else {
+                Arrays.fill(values, y * rowSize, (y + 1) * rowSize, deflated[y]);
+            }
+        }
+        int sizeToBeat = new TeraSparseArray16Bit(sizeX, sizeY, sizeZ, inflated, deflated).getEstimatedMemoryConsumptionInBytes();
+        return createPaletteArray(values, sizeX, sizeY, sizeZ, sizeToBeat);
+    }
+
+    @Override
+    public TeraArray deflatePaletteArray16Bit(TeraPaletteArray16Bit array) {
+        int sizeX = array.getSizeX();
+        int sizeY = array.getSizeY();
+        int sizeZ = array.getSizeZ();
+        short[] values = new short[array.getSizeXYZ()];
+        int i = 0;
+        for (int y = 0; y < sizeY; y++) {
+            for (int z = 0; z < sizeZ; z++) {
+                for (int x = 0; x < sizeX; x++) {
+                    values[i++] = (short) array.get(x, y, z);
+                }
+            }
+        }
+        int sizeToBeat = array.getEstimatedMemoryConsumptionInBytes();
+        TeraArray standard = super.deflateDenseArray16Bit(values, array.getSizeXZ(), sizeX, sizeY, sizeZ);
+        if (standard == null) {
+            // Palettes that grew past 256 entries can end up larger than the dense array
+            standard = new TeraDenseArray16Bit(sizeX, sizeY, sizeZ, values);
+        }
+        if (standard.getEstimatedMemoryConsumptionInBytes() < sizeToBeat) {
+            sizeToBeat = standard.getEstimatedMemoryConsumptionInBytes();
+        } else {
+            standard = null;
+        }
+        TeraArray palette = createPaletteArray(values, sizeX, sizeY, sizeZ, sizeToBeat);
+        return (palette != null) ? palette : standard;
+    }
+
+    /**
+     * @param values     the elements of the array, in the order of {@link TeraArray}
+     * @param sizeToBeat the memory consumption the palette array has to be smaller than
+     * @return the palette array or null if it wouldn't be smaller
+     */
+    private TeraPaletteArray16Bit createPaletteArray(short[] values, int sizeX, int sizeY, int sizeZ, int sizeToBeat) {
+        TShortIntMap paletteIndices = new TShortIntHashMap(16, 0.5f, (short) 0, -1);
+        short[] palette = new short[16];
+        int paletteSize = 0;
+        int[] indices = new int[values.length];
+        short lastValue = 0;
+        int lastIndex = -1;
+        for (int i = 0; i < values.length; i++) {
+            short value = values[i];
+            if (lastIndex == -1 || value != lastValue) {
+                int index = paletteIndices.get(value);
+                if (index == -1) {
+                    if (paletteSize == MAX_PALETTE_SIZE) {
+                        return null;
+                    }
+                    if (paletteSize == palette.length) {
+                        palette = Arrays.copyOf(palette, palette.length * 2);
+                    }
+                    index = paletteSize++;
+                    palette[index] = value;
+                    paletteIndices.put(value, index);
+                }
+                lastValue = value;
+                lastIndex = index;
+            }
+            indices[i] = lastIndex;
+        }
+        if (TeraPaletteArray16Bit.estimateMemoryConsumptionInBytes(values.length, paletteSize) >= sizeToBeat) {
+            return null;
+        }
+        long[] data = TeraPaletteArray16Bit.pack(indices, values.length, TeraPaletteArray16Bit.bitsPerEntryLogFor(paletteSize));
+        return new TeraPaletteArray16Bit(sizeX, sizeY, sizeZ, Arrays.copyOf(palette, paletteSize), paletteSize, data);
+    }
+}
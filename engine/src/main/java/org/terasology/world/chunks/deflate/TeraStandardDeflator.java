@@ -17,6 +17,7 @@
 package org.terasology.world.chunks.deflate;
 
 import org.terasology.world.chunks.blockdata.TeraArray;
+import org.terasology.world.chunks.blockdata.TeraPaletteArray16Bit;
 import org.terasology.world.chunks.blockdata.TeraSparseArray16Bit;
 import org.terasology.world.chunks.blockdata.TeraSparseArray4Bit;
 import org.terasology.world.chunks.blockdata.TeraSparseArray8Bit;
@@ -213,4 +214,9 @@ public TeraArray deflateSparseArray4Bit(final byte[][] inflated, final byte[] de
         return null;
     }
 
+    @Override
+    public TeraArray deflatePaletteArray16Bit(TeraPaletteArray16Bit array) {
+        return null;
+    }
+
 }
@@ -37,10 +37,12 @@
 import org.terasology.world.chunks.blockdata.TeraDenseArray16Bit;
 import org.terasology.world.chunks.blockdata.TeraDenseArray8Bit;
 import org.terasology.world.chunks.deflate.TeraDeflator;
+import org.terasology.world.chunks.deflate.TeraPaletteDeflator;
 import org.terasology.world.chunks.deflate.TeraStandardDeflator;
 import org.terasology.world.liquid.LiquidData;
 
 import java.text.DecimalFormat;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
@@ -88,6 +90,8 @@ public class ChunkImpl implements Chunk {
     private boolean ready;
     private boolean dirty;
     private boolean animated;
+    // Read without lock by the network code, e.g. to decide whether an encoding of the chunk is still current
+    private final AtomicInteger version = new AtomicInteger();
 
     // Rendering
     private ChunkMesh activeMesh;
@@ -200,6 +204,7 @@ public Block setBlock(int x, int y, int z, Block block) {
         }
         int oldValue = blockData.set(x, y, z, block.getId());
         if (oldValue != block.getId()) {
+            version.incrementAndGet();
             if (!block.isLiquid()) {
                 setLiquid(x, y, z, new LiquidData());
             }
@@ -286,7 +291,9 @@ public void setLiquid(int x, int y, int z, LiquidData newState) {
         if (extraData == extraDataSnapshot) {
             extraData = extraData.copy();
         }
-        extraData.set(x, y, z, newValue);
+        if (extraData.set(x, y, z, newValue) != newValue) {
+            version.incrementAndGet();
+        }
     }
 
     @Override
@@ -311,6 +318,9 @@ public Biome setBiome(int x, int y, int z, Biome biome) {
         }
         short shortId = biomeManager.getBiomeShortId(biome);
         short previousShortId = (short) biomeData.set(x, y, z, shortId);
+        if (previousShortId != shortId) {
+            version.incrementAndGet();
+        }
         return biomeManager.getBiomeByShortId(previousShortId);
     }
 
@@ -373,7 +383,7 @@ public AABB getAABB() {
 
     @Override
     public void deflate() {
-        final TeraDeflator def = new TeraStandardDeflator();
+        final TeraDeflator def = new TeraPaletteDeflator();
         if (logger.isDebugEnabled()) {
             int blocksSize = blockData.getEstimatedMemoryConsumptionInBytes();
             int sunlightSize = sunlightData.getEstimatedMemoryConsumptionInBytes();
@@ -599,6 +609,11 @@ public ChunkBlockIterator getBlockIterator() {
         return new ChunkBlockIteratorImpl(blockManager, getChunkWorldOffset(), blockData);
     }
 
+    @Override
+    public int getVersion() {
+        return version.get();
+    }
+
     @Override
     public EntityData.ChunkStore.Builder encode() {
         return ChunkSerializer.encode(chunkPos, blockData, extraData, biomeData);
@@ -41,6 +41,7 @@
 import org.terasology.monitoring.chunk.ChunkMonitor;
 import org.terasology.persistence.ChunkStore;
 import org.terasology.persistence.StorageManager;
+import org.terasology.utilities.collection.PriorityBuckets;
 import org.terasology.utilities.concurrency.TaskMaster;
 import org.terasology.world.BlockEntityRegistry;
 import org.terasology.world.biomes.BiomeManager;
@@ -65,6 +66,7 @@
 import org.terasology.world.chunks.pipeline.AbstractChunkTask;
 import org.terasology.world.chunks.pipeline.ChunkGenerationPipeline;
 import org.terasology.world.chunks.pipeline.ChunkTask;
+import org.terasology.world.generation.World;
 import org.terasology.world.generation.impl.EntityBufferImpl;
 import org.terasology.world.generator.WorldGenerator;
 import org.terasology.world.internal.ChunkViewCore;
@@ -74,14 +76,15 @@
 
 import java.util.Collection;
 import java.util.Collections;
-import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.ToIntFunction;
 
 /**
  * @author Immortius
@@ -92,6 +95,8 @@ public class LocalChunkProvider implements ChunkProvider, GeneratingChunkProvide
     private static final Logger logger = LoggerFactory.getLogger(LocalChunkProvider.class);
     private static final int UNLOAD_PER_FRAME = 64;
     private static final Vector3i UNLOAD_LEEWAY = Vector3i.one();
+    private static final int READY_CHUNK_BUCKETS = 128;
+    private static final int DEFAULT_PUBLISHING_BUDGET_IN_MICROS = 2000;
 
     private StorageManager storageManager;
     private final EntityManager entityManager;
@@ -101,12 +106,13 @@ public class LocalChunkProvider implements ChunkProvider, GeneratingChunkProvide
     private WorldGenerator generator;
 
     private Map<EntityRef, ChunkRelevanceRegion> regions = Maps.newHashMap();
+    private Set<Region3i> columnCacheRegions = Collections.emptySet();
 
     private Map<Vector3i, Chunk> nearCache = Maps.newConcurrentMap();
 
     private final Set<Vector3i> preparingChunks = Sets.newHashSet();
     private final BlockingQueue<ReadyChunkInfo> readyChunks = Queues.newLinkedBlockingQueue();
-    private List<ReadyChunkInfo> sortedReadyChunks = Lists.newArrayList();
+    private PriorityBuckets<ReadyChunkInfo> readyChunkBuckets = new PriorityBuckets<>(new ReadyChunkRelevance(), READY_CHUNK_BUCKETS);
     private final BlockingQueue<TShortObjectMap<TIntList>> deactivateBlocksQueue = Queues.newLinkedBlockingQueue();
 
     private EntityRef worldEntity = EntityRef.NULL;
@@ -117,16 +123,32 @@ public class LocalChunkProvider implements ChunkProvider, GeneratingChunkProvide
     private BiomeManager biomeManager;
     private BlockEntityRegistry registry;
 
-    private LightMerger<ReadyChunkInfo> lightMerger = new LightMerger<>(this);
+    private final int lightMergerThreads;
+    private final long publishingBudgetInNanos;
+    private LightMerger<ReadyChunkInfo> lightMerger;
 
     public LocalChunkProvider(StorageManager storageManager, EntityManager entityManager, WorldGenerator generator,
                               BlockManager blockManager, BiomeManager biomeManager) {
+        this(storageManager, entityManager, generator, blockManager, biomeManager, 1, DEFAULT_PUBLISHING_BUDGET_IN_MICROS);
+    }
+
+    /**
+     * @param lightMergerThreads      the number of chunks whose light can get merged with their neighbours at once.
+     * @param publishingBudgetInMicros the time that may be spent each frame on marking merged chunks as ready. At least
+     *                                 one chunk gets marked each frame.
+     */
+    public LocalChunkProvider(StorageManager storageManager, EntityManager entityManager, WorldGenerator generator,
+                              BlockManager blockManager, BiomeManager biomeManager,
+                              int lightMergerThreads, int publishingBudgetInMicros) {
+        this.lightMergerThreads = lightMergerThreads;
+        this.publishingBudgetInNanos = TimeUnit.MICROSECONDS.toNanos(publishingBudgetInMicros);
+        this.lightMerger = new LightMerger<>(this, lightMergerThreads);
         this.storageManager = storageManager;
         this.entityManager = entityManager;
         this.generator = generator;
         this.blockManager = blockManager;
         this.biomeManager = biomeManager;
-        this.pipeline = new ChunkGenerationPipeline(new ChunkTaskRelevanceComparator());
+        this.pipeline = new ChunkGenerationPipeline(new ChunkTaskRelevance());
         this.unloadRequestTaskMaster = TaskMaster.createFIFOTaskMaster("Chunk-Unloader", 4);
         ChunkMonitor.fireChunkProviderInitialized(this);
     }
@@ -239,73 +261,84 @@ public void removeRelevanceEntity(EntityRef entity) {
         } finally {
             regionLock.writeLock().unlock();
         }
+        pipeline.reprioritize();
     }
 
     @Override
     public void completeUpdate() {
-        ReadyChunkInfo readyChunkInfo = lightMerger.completeMerge();
-        if (readyChunkInfo != null) {
-            Chunk chunk = readyChunkInfo.getChunk();
-            chunk.writeLock();
-            try {
-                chunk.markReady();
-                updateAdjacentChunksReadyFieldOf(chunk);
-                updateAdjacentChunksReadyFieldOfAdjChunks(chunk);
-
-                if (!readyChunkInfo.isNewChunk()) {
-                    PerformanceMonitor.startActivity("Generating Block Entities");
-                    generateBlockEntities(chunk);
-                    PerformanceMonitor.endActivity();
-                }
+        PerformanceMonitor.startActivity("Publish Chunks");
+        long deadline = System.nanoTime() + publishingBudgetInNanos;
+        List<ReadyChunkInfo> merged;
+        do {
+            merged = lightMerger.completeMerges(1);
+            for (ReadyChunkInfo readyChunkInfo : merged) {
+                publishChunk(readyChunkInfo);
+            }
+        } while (!merged.isEmpty() && System.nanoTime() < deadline);
+        PerformanceMonitor.endActivity();
+    }
 
-                if (readyChunkInfo.isNewChunk()) {
-                    PerformanceMonitor.startActivity("Generating queued Entities");
-                    for (EntityStore entity : readyChunkInfo.getEntities()) {
-                        generateQueuedEntities(entity);
-                    }
-                    PerformanceMonitor.endActivity();
-                }
+    private void publishChunk(ReadyChunkInfo readyChunkInfo) {
+        Chunk chunk = readyChunkInfo.getChunk();
+        chunk.writeLock();
+        try {
+            chunk.markReady();
+            updateAdjacentChunksReadyFieldOf(chunk);
+            updateAdjacentChunksReadyFieldOfAdjChunks(chunk);
 
-                if (readyChunkInfo.getChunkStore() != null) {
-                    readyChunkInfo.getChunkStore().restoreEntities();
-                }
+            if (!readyChunkInfo.isNewChunk()) {
+                PerformanceMonitor.startActivity("Generating Block Entities");
+                generateBlockEntities(chunk);
+                PerformanceMonitor.endActivity();
+            }
 
-                if (!readyChunkInfo.isNewChunk()) {
-                    PerformanceMonitor.startActivity("Sending OnAddedBlocks");
-                    readyChunkInfo.getBlockPositionMapppings().forEachEntry(new TShortObjectProcedure<TIntList>() {
-                        @Override
-                        public boolean execute(short id, TIntList positions) {
-                            if (positions.size() > 0) {
-                                blockManager.getBlock(id).getEntity().send(new OnAddedBlocks(positions, registry));
-                            }
-                            return true;
-                        }
-                    });
-                    PerformanceMonitor.endActivity();
+            if (readyChunkInfo.isNewChunk()) {
+                PerformanceMonitor.startActivity("Generating queued Entities");
+                for (EntityStore entity : readyChunkInfo.getEntities()) {
+                    generateQueuedEntities(entity);
                 }
+                PerformanceMonitor.endActivity();
+            }
 
-                PerformanceMonitor.startActivity("Sending OnActivateBlocks");
+            if (readyChunkInfo.getChunkStore() != null) {
+                readyChunkInfo.getChunkStore().restoreEntities();
+            }
+
+            if (!readyChunkInfo.isNewChunk()) {
+                PerformanceMonitor.startActivity("Sending OnAddedBlocks");
                 readyChunkInfo.getBlockPositionMapppings().forEachEntry(new TShortObjectProcedure<TIntList>() {
                     @Override
                     public boolean execute(short id, TIntList positions) {
                         if (positions.size() > 0) {
-                            blockManager.getBlock(id).getEntity().send(new OnActivatedBlocks(positions, registry));
+                            blockManager.getBlock(id).getEntity().send(new OnAddedBlocks(positions, registry));
                         }
                         return true;
                     }
                 });
                 PerformanceMonitor.endActivity();
+            }
 
-                if (!readyChunkInfo.isNewChunk()) {
-                    worldEntity.send(new OnChunkGenerated(readyChunkInfo.getPos()));
-                }
-                worldEntity.send(new OnChunkLoaded(readyChunkInfo.getPos()));
-                for (ChunkRelevanceRegion region : regions.values()) {
-                    region.chunkReady(chunk);
+            PerformanceMonitor.startActivity("Sending OnActivateBlocks");
+            readyChunkInfo.getBlockPositionMapppings().forEachEntry(new TShortObjectProcedure<TIntList>() {
+                @Override
+                public boolean execute(short id, TIntList positions) {
+                    if (positions.size() > 0) {
+                        blockManager.getBlock(id).getEntity().send(new OnActivatedBlocks(positions, registry));
+                    }
+                    return true;
                 }
-            } finally {
-                chunk.writeUnlock();
+            });
+            PerformanceMonitor.endActivity();
+
+            if (!readyChunkInfo.isNewChunk()) {
+                worldEntity.send(new OnChunkGenerated(readyChunkInfo.getPos()));
             }
+            worldEntity.send(new OnChunkLoaded(readyChunkInfo.getPos()));
+            for (ChunkRelevanceRegion region : regions.values()) {
+                region.chunkReady(chunk);
+            }
+        } finally {
+            chunk.writeUnlock();
         }
     }
 
@@ -329,6 +362,7 @@ public void beginUpdate() {
             updateRelevance();
             deactivateBlocks();
             checkForUnload();
+            releaseIrrelevantColumns();
             makeChunksAvailable();
         } finally {
             regionLock.readLock().unlock();
@@ -341,22 +375,17 @@ private void makeChunksAvailable() {
         for (ReadyChunkInfo readyChunkInfo : newReadyChunks) {
             nearCache.put(readyChunkInfo.getPos(), readyChunkInfo.getChunk());
             preparingChunks.remove(readyChunkInfo.getPos());
-        }
-        if (!newReadyChunks.isEmpty()) {
-            sortedReadyChunks.addAll(newReadyChunks);
-            Collections.sort(sortedReadyChunks, new ReadyChunkRelevanceComparator());
-        }
-        if (!sortedReadyChunks.isEmpty()) {
-            boolean loaded = false;
-            for (int i = sortedReadyChunks.size() - 1; i >= 0 && !loaded; i--) {
-                ReadyChunkInfo chunkInfo = sortedReadyChunks.get(i);
-                PerformanceMonitor.startActivity("Make Chunk Available");
-                if (makeChunkAvailable(chunkInfo)) {
-                    sortedReadyChunks.remove(i);
-                    loaded = true;
-                }
-                PerformanceMonitor.endActivity();
+            readyChunkBuckets.add(readyChunkInfo);
+        }
+        // Merges of chunks whose neighbourhoods don't overlap can run at the same time
+        Iterator<ReadyChunkInfo> iterator = readyChunkBuckets.iterator();
+        while (iterator.hasNext() && !lightMerger.isBusy()) {
+            ReadyChunkInfo chunkInfo = iterator.next();
+            PerformanceMonitor.startActivity("Make Chunk Available");
+            if (makeChunkAvailable(chunkInfo)) {
+                iterator.remove();
             }
+            PerformanceMonitor.endActivity();
         }
     }
 
@@ -404,9 +433,47 @@ private void checkForUnload() {
         PerformanceMonitor.endActivity();
     }
 
+    /**
+     * Drops the cached world generation facets of all columns outside of the relevance regions, whenever the regions
+     * changed. The cache gets limited to the number of columns the regions cover.
+     */
+    private void releaseIrrelevantColumns() {
+        World world = generator.getWorld();
+        if (world == null || !haveRelevanceRegionsChanged()) {
+            return;
+        }
+        columnCacheRegions = Sets.newHashSetWithExpectedSize(regions.size());
+        List<Region3i> relevantRegions = Lists.newArrayListWithCapacity(regions.size());
+        int columns = 0;
+        for (ChunkRelevanceRegion region : regions.values()) {
+            Region3i chunkRegion = region.getCurrentRegion();
+            columnCacheRegions.add(chunkRegion);
+            columns += chunkRegion.sizeX() * chunkRegion.sizeZ();
+            Vector3i min = new Vector3i(chunkRegion.minX() * ChunkConstants.SIZE_X, chunkRegion.minY() * ChunkConstants.SIZE_Y,
+                    chunkRegion.minZ() * ChunkConstants.SIZE_Z);
+            Vector3i size = new Vector3i(chunkRegion.sizeX() * ChunkConstants.SIZE_X, chunkRegion.sizeY() * ChunkConstants.SIZE_Y,
+                    chunkRegion.sizeZ() * ChunkConstants.SIZE_Z);
+            relevantRegions.add(Region3i.createFromMinAndSize(min, size));
+        }
+        world.retainCachedColumns(relevantRegions);
+        world.setMaxCachedColumns(Math.max(columns, 1));
+    }
+
+    private boolean haveRelevanceRegionsChanged() {
+        if (regions.size() != columnCacheRegions.size()) {
+            return true;
+        }
+        for (ChunkRelevanceRegion region : regions.values()) {
+            if (!columnCacheRegions.contains(region.getCurrentRegion())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     private boolean unloadChunkInternal(Vector3i pos) {
         Chunk chunk = nearCache.get(pos);
-        if (chunk.isLocked()) {
+        if (chunk.isLocked() || lightMerger.isReserved(pos)) {
             return false;
         }
 
@@ -414,7 +481,7 @@ private boolean unloadChunkInternal(Vector3i pos) {
         try {
             if (!chunk.isReady()) {
                 // Chunk hasn't been finished or changed, so just drop it.
-                Iterator<ReadyChunkInfo> infoIterator = sortedReadyChunks.iterator();
+                Iterator<ReadyChunkInfo> infoIterator = readyChunkBuckets.iterator();
                 while (infoIterator.hasNext()) {
                     ReadyChunkInfo next = infoIterator.next();
                     if (next.getPos().equals(chunk.getPosition())) {
@@ -474,9 +541,11 @@ private void updateAdjacentChunksReadyFieldOfAdjChunks(Chunk chunkInCenter) {
 
 
     private void updateRelevance() {
+        boolean moved = false;
         for (ChunkRelevanceRegion chunkRelevanceRegion : regions.values()) {
             chunkRelevanceRegion.update();
             if (chunkRelevanceRegion.isDirty()) {
+                moved = true;
                 for (Vector3i pos : chunkRelevanceRegion.getNeededChunks()) {
                     Chunk chunk = nearCache.get(pos);
                     if (chunk != null && chunk.isReady()) {
@@ -488,6 +557,10 @@ private void updateRelevance() {
                 chunkRelevanceRegion.setUpToDate();
             }
         }
+        if (moved) {
+            pipeline.reprioritize();
+            readyChunkBuckets.reprioritize();
+        }
     }
 
     private boolean makeChunkAvailable(final ReadyChunkInfo readyChunkInfo) {
@@ -500,8 +573,7 @@ private boolean makeChunkAvailable(final ReadyChunkInfo readyChunkInfo) {
                 return false;
             }
         }
-        lightMerger.beginMerge(chunk, readyChunkInfo);
-        return true;
+        return lightMerger.beginMerge(chunk, readyChunkInfo);
     }
 
     // Generates all non-temporary block entities
@@ -622,14 +694,14 @@ public void purgeWorld() {
         }
         nearCache.clear();
         readyChunks.clear();
-        sortedReadyChunks.clear();
+        readyChunkBuckets.clear();
         storageManager.deleteWorld();
         preparingChunks.clear();
         worldEntity.send(new PurgeWorldEvent());
 
-        pipeline = new ChunkGenerationPipeline(new ChunkTaskRelevanceComparator());
+        pipeline = new ChunkGenerationPipeline(new ChunkTaskRelevance());
         unloadRequestTaskMaster = TaskMaster.createFIFOTaskMaster("Chunk-Unloader", 8);
-        lightMerger = new LightMerger<>(this);
+        lightMerger = new LightMerger<>(this, lightMergerThreads);
         lightMerger.restart();
         ChunkMonitor.fireChunkProviderInitialized(this);
 
@@ -692,14 +764,10 @@ private boolean isChunkReady(Chunk chunk) {
         return chunk != null && chunk.isReady();
     }
 
-    private class ChunkTaskRelevanceComparator implements Comparator<ChunkTask> {
+    private class ChunkTaskRelevance implements ToIntFunction<ChunkTask> {
 
         @Override
-        public int compare(ChunkTask o1, ChunkTask o2) {
-            return score(o1) - score(o2);
-        }
-
-        private int score(ChunkTask task) {
+        public int applyAsInt(ChunkTask task) {
             if (task.isTerminateSignal()) {
                 return -1;
             }
@@ -728,32 +796,15 @@ private int distFromRegion(Vector3i pos, Vector3i regionCenter) {
         }
     }
 
-    private class ReadyChunkRelevanceComparator implements Comparator<ReadyChunkInfo> {
+    private class ReadyChunkRelevance implements ToIntFunction<ReadyChunkInfo> {
 
         @Override
-        public int compare(ReadyChunkInfo o1, ReadyChunkInfo o2) {
-            return score(o2.getPos()) - score(o1.getPos());
-        }
-
-        private int score(Vector3i chunk) {
+        public int applyAsInt(ReadyChunkInfo chunkInfo) {
             int score = Integer.MAX_VALUE;
-
-            regionLock.readLock().lock();
-            try {
-                for (ChunkRelevanceRegion region : regions.values()) {
-                    int dist = distFromRegion(chunk, region.getCenter());
-                    if (dist < score) {
-                        score = dist;
-                    }
-                }
-                return score;
-            } finally {
-                regionLock.readLock().unlock();
+            for (ChunkRelevanceRegion region : regions.values()) {
+                score = Math.min(score, chunkInfo.getPos().gridDistance(region.getCenter()));
             }
-        }
-
-        private int distFromRegion(Vector3i pos, Vector3i regionCenter) {
-            return pos.gridDistance(regionCenter);
+            return score;
         }
     }
 
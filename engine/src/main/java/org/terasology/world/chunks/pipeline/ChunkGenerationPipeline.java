@@ -20,7 +20,7 @@
 import org.slf4j.LoggerFactory;
 import org.terasology.utilities.concurrency.TaskMaster;
 
-import java.util.Comparator;
+import java.util.function.ToIntFunction;
 
 /**
  * @author Immortius
@@ -31,8 +31,11 @@ public class ChunkGenerationPipeline {
 
     private TaskMaster<ChunkTask> chunkGenerator;
 
-    public ChunkGenerationPipeline(Comparator<ChunkTask> taskComparator) {
-        chunkGenerator = TaskMaster.createDynamicPriorityTaskMaster("Chunk-Generator", NUM_TASK_THREADS, taskComparator);
+    /**
+     * @param taskPriority calculates the priority of a task, tasks with lower values run first
+     */
+    public ChunkGenerationPipeline(ToIntFunction<ChunkTask> taskPriority) {
+        chunkGenerator = TaskMaster.createBucketedPriorityTaskMaster("Chunk-Generator", NUM_TASK_THREADS, taskPriority);
     }
 
     public void doTask(ChunkTask task) {
@@ -43,6 +46,13 @@ public void doTask(ChunkTask task) {
         }
     }
 
+    /**
+     * Calculates the priority of the queued tasks again, after the relevance regions have changed.
+     */
+    public void reprioritize() {
+        chunkGenerator.reprioritize();
+    }
+
     public void shutdown() {
         chunkGenerator.shutdown(new ShutdownChunkTask(), false);
     }
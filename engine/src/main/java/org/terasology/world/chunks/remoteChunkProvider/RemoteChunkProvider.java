@@ -27,10 +27,10 @@
 import org.terasology.math.Region3i;
 import org.terasology.math.Side;
 import org.terasology.math.TeraMath;
-import org.terasology.math.geom.Vector3f;
 import org.terasology.math.geom.Vector3i;
 import org.terasology.monitoring.PerformanceMonitor;
 import org.terasology.monitoring.chunk.ChunkMonitor;
+import org.terasology.utilities.collection.PriorityBuckets;
 import org.terasology.world.block.BlockManager;
 import org.terasology.world.chunks.Chunk;
 import org.terasology.world.chunks.ChunkConstants;
@@ -47,11 +47,12 @@
 import org.terasology.world.propagation.light.LightMerger;
 
 import java.util.Collection;
-import java.util.Collections;
-import java.util.Comparator;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToIntFunction;
 
 /**
  * @author Immortius
@@ -59,11 +60,12 @@
  */
 public class RemoteChunkProvider implements ChunkProvider, GeneratingChunkProvider {
 
-    private static final int LOAD_PER_FRAME = 1;
+    private static final int READY_CHUNK_BUCKETS = 128;
+    private static final int DEFAULT_PUBLISHING_BUDGET_IN_MICROS = 2000;
     private static final Logger logger = LoggerFactory.getLogger(RemoteChunkProvider.class);
     private Map<Vector3i, Chunk> chunkCache = Maps.newHashMap();
     private final BlockingQueue<Chunk> readyChunks = Queues.newLinkedBlockingQueue();
-    private List<Chunk> sortedReadyChunks = Lists.newArrayList();
+    private PriorityBuckets<Chunk> readyChunkBuckets = new PriorityBuckets<>(new ReadyChunkRelevance(), READY_CHUNK_BUCKETS);
     private ChunkReadyListener listener;
     private EntityRef worldEntity = EntityRef.NULL;
 
@@ -71,14 +73,27 @@ public class RemoteChunkProvider implements ChunkProvider, GeneratingChunkProvid
 
     private ChunkGenerationPipeline pipeline;
 
-    private LightMerger<Chunk> lightMerger = new LightMerger<>(this);
+    private LightMerger<Chunk> lightMerger;
+    private final long publishingBudgetInNanos;
 
     private LocalPlayer localPlayer;
+    private Vector3i lastPlayerChunk = Vector3i.zero();
 
     public RemoteChunkProvider(BlockManager blockManager, LocalPlayer localPlayer) {
+        this(blockManager, localPlayer, 1, DEFAULT_PUBLISHING_BUDGET_IN_MICROS);
+    }
+
+    /**
+     * @param lightMergerThreads       the number of chunks whose light can get merged with their neighbours at once.
+     * @param publishingBudgetInMicros the time that may be spent each frame on marking merged chunks as ready. At least
+     *                                 one chunk gets marked each frame.
+     */
+    public RemoteChunkProvider(BlockManager blockManager, LocalPlayer localPlayer, int lightMergerThreads, int publishingBudgetInMicros) {
         this.blockManager = blockManager;
         this.localPlayer = localPlayer;
-        pipeline = new ChunkGenerationPipeline(new ChunkTaskRelevanceComparator());
+        this.lightMerger = new LightMerger<>(this, lightMergerThreads);
+        this.publishingBudgetInNanos = TimeUnit.MICROSECONDS.toNanos(publishingBudgetInMicros);
+        pipeline = new ChunkGenerationPipeline(new ChunkTaskRelevance());
         ChunkMonitor.fireChunkProviderInitialized(this);
     }
 
@@ -105,38 +120,38 @@ public void run() {
     public void invalidateChunks(Vector3i pos) {
         Chunk removed = chunkCache.remove(pos);
         if (removed != null && !removed.isReady()) {
-            sortedReadyChunks.remove(removed);
+            readyChunkBuckets.remove(removed);
         }
 
     }
 
     @Override
     public void beginUpdate() {
+        Vector3i playerChunk = getPlayerChunk();
+        if (!playerChunk.equals(lastPlayerChunk)) {
+            lastPlayerChunk = playerChunk;
+            pipeline.reprioritize();
+            readyChunkBuckets.reprioritize();
+        }
         if (listener != null) {
             List<Chunk> newReadyChunks = Lists.newArrayList();
             readyChunks.drainTo(newReadyChunks);
-            if (!newReadyChunks.isEmpty()) {
-                sortedReadyChunks.addAll(newReadyChunks);
-                Collections.sort(sortedReadyChunks, new ReadyChunkRelevanceComparator());
-                for (Chunk chunk : newReadyChunks) {
-                    Chunk oldChunk = chunkCache.put(chunk.getPosition(), chunk);
-                    if (oldChunk != null) {
-                        oldChunk.dispose();
-                        updateAdjacentChunksReadyFieldOfAdjChunks(chunk);
-                    }
+            for (Chunk chunk : newReadyChunks) {
+                readyChunkBuckets.add(chunk);
+                Chunk oldChunk = chunkCache.put(chunk.getPosition(), chunk);
+                if (oldChunk != null) {
+                    oldChunk.dispose();
+                    updateAdjacentChunksReadyFieldOfAdjChunks(chunk);
                 }
             }
-            if (!sortedReadyChunks.isEmpty()) {
-                int loaded = 0;
-                for (int i = sortedReadyChunks.size() - 1; i >= 0 && loaded < LOAD_PER_FRAME; i--) {
-                    Chunk chunkInfo = sortedReadyChunks.get(i);
-                    PerformanceMonitor.startActivity("Make Chunk Available");
-                    if (makeChunkAvailable(chunkInfo)) {
-                        sortedReadyChunks.remove(i);
-                        loaded++;
-                    }
-                    PerformanceMonitor.endActivity();
+            Iterator<Chunk> iterator = readyChunkBuckets.iterator();
+            while (iterator.hasNext() && !lightMerger.isBusy()) {
+                Chunk chunk = iterator.next();
+                PerformanceMonitor.startActivity("Make Chunk Available");
+                if (makeChunkAvailable(chunk)) {
+                    iterator.remove();
                 }
+                PerformanceMonitor.endActivity();
             }
         }
     }
@@ -147,9 +162,7 @@ private boolean makeChunkAvailable(final Chunk chunk) {
                 return false;
             }
         }
-
-        lightMerger.beginMerge(chunk, chunk);
-        return true;
+        return lightMerger.beginMerge(chunk, chunk);
     }
 
 
@@ -265,14 +278,20 @@ public void removeRelevanceEntity(EntityRef entity) {
 
     @Override
     public void completeUpdate() {
-        Chunk chunk = lightMerger.completeMerge();
-        if (chunk != null) {
-            chunk.markReady();
-            updateAdjacentChunksReadyFieldOf(chunk);
-            updateAdjacentChunksReadyFieldOfAdjChunks(chunk);
-            listener.onChunkReady(chunk.getPosition());
-            worldEntity.send(new OnChunkLoaded(chunk.getPosition()));
-        }
+        PerformanceMonitor.startActivity("Publish Chunks");
+        long deadline = System.nanoTime() + publishingBudgetInNanos;
+        List<Chunk> merged;
+        do {
+            merged = lightMerger.completeMerges(1);
+            for (Chunk chunk : merged) {
+                chunk.markReady();
+                updateAdjacentChunksReadyFieldOf(chunk);
+                updateAdjacentChunksReadyFieldOfAdjChunks(chunk);
+                listener.onChunkReady(chunk.getPosition());
+                worldEntity.send(new OnChunkLoaded(chunk.getPosition()));
+            }
+        } while (!merged.isEmpty() && System.nanoTime() < deadline);
+        PerformanceMonitor.endActivity();
     }
 
     @Override
@@ -317,30 +336,26 @@ private void updateAdjacentChunksReadyFieldOfAdjChunks(Chunk chunkInCenter) {
         }
     }
 
-    private class ChunkTaskRelevanceComparator implements Comparator<ChunkTask> {
+    private Vector3i getPlayerChunk() {
+        return ChunkMath.calcChunkPos(new Vector3i(localPlayer.getPosition(), 0.5f));
+    }
 
-        @Override
-        public int compare(ChunkTask o1, ChunkTask o2) {
-            return score(o1.getPosition()) - score(o2.getPosition());
-        }
+    private class ChunkTaskRelevance implements ToIntFunction<ChunkTask> {
 
-        private int score(Vector3i chunk) {
-            Vector3i playerChunk = ChunkMath.calcChunkPos(new Vector3i(localPlayer.getPosition(), 0.5f));
-            return playerChunk.distanceSquared(chunk);
+        @Override
+        public int applyAsInt(ChunkTask task) {
+            if (task.isTerminateSignal()) {
+                return -1;
+            }
+            return getPlayerChunk().gridDistance(task.getPosition());
         }
     }
 
-    private class ReadyChunkRelevanceComparator implements Comparator<Chunk> {
+    private class ReadyChunkRelevance implements ToIntFunction<Chunk> {
 
         @Override
-        public int compare(Chunk o1, Chunk o2) {
-            return TeraMath.floorToInt(Math.signum(score(o2.getPosition())) - score(o1.getPosition()));
-        }
-
-        private float score(Vector3i chunkPos) {
-            Vector3f vec = chunkPos.toVector3f();
-            vec.sub(localPlayer.getPosition());
-            return vec.lengthSquared();
+        public int applyAsInt(Chunk chunk) {
+            return lastPlayerChunk.gridDistance(chunk.getPosition());
         }
     }
 }
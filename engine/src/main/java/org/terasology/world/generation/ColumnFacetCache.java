@@ -0,0 +1,145 @@
+/*
+ * Copyright 2015 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.world.generation;
+
+import com.google.common.collect.ListMultimap;
+import org.terasology.math.Region3i;
+import org.terasology.math.geom.Rect2i;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Shares the 2D facets of a world between all regions that cover the same x/z column, so that vertically
+ * stacked chunks don't have to compute their height maps, biomes, etc. again.
+ * <br><br>
+ * Only facets whose whole provider chain works on 2D facets exclusively get served from this cache, as these can't
+ * depend on the vertical extent of the region. The cache is bounded and drops the least recently used columns first.
+ * It is safe to use from several chunk generation threads at once.
+ */
+public class ColumnFacetCache {
+
+    private int maxColumns;
+    private final ListMultimap<Class<? extends WorldFacet>, FacetProvider> facetProviderChains;
+    private final Map<Class<? extends WorldFacet>, Border3D> borders;
+    private final Map<Rect2i, Column> columns;
+
+    /**
+     * @param maxColumns the maximum number of columns to keep.
+     */
+    public ColumnFacetCache(int maxColumns, ListMultimap<Class<? extends WorldFacet>, FacetProvider> facetProviderChains,
+                            Map<Class<? extends WorldFacet>, Border3D> borders) {
+        this.maxColumns = maxColumns;
+        this.facetProviderChains = facetProviderChains;
+        this.borders = borders;
+        this.columns = new LinkedHashMap<Rect2i, Column>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Rect2i, Column> eldest) {
+                return size() > ColumnFacetCache.this.maxColumns;
+            }
+        };
+    }
+
+    /**
+     * @return the column that covers the x/z extent of the given region. Gets created if it isn't cached yet.
+     */
+    public Column getColumn(Region3i region) {
+        Rect2i area = Rect2i.createFromMinAndMax(region.minX(), region.minZ(), region.maxX(), region.maxZ());
+        synchronized (columns) {
+            Column column = columns.get(area);
+            if (column == null) {
+                column = new Column(new RegionImpl(region, facetProviderChains, borders));
+                columns.put(area, column);
+            }
+            return column;
+        }
+    }
+
+    /**
+     * Drops all columns that don't overlap the x/z extent of any of the given regions.
+     *
+     * @param relevantRegions regions in block coordinates
+     */
+    public void retainColumns(Collection<Region3i> relevantRegions) {
+        synchronized (columns) {
+            Iterator<Rect2i> iterator = columns.keySet().iterator();
+            while (iterator.hasNext()) {
+                Rect2i area = iterator.next();
+                boolean relevant = false;
+                for (Region3i region : relevantRegions) {
+                    if (area.minX() <= region.maxX() && area.maxX() >= region.minX()
+                            && area.minY() <= region.maxZ() && area.maxY() >= region.minZ()) {
+                        relevant = true;
+                        break;
+                    }
+                }
+                if (!relevant) {
+                    iterator.remove();
+                }
+            }
+        }
+    }
+
+    /**
+     * Changes the maximum number of columns to keep and drops the least recently used columns beyond it.
+     */
+    public void setMaxColumns(int maxColumns) {
+        synchronized (columns) {
+            this.maxColumns = maxColumns;
+            Iterator<Rect2i> iterator = columns.keySet().iterator();
+            while (columns.size() > maxColumns && iterator.hasNext()) {
+                iterator.next();
+                iterator.remove();
+            }
+        }
+    }
+
+    public int getMaxColumns() {
+        synchronized (columns) {
+            return maxColumns;
+        }
+    }
+
+    public void clear() {
+        synchronized (columns) {
+            columns.clear();
+        }
+    }
+
+    public int size() {
+        synchronized (columns) {
+            return columns.size();
+        }
+    }
+
+    /**
+     * The facets of a single column. The facets get computed on first request and are shared afterwards, so they must
+     * not be modified by their users.
+     */
+    public static final class Column {
+        private final RegionImpl region;
+
+        private Column(RegionImpl region) {
+            this.region = region;
+        }
+
+        public synchronized <T extends WorldFacet> T getFacet(Class<T> type) {
+            return region.getFacet(type);
+        }
+    }
+}
@@ -15,7 +15,9 @@
  */
 package org.terasology.world.generation;
 
+import com.google.common.collect.ImmutableSetMultimap;
 import com.google.common.collect.ListMultimap;
+import com.google.common.collect.SetMultimap;
 import com.google.common.collect.Sets;
 import org.terasology.math.Region3i;
 import org.terasology.utilities.collection.TypeMap;
@@ -31,15 +33,32 @@ public class RegionImpl implements Region, GeneratingRegion {
     private final Region3i region;
     private final ListMultimap<Class<? extends WorldFacet>, FacetProvider> facetProviderChains;
     private final Map<Class<? extends WorldFacet>, Border3D> borders;
+    private final SetMultimap<FacetProvider, Class<? extends WorldFacet>> columnProviders;
+    private final ColumnFacetCache.Column column;
 
     private final TypeMap<WorldFacet> generatingFacets = TypeMap.create();
     private final Set<FacetProvider> processedProviders = Sets.newHashSet();
     private final TypeMap<WorldFacet> generatedFacets = TypeMap.create();
 
     public RegionImpl(Region3i region, ListMultimap<Class<? extends WorldFacet>, FacetProvider> facetProviderChains, Map<Class<? extends WorldFacet>, Border3D> borders) {
+        this(region, facetProviderChains, borders, ImmutableSetMultimap.<FacetProvider, Class<? extends WorldFacet>>of(), null);
+    }
+
+    /**
+     * Creates a region that takes the facets written by the given column providers from a shared column instead of
+     * running these providers again.
+     *
+     * @param columnProviders the providers that only work on 2D facets, mapped to the facets they produce or update
+     * @param column          the column that covers the x/z extent of the region
+     */
+    public RegionImpl(Region3i region, ListMultimap<Class<? extends WorldFacet>, FacetProvider> facetProviderChains,
+                      Map<Class<? extends WorldFacet>, Border3D> borders,
+                      SetMultimap<FacetProvider, Class<? extends WorldFacet>> columnProviders, ColumnFacetCache.Column column) {
         this.region = region;
         this.facetProviderChains = facetProviderChains;
         this.borders = borders;
+        this.columnProviders = columnProviders;
+        this.column = column;
     }
 
     @Override
@@ -48,7 +67,13 @@ public <T extends WorldFacet> T getFacet(Class<T> dataType) {
         if (facet == null) {
             for (FacetProvider provider : facetProviderChains.get(dataType)) {
                 if (!processedProviders.contains(provider)) {
-                    provider.process(this);
+                    if (column != null && columnProviders.containsKey(provider)) {
+                        for (Class<? extends WorldFacet> columnFacet : columnProviders.get(provider)) {
+                            setColumnFacet(columnFacet);
+                        }
+                    } else {
+                        provider.process(this);
+                    }
                     processedProviders.add(provider);
                 }
             }
@@ -58,6 +83,10 @@ public <T extends WorldFacet> T getFacet(Class<T> dataType) {
         return facet;
     }
 
+    private <T extends WorldFacet> void setColumnFacet(Class<T> type) {
+        generatingFacets.put(type, column.getFacet(type));
+    }
+
     @Override
     public Region3i getRegion() {
         return region;
@@ -18,6 +18,7 @@
 import org.terasology.math.Region3i;
 import org.terasology.world.chunks.CoreChunk;
 
+import java.util.Collection;
 import java.util.Map;
 import java.util.Set;
 
@@ -36,6 +37,22 @@ public interface World {
 
     void rasterizeChunk(CoreChunk chunk, EntityBuffer buffer);
 
+    /**
+     * Drops the cached 2D facets of all columns that don't overlap any of the given regions.
+     *
+     * @param relevantRegions the regions that may still get generated, in block coordinates
+     */
+    default void retainCachedColumns(Collection<Region3i> relevantRegions) {
+    }
+
+    /**
+     * Limits the number of columns whose 2D facets get cached, dropping the least recently used ones first.
+     *
+     * @param maxColumns the number of columns that may still get generated, usually derived from the view distance
+     */
+    default void setMaxCachedColumns(int maxColumns) {
+    }
+
     /**
      * @return a <b>new</b> set containing all facet classes
      */
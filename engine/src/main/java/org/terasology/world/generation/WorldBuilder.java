@@ -16,9 +16,11 @@
 package org.terasology.world.generation;
 
 import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ImmutableSetMultimap;
 import com.google.common.collect.ListMultimap;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import com.google.common.collect.SetMultimap;
 import com.google.common.collect.Sets;
 
 import org.slf4j.Logger;
@@ -98,7 +100,75 @@ public World build() {
             provider.setSeed(seed);
         }
         ListMultimap<Class<? extends WorldFacet>, FacetProvider> providerChains = determineProviderChains();
-        return new WorldImpl(providerChains, rasterizers, entityProviders, determineBorders(providerChains), seaLevel);
+        return new WorldImpl(providerChains, rasterizers, entityProviders, determineBorders(providerChains),
+                determineColumnProviders(providerChains), seaLevel);
+    }
+
+    /**
+     * Determines the providers whose output only depends on the x/z extent of a region. These are the providers that
+     * only produce, update and require 2D facets, and whose facets are only calculated by such providers.
+     *
+     * @return the column providers, mapped to the facets they produce or update
+     */
+    private SetMultimap<FacetProvider, Class<? extends WorldFacet>> determineColumnProviders(
+            ListMultimap<Class<? extends WorldFacet>, FacetProvider> providerChains) {
+        Set<FacetProvider> columnProviders = new LinkedHashSet<>();
+        for (FacetProvider provider : providerChains.values()) {
+            if (!writtenFacets(provider).isEmpty() && allFacets2D(touchedFacets(provider))) {
+                columnProviders.add(provider);
+            }
+        }
+
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            Iterator<FacetProvider> iterator = columnProviders.iterator();
+            while (iterator.hasNext()) {
+                FacetProvider provider = iterator.next();
+                for (Class<? extends WorldFacet> facet : touchedFacets(provider)) {
+                    if (!columnProviders.containsAll(providerChains.get(facet))) {
+                        iterator.remove();
+                        changed = true;
+                        break;
+                    }
+                }
+            }
+        }
+
+        ImmutableSetMultimap.Builder<FacetProvider, Class<? extends WorldFacet>> result = ImmutableSetMultimap.builder();
+        for (FacetProvider provider : columnProviders) {
+            result.putAll(provider, writtenFacets(provider));
+        }
+        return result.build();
+    }
+
+    private Set<Class<? extends WorldFacet>> writtenFacets(FacetProvider provider) {
+        Set<Class<? extends WorldFacet>> facets = new LinkedHashSet<>();
+        Produces produces = provider.getClass().getAnnotation(Produces.class);
+        if (produces != null) {
+            facets.addAll(Arrays.asList(produces.value()));
+        }
+        for (Facet updated : updatedFacets(provider)) {
+            facets.add(updated.value());
+        }
+        return facets;
+    }
+
+    private Set<Class<? extends WorldFacet>> touchedFacets(FacetProvider provider) {
+        Set<Class<? extends WorldFacet>> facets = writtenFacets(provider);
+        for (Facet requirement : requiredFacets(provider)) {
+            facets.add(requirement.value());
+        }
+        return facets;
+    }
+
+    private boolean allFacets2D(Set<Class<? extends WorldFacet>> facets) {
+        for (Class<? extends WorldFacet> facet : facets) {
+            if (!WorldFacet2D.class.isAssignableFrom(facet)) {
+                return false;
+            }
+        }
+        return true;
     }
 
     private Map<Class<? extends WorldFacet>, Border3D> determineBorders(ListMultimap<Class<? extends WorldFacet>, FacetProvider> providerChains) {
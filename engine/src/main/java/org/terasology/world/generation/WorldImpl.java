@@ -26,27 +26,38 @@
 
 import com.google.common.collect.ListMultimap;
 import com.google.common.collect.Maps;
+import com.google.common.collect.SetMultimap;
 import com.google.common.collect.Sets;
 
 /**
  * @author Immortius
  */
 public class WorldImpl implements World {
+    /**
+     * The number of cached columns until the chunk provider derives it from the relevance regions.
+     */
+    private static final int DEFAULT_MAX_CACHED_COLUMNS = 1024;
+
     private final ListMultimap<Class<? extends WorldFacet>, FacetProvider> facetProviderChains;
     private final List<WorldRasterizer> worldRasterizers;
     private final List<EntityProvider> entityProviders;
     private final Map<Class<? extends WorldFacet>, Border3D> borders;
+    private final SetMultimap<FacetProvider, Class<? extends WorldFacet>> columnProviders;
+    private final ColumnFacetCache columnFacetCache;
     private final int seaLevel;
 
     public WorldImpl(ListMultimap<Class<? extends WorldFacet>, FacetProvider> facetProviderChains,
                      List<WorldRasterizer> worldRasterizers,
                      List<EntityProvider> entityProviders,
                      Map<Class<? extends WorldFacet>, Border3D> borders,
+                     SetMultimap<FacetProvider, Class<? extends WorldFacet>> columnProviders,
                      int seaLevel) {
         this.facetProviderChains = facetProviderChains;
         this.worldRasterizers = worldRasterizers;
         this.entityProviders = entityProviders;
         this.borders = borders;
+        this.columnProviders = columnProviders;
+        this.columnFacetCache = new ColumnFacetCache(DEFAULT_MAX_CACHED_COLUMNS, facetProviderChains, borders);
         this.seaLevel = seaLevel;
     }
 
@@ -62,7 +73,8 @@ public int getSeaLevel() {
 
     @Override
     public void rasterizeChunk(CoreChunk chunk, EntityBuffer buffer) {
-        Region chunkRegion = getWorldData(chunk.getRegion());
+        Region3i region = chunk.getRegion();
+        Region chunkRegion = new RegionImpl(region, facetProviderChains, borders, columnProviders, columnFacetCache.getColumn(region));
         for (WorldRasterizer rasterizer : worldRasterizers) {
             rasterizer.generateChunk(chunk, chunkRegion);
         }
@@ -71,6 +83,16 @@ public void rasterizeChunk(CoreChunk chunk, EntityBuffer buffer) {
         }
     }
 
+    @Override
+    public void retainCachedColumns(Collection<Region3i> relevantRegions) {
+        columnFacetCache.retainColumns(relevantRegions);
+    }
+
+    @Override
+    public void setMaxCachedColumns(int maxColumns) {
+        columnFacetCache.setMaxColumns(maxColumns);
+    }
+
     @Override
     public Map<String, Class<? extends WorldFacet>> getNamedFacets() {
         Map<String, Class<? extends WorldFacet>> facets = Maps.newHashMap();
@@ -128,6 +128,30 @@ public Block setBlock(Vector3i pos, Block type) {
         return null;
     }
 
+    @Override
+    public Map<Vector3i, Block> setBlocks(Map<Vector3i, Block> blocks) {
+        if (GameThread.isCurrentThread()) {
+            Map<Vector3i, Block> oldBlocks = super.setBlocks(blocks);
+            for (Map.Entry<Vector3i, Block> entry : oldBlocks.entrySet()) {
+                Vector3i pos = entry.getKey();
+                Block oldType = entry.getValue();
+                Block type = blocks.get(pos);
+                // Only positions that have an entity or need one get an entity, instead of a temporary one for each
+                EntityRef blockEntity = getExistingBlockEntityAt(pos);
+                if (!blockEntity.exists() && (type.isKeepActive() || !isSameBlockEntityType(oldType, type))) {
+                    blockEntity = createBlockEntity(pos, oldType);
+                }
+                if (blockEntity.exists()) {
+                    updateBlockEntity(blockEntity, pos, oldType, type, false, Collections.<Class<? extends Component>>emptySet());
+                } else {
+                    notifyBlockRegion(pos, oldType, type);
+                }
+            }
+            return oldBlocks;
+        }
+        return Collections.emptyMap();
+    }
+
     @Override
     @SafeVarargs
     public final Block setBlockRetainComponent(Vector3i pos, Block type, Class<? extends Component>... components) {
@@ -149,14 +173,25 @@ private void updateBlockEntity(EntityRef blockEntity, Vector3i pos, Block oldTyp
         } else if (oldType.isKeepActive() && isTemporaryBlock(blockEntity, type)) {
             temporaryBlockEntities.add(blockEntity);
         }
-        if (forceEntityUpdate || !(Objects.equal(oldType.getBlockFamily(), type.getBlockFamily()) && Objects.equal(oldType.getPrefab(), type.getPrefab()))) {
+        if (forceEntityUpdate || !isSameBlockEntityType(oldType, type)) {
             updateBlockEntityComponents(blockEntity, oldType, type, retainComponents);
         }
+        notifyBlockRegion(pos, oldType, type);
+        blockEntity.send(new OnChangedBlock(new Vector3i(pos), type, oldType));
+    }
+
+    /**
+     * @return whether a block entity can stay as it is when its block changes between the given types.
+     */
+    private static boolean isSameBlockEntityType(Block oldType, Block type) {
+        return Objects.equal(oldType.getBlockFamily(), type.getBlockFamily()) && Objects.equal(oldType.getPrefab(), type.getPrefab());
+    }
+
+    private void notifyBlockRegion(Vector3i pos, Block oldType, Block type) {
         EntityRef regionEntity = blockRegionLookup.get(pos);
         if (regionEntity != null) {
             regionEntity.send(new OnChangedBlock(pos, type, oldType));
         }
-        blockEntity.send(new OnChangedBlock(new Vector3i(pos), type, oldType));
     }
 
     @Override
@@ -0,0 +1,296 @@
+/*
+ * Copyright 2015 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.world.internal;
+
+import org.terasology.math.Region3i;
+import org.terasology.math.TeraMath;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.world.ChunkView;
+import org.terasology.world.biomes.Biome;
+import org.terasology.world.block.Block;
+import org.terasology.world.chunks.ChunkConstants;
+import org.terasology.world.liquid.LiquidData;
+
+import java.util.Arrays;
+
+/**
+ * A read only copy of a chunk and a border of one block taken from its neighbours, as seen by a chunk view.
+ * <br><br>
+ * The block ids, light and sunlight are copied into flat arrays once, so that tessellation and the calculation of the
+ * vertex lighting can read them without holding the chunk locks, and without the bounds check, chunk lookup and
+ * block manager lookup that every access through a {@link ChunkViewCoreImpl} costs.
+ * <br><br>
+ * The snapshot uses the local coordinates of the view it was taken from: the chunk covers 0 to the chunk size - 1,
+ * the border -1 and the chunk size. Anything outside of that is reported as the view reports positions outside of it.
+ */
+public final class PaddedChunkSnapshot implements ChunkView {
+
+    public static final int SIZE_X = ChunkConstants.SIZE_X + 2;
+    public static final int SIZE_Y = ChunkConstants.SIZE_Y + 2;
+    public static final int SIZE_Z = ChunkConstants.SIZE_Z + 2;
+
+    private static final Region3i REGION = Region3i.createFromMinMax(new Vector3i(-1, -1, -1),
+            new Vector3i(ChunkConstants.SIZE_X, ChunkConstants.SIZE_Y, ChunkConstants.SIZE_Z));
+
+    private final short[] blockIds;
+    private final Block[] blocksById;
+    private final byte[] sunlight;
+    private final byte[] light;
+    private final byte[] liquids;
+    private final Biome[] biomes;
+
+    private final Block defaultBlock;
+    private final Biome defaultBiome;
+    private final Vector3i worldOffset;
+    private final Region3i chunkRegion;
+
+    private PaddedChunkSnapshot(ChunkView view) {
+        int volume = SIZE_X * SIZE_Y * SIZE_Z;
+        blockIds = new short[volume];
+        sunlight = new byte[volume];
+        light = new byte[volume];
+        liquids = new byte[volume];
+        biomes = new Biome[volume];
+
+        Vector3i outside = new Vector3i(view.getWorldRegion().max());
+        outside.add(1, 1, 1);
+        defaultBlock = view.getBlock(outside);
+        defaultBiome = view.getBiome(outside);
+        worldOffset = view.toWorldPos(Vector3i.zero());
+        chunkRegion = view.getChunkRegion();
+
+        Block[] blocks = new Block[16];
+        Block lastBlock = null;
+        for (int y = -1; y <= ChunkConstants.SIZE_Y; y++) {
+            for (int z = -1; z <= ChunkConstants.SIZE_Z; z++) {
+                for (int x = -1; x <= ChunkConstants.SIZE_X; x++) {
+                    int index = index(x, y, z);
+                    Block block = view.getBlock(x, y, z);
+                    if (block != lastBlock) {
+                        int id = block.getId() & 0xFFFF;
+                        if (id >= blocks.length) {
+                            blocks = Arrays.copyOf(blocks, Math.max(id + 1, blocks.length * 2));
+                        }
+                        blocks[id] = block;
+                        lastBlock = block;
+                    }
+                    blockIds[index] = block.getId();
+                    sunlight[index] = view.getSunlight(x, y, z);
+                    light[index] = view.getLight(x, y, z);
+                    liquids[index] = view.getLiquid(x, y, z).toByte();
+                    biomes[index] = view.getBiome(x, y, z);
+                }
+            }
+        }
+        blocksById = blocks;
+    }
+
+    /**
+     * Copies the chunk at the local origin of the view and its border. The view has to be read locked while the
+     * snapshot gets taken, the snapshot itself needs no locking.
+     *
+     * @param view the view to copy, or a snapshot which is returned as it is
+     */
+    public static PaddedChunkSnapshot of(ChunkView view) {
+        if (view instanceof PaddedChunkSnapshot) {
+            return (PaddedChunkSnapshot) view;
+        }
+        return new PaddedChunkSnapshot(view);
+    }
+
+    /**
+     * @return the index of the given local position into the arrays of the snapshot, if it is contained in it.
+     */
+    public static int index(int x, int y, int z) {
+        return (x + 1) + SIZE_X * ((z + 1) + SIZE_Z * (y + 1));
+    }
+
+    public static boolean contains(int x, int y, int z) {
+        return x >= -1 && x <= ChunkConstants.SIZE_X && y >= -1 && y <= ChunkConstants.SIZE_Y && z >= -1 && z <= ChunkConstants.SIZE_Z;
+    }
+
+    /**
+     * @param index an index as calculated by {@link #index(int, int, int)}
+     */
+    public Block getBlockAt(int index) {
+        return blocksById[blockIds[index] & 0xFFFF];
+    }
+
+    /**
+     * @param index an index as calculated by {@link #index(int, int, int)}
+     */
+    public byte getSunlightAt(int index) {
+        return sunlight[index];
+    }
+
+    /**
+     * @param index an index as calculated by {@link #index(int, int, int)}
+     */
+    public byte getLightAt(int index) {
+        return light[index];
+    }
+
+    @Override
+    public Block getBlock(float x, float y, float z) {
+        return getBlock(TeraMath.floorToInt(x + 0.5f), TeraMath.floorToInt(y + 0.5f), TeraMath.floorToInt(z + 0.5f));
+    }
+
+    @Override
+    public Block getBlock(Vector3i pos) {
+        return getBlock(pos.x, pos.y, pos.z);
+    }
+
+    @Override
+    public Block getBlock(int x, int y, int z) {
+        return contains(x, y, z) ? getBlockAt(index(x, y, z)) : defaultBlock;
+    }
+
+    @Override
+    public Biome getBiome(float x, float y, float z) {
+        return getBiome(TeraMath.floorToInt(x + 0.5f), TeraMath.floorToInt(y + 0.5f), TeraMath.floorToInt(z + 0.5f));
+    }
+
+    @Override
+    public Biome getBiome(Vector3i pos) {
+        return getBiome(pos.x, pos.y, pos.z);
+    }
+
+    @Override
+    public Biome getBiome(int x, int y, int z) {
+        return contains(x, y, z) ? biomes[index(x, y, z)] : defaultBiome;
+    }
+
+    @Override
+    public byte getSunlight(float x, float y, float z) {
+        return getSunlight(TeraMath.floorToInt(x + 0.5f), TeraMath.floorToInt(y + 0.5f), TeraMath.floorToInt(z + 0.5f));
+    }
+
+    @Override
+    public byte getSunlight(Vector3i pos) {
+        return getSunlight(pos.x, pos.y, pos.z);
+    }
+
+    @Override
+    public byte getSunlight(int x, int y, int z) {
+        return contains(x, y, z) ? sunlight[index(x, y, z)] : 0;
+    }
+
+    @Override
+    public byte getLight(float x, float y, float z) {
+        return getLight(TeraMath.floorToInt(x + 0.5f), TeraMath.floorToInt(y + 0.5f), TeraMath.floorToInt(z + 0.5f));
+    }
+
+    @Override
+    public byte getLight(Vector3i pos) {
+        return getLight(pos.x, pos.y, pos.z);
+    }
+
+    @Override
+    public byte getLight(int x, int y, int z) {
+        return contains(x, y, z) ? light[index(x, y, z)] : 0;
+    }
+
+    @Override
+    public LiquidData getLiquid(Vector3i pos) {
+        return getLiquid(pos.x, pos.y, pos.z);
+    }
+
+    @Override
+    public LiquidData getLiquid(int x, int y, int z) {
+        return contains(x, y, z) ? new LiquidData(liquids[index(x, y, z)]) : new LiquidData();
+    }
+
+    @Override
+    public void setBlock(Vector3i pos, Block type) {
+        throw new UnsupportedOperationException("Chunk snapshots are read only");
+    }
+
+    @Override
+    public void setBlock(int x, int y, int z, Block type) {
+        throw new UnsupportedOperationException("Chunk snapshots are read only");
+    }
+
+    @Override
+    public void setBiome(Vector3i pos, Biome biome) {
+        throw new UnsupportedOperationException("Chunk snapshots are read only");
+    }
+
+    @Override
+    public void setBiome(int x, int y, int z, Biome biome) {
+        throw new UnsupportedOperationException("Chunk snapshots are read only");
+    }
+
+    @Override
+    public void setLiquid(Vector3i pos, LiquidData newState) {
+        throw new UnsupportedOperationException("Chunk snapshots are read only");
+    }
+
+    @Override
+    public void setLiquid(int x, int y, int z, LiquidData newState) {
+        throw new UnsupportedOperationException("Chunk snapshots are read only");
+    }
+
+    @Override
+    public Vector3i toWorldPos(Vector3i localPos) {
+        return new Vector3i(localPos.x + worldOffset.x, localPos.y + worldOffset.y, localPos.z + worldOffset.z);
+    }
+
+    @Override
+    public Region3i getWorldRegion() {
+        return REGION;
+    }
+
+    @Override
+    public Region3i getChunkRegion() {
+        return chunkRegion;
+    }
+
+    @Override
+    public void setDirtyAround(Vector3i blockPos) {
+        throw new UnsupportedOperationException("Chunk snapshots are read only");
+    }
+
+    @Override
+    public void setDirtyAround(Region3i blockRegion) {
+        throw new UnsupportedOperationException("Chunk snapshots are read only");
+    }
+
+    @Override
+    public void writeLock() {
+    }
+
+    @Override
+    public void writeUnlock() {
+    }
+
+    @Override
+    public void readLock() {
+    }
+
+    @Override
+    public void readUnlock() {
+    }
+
+    @Override
+    public boolean isLocked() {
+        return false;
+    }
+
+    @Override
+    public boolean isValidView() {
+        return true;
+    }
+}
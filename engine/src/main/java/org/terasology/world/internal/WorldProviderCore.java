@@ -25,6 +25,8 @@
 import org.terasology.world.time.WorldTime;
 
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * Provides the basic interface for all world providers.
@@ -105,6 +107,25 @@ public interface WorldProviderCore {
      */
     Block setBlock(Vector3i pos, Block type);
 
+    /**
+     * Places many blocks at once. This is a lot cheaper than placing each block individually, as the changes get
+     * applied per chunk and listeners get notified once for all of them.
+     *
+     * @param blocks The block types to set, by world position
+     * @return The previous block types of all given positions in loaded chunks, including those that already had the
+     * requested type. Positions in chunks that are not loaded are left out
+     */
+    default Map<Vector3i, Block> setBlocks(Map<Vector3i, Block> blocks) {
+        Map<Vector3i, Block> oldBlocks = new HashMap<>();
+        for (Map.Entry<Vector3i, Block> entry : blocks.entrySet()) {
+            Block oldBlock = setBlock(entry.getKey(), entry.getValue());
+            if (oldBlock != null) {
+                oldBlocks.put(entry.getKey(), oldBlock);
+            }
+        }
+        return oldBlocks;
+    }
+
     /**
      * Changes the biome at the given position.
      *
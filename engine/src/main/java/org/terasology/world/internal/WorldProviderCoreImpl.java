@@ -21,6 +21,7 @@
 import com.google.common.collect.FluentIterable;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.terasology.context.Context;
@@ -62,6 +63,7 @@
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * @author Immortius
@@ -214,6 +216,74 @@ public Block setBlock(Vector3i worldPos, Block type) {
         return null;
     }
 
+    @Override
+    public Map<Vector3i, Block> setBlocks(Map<Vector3i, Block> blocks) {
+        Map<Vector3i, Map<Vector3i, Block>> blocksByChunk = Maps.newHashMap();
+        for (Map.Entry<Vector3i, Block> entry : blocks.entrySet()) {
+            Vector3i chunkPos = ChunkMath.calcChunkPos(entry.getKey());
+            Map<Vector3i, Block> chunkBlocks = blocksByChunk.get(chunkPos);
+            if (chunkBlocks == null) {
+                chunkBlocks = Maps.newHashMap();
+                blocksByChunk.put(chunkPos, chunkBlocks);
+            }
+            chunkBlocks.put(entry.getKey(), entry.getValue());
+        }
+
+        Map<Vector3i, Block> oldBlocks = Maps.newHashMapWithExpectedSize(blocks.size());
+        List<BlockChange> changes = Lists.newArrayList();
+        Set<Vector3i> dirtiedChunkPositions = Sets.newHashSet();
+        for (Map.Entry<Vector3i, Map<Vector3i, Block>> chunkEntry : blocksByChunk.entrySet()) {
+            CoreChunk chunk = chunkProvider.getChunk(chunkEntry.getKey());
+            if (chunk == null) {
+                continue;
+            }
+            chunk.writeLock();
+            try {
+                for (Map.Entry<Vector3i, Block> entry : chunkEntry.getValue().entrySet()) {
+                    Vector3i worldPos = entry.getKey();
+                    Block type = entry.getValue();
+                    Block oldBlockType = chunk.setBlock(ChunkMath.calcBlockPos(worldPos), type);
+                    oldBlocks.put(worldPos, oldBlockType);
+                    if (oldBlockType != type) {
+                        changes.add(new BlockChange(worldPos, oldBlockType, type));
+                        for (Vector3i pos : ChunkMath.getChunkRegionAroundWorldPos(worldPos, 1)) {
+                            dirtiedChunkPositions.add(pos);
+                        }
+                    }
+                }
+            } finally {
+                chunk.writeUnlock();
+            }
+        }
+
+        for (BlockChange change : changes) {
+            BlockChange oldChange = blockChanges.get(change.getPosition());
+            if (oldChange == null) {
+                blockChanges.put(change.getPosition(), new BlockChange(change.getPosition(), change.getFrom(), change.getTo()));
+            } else {
+                oldChange.setTo(change.getTo());
+            }
+        }
+        for (Vector3i pos : dirtiedChunkPositions) {
+            RenderableChunk dirtiedChunk = chunkProvider.getChunk(pos);
+            if (dirtiedChunk != null) {
+                dirtiedChunk.setDirty(true);
+            }
+        }
+        if (!changes.isEmpty()) {
+            notifyBlocksChanged(changes);
+        }
+        return oldBlocks;
+    }
+
+    private void notifyBlocksChanged(Collection<BlockChange> changes) {
+        synchronized (listeners) {
+            for (WorldChangeListener listener : listeners) {
+                listener.onBlocksChanged(changes);
+            }
+        }
+    }
+
     private void notifyBlockChanged(Vector3i pos, Block type, Block oldType) {
         // TODO: Could use a read/write writeLock.
         // TODO: Review, should only happen on main thread (as should changes to listeners)
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2015 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.world.propagation;
+
+import gnu.trove.map.TLongIntMap;
+import gnu.trove.map.hash.TLongIntHashMap;
+import org.terasology.math.geom.Vector3i;
+
+import java.util.Arrays;
+
+/**
+ * A queue of block positions without duplicates that keeps the order in which positions got added, like a
+ * LinkedHashSet of Vector3i. The positions get stored packed into longs, so that neither adding nor removing
+ * positions allocates once the queue has grown to its working size.
+ * <br><br>
+ * Each coordinate gets packed into 21 bits, so positions must be within -2^20 and 2^20 - 1 on every axis. Packing a
+ * position outside of that range fails with an IllegalArgumentException instead of silently aliasing another position.
+ * <br><br>
+ * Removed positions stay in the underlying array until the queue gets cleared. Use {@link #isQueued(int)} to skip
+ * them when iterating over the slots.
+ */
+final class PositionQueue {
+    private static final int INITIAL_CAPACITY = 64;
+    private static final int BITS = 21;
+    private static final long MASK = (1L << BITS) - 1;
+    private static final int SHIFT = Long.SIZE - BITS;
+    private static final int MIN_COORDINATE = -(1 << (BITS - 1));
+
+    private long[] positions = new long[INITIAL_CAPACITY];
+    private int size;
+    private final TLongIntMap slots = new TLongIntHashMap(INITIAL_CAPACITY, 0.5f, Long.MIN_VALUE, -1);
+
+    public static long pack(Vector3i pos) {
+        return pack(pos.x, pos.y, pos.z);
+    }
+
+    public static long pack(int x, int y, int z) {
+        // Offset by 2^20 every valid coordinate fits into the lower 21 bits, everything else (including overflows) doesn't
+        if ((((x - MIN_COORDINATE) | (y - MIN_COORDINATE) | (z - MIN_COORDINATE)) >>> BITS) != 0) {
+            throw new IllegalArgumentException("Position (" + x + ", " + y + ", " + z + ") is out of the packable range");
+        }
+        return ((x & MASK) << (2 * BITS)) | ((y & MASK) << BITS) | (z & MASK);
+    }
+
+    /**
+     * Stores the position in the given vector.
+     */
+    public static void unpack(long packedPos, Vector3i result) {
+        // Shifting the coordinate to the top of the long and back restores its sign
+        result.set((int) ((packedPos << (SHIFT - 2 * BITS)) >> SHIFT),
+                (int) ((packedPos << (SHIFT - BITS)) >> SHIFT),
+                (int) ((packedPos << SHIFT) >> SHIFT));
+    }
+
+    /**
+     * @return false if the position was already queued.
+     */
+    public boolean add(long packedPos) {
+        if (slots.containsKey(packedPos)) {
+            return false;
+        }
+        if (size == positions.length) {
+            positions = Arrays.copyOf(positions, size * 2);
+        }
+        positions[size] = packedPos;
+        slots.put(packedPos, size);
+        size++;
+        return true;
+    }
+
+    public void remove(long packedPos) {
+        slots.remove(packedPos);
+    }
+
+    public boolean isEmpty() {
+        return slots.isEmpty();
+    }
+
+    /**
+     * @return the number of slots, including the slots of removed positions.
+     */
+    public int slotCount() {
+        return size;
+    }
+
+    /**
+     * @return true if the position in the slot is still queued, i.e. it has not been removed since it got added.
+     */
+    public boolean isQueued(int slot) {
+        return slots.get(positions[slot]) == slot;
+    }
+
+    public long get(int slot) {
+        return positions[slot];
+    }
+
+    public void clear() {
+        if (size > 0) {
+            slots.clear();
+            size = 0;
+        }
+    }
+}
@@ -16,7 +16,6 @@
 package org.terasology.world.propagation;
 
 import com.google.common.collect.Maps;
-import com.google.common.collect.Sets;
 import org.terasology.math.ChunkMath;
 import org.terasology.math.Region3i;
 import org.terasology.math.Side;
@@ -27,10 +26,12 @@
 
 import java.util.Arrays;
 import java.util.Map;
-import java.util.Set;
 
 /**
  * Batch propagator that works on a set of changed blocks
+ * <br><br>
+ * The positions waiting to be processed are kept in {@link PositionQueue}s, one per value, which are reused between
+ * batches. Positions get unpacked into scratch vectors, so processing a batch does not allocate a vector per block.
  *
  * @author Immortius
  */
@@ -41,8 +42,12 @@ public class StandardBatchPropagator implements BatchPropagator {
     private PropagationRules rules;
     private PropagatorWorldView world;
 
-    private Set<Vector3i>[] reduceQueues;
-    private Set<Vector3i>[] increaseQueues;
+    private PositionQueue[] reduceQueues;
+    private PositionQueue[] increaseQueues;
+    private PositionQueue spareQueue = new PositionQueue();
+
+    private final Vector3i currentPos = new Vector3i();
+    private final Vector3i neighbourPos = new Vector3i();
 
     private Map<Side, Vector3i> chunkEdgeDeltas = Maps.newEnumMap(Side.class);
 
@@ -70,11 +75,11 @@ public StandardBatchPropagator(PropagationRules rules, PropagatorWorldView world
             chunkEdgeDeltas.put(side, delta);
         }
 
-        increaseQueues = new Set[rules.getMaxValue()];
-        reduceQueues = new Set[rules.getMaxValue()];
+        increaseQueues = new PositionQueue[rules.getMaxValue()];
+        reduceQueues = new PositionQueue[rules.getMaxValue()];
         for (int i = 0; i < rules.getMaxValue(); ++i) {
-            increaseQueues[i] = Sets.newLinkedHashSet();
-            reduceQueues[i] = Sets.newLinkedHashSet();
+            increaseQueues[i] = new PositionQueue();
+            reduceQueues[i] = new PositionQueue();
         }
 
     }
@@ -96,34 +101,38 @@ public void process(Iterable<BlockChange> blockChanges) {
     }
 
     private void reviewChange(BlockChange blockChange) {
-        byte newValue = rules.getFixedValue(blockChange.getTo(), blockChange.getPosition());
-        byte existingValue = world.getValueAt(blockChange.getPosition());
+        Vector3i position = blockChange.getPosition();
+        long packedPos = PositionQueue.pack(position);
+        byte newValue = rules.getFixedValue(blockChange.getTo(), position);
+        byte existingValue = world.getValueAt(position);
         if (newValue > existingValue) {
-            increase(blockChange.getPosition(), newValue);
+            increase(packedPos, position, newValue);
         }
 
-        byte oldValue = rules.getFixedValue(blockChange.getFrom(), blockChange.getPosition());
+        byte oldValue = rules.getFixedValue(blockChange.getFrom(), position);
         if (newValue < oldValue) {
-            reduce(blockChange.getPosition(), oldValue);
+            reduce(packedPos, oldValue);
         }
 
         for (Side side : Side.values()) {
             PropagationComparison comparison = rules.comparePropagation(blockChange.getTo(), blockChange.getFrom(), side);
             if (comparison.isRestricting() && existingValue > 0) {
-                reduce(blockChange.getPosition(), existingValue);
-                Vector3i adjPos = side.getAdjacentPos(blockChange.getPosition());
-                byte adjValue = world.getValueAt(adjPos);
+                reduce(packedPos, existingValue);
+                neighbourPos.set(position);
+                neighbourPos.add(side.getVector3i());
+                byte adjValue = world.getValueAt(neighbourPos);
                 if (adjValue == rules.propagateValue(existingValue, side, blockChange.getFrom())) {
-                    reduce(adjPos, adjValue);
+                    reduce(PositionQueue.pack(neighbourPos), adjValue);
                 }
             } else if (comparison.isPermitting()) {
                 if (existingValue > 0) {
-                    queueSpreadValue(blockChange.getPosition(), existingValue);
+                    queueSpreadValue(packedPos, existingValue);
                 }
-                Vector3i adjPos = side.getAdjacentPos(blockChange.getPosition());
-                byte adjValue = world.getValueAt(adjPos);
+                neighbourPos.set(position);
+                neighbourPos.add(side.getVector3i());
+                byte adjValue = world.getValueAt(neighbourPos);
                 if (adjValue != PropagatorWorldView.UNAVAILABLE) {
-                    queueSpreadValue(adjPos, adjValue);
+                    queueSpreadValue(PositionQueue.pack(neighbourPos), adjValue);
                 }
             }
         }
@@ -133,44 +142,48 @@ private void processReduction() {
         int depth = 0;
         while (depth < rules.getMaxValue()) {
             byte oldValue = (byte) (rules.getMaxValue() - depth);
-            Set<Vector3i> toProcess = reduceQueues[depth];
+            PositionQueue toProcess = reduceQueues[depth];
             if (!toProcess.isEmpty()) {
-                reduceQueues[depth] = Sets.newLinkedHashSetWithExpectedSize(toProcess.size());
+                // Positions reduced to the same value while processing get processed in the next pass
+                reduceQueues[depth] = spareQueue;
 
-                for (Vector3i pos : toProcess) {
-                    purge(pos, oldValue);
-                }
-                if (toProcess.isEmpty()) {
-                    depth++;
+                for (int i = 0; i < toProcess.slotCount(); ++i) {
+                    if (toProcess.isQueued(i)) {
+                        purge(toProcess.get(i), oldValue);
+                    }
                 }
+                toProcess.clear();
+                spareQueue = toProcess;
             } else {
                 depth++;
             }
         }
     }
 
-    private void purge(Vector3i pos, byte oldValue) {
-        Block block = world.getBlockAt(pos);
-        increaseQueues[rules.getMaxValue() - oldValue].remove(pos);
-        byte fixedValue = rules.getFixedValue(block, pos);
+    private void purge(long packedPos, byte oldValue) {
+        PositionQueue.unpack(packedPos, currentPos);
+        Block block = world.getBlockAt(currentPos);
+        increaseQueues[rules.getMaxValue() - oldValue].remove(packedPos);
+        byte fixedValue = rules.getFixedValue(block, currentPos);
         if (fixedValue > 0) {
-            increase(pos, fixedValue);
+            increase(packedPos, currentPos, fixedValue);
         } else {
-            world.setValueAt(pos, NO_VALUE);
+            world.setValueAt(currentPos, NO_VALUE);
         }
 
         for (Side side : Side.values()) {
             byte expectedValue = rules.propagateValue(oldValue, side, block);
-            Vector3i adjPos = side.getAdjacentPos(pos);
             if (rules.canSpreadOutOf(block, side)) {
-                byte adjValue = world.getValueAt(adjPos);
+                neighbourPos.set(currentPos);
+                neighbourPos.add(side.getVector3i());
+                byte adjValue = world.getValueAt(neighbourPos);
                 if (adjValue == expectedValue) {
-                    Block adjBlock = world.getBlockAt(adjPos);
+                    Block adjBlock = world.getBlockAt(neighbourPos);
                     if (rules.canSpreadInto(adjBlock, side.reverse())) {
-                        reduce(adjPos, expectedValue);
+                        reduce(PositionQueue.pack(neighbourPos), expectedValue);
                     }
                 } else if (adjValue > 0) {
-                    queueSpreadValue(adjPos, adjValue);
+                    queueSpreadValue(PositionQueue.pack(neighbourPos), adjValue);
                 }
             }
         }
@@ -180,33 +193,36 @@ private void processIncrease() {
         int depth = 0;
         while (depth < rules.getMaxValue() - 1) {
             byte value = (byte) (rules.getMaxValue() - depth);
-            Set<Vector3i> toProcess = increaseQueues[depth];
+            PositionQueue toProcess = increaseQueues[depth];
             if (!toProcess.isEmpty()) {
-                increaseQueues[depth] = Sets.newLinkedHashSetWithExpectedSize(toProcess.size());
+                increaseQueues[depth] = spareQueue;
 
-                for (Vector3i pos : toProcess) {
-                    push(pos, value);
-                }
-                if (increaseQueues[depth].isEmpty()) {
-                    depth++;
+                for (int i = 0; i < toProcess.slotCount(); ++i) {
+                    if (toProcess.isQueued(i)) {
+                        push(toProcess.get(i), value);
+                    }
                 }
+                toProcess.clear();
+                spareQueue = toProcess;
             } else {
                 depth++;
             }
         }
     }
 
-    private void push(Vector3i pos, byte value) {
-        Block block = world.getBlockAt(pos);
+    private void push(long packedPos, byte value) {
+        PositionQueue.unpack(packedPos, currentPos);
+        Block block = world.getBlockAt(currentPos);
         for (Side side : Side.values()) {
             byte spreadValue = rules.propagateValue(value, side, block);
-            Vector3i adjPos = side.getAdjacentPos(pos);
             if (rules.canSpreadOutOf(block, side)) {
-                byte adjValue = world.getValueAt(adjPos);
+                neighbourPos.set(currentPos);
+                neighbourPos.add(side.getVector3i());
+                byte adjValue = world.getValueAt(neighbourPos);
                 if (adjValue < spreadValue && adjValue != PropagatorWorldView.UNAVAILABLE) {
-                    Block adjBlock = world.getBlockAt(adjPos);
+                    Block adjBlock = world.getBlockAt(neighbourPos);
                     if (rules.canSpreadInto(adjBlock, side.reverse())) {
-                        increase(adjPos, spreadValue);
+                        increase(PositionQueue.pack(neighbourPos), neighbourPos, spreadValue);
                     }
                 }
             }
@@ -214,25 +230,25 @@ private void push(Vector3i pos, byte value) {
     }
 
     private void cleanUp() {
-        for (Set<Vector3i> queue : increaseQueues) {
+        for (PositionQueue queue : increaseQueues) {
             queue.clear();
         }
     }
 
-    private void increase(Vector3i position, byte value) {
+    private void increase(long packedPos, Vector3i position, byte value) {
         world.setValueAt(position, value);
-        queueSpreadValue(position, value);
+        queueSpreadValue(packedPos, value);
     }
 
-    private void queueSpreadValue(Vector3i position, byte value) {
+    private void queueSpreadValue(long packedPos, byte value) {
         if (value > 1) {
-            increaseQueues[rules.getMaxValue() - value].add(position);
+            increaseQueues[rules.getMaxValue() - value].add(packedPos);
         }
     }
 
-    private void reduce(Vector3i position, byte oldValue) {
+    private void reduce(long packedPos, byte oldValue) {
         if (oldValue > 0) {
-            reduceQueues[rules.getMaxValue() - oldValue].add(position);
+            reduceQueues[rules.getMaxValue() - oldValue].add(packedPos);
         }
     }
 
@@ -278,7 +294,7 @@ private void propagateDepth(LitChunk adjChunk, Side side, boolean propagateExter
                 adjPos.add(chunkEdgeDeltas.get(side));
                 byte value = rules.getValue(adjChunk, adjPos);
                 if (value > 1) {
-                    queueSpreadValue(adjChunk.chunkToWorldPosition(adjPos), value);
+                    queueSpreadValue(PositionQueue.pack(adjChunk.chunkToWorldPosition(adjPos)), value);
                 }
             }
         }
@@ -370,18 +386,18 @@ public int getIndexFor(int x, int y, int z) {
     }
 
     @Override
-    public void propagateFrom(Vector3i pos, Block block) {
-        queueSpreadValue(pos, rules.getFixedValue(block, pos));
+    public void propagateFrom(Vector3i position, Block block) {
+        queueSpreadValue(PositionQueue.pack(position), rules.getFixedValue(block, position));
     }
 
     @Override
-    public void propagateFrom(Vector3i pos, byte value) {
-        queueSpreadValue(pos, value);
+    public void propagateFrom(Vector3i position, byte value) {
+        queueSpreadValue(PositionQueue.pack(position), value);
     }
 
     @Override
-    public void regenerate(Vector3i pos, byte value) {
-        reduce(pos, value);
+    public void regenerate(Vector3i position, byte value) {
+        reduce(PositionQueue.pack(position), value);
     }
 
     private interface IndexProvider {
@@ -15,7 +15,6 @@
  */
 package org.terasology.world.propagation;
 
-import com.google.common.collect.Sets;
 import org.terasology.math.ChunkMath;
 import org.terasology.math.Side;
 import org.terasology.math.geom.Vector3i;
@@ -24,7 +23,6 @@
 import org.terasology.world.chunks.LitChunk;
 
 import java.util.Arrays;
-import java.util.Set;
 
 /**
  * Batch propagator that works on a set of changed blocks
@@ -38,8 +36,10 @@ public class SunlightRegenBatchPropagator implements BatchPropagator {
     private PropagatorWorldView sunlightWorld;
     private BatchPropagator sunlightPropagator;
 
-    private Set<Vector3i>[] reduceQueues;
-    private Set<Vector3i>[] increaseQueues;
+    private PositionQueue[] reduceQueues;
+    private PositionQueue[] increaseQueues;
+
+    private final Vector3i currentPos = new Vector3i();
 
     public SunlightRegenBatchPropagator(PropagationRules regenRules, PropagatorWorldView regenWorld, BatchPropagator sunlightPropagator, PropagatorWorldView sunlightWorld) {
         this.regenRules = regenRules;
@@ -47,11 +47,11 @@ public SunlightRegenBatchPropagator(PropagationRules regenRules, PropagatorWorld
         this.sunlightPropagator = sunlightPropagator;
         this.sunlightWorld = sunlightWorld;
 
-        increaseQueues = new Set[regenRules.getMaxValue() + 1];
-        reduceQueues = new Set[regenRules.getMaxValue() + 1];
+        increaseQueues = new PositionQueue[regenRules.getMaxValue() + 1];
+        reduceQueues = new PositionQueue[regenRules.getMaxValue() + 1];
         for (int i = 0; i < regenRules.getMaxValue() + 1; ++i) {
-            increaseQueues[i] = Sets.newLinkedHashSet();
-            reduceQueues[i] = Sets.newLinkedHashSet();
+            increaseQueues[i] = new PositionQueue();
+            reduceQueues[i] = new PositionQueue();
         }
     }
 
@@ -103,29 +103,32 @@ private void reviewChangeToTop(BlockChange blockChange) {
     }
 
     private void queueSpreadRegen(Vector3i position, byte value) {
-        increaseQueues[value].add(position);
+        increaseQueues[value].add(PositionQueue.pack(position));
     }
 
     private void processRegenReduction() {
         for (byte depth = 0; depth <= regenRules.getMaxValue(); depth++) {
-            Set<Vector3i> toProcess = reduceQueues[depth];
+            PositionQueue toProcess = reduceQueues[depth];
 
-            for (Vector3i pos : toProcess) {
-                purge(pos);
+            for (int i = 0; i < toProcess.slotCount(); ++i) {
+                if (toProcess.isQueued(i)) {
+                    purge(toProcess.get(i));
+                }
             }
             toProcess.clear();
         }
     }
 
-    private void purge(Vector3i pos) {
-        int expectedValue = regenWorld.getValueAt(pos);
+    private void purge(long packedPos) {
+        Vector3i position = currentPos;
+        PositionQueue.unpack(packedPos, position);
+        int expectedValue = regenWorld.getValueAt(position);
         if (expectedValue != 0) {
-            Vector3i position = new Vector3i(pos);
             for (byte i = 0; i <= ChunkConstants.MAX_SUNLIGHT_REGEN; ++i) {
                 if (regenWorld.getValueAt(position) == expectedValue) {
                     regenWorld.setValueAt(position, i);
                     if (expectedValue - ChunkConstants.SUNLIGHT_REGEN_THRESHOLD > 0) {
-                        sunlightPropagator.regenerate(new Vector3i(position), (byte) (expectedValue - ChunkConstants.SUNLIGHT_REGEN_THRESHOLD));
+                        sunlightPropagator.regenerate(position, (byte) (expectedValue - ChunkConstants.SUNLIGHT_REGEN_THRESHOLD));
                     }
                 } else {
                     break;
@@ -140,19 +143,22 @@ private void purge(Vector3i pos) {
 
     private void processRegenIncrease() {
         for (byte depth = regenRules.getMaxValue(); depth >= 0; depth--) {
-            Set<Vector3i> toProcess = increaseQueues[depth];
+            PositionQueue toProcess = increaseQueues[depth];
 
-            for (Vector3i pos : toProcess) {
-                push(pos, depth);
+            for (int i = 0; i < toProcess.slotCount(); ++i) {
+                if (toProcess.isQueued(i)) {
+                    push(toProcess.get(i), depth);
+                }
             }
             toProcess.clear();
         }
     }
 
-    private void push(Vector3i pos, byte value) {
+    private void push(long packedPos, byte value) {
         byte regenValue = value;
-        Block block = regenWorld.getBlockAt(pos);
-        Vector3i position = new Vector3i(pos);
+        Vector3i position = currentPos;
+        PositionQueue.unpack(packedPos, position);
+        Block block = regenWorld.getBlockAt(position);
         while (regenRules.canSpreadOutOf(block, Side.BOTTOM)) {
             regenValue = regenRules.propagateValue(regenValue, Side.BOTTOM, block);
             position.y -= 1;
@@ -161,13 +167,13 @@ private void push(Vector3i pos, byte value) {
                 block = regenWorld.getBlockAt(position);
                 if (regenRules.canSpreadInto(block, Side.TOP)) {
                     regenWorld.setValueAt(position, regenValue);
-                    reduceQueues[adjValue].remove(position);
+                    reduceQueues[adjValue].remove(PositionQueue.pack(position));
                     byte sunlightValue = (byte) (regenValue - ChunkConstants.SUNLIGHT_REGEN_THRESHOLD);
                     if (sunlightValue > 0) {
                         byte prevValue = sunlightWorld.getValueAt(position);
                         if (prevValue < sunlightValue) {
                             sunlightWorld.setValueAt(position, sunlightValue);
-                            sunlightPropagator.propagateFrom(new Vector3i(position), sunlightValue);
+                            sunlightPropagator.propagateFrom(position, sunlightValue);
                         }
                     }
                 } else {
@@ -184,7 +190,7 @@ private void cleanUp() {
 
     private void reduce(Vector3i position, byte oldValue) {
         if (oldValue > 0) {
-            reduceQueues[oldValue].add(position);
+            reduceQueues[oldValue].add(PositionQueue.pack(position));
         }
     }
 
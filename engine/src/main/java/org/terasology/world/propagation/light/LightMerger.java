@@ -16,8 +16,10 @@
 package org.terasology.world.propagation.light;
 
 import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.terasology.math.Region3i;
 import org.terasology.math.Side;
 import org.terasology.math.geom.Vector3i;
 import org.terasology.world.chunks.Chunk;
@@ -30,7 +32,9 @@
 import org.terasology.world.propagation.StandardBatchPropagator;
 import org.terasology.world.propagation.SunlightRegenBatchPropagator;
 
+import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
@@ -39,6 +43,12 @@
 import java.util.concurrent.TimeUnit;
 
 /**
+ * Merges the light of newly generated or loaded chunks with the light of their neighbours.
+ * <br><br>
+ * Several merges can run at the same time, as long as the 3x3x3 chunk neighbourhoods they lock don't overlap. The
+ * positions of those neighbourhoods stay reserved until the result of the merge got collected with
+ * {@link #completeMerges(int)}. Beginning and completing merges must happen on the same thread.
+ *
  * @author Immortius
  */
 public class LightMerger<T> {
@@ -46,8 +56,10 @@
 
     private static Logger logger = LoggerFactory.getLogger(LightMerger.class);
 
-    private ExecutorService executorService = Executors.newSingleThreadExecutor();
-    private Future<T> resultFuture;
+    private final int threadCount;
+    private ExecutorService executorService;
+    private final List<PendingMerge<T>> pendingMerges = Lists.newArrayList();
+    private final Set<Vector3i> reservedChunkPositions = Sets.newHashSet();
 
     private GeneratingChunkProvider chunkProvider;
     private LightPropagationRules lightRules = new LightPropagationRules();
@@ -56,30 +68,94 @@
     private boolean running = true;
 
     public LightMerger(GeneratingChunkProvider chunkProvider) {
+        this(chunkProvider, 1);
+    }
+
+    /**
+     * @param threadCount the maximum number of merges that run at the same time.
+     */
+    public LightMerger(GeneratingChunkProvider chunkProvider, int threadCount) {
         this.chunkProvider = chunkProvider;
+        this.threadCount = Math.max(1, threadCount);
+        this.executorService = createExecutorService();
     }
 
-    public void beginMerge(final Chunk chunk, final T data) {
-        resultFuture = executorService.submit(new Callable<T>() {
+    /**
+     * @return true if as many merges are running as there are threads, so that no merge can begin.
+     */
+    public boolean isBusy() {
+        int runningMerges = 0;
+        for (PendingMerge<T> merge : pendingMerges) {
+            if (!merge.future.isDone()) {
+                runningMerges++;
+            }
+        }
+        return runningMerges >= threadCount;
+    }
+
+    /**
+     * @return true if the chunk at the given position is part of the neighbourhood of a merge that has not been
+     *         completed yet.
+     */
+    public boolean isReserved(Vector3i chunkPos) {
+        return reservedChunkPositions.contains(chunkPos);
+    }
+
+    /**
+     * Begins the merge of the chunk, unless all threads are busy or the neighbourhood of the chunk overlaps with the
+     * neighbourhood of a merge that has not been completed yet.
+     *
+     * @return true if the merge has begun.
+     */
+    public boolean beginMerge(final Chunk chunk, final T data) {
+        if (isBusy()) {
+            return false;
+        }
+        Region3i neighbourhood = Region3i.createFromCenterExtents(chunk.getPosition(), 1);
+        for (Vector3i pos : neighbourhood) {
+            if (reservedChunkPositions.contains(pos)) {
+                return false;
+            }
+        }
+        for (Vector3i pos : neighbourhood) {
+            reservedChunkPositions.add(pos);
+        }
+        Future<T> future = executorService.submit(new Callable<T>() {
             @Override
             public T call() throws Exception {
                 merge(chunk);
                 return data;
             }
         });
+        pendingMerges.add(new PendingMerge<>(neighbourhood, future));
+        return true;
     }
 
-    public T completeMerge() {
-        if (resultFuture != null) {
-            try {
-                T result = resultFuture.get();
-                resultFuture = null;
-                return result;
-            } catch (InterruptedException | ExecutionException e) {
-                throw new RuntimeException("Error completing lighting merge");
+    /**
+     * Collects the results of finished merges, in the order the merges have begun. The neighbourhoods of the
+     * collected merges are no longer reserved afterwards.
+     *
+     * @param maxCount the maximum number of results to collect.
+     * @return the data passed to {@link #beginMerge(Chunk, Object)} for every collected merge.
+     */
+    public List<T> completeMerges(int maxCount) {
+        List<T> results = Lists.newArrayList();
+        Iterator<PendingMerge<T>> iterator = pendingMerges.iterator();
+        while (iterator.hasNext() && results.size() < maxCount) {
+            PendingMerge<T> merge = iterator.next();
+            if (merge.future.isDone()) {
+                iterator.remove();
+                for (Vector3i pos : merge.neighbourhood) {
+                    reservedChunkPositions.remove(pos);
+                }
+                try {
+                    results.add(merge.future.get());
+                } catch (InterruptedException | ExecutionException e) {
+                    throw new RuntimeException("Error completing lighting merge", e);
+                }
             }
         }
-        return null;
+        return results;
     }
 
     private void merge(Chunk chunk) {
@@ -162,8 +238,22 @@ public void shutdown() {
 
     public void restart() {
         if (!running) {
-            executorService = Executors.newSingleThreadExecutor();
+            executorService = createExecutorService();
             running = true;
         }
     }
+
+    private ExecutorService createExecutorService() {
+        return Executors.newFixedThreadPool(threadCount);
+    }
+
+    private static final class PendingMerge<T> {
+        private final Region3i neighbourhood;
+        private final Future<T> future;
+
+        private PendingMerge(Region3i neighbourhood, Future<T> future) {
+            this.neighbourhood = neighbourhood;
+            this.future = future;
+        }
+    }
 }
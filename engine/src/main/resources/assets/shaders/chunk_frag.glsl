@@ -71,6 +71,7 @@ varying vec3 normal;
 
 varying float blockHint;
 varying float isUpside;
+varying vec2 repeatedTile;
 
 uniform sampler2D textureWater;
 uniform sampler2D textureLava;
@@ -91,6 +92,12 @@ void main() {
 
     vec2 texCoord = gl_TexCoord[0].xy;
 
+    if (repeatedTile.x >= 0.0) {
+        // Wrap the coordinates of merged faces back into their tile, minus the border of BlockMeshPart
+        vec2 tileStart = repeatedTile + TEXTURE_OFFSET / 128.0;
+        texCoord = tileStart + mod(texCoord - tileStart, TEXTURE_OFFSET * (126.0 / 128.0));
+    }
+
     vec3 normalizedVPos = -normalize(vertexViewPos.xyz);
     vec2 projectedPos = projectVertexToTexCoord(vertexProjPos);
     vec3 normalOpaque = normal;
@@ -106,11 +106,20 @@ varying vec3 sunVecView;
 
 varying float isUpside;
 varying float blockHint;
+varying vec2 repeatedTile;
 
 void main()
 {
 	gl_TexCoord[0] = gl_MultiTexCoord0;
-	blockHint = int(gl_TexCoord[0].z);
+	blockHint = mod(gl_TexCoord[0].z, BLOCK_HINT_TILE_STRIDE);
+
+    // Merged faces carry the atlas tile they repeat, see ChunkVertexFlag
+    float tile = floor(gl_TexCoord[0].z / BLOCK_HINT_TILE_STRIDE) - 1.0;
+    if (tile >= 0.0) {
+        repeatedTile = vec2(mod(tile, BLOCK_HINT_TILES_PER_DIM), floor(tile / BLOCK_HINT_TILES_PER_DIM)) * TEXTURE_OFFSET;
+    } else {
+        repeatedTile = vec2(-1.0, -1.0);
+    }
 
     gl_TexCoord[1] = gl_MultiTexCoord1;
 